@@ -20,12 +20,19 @@ import static java.util.Collections.emptyMap;
 import static java.util.Collections.singleton;
 import static java.util.Collections.singletonList;
 import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasItems;
 import static org.hamcrest.Matchers.hasProperty;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.isIn;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.not;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.openlmis.requisition.domain.requisition.RequisitionStatus.APPROVED;
@@ -65,10 +72,15 @@ import org.openlmis.requisition.domain.requisition.StockAdjustment;
 import org.openlmis.requisition.domain.requisition.StockData;
 import org.openlmis.requisition.dto.ApprovedProductDto;
 import org.openlmis.requisition.dto.OrderableDto;
+import org.openlmis.requisition.dto.PeriodRequisitionDto;
 import org.openlmis.requisition.dto.ProgramDto;
 import org.openlmis.requisition.dto.ProgramOrderableDto;
+import org.openlmis.requisition.dto.ReportingRateRequisitionDto;
+import org.openlmis.requisition.exception.ValidationMessageException;
 import org.openlmis.requisition.testutils.AvailableRequisitionColumnDataBuilder;
+import org.openlmis.requisition.utils.KeysetPageable;
 import org.openlmis.requisition.utils.Pagination;
+import org.openlmis.requisition.utils.UncountedPageRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
@@ -162,6 +174,108 @@ public class RequisitionRepositoryIntegrationTest
     }
   }
 
+  @Test
+  public void shouldFindFacilityIdsWithRequisitions() {
+    UUID programId = UUID.randomUUID();
+    UUID periodId = UUID.randomUUID();
+    Requisition approved = generateInstance(UUID.randomUUID(), programId, periodId);
+    approved.setEmergency(false);
+    approved.setStatus(APPROVED);
+    repository.save(approved);
+
+    Requisition initiated = repository
+        .save(generateInstance(UUID.randomUUID(), programId, periodId));
+    Requisition otherPeriod = generateInstance(UUID.randomUUID(), programId, UUID.randomUUID());
+    otherPeriod.setStatus(APPROVED);
+    repository.save(otherPeriod);
+
+    List<UUID> facilityIds = repository.findFacilityIdsWithRequisitions(
+        asList(approved.getFacilityId(), initiated.getFacilityId(), otherPeriod.getFacilityId(),
+            UUID.randomUUID()),
+        programId, periodId, EnumSet.of(APPROVED, RELEASED));
+
+    assertEquals(singletonList(approved.getFacilityId()), facilityIds);
+  }
+
+  @Test
+  public void shouldFindReportingRateRequisitions() {
+    UUID programId = UUID.randomUUID();
+    UUID periodId = UUID.randomUUID();
+    Requisition approved = generateInstance(UUID.randomUUID(), programId, periodId);
+    approved.setEmergency(false);
+    approved.setStatus(APPROVED);
+    addStatusChanges(approved, 0);
+    repository.save(approved);
+
+    Requisition initiated = generateInstance(UUID.randomUUID(), programId, periodId);
+    initiated.setEmergency(false);
+    addStatusChanges(initiated, 0);
+    repository.save(initiated);
+
+    Requisition emergency = generateInstance(approved.getFacilityId(), programId, periodId);
+    emergency.setEmergency(true);
+    repository.save(emergency);
+
+    List<ReportingRateRequisitionDto> result = repository.findReportingRateRequisitions(
+        programId, singletonList(periodId),
+        asList(approved.getFacilityId(), initiated.getFacilityId()), APPROVED);
+
+    assertEquals(2, result.size());
+
+    ReportingRateRequisitionDto approvedResult = result.stream()
+        .filter(item -> approved.getId().equals(item.getId()))
+        .findFirst()
+        .orElseThrow(IllegalStateException::new);
+    assertEquals(approved.getFacilityId(), approvedResult.getFacilityId());
+    assertEquals(periodId, approvedResult.getProcessingPeriodId());
+    assertNotNull(approvedResult.getStatusChangeDate());
+
+    ReportingRateRequisitionDto initiatedResult = result.stream()
+        .filter(item -> initiated.getId().equals(item.getId()))
+        .findFirst()
+        .orElseThrow(IllegalStateException::new);
+    assertNull(initiatedResult.getStatusChangeDate());
+  }
+
+  @Test
+  public void shouldFindPeriodRequisitions() {
+    UUID facilityId = UUID.randomUUID();
+    UUID programId = UUID.randomUUID();
+    UUID periodId = UUID.randomUUID();
+    UUID otherPeriodId = UUID.randomUUID();
+
+    Requisition regular = generateInstance(facilityId, programId, periodId);
+    regular.setEmergency(false);
+    repository.save(regular);
+
+    Requisition other = generateInstance(facilityId, programId, otherPeriodId);
+    other.setEmergency(false);
+    repository.save(other);
+
+    Requisition otherFacility = generateInstance(UUID.randomUUID(), programId, periodId);
+    otherFacility.setEmergency(false);
+    repository.save(otherFacility);
+
+    Requisition emergency = generateInstance(facilityId, programId, periodId);
+    emergency.setEmergency(true);
+    repository.save(emergency);
+
+    List<PeriodRequisitionDto> result = repository.findPeriodRequisitions(
+        facilityId, programId, asList(periodId, otherPeriodId), false);
+
+    assertEquals(2, result.size());
+    assertThat(result.stream().map(PeriodRequisitionDto::getId).collect(Collectors.toList()),
+        hasItems(regular.getId(), other.getId()));
+
+    result = repository.findPeriodRequisitions(
+        facilityId, programId, singletonList(periodId), true);
+
+    assertEquals(1, result.size());
+    assertEquals(emergency.getId(), result.get(0).getId());
+    assertEquals(periodId, result.get(0).getProcessingPeriodId());
+    assertEquals(emergency.getStatus(), result.get(0).getStatus());
+  }
+
   @Test
   public void testSearchRequisitionsByModifiedDateFrom() {
 
@@ -275,6 +389,52 @@ public class RequisitionRepositoryIntegrationTest
     assertEquals(5, receivedRequisitions.size());
   }
 
+  @Test
+  public void shouldSearchRequisitionsWithKeysetPagination() {
+    List<UUID> found = new ArrayList<>();
+    Pageable pageable = new KeysetPageable(null, 2);
+    int pages = 0;
+
+    while (null != pageable) {
+      Page<Requisition> page = repository.searchRequisitions(
+          null, null, null, null, null,
+          null, null, null, null,
+          null, userPermissionStrings, pageable);
+
+      assertThat(page.getNumberOfElements(), is(lessThanOrEqualTo(2)));
+      page.forEach(requisition -> found.add(requisition.getId()));
+      pageable = page.nextPageable();
+      pages++;
+    }
+
+    assertEquals(3, pages);
+    assertThat(found, hasSize(5));
+    assertThat(found, containsInAnyOrder(requisitions.stream()
+        .map(Requisition::getId)
+        .toArray(UUID[]::new)));
+  }
+
+  @Test
+  public void shouldSearchRequisitionsWithoutCounting() {
+    Page<Requisition> page = repository.searchRequisitions(
+        null, null, null, null, null,
+        null, null, null, null,
+        null, userPermissionStrings, new UncountedPageRequest(new PageRequest(1, 2)));
+
+    assertThat(page.getContent(), hasSize(2));
+    assertTrue(page.hasNext());
+    assertEquals(5, page.getTotalElements());
+
+    page = repository.searchRequisitions(
+        null, null, null, null, null,
+        null, null, null, null,
+        null, userPermissionStrings, page.nextPageable());
+
+    assertThat(page.getContent(), hasSize(1));
+    assertFalse(page.hasNext());
+    assertEquals(5, page.getTotalElements());
+  }
+
   @Test
   public void testSearchEmergencyRequsitions() {
     List<Requisition> emergency = repository.searchRequisitions(
@@ -477,6 +637,37 @@ public class RequisitionRepositoryIntegrationTest
     assertEquals(2, results.getTotalElements());
   }
 
+  @Test
+  public void searchByProgramSupervisoryNodePairsShouldSupportKeysetPagination() {
+    // given
+    UUID programId = UUID.randomUUID();
+    UUID supervisoryNodeId = UUID.randomUUID();
+
+    for (Requisition requisition : requisitions.subList(0, 3)) {
+      requisition.setProgramId(programId);
+      requisition.setSupervisoryNodeId(supervisoryNodeId);
+      requisition.setStatus(RequisitionStatus.AUTHORIZED);
+      addStatusChanges(requisition, 0);
+      repository.save(requisition);
+    }
+
+    Set<Pair> programNodePairs = Sets.newHashSet(new ImmutablePair<>(programId, supervisoryNodeId));
+
+    // when
+    Page<Requisition> first = repository.searchApprovableRequisitionsByProgramSupervisoryNodePairs(
+        programNodePairs, new KeysetPageable(null, 2));
+    Page<Requisition> second = repository.searchApprovableRequisitionsByProgramSupervisoryNodePairs(
+        programNodePairs, first.nextPageable());
+
+    // then
+    assertThat(first.getContent(), hasSize(2));
+    assertTrue(first.hasNext());
+    assertThat(second.getContent(), hasSize(1));
+    assertFalse(second.hasNext());
+    assertThat(second.getContent().get(0).getId(),
+        is(not(isIn(first.getContent().stream().map(Requisition::getId).toArray()))));
+  }
+
   @Test
   public void searchByProgramSupervisoryNodePairsShouldSortEmergencyRequisitionsFirst() {
     // given
@@ -775,7 +966,8 @@ public class RequisitionRepositoryIntegrationTest
     Requisition requisition1 = generateRequisition(RequisitionStatus.APPROVED);
     Requisition requisition2 = generateRequisition(RequisitionStatus.APPROVED);
 
-    List<Requisition> requisitions = repository.searchApprovedRequisitions(null, null, null);
+    List<Requisition> requisitions = repository.searchApprovedRequisitions(null, null, null, null,
+        pageRequest).getContent();
 
     assertEquals(2, requisitions.size());
     for (Requisition r : requisitions) {
@@ -797,7 +989,8 @@ public class RequisitionRepositoryIntegrationTest
 
     List<Requisition> requisitions = repository.searchApprovedRequisitions("all",
         singletonList(requisition1.getFacilityId()),
-        singletonList(requisition1.getProgramId()));
+        singletonList(requisition1.getProgramId()),
+        null, pageRequest).getContent();
 
     assertEquals(1, requisitions.size());
     assertTrue(requisitions.get(0).getId().equals(requisition1.getId()));
@@ -810,7 +1003,8 @@ public class RequisitionRepositoryIntegrationTest
     generateRequisition(INITIATED, requisition1.getFacilityId(), requisition1.getProgramId());
 
     List<Requisition> requisitions = repository.searchApprovedRequisitions("facilityName",
-        Lists.newArrayList(requisition1.getFacilityId()), null);
+        Lists.newArrayList(requisition1.getFacilityId()), null,
+        null, pageRequest).getContent();
 
     assertEquals(1, requisitions.size());
     assertTrue(requisitions.get(0).getId().equals(requisition1.getId()));
@@ -823,7 +1017,8 @@ public class RequisitionRepositoryIntegrationTest
     generateRequisition(INITIATED, requisition1.getFacilityId(), requisition1.getProgramId());
 
     List<Requisition> requisitions = repository.searchApprovedRequisitions("programName",
-        null, Lists.newArrayList(requisition1.getProgramId()));
+        null, Lists.newArrayList(requisition1.getProgramId()),
+        null, pageRequest).getContent();
 
     assertEquals(1, requisitions.size());
     assertTrue(requisitions.get(0).getId().equals(requisition1.getId()));
@@ -836,7 +1031,8 @@ public class RequisitionRepositoryIntegrationTest
     generateRequisition(INITIATED, requisition1.getFacilityId(), requisition1.getProgramId());
 
     List<Requisition> requisitions = repository.searchApprovedRequisitions("facilityName",
-        Lists.newArrayList(requisition1.getFacilityId(), requisition2.getFacilityId()), null);
+        Lists.newArrayList(requisition1.getFacilityId(), requisition2.getFacilityId()), null,
+        null, pageRequest).getContent();
 
     assertEquals(2, requisitions.size());
     List<UUID> requisitionIds = requisitions.stream()
@@ -853,12 +1049,106 @@ public class RequisitionRepositoryIntegrationTest
     generateRequisition(INITIATED, requisition1.getFacilityId(), requisition1.getProgramId());
 
     List<Requisition> requisitions = repository.searchApprovedRequisitions("facilityName",
-        Collections.emptyList(), Collections.emptyList());
+        Collections.emptyList(), Collections.emptyList(),
+        null, pageRequest).getContent();
 
     assertNotNull(requisitions);
     assertTrue(requisitions.isEmpty());
   }
 
+  @Test
+  public void shouldSortAndPageApprovedRequisitions() {
+    Requisition requisition1 = generateApprovedRequisition("Family Planning", false);
+    Requisition requisition2 = generateApprovedRequisition("Essential Meds", false);
+    Requisition requisition3 = generateApprovedRequisition("New program", true);
+
+    Page<Requisition> first = repository.searchApprovedRequisitions(null, null, null, null,
+        new PageRequest(0, 2));
+    Page<Requisition> second = repository.searchApprovedRequisitions(null, null, null, null,
+        new PageRequest(1, 2));
+
+    assertEquals(3, first.getTotalElements());
+    assertThat(first.getContent().stream().map(Requisition::getId).collect(Collectors.toList()),
+        contains(requisition3.getId(), requisition2.getId()));
+    assertThat(second.getContent().stream().map(Requisition::getId).collect(Collectors.toList()),
+        contains(requisition1.getId()));
+  }
+
+  @Test
+  public void shouldSortApprovedRequisitionsByGivenProperty() {
+    Requisition requisition1 = generateApprovedRequisition("Family Planning", false);
+    Requisition requisition2 = generateApprovedRequisition("Essential Meds", false);
+    requisition1.setFacilityName("Balaka District Hospital");
+    requisition2.setFacilityName("Comfort Health Clinic");
+    repository.save(Lists.newArrayList(requisition1, requisition2));
+
+    List<Requisition> requisitions = repository.searchApprovedRequisitions(null, null, null,
+        null, new PageRequest(0, 10, Direction.DESC, "facilityName")).getContent();
+
+    assertThat(requisitions.stream().map(Requisition::getId).collect(Collectors.toList()),
+        contains(requisition2.getId(), requisition1.getId()));
+  }
+
+  @Test(expected = ValidationMessageException.class)
+  public void shouldNotSortApprovedRequisitionsByUnknownProperty() {
+    generateApprovedRequisition("Family Planning", false);
+
+    repository.searchApprovedRequisitions(null, null, null, null,
+        new PageRequest(0, 10, Direction.ASC, "status"));
+  }
+
+  @Test
+  public void shouldFilterApprovedRequisitionsByProgramNodePairs() {
+    Requisition requisition1 = generateRequisition(RequisitionStatus.APPROVED);
+    generateRequisition(RequisitionStatus.APPROVED);
+
+    Set<Pair<UUID, UUID>> pairs = Collections.singleton(
+        Pair.of(requisition1.getProgramId(), requisition1.getSupervisoryNodeId()));
+
+    List<Requisition> requisitions = repository.searchApprovedRequisitions(null, null, null,
+        pairs, pageRequest).getContent();
+
+    assertEquals(1, requisitions.size());
+    assertEquals(requisition1.getId(), requisitions.get(0).getId());
+    assertTrue(repository.searchApprovedRequisitions(null, null, null,
+        Collections.emptySet(), pageRequest).getContent().isEmpty());
+  }
+
+  @Test
+  public void shouldFindApprovedProgramSupervisoryNodePairs() {
+    Requisition requisition1 = generateRequisition(RequisitionStatus.APPROVED);
+    Requisition requisition2 = generateRequisition(RequisitionStatus.APPROVED);
+    generateRequisition(INITIATED, UUID.randomUUID(), UUID.randomUUID());
+
+    Set<Pair<UUID, UUID>> pairs = repository.findApprovedProgramSupervisoryNodePairs();
+
+    assertThat(pairs, containsInAnyOrder(
+        Pair.of(requisition1.getProgramId(), requisition1.getSupervisoryNodeId()),
+        Pair.of(requisition2.getProgramId(), requisition2.getSupervisoryNodeId())));
+  }
+
+  @Test
+  public void shouldUpdateOnlyChangedFacilityAndProgramNames() {
+    Requisition requisition = generateRequisition(RequisitionStatus.APPROVED);
+
+    assertThat(repository.findFacilityIdsByStatus(RequisitionStatus.APPROVED),
+        contains(requisition.getFacilityId()));
+    assertThat(repository.findProgramIdsByStatus(RequisitionStatus.APPROVED),
+        contains(requisition.getProgramId()));
+
+    assertEquals(1, repository
+        .updateFacilityNames(requisition.getFacilityId(), "Comfort Health Clinic", "HC01"));
+    assertEquals(1, repository.updateProgramNames(requisition.getProgramId(), "Family Planning"));
+
+    assertEquals(0, repository
+        .updateFacilityNames(requisition.getFacilityId(), "Comfort Health Clinic", "HC01"));
+    assertEquals(0, repository.updateProgramNames(requisition.getProgramId(), "Family Planning"));
+
+    assertEquals(1, repository
+        .updateFacilityNames(requisition.getFacilityId(), "Balaka District Hospital", "HC01"));
+    assertEquals(1, repository.updateProgramNames(requisition.getProgramId(), "EPI"));
+  }
+
   @Test
   public void shouldReadById() {
     List<Requisition> requisitions = repository.readDistinctByIdIn(
@@ -880,6 +1170,37 @@ public class RequisitionRepositoryIntegrationTest
     assertEquals(1, found.size());
   }
 
+  @Test
+  public void shouldFindRegularRequisitionsForPeriods() {
+    UUID facilityId = UUID.randomUUID();
+    UUID programId = UUID.randomUUID();
+    UUID periodId = UUID.randomUUID();
+    UUID otherPeriodId = UUID.randomUUID();
+
+    Requisition requisition = generateInstance(facilityId, programId, periodId);
+    requisition.setEmergency(false);
+    requisition.setRequisitionLineItems(
+        asList(generateLineItem(requisition), generateLineItem(requisition)));
+    repository.save(requisition);
+
+    Requisition other = generateInstance(facilityId, programId, otherPeriodId);
+    other.setEmergency(false);
+    repository.save(other);
+
+    Requisition emergency = generateInstance(facilityId, programId, periodId);
+    emergency.setEmergency(true);
+    repository.save(emergency);
+
+    repository.save(generateInstance(UUID.randomUUID(), programId, periodId));
+
+    List<Requisition> found = repository
+        .findRegularRequisitions(facilityId, programId, asList(periodId, otherPeriodId));
+
+    assertEquals(2, found.size());
+    assertThat(found.stream().map(Requisition::getId).collect(Collectors.toList()),
+        hasItems(requisition.getId(), other.getId()));
+  }
+
   private RequisitionLineItem generateLineItem(Requisition requisition) {
     RequisitionLineItem item = new RequisitionLineItem();
     item.setRequisition(requisition);
@@ -902,6 +1223,14 @@ public class RequisitionRepositoryIntegrationTest
         Collections.singletonMap(RequisitionLineItem.BEGINNING_BALANCE, column)));
   }
 
+  private Requisition generateApprovedRequisition(String programName, boolean emergency) {
+    Requisition requisition = generateRequisition(RequisitionStatus.APPROVED);
+    requisition.setProgramName(programName);
+    requisition.setEmergency(emergency);
+
+    return repository.save(requisition);
+  }
+
   private Requisition generateRequisition(RequisitionStatus status) {
     return generateRequisition(status, UUID.randomUUID(), UUID.randomUUID());
   }
@@ -0,0 +1,99 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.repository;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.openlmis.requisition.Application;
+import org.slf4j.ext.XLogger;
+import org.slf4j.ext.XLoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.SpringApplicationConfiguration;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Runs the approved requisitions search with large facility filters. Every search uses a
+ * different number of ids, but the same statement text, so the JDBC driver switches to a
+ * server-side prepared statement after a few executions and the session ends up with exactly one
+ * prepared statement for the search and one for its count.
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ActiveProfiles("test")
+@SpringApplicationConfiguration(Application.class)
+@Transactional
+public class SearchApprovedRequisitionsBenchmarkIntegrationTest {
+  private static final XLogger LOGGER =
+      XLoggerFactory.getXLogger(SearchApprovedRequisitionsBenchmarkIntegrationTest.class);
+
+  private static final int FACILITIES = 5000;
+  private static final int RUNS = 20;
+
+  @Autowired
+  private RequisitionRepository repository;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Test
+  public void shouldReuseStatementForDifferentFacilityFilters() {
+    long[] durations = new long[RUNS];
+
+    for (int run = 0; run < RUNS; ++run) {
+      List<UUID> facilityIds = Stream
+          .generate(UUID::randomUUID)
+          .limit(FACILITIES + run)
+          .collect(toList());
+
+      long start = System.nanoTime();
+      repository.searchApprovedRequisitions("facilityName", facilityIds, null, null,
+          new PageRequest(0, 10));
+      durations[run] = System.nanoTime() - start;
+    }
+
+    Arrays.sort(durations);
+    LOGGER.info("Searched approved requisitions {} times with {} facilities, median: {} ms,"
+            + " max: {} ms", RUNS, FACILITIES,
+        TimeUnit.NANOSECONDS.toMillis(durations[RUNS / 2]),
+        TimeUnit.NANOSECONDS.toMillis(durations[RUNS - 1]));
+
+    assertThat(countPreparedStatements("SELECT r.id AS req_id%"), is(1));
+    assertThat(countPreparedStatements("SELECT COUNT(*) FROM requisition.requisitions%"), is(1));
+  }
+
+  private int countPreparedStatements(String prefix) {
+    Number count = (Number) entityManager
+        .createNativeQuery("SELECT COUNT(*) FROM pg_prepared_statements"
+            + " WHERE statement LIKE :prefix AND statement LIKE '%r.facilityid = ANY%'")
+        .setParameter("prefix", prefix)
+        .getSingleResult();
+
+    return count.intValue();
+  }
+}
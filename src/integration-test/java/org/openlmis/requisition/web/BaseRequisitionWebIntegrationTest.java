@@ -16,6 +16,7 @@
 package org.openlmis.requisition.web;
 
 import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyListOf;
@@ -76,6 +77,8 @@ public abstract class BaseRequisitionWebIntegrationTest extends BaseWebIntegrati
   void mockStockEventServiceResponses() {
     when(stockEventBuilder.fromRequisition(any(), any())).thenReturn(new StockEventDto());
     doNothing().when(stockEventStockManagementService).submit(any(StockEventDto.class));
+    when(stockEventStockManagementService.submitAll(anyMapOf(UUID.class, StockEventDto.class)))
+        .thenReturn(emptyMap());
   }
 
   void mockRepositorySaveAnswer() {
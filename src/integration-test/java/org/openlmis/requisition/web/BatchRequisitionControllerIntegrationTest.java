@@ -201,6 +201,15 @@ public class BatchRequisitionControllerIntegrationTest extends BaseRequisitionWe
         .when(facilityReferenceDataService)
         .search(requisitions.stream().map(Requisition::getFacilityId).collect(Collectors.toSet()));
 
+    List<ProcessingPeriodDto> periods = requisitions.stream()
+        .map(r -> periodReferenceDataService.findOne(r.getProcessingPeriodId()))
+        .collect(Collectors.toList());
+    doReturn(periods)
+        .when(periodReferenceDataService)
+        .findByIds(requisitions.stream()
+            .map(Requisition::getProcessingPeriodId)
+            .collect(Collectors.toSet()));
+
     mockSearchSupervisoryNodeByProgramAndFacility();
   }
 
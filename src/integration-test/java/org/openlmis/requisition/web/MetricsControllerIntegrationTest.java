@@ -0,0 +1,126 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.web;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItem;
+import static org.mockito.Mockito.doReturn;
+import static org.openlmis.requisition.service.PermissionService.REQUISITION_TEMPLATES_MANAGE;
+
+import com.jayway.restassured.http.ContentType;
+import guru.nidi.ramltester.junit.RamlMatchers;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.junit.Before;
+import org.junit.Test;
+import org.openlmis.requisition.dto.TimerDto;
+import org.openlmis.requisition.errorhandling.ValidationResult;
+import org.openlmis.requisition.metrics.Metrics;
+import org.springframework.http.HttpHeaders;
+
+public class MetricsControllerIntegrationTest extends BaseWebIntegrationTest {
+
+  private static final String RESOURCE_URL = "/api/metrics";
+  private static final String PROMETHEUS_URL = RESOURCE_URL + "/prometheus";
+  private static final String TIMER_NAME = "test.timer";
+
+  @Before
+  public void setUp() {
+    mockUserAuthenticated();
+    doReturn(ValidationResult.success()).when(permissionService).canViewMetrics();
+    Metrics.timer(TIMER_NAME, "stage", "TEST").record(5, TimeUnit.MILLISECONDS);
+  }
+
+  @Test
+  public void shouldReturnTimers() {
+    TimerDto[] timers = restAssured.given()
+        .header(HttpHeaders.AUTHORIZATION, getTokenHeader())
+        .when()
+        .get(RESOURCE_URL)
+        .then()
+        .statusCode(200)
+        .extract().as(TimerDto[].class);
+
+    List<String> names = Arrays.stream(timers)
+        .map(TimerDto::getName)
+        .collect(Collectors.toList());
+
+    assertThat(names, hasItem(TIMER_NAME));
+    assertThat(RAML_ASSERT_MESSAGE, restAssured.getLastReport(), RamlMatchers.hasNoViolations());
+  }
+
+  @Test
+  public void shouldReturnMetricsInPrometheusFormat() {
+    String text = restAssured.given()
+        .header(HttpHeaders.AUTHORIZATION, getTokenHeader())
+        .when()
+        .get(PROMETHEUS_URL)
+        .then()
+        .statusCode(200)
+        .contentType(ContentType.TEXT)
+        .extract().asString();
+
+    assertThat(text, containsString("test_timer_seconds_count{stage=\"TEST\"}"));
+    assertThat(RAML_ASSERT_MESSAGE, restAssured.getLastReport(), RamlMatchers.hasNoViolations());
+  }
+
+  @Test
+  public void shouldNotReturnTimersIfUserHasNoRight() {
+    mockNoViewMetricsRight();
+
+    restAssured.given()
+        .header(HttpHeaders.AUTHORIZATION, getTokenHeader())
+        .when()
+        .get(RESOURCE_URL)
+        .then()
+        .statusCode(403);
+
+    assertThat(RAML_ASSERT_MESSAGE, restAssured.getLastReport(), RamlMatchers.hasNoViolations());
+  }
+
+  @Test
+  public void shouldNotReturnMetricsInPrometheusFormatIfUserHasNoRight() {
+    mockNoViewMetricsRight();
+
+    restAssured.given()
+        .header(HttpHeaders.AUTHORIZATION, getTokenHeader())
+        .when()
+        .get(PROMETHEUS_URL)
+        .then()
+        .statusCode(403);
+
+    assertThat(RAML_ASSERT_MESSAGE, restAssured.getLastReport(), RamlMatchers.hasNoViolations());
+  }
+
+  @Test
+  public void shouldReturnUnauthorizedWithoutToken() {
+    restAssured.given()
+        .when()
+        .get(RESOURCE_URL)
+        .then()
+        .statusCode(401);
+
+    assertThat(RAML_ASSERT_MESSAGE, restAssured.getLastReport(), RamlMatchers.hasNoViolations());
+  }
+
+  private void mockNoViewMetricsRight() {
+    doReturn(ValidationResult.noPermission(PERMISSION_ERROR_MESSAGE, REQUISITION_TEMPLATES_MANAGE))
+        .when(permissionService).canViewMetrics();
+  }
+}
@@ -17,9 +17,11 @@ package org.openlmis.requisition.web;
 
 import static java.time.format.DateTimeFormatter.ISO_DATE;
 import static java.util.Collections.emptyMap;
+import static java.util.Collections.emptySet;
 import static java.util.Collections.singletonList;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.junit.Assert.assertEquals;
@@ -46,6 +48,7 @@ import static org.mockito.Mockito.when;
 import static org.openlmis.requisition.domain.requisition.Requisition.REQUISITION_LINE_ITEMS;
 import static org.openlmis.requisition.i18n.MessageKeys.ERROR_DUPLICATE_STATUS_CHANGE;
 import static org.openlmis.requisition.i18n.MessageKeys.ERROR_INCORRECT_VALUE;
+import static org.openlmis.requisition.i18n.MessageKeys.ERROR_INVALID_CONTINUATION_TOKEN;
 import static org.openlmis.requisition.i18n.MessageKeys.ERROR_NO_PERMISSION_TO_APPROVE_REQUISITION;
 import static org.openlmis.requisition.i18n.MessageKeys.ERROR_PERIOD_END_DATE_WRONG;
 import static org.openlmis.requisition.i18n.MessageKeys.ERROR_PROGRAM_NOT_FOUND;
@@ -115,10 +118,14 @@ import org.openlmis.requisition.service.referencedata.UserFulfillmentFacilitiesR
 import org.openlmis.requisition.service.stockmanagement.ValidReasonStockmanagementService;
 import org.openlmis.requisition.testutils.DtoGenerator;
 import org.openlmis.requisition.testutils.ProgramDtoDataBuilder;
+import org.openlmis.requisition.utils.ContinuationToken;
 import org.openlmis.requisition.utils.DateHelper;
 import org.openlmis.requisition.utils.DatePhysicalStockCountCompletedEnabledPredicate;
+import org.openlmis.requisition.utils.KeysetPage;
+import org.openlmis.requisition.utils.KeysetPageable;
 import org.openlmis.requisition.utils.Message;
 import org.openlmis.requisition.utils.Pagination;
+import org.openlmis.requisition.utils.UncountedPageRequest;
 import org.openlmis.requisition.validate.ReasonsValidator;
 import org.openlmis.requisition.validate.RequisitionVersionValidator;
 import org.postgresql.util.PSQLException;
@@ -167,6 +174,7 @@ public class RequisitionControllerIntegrationTest extends BaseRequisitionWebInte
   private static final String FACILITY_CODE_ASC = "facilityCode,asc";
   private static final String MODIFIED_DATE_FROM = "modifiedDateFrom";
   private static final String MODIFIED_DATE_TO = "modifiedDateTo";
+  private static final String CONTINUATION_TOKEN = "continuationToken";
 
   @MockBean
   private StatusMessageRepository statusMessageRepository;
@@ -516,6 +524,83 @@ public class RequisitionControllerIntegrationTest extends BaseRequisitionWebInte
     assertThat(RAML_ASSERT_MESSAGE, restAssured.getLastReport(), RamlMatchers.hasNoViolations());
   }
 
+  @Test
+  public void shouldFindRequisitionsWithKeysetPagination() {
+    // given
+    List<Requisition> requisitions =
+        generateRequisitions(RequisitionStatus.INITIATED, RequisitionStatus.SUBMITTED);
+    KeysetPageable pageable = new KeysetPageable(null, 1);
+
+    given(requisitionService.searchRequisitions(
+        eq(null), eq(null), eq(null), eq(null), eq(null), eq(null),
+        eq(null), eq(null), eq(emptySet()), eq(null), eq(pageable))
+    ).willReturn(KeysetPage.of(requisitions, pageable));
+
+    // when
+    String continuationToken = restAssured.given()
+        .header(HttpHeaders.AUTHORIZATION, getTokenHeader())
+        .queryParam(CONTINUATION_TOKEN, "")
+        .queryParam(SIZE, 1)
+        .when()
+        .get(SEARCH_URL)
+        .then()
+        .statusCode(200)
+        .body("content", hasSize(1))
+        .body("totalElements", is(-1))
+        .extract().path(CONTINUATION_TOKEN);
+
+    // then
+    assertEquals(ContinuationToken.of(requisitions.get(0)).encode(), continuationToken);
+    assertThat(RAML_ASSERT_MESSAGE, restAssured.getLastReport(), RamlMatchers.hasNoViolations());
+  }
+
+  @Test
+  public void shouldFindRequisitionsWithoutCounting() {
+    // given
+    List<Requisition> requisitions =
+        generateRequisitions(RequisitionStatus.INITIATED, RequisitionStatus.SUBMITTED);
+    UncountedPageRequest pageable = new UncountedPageRequest(new PageRequest(0, 1));
+
+    given(requisitionService.searchRequisitions(
+        eq(null), eq(null), eq(null), eq(null), eq(null), eq(null),
+        eq(null), eq(null), eq(emptySet()), eq(null), eq(pageable))
+    ).willReturn(UncountedPageRequest.getPage(requisitions, pageable));
+
+    // when
+    restAssured.given()
+        .header(HttpHeaders.AUTHORIZATION, getTokenHeader())
+        .queryParam("count", false)
+        .queryParam(SIZE, 1)
+        .when()
+        .get(SEARCH_URL)
+        .then()
+        .statusCode(200)
+        .body("content", hasSize(1))
+        .body("totalElements", is(2))
+        .body("last", is(false));
+
+    // then
+    assertThat(RAML_ASSERT_MESSAGE, restAssured.getLastReport(), RamlMatchers.hasNoViolations());
+  }
+
+  @Test
+  public void shouldRejectInvalidContinuationToken() {
+    // when
+    restAssured.given()
+        .header(HttpHeaders.AUTHORIZATION, getTokenHeader())
+        .queryParam(CONTINUATION_TOKEN, "invalid")
+        .when()
+        .get(SEARCH_URL)
+        .then()
+        .statusCode(400)
+        .body(MESSAGE, equalTo(getMessage(ERROR_INVALID_CONTINUATION_TOKEN, "invalid")));
+
+    // then
+    verify(requisitionService, never()).searchRequisitions(
+        any(), any(), any(), any(), any(), any(), any(), any(), any(), any(), any());
+    assertThat(RAML_ASSERT_MESSAGE, restAssured.getLastReport(), RamlMatchers.hasNoViolations());
+  }
+
   // POST /api/requisitions/{id}/submit
 
   @Test
@@ -0,0 +1,93 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.domain.requisition;
+
+import static org.openlmis.requisition.domain.requisition.RequisitionBenchmarkData.MONTHS_IN_PERIOD;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openlmis.requisition.domain.RequisitionTemplate;
+
+/**
+ * Compares calculation of template fields done for each line item separately, by the
+ * {@link PerLineItemCalculator} reference implementation from the test sources, with calculation
+ * done by {@link LineItemCalculationEngine} for all line items at once.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LineItemCalculationBenchmark {
+  @Param({"10", "100", "2000", "5000"})
+  private int lineItems;
+
+  private RequisitionTemplate template;
+  private RequisitionTemplatePlan plan;
+  private List<StockAdjustmentReason> reasons;
+  private List<RequisitionLineItem> items;
+
+  /**
+   * Prepares a template with all columns and line items with random values.
+   */
+  @Setup
+  public void setUp() {
+    RequisitionBenchmarkData data = new RequisitionBenchmarkData(lineItems);
+    template = data.getTemplate();
+    plan = RequisitionTemplatePlan.compile(template);
+    reasons = data.getReasons();
+    items = data.getRequisition().getRequisitionLineItems();
+  }
+
+  /**
+   * Calculates fields of each line item separately, as it was done before the engine was added.
+   */
+  @Benchmark
+  public List<RequisitionLineItem> perLineItem() {
+    PerLineItemCalculator calculator =
+        new PerLineItemCalculator(template, plan, reasons, MONTHS_IN_PERIOD);
+
+    for (RequisitionLineItem item : items) {
+      calculator.calculateAndSetFields(item);
+    }
+
+    return items;
+  }
+
+  /**
+   * Calculates fields of all line items at once.
+   */
+  @Benchmark
+  public List<RequisitionLineItem> columnar() {
+    new LineItemCalculationEngine(template, plan, reasons, MONTHS_IN_PERIOD)
+        .calculateAndSetFields(items);
+
+    return items;
+  }
+
+}
@@ -0,0 +1,154 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.domain.requisition;
+
+import static org.openlmis.requisition.CurrencyConfig.currencyCode;
+import static org.openlmis.requisition.domain.requisition.RequisitionBenchmarkData.MONTHS_IN_PERIOD;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.joda.money.CurrencyUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openlmis.requisition.domain.RequisitionTemplate;
+
+/**
+ * Measures formulas of {@link LineItemFieldsCalculator} applied to all line items of a
+ * requisition, one formula at a time.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LineItemFieldsCalculatorBenchmark {
+  @Param({"10", "100", "2000", "5000"})
+  private int lineItems;
+
+  private RequisitionTemplate template;
+  private List<StockAdjustmentReason> reasons;
+  private List<RequisitionLineItem> items;
+  private CurrencyUnit currency;
+
+  /**
+   * Prepares line items with random values.
+   */
+  @Setup
+  public void setUp() {
+    RequisitionBenchmarkData data = new RequisitionBenchmarkData(lineItems);
+    template = data.getTemplate();
+    reasons = data.getReasons();
+    items = data.getRequisition().getRequisitionLineItems();
+    currency = CurrencyUnit.of(currencyCode);
+  }
+
+  /**
+   * Calculates total losses and adjustments (D) of all line items.
+   */
+  @Benchmark
+  public void totalLossesAndAdjustments(Blackhole blackhole) {
+    for (RequisitionLineItem item : items) {
+      blackhole.consume(LineItemFieldsCalculator.calculateTotalLossesAndAdjustments(item, reasons));
+    }
+  }
+
+  /**
+   * Calculates stock on hand (E) of all line items.
+   */
+  @Benchmark
+  public void stockOnHand(Blackhole blackhole) {
+    for (RequisitionLineItem item : items) {
+      blackhole.consume(LineItemFieldsCalculator.calculateStockOnHand(item));
+    }
+  }
+
+  /**
+   * Calculates total consumed quantity (C) of all line items.
+   */
+  @Benchmark
+  public void totalConsumedQuantity(Blackhole blackhole) {
+    for (RequisitionLineItem item : items) {
+      blackhole.consume(LineItemFieldsCalculator.calculateTotalConsumedQuantity(item));
+    }
+  }
+
+  /**
+   * Calculates adjusted consumption (N) of all line items.
+   */
+  @Benchmark
+  public void adjustedConsumption(Blackhole blackhole) {
+    for (RequisitionLineItem item : items) {
+      blackhole.consume(LineItemFieldsCalculator
+          .calculateAdjustedConsumption(item, MONTHS_IN_PERIOD, true));
+    }
+  }
+
+  /**
+   * Includes copying of the previous adjusted consumptions, as it is done when the average
+   * consumption is set on a line item.
+   */
+  @Benchmark
+  public void averageConsumption(Blackhole blackhole) {
+    for (RequisitionLineItem item : items) {
+      List<Integer> consumptions = new ArrayList<>(item.getPreviousAdjustedConsumptions());
+      consumptions.add(item.getAdjustedConsumption());
+      blackhole.consume(LineItemFieldsCalculator.calculateAverageConsumption(consumptions));
+    }
+  }
+
+  /**
+   * Calculates maximum stock quantity (H) of all line items.
+   */
+  @Benchmark
+  public void maximumStockQuantity(Blackhole blackhole) {
+    for (RequisitionLineItem item : items) {
+      blackhole.consume(LineItemFieldsCalculator.calculateMaximumStockQuantity(item, template));
+    }
+  }
+
+  /**
+   * Calculates calculated order quantity (I) of all line items.
+   */
+  @Benchmark
+  public void calculatedOrderQuantity(Blackhole blackhole) {
+    for (RequisitionLineItem item : items) {
+      blackhole.consume(LineItemFieldsCalculator.calculateCalculatedOrderQuantity(item, template));
+    }
+  }
+
+  /**
+   * Calculates total cost of all line items.
+   */
+  @Benchmark
+  public void totalCost(Blackhole blackhole) {
+    for (RequisitionLineItem item : items) {
+      blackhole.consume(LineItemFieldsCalculator.calculateTotalCost(item, currency));
+    }
+  }
+
+}
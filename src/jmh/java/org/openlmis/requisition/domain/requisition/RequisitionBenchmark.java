@@ -0,0 +1,95 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.domain.requisition;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openlmis.requisition.dto.OrderableDto;
+
+/**
+ * Measures the requisition changes done when a requisition is updated, submitted and approved.
+ * Orderables are passed in, so only the work done by the domain object is measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RequisitionBenchmark {
+  @Param({"10", "100", "2000", "5000"})
+  private int lineItems;
+
+  private Requisition requisition;
+  private Requisition update;
+  private Map<UUID, OrderableDto> orderables;
+  private UUID userId;
+
+  /**
+   * Prepares an initiated requisition and an update with new values for all its line items.
+   */
+  @Setup
+  public void setUp() {
+    RequisitionBenchmarkData data = new RequisitionBenchmarkData(lineItems);
+    requisition = data.getRequisition();
+    update = data.createUpdate();
+    orderables = data.getOrderables();
+    userId = UUID.randomUUID();
+  }
+
+  /**
+   * Moves the requisition back to the initiated status, so it can be submitted again. Status
+   * changes are removed to keep memory usage flat between invocations.
+   */
+  @Setup(Level.Invocation)
+  public void resetStatus() {
+    requisition.setStatus(RequisitionStatus.INITIATED);
+    requisition.getStatusChanges().clear();
+  }
+
+  @Benchmark
+  public Requisition updateFrom() {
+    requisition.updateFrom(update, orderables, true);
+    return requisition;
+  }
+
+  @Benchmark
+  public Requisition submit() {
+    requisition.submit(orderables, userId, false);
+    return requisition;
+  }
+
+  @Benchmark
+  public Requisition approve() {
+    requisition.approve(null, orderables, Collections.emptyList(), userId);
+    return requisition;
+  }
+
+}
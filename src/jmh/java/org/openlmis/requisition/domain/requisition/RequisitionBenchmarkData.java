@@ -0,0 +1,134 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.domain.requisition;
+
+import static org.openlmis.requisition.CurrencyConfig.currencyCode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import lombok.Getter;
+import org.joda.money.CurrencyUnit;
+import org.joda.money.Money;
+import org.openlmis.requisition.domain.RequisitionTemplate;
+import org.openlmis.requisition.domain.RequisitionTemplateDataBuilder;
+import org.openlmis.requisition.dto.OrderableDto;
+import org.openlmis.requisition.dto.ReasonType;
+import org.openlmis.requisition.testutils.OrderableDtoDataBuilder;
+
+/**
+ * Synthetic requisition used by benchmarks. Line items get random but reproducible values, the
+ * same number of line items always produces the same data. Each line item has its own orderable
+ * and three stock adjustments. Values checked against the calculated ones are consistent, so
+ * benchmarks do not measure logging of mismatches.
+ */
+@Getter
+public class RequisitionBenchmarkData {
+  static final int MONTHS_IN_PERIOD = 1;
+
+  private final RequisitionTemplate template;
+  private final List<StockAdjustmentReason> reasons;
+  private final Map<UUID, OrderableDto> orderables;
+  private final Requisition requisition;
+
+  /**
+   * Creates an initiated requisition with the given number of full supply line items and a
+   * template with all columns displayed.
+   */
+  public RequisitionBenchmarkData(int lineItems) {
+    template = new RequisitionTemplateDataBuilder()
+        .withAllColumns()
+        .withAdditionalQuantityRequiredColumnDisplayed()
+        .build();
+    reasons = new ArrayList<>();
+    orderables = new HashMap<>(lineItems * 2);
+
+    for (ReasonType type : Arrays.asList(ReasonType.CREDIT, ReasonType.DEBIT, ReasonType.DEBIT)) {
+      StockAdjustmentReason reason = new StockAdjustmentReason();
+      reason.setReasonId(UUID.randomUUID());
+      reason.setReasonType(type);
+      reasons.add(reason);
+    }
+
+    UUID programId = UUID.randomUUID();
+    RequisitionDataBuilder builder = new RequisitionDataBuilder()
+        .withProgramId(programId)
+        .withTemplate(template);
+    reasons.forEach(builder::addStockAdjustmentReason);
+
+    Random random = new Random(lineItems);
+
+    for (int i = 0; i < lineItems; ++i) {
+      OrderableDto orderable = new OrderableDtoDataBuilder()
+          .withProgramOrderable(programId,
+              Money.of(CurrencyUnit.of(currencyCode), random.nextInt(100)))
+          .build();
+      orderables.put(orderable.getId(), orderable);
+
+      builder.addLineItem(createLineItem(random, UUID.randomUUID(), orderable.getId()));
+    }
+
+    requisition = builder.build();
+  }
+
+  /**
+   * Creates a copy of the requisition line items with the same ids, like the ones received in a
+   * requisition update request.
+   */
+  public Requisition createUpdate() {
+    List<RequisitionLineItem> lineItems = new ArrayList<>();
+    Random random = new Random(requisition.getRequisitionLineItems().size());
+
+    for (RequisitionLineItem existing : requisition.getRequisitionLineItems()) {
+      lineItems.add(createLineItem(random, existing.getId(), existing.getOrderableId()));
+    }
+
+    return new RequisitionDataBuilder()
+        .withLineItems(lineItems)
+        .build();
+  }
+
+  private RequisitionLineItem createLineItem(Random random, UUID id, UUID orderableId) {
+    RequisitionLineItem lineItem = new RequisitionLineItemDataBuilder()
+        .withId(id)
+        .withOrderableId(orderableId)
+        .setBeginningBalance(random.nextInt(1000))
+        .setTotalReceivedQuantity(random.nextInt(1000))
+        .setTotalConsumedQuantity(random.nextInt(1000))
+        .setTotalStockoutDays(random.nextInt(30))
+        .setRequestedQuantity(random.nextInt(1000))
+        .withAdditionalQuantityRequired(random.nextInt(10))
+        .build();
+
+    List<StockAdjustment> adjustments = new ArrayList<>();
+    for (StockAdjustmentReason reason : reasons) {
+      adjustments.add(new StockAdjustment(reason.getReasonId(), random.nextInt(100)));
+    }
+    lineItem.setStockAdjustments(adjustments);
+    lineItem.setTotalLossesAndAdjustments(LineItemFieldsCalculator
+        .calculateTotalLossesAndAdjustments(lineItem, reasons));
+    lineItem.setTotal(LineItemFieldsCalculator.calculateTotal(lineItem));
+    lineItem.setPreviousAdjustedConsumptions(Arrays.asList(random.nextInt(1000),
+        random.nextInt(1000)));
+
+    return lineItem;
+  }
+
+}
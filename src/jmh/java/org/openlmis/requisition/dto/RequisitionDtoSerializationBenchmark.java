@@ -0,0 +1,83 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openlmis.requisition.domain.requisition.Requisition;
+import org.openlmis.requisition.domain.requisition.RequisitionBenchmarkData;
+import org.openlmis.requisition.utils.RequisitionExportHelper;
+
+/**
+ * Measures serialization of a requisition DTO to JSON. The object mapper is configured like the
+ * one used by the service, with indented output measured separately.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RequisitionDtoSerializationBenchmark {
+  @Param({"10", "100", "2000", "5000"})
+  private int lineItems;
+
+  @Param({"true", "false"})
+  private boolean indentOutput;
+
+  private ObjectMapper objectMapper;
+  private RequisitionDto requisitionDto;
+
+  /**
+   * Prepares the object mapper and a requisition DTO with line items and template.
+   */
+  @Setup
+  public void setUp() {
+    objectMapper = new ObjectMapper()
+        .findAndRegisterModules()
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .configure(SerializationFeature.INDENT_OUTPUT, indentOutput);
+
+    RequisitionBenchmarkData data = new RequisitionBenchmarkData(lineItems);
+    Requisition requisition = data.getRequisition();
+
+    requisitionDto = new RequisitionDto();
+    requisition.export(requisitionDto);
+    requisitionDto.setTemplate(BasicRequisitionTemplateDto.newInstance(requisition.getTemplate()));
+    requisitionDto.setRequisitionLineItems(new RequisitionExportHelper()
+        .exportToDtos(requisition.getRequisitionLineItems(), data.getOrderables(), false));
+    requisitionDto.setStockAdjustmentReasons(ReasonDto.newInstance(data.getReasons()));
+  }
+
+  @Benchmark
+  public byte[] serialize() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(requisitionDto);
+  }
+
+}
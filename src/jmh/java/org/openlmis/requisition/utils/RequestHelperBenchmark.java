@@ -0,0 +1,73 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.utils;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openlmis.requisition.service.RequestParameters;
+
+/**
+ * Measures splitting of a search by ids into requests that fit the maximum URL length, as it is
+ * done when orderables of a requisition are retrieved.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RequestHelperBenchmark {
+  private static final String URL = "http://localhost/api/orderables";
+  private static final int MAX_URL_LENGTH = 2000;
+
+  @Param({"10", "100", "2000", "5000"})
+  private int ids;
+
+  private RequestParameters parameters;
+
+  /**
+   * Prepares search parameters with the given number of random ids.
+   */
+  @Setup
+  public void setUp() {
+    List<UUID> values = new ArrayList<>(ids);
+    for (int i = 0; i < ids; ++i) {
+      values.add(UUID.randomUUID());
+    }
+
+    parameters = RequestParameters.init().set("id", values);
+  }
+
+  @Benchmark
+  public URI[] splitRequest() {
+    return RequestHelper.splitRequest(URL, parameters, MAX_URL_LENGTH);
+  }
+
+}
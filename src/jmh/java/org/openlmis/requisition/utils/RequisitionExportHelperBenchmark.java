@@ -0,0 +1,77 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.utils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openlmis.requisition.domain.requisition.RequisitionBenchmarkData;
+import org.openlmis.requisition.domain.requisition.RequisitionLineItem;
+import org.openlmis.requisition.dto.OrderableDto;
+import org.openlmis.requisition.dto.RequisitionLineItemDto;
+
+/**
+ * Measures export of requisition line items to DTOs. Orderables are passed in, so the reference
+ * data service is not called.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RequisitionExportHelperBenchmark {
+  @Param({"10", "100", "2000", "5000"})
+  private int lineItems;
+
+  private RequisitionExportHelper exportHelper;
+  private List<RequisitionLineItem> items;
+  private Map<UUID, OrderableDto> orderables;
+
+  /**
+   * Prepares line items with random values and their orderables.
+   */
+  @Setup
+  public void setUp() {
+    RequisitionBenchmarkData data = new RequisitionBenchmarkData(lineItems);
+    exportHelper = new RequisitionExportHelper();
+    items = data.getRequisition().getRequisitionLineItems();
+    orderables = data.getOrderables();
+  }
+
+  @Benchmark
+  public List<RequisitionLineItemDto> exportToDtos() {
+    return exportHelper.exportToDtos(items, orderables, false);
+  }
+
+  @Benchmark
+  public List<RequisitionLineItemDto> exportToBatchDtos() {
+    return exportHelper.exportToDtos(items, orderables, true);
+  }
+
+}
@@ -33,6 +33,8 @@ import org.javers.spring.boot.sql.JaversProperties;
 import org.javers.spring.jpa.TransactionalJaversBuilder;
 import org.openlmis.requisition.domain.BaseEntity;
 import org.openlmis.requisition.i18n.ExposedMessageSourceImpl;
+import org.openlmis.requisition.metrics.Metrics;
+import org.openlmis.requisition.metrics.MetricsRegistry;
 import org.openlmis.requisition.security.UserNameProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -97,6 +99,9 @@ public class Application {
   @Value("${currencyCode}")
   private String currencyCode;
 
+  @Value("${metrics.enabled}")
+  private boolean metricsEnabled;
+
   public static void main(String[] args) {
     SpringApplication.run(Application.class, args);
   }
@@ -203,6 +208,16 @@ public class Application {
     return Clock.system(ZoneId.of(timeZoneId));
   }
 
+  /**
+   * Returns the registry of application metrics, enabled or disabled based on configuration.
+   */
+  @Bean
+  public MetricsRegistry metricsRegistry() {
+    MetricsRegistry registry = Metrics.getRegistry();
+    registry.setEnabled(metricsEnabled);
+    return registry;
+  }
+
   @Bean
   JedisConnectionFactory connectionFactory() {
     JedisConnectionFactory factory = new JedisConnectionFactory();
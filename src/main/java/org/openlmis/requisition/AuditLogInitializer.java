@@ -25,6 +25,7 @@ import org.javers.repository.jql.QueryBuilder;
 import org.javers.spring.annotation.JaversSpringDataAuditable;
 import org.openlmis.requisition.domain.BaseEntity;
 import org.openlmis.requisition.i18n.MessageKeys;
+import org.openlmis.requisition.metrics.MetricsProfiler;
 import org.openlmis.requisition.repository.BaseAuditableRepository;
 import org.slf4j.ext.XLogger;
 import org.slf4j.ext.XLoggerFactory;
@@ -67,7 +68,7 @@ public class AuditLogInitializer implements CommandLineRunner {
    */
   public void run(String... args) {
     LOGGER.entry();
-    Profiler profiler = new Profiler("RUN_AUDIT_LOG_INIT");
+    Profiler profiler = new MetricsProfiler("RUN_AUDIT_LOG_INIT");
     profiler.setLogger(LOGGER);
 
     profiler.start("GET_AUDITABLE_REPOSITORIES");
@@ -15,6 +15,7 @@
 
 package org.openlmis.requisition.domain;
 
+import com.google.common.hash.Hashing;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -28,7 +29,6 @@ import javax.persistence.OneToMany;
 import javax.persistence.PrePersist;
 import javax.persistence.PreUpdate;
 import javax.persistence.Table;
-import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -38,7 +38,6 @@ import org.hibernate.annotations.FetchMode;
 @Entity
 @Table(name = "jasper_templates")
 @NoArgsConstructor
-@AllArgsConstructor
 public class JasperTemplate extends BaseEntity {
 
   @Column(columnDefinition = TEXT_COLUMN_DEFINITION, unique = true, nullable = false)
@@ -48,9 +47,16 @@ public class JasperTemplate extends BaseEntity {
 
   @Column
   @Getter
-  @Setter
   private byte[] data;
 
+  /**
+   * MD5 checksum of the template data, set together with the data, so a changed template can be
+   * recognized without reading the whole data again.
+   */
+  @Column(columnDefinition = TEXT_COLUMN_DEFINITION)
+  @Getter
+  private String checksum;
+
   @OneToMany(
       mappedBy = "template",
       cascade = {CascadeType.PERSIST, CascadeType.MERGE, CascadeType.REFRESH, CascadeType.REMOVE},
@@ -71,6 +77,26 @@ public class JasperTemplate extends BaseEntity {
   @Setter
   private String description;
 
+  /**
+   * Creates a new template with the given values.
+   */
+  public JasperTemplate(String name, byte[] data,
+      List<JasperTemplateParameter> templateParameters, String type, String description) {
+    this.name = name;
+    this.templateParameters = templateParameters;
+    this.type = type;
+    this.description = description;
+    setData(data);
+  }
+
+  /**
+   * Sets the template data and its checksum.
+   */
+  public void setData(byte[] data) {
+    this.data = data;
+    this.checksum = null == data ? null : Hashing.md5().hashBytes(data).toString();
+  }
+
   @PrePersist
   private void prePersist() {
     forEachParameter(line -> line.setTemplate(this));
@@ -88,7 +114,7 @@ public class JasperTemplate extends BaseEntity {
    */
   public void updateFrom(JasperTemplate jasperTemplate) {
     this.name = jasperTemplate.getName();
-    this.data = jasperTemplate.getData();
+    setData(jasperTemplate.getData());
     this.templateParameters = jasperTemplate.getTemplateParameters();
     this.type = jasperTemplate.getType();
     this.description = jasperTemplate.getDescription();
@@ -0,0 +1,587 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.domain.requisition;
+
+import static org.openlmis.requisition.domain.requisition.LineItemFieldsCalculator.calculateAdjustedConsumptionValue;
+import static org.openlmis.requisition.domain.requisition.LineItemFieldsCalculator.calculateAverageConsumption;
+import static org.openlmis.requisition.domain.requisition.LineItemFieldsCalculator.calculateMaximumStockQuantity;
+import static org.openlmis.requisition.domain.requisition.LineItemFieldsCalculator.calculateStockoutAdjustment;
+import static org.openlmis.requisition.domain.requisition.LineItemFieldsCalculator.validateMaximumStockQuantityOption;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import org.openlmis.requisition.domain.RequisitionTemplate;
+import org.openlmis.requisition.domain.requisition.RequisitionTemplatePlan.LineItemColumn;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Calculates template fields of many line items at once. Values of the line items are loaded
+ * into primitive int columns with null bitmaps, each formula is evaluated over a whole column
+ * and only the calculated columns are written back to the line items. Formulas are evaluated in
+ * a topological order of the column dependencies, so the results are the same as if the
+ * {@link LineItemFieldsCalculator} formulas were applied to each line item separately.
+ *
+ * <p>Instead of a warning for every line item, one warning is logged for every column where
+ * passed values do not match the calculated ones.</p>
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+class LineItemCalculationEngine {
+  private static final Logger LOGGER = LoggerFactory.getLogger(LineItemCalculationEngine.class);
+
+  private final RequisitionTemplate template;
+  private final RequisitionTemplatePlan plan;
+  private final Collection<StockAdjustmentReason> stockAdjustmentReasons;
+  private final Integer numberOfMonthsInPeriod;
+
+  private final Map<Formula, Mode> modes = new EnumMap<>(Formula.class);
+  private final List<Formula> order;
+
+  private List<RequisitionLineItem> lineItems;
+  private int size;
+  private int[][] values;
+  private BitSet[] nulls;
+  private boolean maximumStockQuantityOptionValidated;
+
+  /**
+   * Creates a new engine for line items of a requisition that uses the given template.
+   */
+  LineItemCalculationEngine(RequisitionTemplate template, RequisitionTemplatePlan plan,
+      Collection<StockAdjustmentReason> stockAdjustmentReasons, Integer numberOfMonthsInPeriod) {
+    this.template = template;
+    this.plan = plan;
+    this.stockAdjustmentReasons = stockAdjustmentReasons;
+    this.numberOfMonthsInPeriod = numberOfMonthsInPeriod;
+
+    for (Formula formula : Formula.values()) {
+      Mode mode = formula.getMode(plan);
+      if (Mode.SKIP != mode) {
+        modes.put(formula, mode);
+      }
+    }
+
+    this.order = sort(modes);
+  }
+
+  /**
+   * Calculates and sets all calculated fields in the given line items.
+   */
+  void calculateAndSetFields(List<RequisitionLineItem> items) {
+    if (items.isEmpty() || order.isEmpty()) {
+      return;
+    }
+
+    this.lineItems = items;
+    this.size = items.size();
+    this.values = new int[Field.values().length][];
+    this.nulls = new BitSet[Field.values().length];
+    this.maximumStockQuantityOptionValidated = false;
+
+    for (Field field : getUsedFields()) {
+      load(field);
+    }
+
+    for (Formula formula : order) {
+      evaluate(formula, modes.get(formula));
+    }
+
+    for (Formula formula : order) {
+      store(formula.getOutput());
+    }
+  }
+
+  /**
+   * Returns formulas in the order in which they have to be evaluated.
+   */
+  List<Formula> getOrder() {
+    return order;
+  }
+
+  private Set<Field> getUsedFields() {
+    Set<Field> fields = EnumSet.noneOf(Field.class);
+
+    for (Map.Entry<Formula, Mode> entry : modes.entrySet()) {
+      fields.add(entry.getKey().getOutput());
+
+      if (Mode.CALCULATE == entry.getValue()) {
+        fields.addAll(entry.getKey().getInputs());
+      }
+    }
+
+    return fields;
+  }
+
+  private void load(Field field) {
+    int[] column = new int[size];
+    BitSet columnNulls = new BitSet(size);
+
+    for (int i = 0; i < size; ++i) {
+      Integer value = field.getValue(lineItems.get(i));
+
+      if (null == value) {
+        columnNulls.set(i);
+      } else {
+        column[i] = value;
+      }
+    }
+
+    values[field.ordinal()] = column;
+    nulls[field.ordinal()] = columnNulls;
+  }
+
+  private void store(Field field) {
+    int[] column = values[field.ordinal()];
+    BitSet columnNulls = nulls[field.ordinal()];
+
+    for (int i = 0; i < size; ++i) {
+      field.setValue(lineItems.get(i), columnNulls.get(i) ? null : column[i]);
+    }
+  }
+
+  private void evaluate(Formula formula, Mode mode) {
+    if (Mode.CLEAR == mode) {
+      nulls[formula.getOutput().ordinal()].set(0, size);
+      return;
+    }
+
+    int[] result = new int[size];
+    BitSet resultNulls = new BitSet(size);
+    formula.evaluator.evaluate(this, result, resultNulls);
+
+    Field output = formula.getOutput();
+    warnAboutMismatches(output, result, resultNulls);
+
+    values[output.ordinal()] = result;
+    nulls[output.ordinal()] = resultNulls;
+  }
+
+  private void evaluateTotalLossesAndAdjustments(int[] result, BitSet resultNulls) {
+    Map<UUID, Integer> signs = new HashMap<>();
+    for (StockAdjustmentReason reason : stockAdjustmentReasons) {
+      signs.putIfAbsent(reason.getReasonId(), reason.isCreditReasonType() ? 1 : -1);
+    }
+
+    for (int i = 0; i < size; ++i) {
+      List<StockAdjustment> adjustments = lineItems.get(i).getStockAdjustments();
+      int total = 0;
+
+      if (null != adjustments) {
+        for (StockAdjustment adjustment : adjustments) {
+          Integer sign = signs.get(adjustment.getReasonId());
+
+          if (null != sign) {
+            total += adjustment.getQuantity() * sign;
+          }
+        }
+      }
+
+      result[i] = total;
+    }
+  }
+
+  private void evaluateStockOnHand(int[] result, BitSet resultNulls) {
+    int[] beginningBalance = get(Field.BEGINNING_BALANCE);
+    int[] totalReceivedQuantity = get(Field.TOTAL_RECEIVED_QUANTITY);
+    int[] totalLossesAndAdjustments = get(Field.TOTAL_LOSSES_AND_ADJUSTMENTS);
+    int[] totalConsumedQuantity = get(Field.TOTAL_CONSUMED_QUANTITY);
+
+    for (int i = 0; i < size; ++i) {
+      result[i] = beginningBalance[i] + totalReceivedQuantity[i] + totalLossesAndAdjustments[i]
+          - totalConsumedQuantity[i];
+    }
+  }
+
+  private void evaluateTotalConsumedQuantity(int[] result, BitSet resultNulls) {
+    int[] beginningBalance = get(Field.BEGINNING_BALANCE);
+    int[] totalReceivedQuantity = get(Field.TOTAL_RECEIVED_QUANTITY);
+    int[] totalLossesAndAdjustments = get(Field.TOTAL_LOSSES_AND_ADJUSTMENTS);
+    int[] stockOnHand = get(Field.STOCK_ON_HAND);
+
+    for (int i = 0; i < size; ++i) {
+      result[i] = beginningBalance[i] + totalReceivedQuantity[i] + totalLossesAndAdjustments[i]
+          - stockOnHand[i];
+    }
+  }
+
+  private void evaluateTotal(int[] result, BitSet resultNulls) {
+    int[] beginningBalance = get(Field.BEGINNING_BALANCE);
+    int[] totalReceivedQuantity = get(Field.TOTAL_RECEIVED_QUANTITY);
+
+    for (int i = 0; i < size; ++i) {
+      result[i] = beginningBalance[i] + totalReceivedQuantity[i];
+    }
+  }
+
+  private void evaluateAdjustedConsumption(int[] result, BitSet resultNulls) {
+    int[] totalConsumedQuantity = get(Field.TOTAL_CONSUMED_QUANTITY);
+    int[] totalStockoutDays = get(Field.TOTAL_STOCKOUT_DAYS);
+    int[] additionalQuantityRequired = plan
+        .isInTemplateAndDisplayed(LineItemColumn.ADDITIONAL_QUANTITY_REQUIRED)
+        ? get(Field.ADDITIONAL_QUANTITY_REQUIRED)
+        : new int[size];
+    int monthsInThePeriod = numberOfMonthsInPeriod;
+    int totalDays = 30 * monthsInThePeriod;
+    Map<Integer, BigDecimal> stockoutAdjustments = new HashMap<>();
+
+    for (int i = 0; i < size; ++i) {
+      int nonStockoutDays = totalDays - totalStockoutDays[i];
+
+      if (totalConsumedQuantity[i] == 0 || nonStockoutDays == 0) {
+        result[i] = calculateAdjustedConsumptionValue(totalConsumedQuantity[i],
+            totalStockoutDays[i], monthsInThePeriod, additionalQuantityRequired[i]);
+      } else {
+        BigDecimal stockoutAdjustment = stockoutAdjustments.computeIfAbsent(nonStockoutDays,
+            days -> calculateStockoutAdjustment(totalDays, days));
+        result[i] = calculateAdjustedConsumptionValue(totalConsumedQuantity[i],
+            stockoutAdjustment, additionalQuantityRequired[i]);
+      }
+    }
+  }
+
+  private void evaluateAverageConsumption(int[] result, BitSet resultNulls) {
+    int[] adjustedConsumption = values[Field.ADJUSTED_CONSUMPTION.ordinal()];
+    BitSet adjustedConsumptionNulls = nulls[Field.ADJUSTED_CONSUMPTION.ordinal()];
+
+    for (int i = 0; i < size; ++i) {
+      List<Integer> previous = lineItems.get(i).getPreviousAdjustedConsumptions();
+      Integer current = adjustedConsumptionNulls.get(i) ? null : adjustedConsumption[i];
+
+      if (previous.isEmpty()) {
+        // average of a single period is the adjusted consumption itself
+        setResult(result, resultNulls, i, current);
+      } else {
+        List<Integer> adjustedConsumptions = new ArrayList<>(previous.size() + 1);
+        adjustedConsumptions.addAll(previous);
+        adjustedConsumptions.add(current);
+        setResult(result, resultNulls, i, calculateAverageConsumption(adjustedConsumptions));
+      }
+    }
+  }
+
+  private void evaluateMaximumStockQuantity(int[] result, BitSet resultNulls) {
+    int[] averageConsumption = get(Field.AVERAGE_CONSUMPTION);
+
+    for (int i = 0; i < size; ++i) {
+      result[i] = getMaximumStockQuantity(i, averageConsumption[i]);
+    }
+  }
+
+  private void evaluateCalculatedOrderQuantity(int[] result, BitSet resultNulls) {
+    int[] maximumStockQuantity = get(Field.MAXIMUM_STOCK_QUANTITY);
+    BitSet maximumStockQuantityNulls = nulls[Field.MAXIMUM_STOCK_QUANTITY.ordinal()];
+    int[] averageConsumption = get(Field.AVERAGE_CONSUMPTION);
+    int[] stockOnHand = get(Field.STOCK_ON_HAND);
+    BitSet stockOnHandNulls = nulls[Field.STOCK_ON_HAND.ordinal()];
+    int[] beginningBalance = get(Field.BEGINNING_BALANCE);
+    int[] totalReceivedQuantity = get(Field.TOTAL_RECEIVED_QUANTITY);
+    int[] totalLossesAndAdjustments = get(Field.TOTAL_LOSSES_AND_ADJUSTMENTS);
+    int[] totalConsumedQuantity = get(Field.TOTAL_CONSUMED_QUANTITY);
+
+    for (int i = 0; i < size; ++i) {
+      int maximum = maximumStockQuantityNulls.get(i)
+          ? getMaximumStockQuantity(i, averageConsumption[i])
+          : maximumStockQuantity[i];
+      int onHand = stockOnHandNulls.get(i)
+          ? beginningBalance[i] + totalReceivedQuantity[i] + totalLossesAndAdjustments[i]
+              - totalConsumedQuantity[i]
+          : stockOnHand[i];
+
+      result[i] = Math.max(0, maximum - onHand);
+    }
+  }
+
+  private void evaluateCalculatedOrderQuantityIsa(int[] result, BitSet resultNulls) {
+    int[] idealStockAmount = get(Field.IDEAL_STOCK_AMOUNT);
+    BitSet idealStockAmountNulls = nulls[Field.IDEAL_STOCK_AMOUNT.ordinal()];
+    int[] stockOnHand = get(Field.STOCK_ON_HAND);
+
+    resultNulls.or(idealStockAmountNulls);
+    for (int i = 0; i < size; ++i) {
+      result[i] = Math.max(0, idealStockAmount[i] - stockOnHand[i]);
+    }
+  }
+
+  private int getMaximumStockQuantity(int index, int averageConsumption) {
+    if (!maximumStockQuantityOptionValidated) {
+      validateMaximumStockQuantityOption(template);
+      maximumStockQuantityOptionValidated = true;
+    }
+
+    return calculateMaximumStockQuantity(averageConsumption,
+        lineItems.get(index).getMaxPeriodsOfStock());
+  }
+
+  /**
+   * Returns values of the given field, null values are returned as zeros.
+   */
+  private int[] get(Field field) {
+    int[] column = values[field.ordinal()];
+    BitSet columnNulls = nulls[field.ordinal()];
+
+    if (columnNulls.isEmpty()) {
+      return column;
+    }
+
+    int[] copy = column.clone();
+    for (int i = columnNulls.nextSetBit(0); i >= 0; i = columnNulls.nextSetBit(i + 1)) {
+      copy[i] = 0;
+    }
+
+    return copy;
+  }
+
+  private void setResult(int[] result, BitSet resultNulls, int index, Integer value) {
+    if (null == value) {
+      resultNulls.set(index);
+    } else {
+      result[index] = value;
+    }
+  }
+
+  private void warnAboutMismatches(Field field, int[] result, BitSet resultNulls) {
+    int[] passed = values[field.ordinal()];
+    BitSet passedNulls = nulls[field.ordinal()];
+    int mismatches = 0;
+
+    for (int i = 0; i < size; ++i) {
+      if (!passedNulls.get(i) && (resultNulls.get(i) || passed[i] != result[i])) {
+        ++mismatches;
+      }
+    }
+
+    if (mismatches > 0) {
+      LOGGER.warn("Passed {} does not match calculated one in {} line items.",
+          field.column, mismatches);
+    }
+  }
+
+  /**
+   * Sorts formulas so that each one is evaluated after the formulas that calculate its inputs.
+   * Formulas without mutual dependencies keep their declaration order. A dependency cycle (which
+   * a valid template does not contain) is broken by the declaration order as well.
+   */
+  private static List<Formula> sort(Map<Formula, Mode> modes) {
+    Map<Formula, Set<Formula>> dependencies = new EnumMap<>(Formula.class);
+
+    for (Map.Entry<Formula, Mode> entry : modes.entrySet()) {
+      Set<Formula> formulaDependencies = EnumSet.noneOf(Formula.class);
+
+      if (Mode.CALCULATE == entry.getValue()) {
+        for (Formula other : modes.keySet()) {
+          if (other != entry.getKey() && entry.getKey().getInputs().contains(other.getOutput())) {
+            formulaDependencies.add(other);
+          }
+        }
+      }
+
+      dependencies.put(entry.getKey(), formulaDependencies);
+    }
+
+    List<Formula> sorted = new ArrayList<>(modes.size());
+    Set<Formula> remaining = EnumSet.noneOf(Formula.class);
+    remaining.addAll(modes.keySet());
+
+    while (!remaining.isEmpty()) {
+      Formula next = remaining
+          .stream()
+          .filter(formula -> sorted.containsAll(dependencies.get(formula)))
+          .findFirst()
+          .orElse(remaining.iterator().next());
+
+      sorted.add(next);
+      remaining.remove(next);
+    }
+
+    return sorted;
+  }
+
+  /**
+   * Tells if a formula calculates its field, clears it or leaves it unchanged.
+   */
+  enum Mode {
+    CALCULATE, CLEAR, SKIP
+  }
+
+  /**
+   * Line item fields used by the formulas.
+   */
+  enum Field {
+    BEGINNING_BALANCE(RequisitionLineItem.BEGINNING_BALANCE,
+        RequisitionLineItem::getBeginningBalance, RequisitionLineItem::setBeginningBalance),
+    TOTAL_RECEIVED_QUANTITY(RequisitionLineItem.TOTAL_RECEIVED_QUANTITY,
+        RequisitionLineItem::getTotalReceivedQuantity,
+        RequisitionLineItem::setTotalReceivedQuantity),
+    TOTAL_LOSSES_AND_ADJUSTMENTS(RequisitionLineItem.TOTAL_LOSSES_AND_ADJUSTMENTS,
+        RequisitionLineItem::getTotalLossesAndAdjustments,
+        RequisitionLineItem::setTotalLossesAndAdjustments),
+    TOTAL_CONSUMED_QUANTITY(RequisitionLineItem.TOTAL_CONSUMED_QUANTITY,
+        RequisitionLineItem::getTotalConsumedQuantity,
+        RequisitionLineItem::setTotalConsumedQuantity),
+    STOCK_ON_HAND(RequisitionLineItem.STOCK_ON_HAND,
+        RequisitionLineItem::getStockOnHand, RequisitionLineItem::setStockOnHand),
+    TOTAL_STOCKOUT_DAYS(RequisitionLineItem.TOTAL_STOCKOUT_DAYS,
+        RequisitionLineItem::getTotalStockoutDays, RequisitionLineItem::setTotalStockoutDays),
+    ADDITIONAL_QUANTITY_REQUIRED(RequisitionLineItem.ADDITIONAL_QUANTITY_REQUIRED,
+        RequisitionLineItem::getAdditionalQuantityRequired,
+        RequisitionLineItem::setAdditionalQuantityRequired),
+    TOTAL(RequisitionLineItem.TOTAL_COLUMN,
+        RequisitionLineItem::getTotal, RequisitionLineItem::setTotal),
+    ADJUSTED_CONSUMPTION(RequisitionLineItem.ADJUSTED_CONSUMPTION,
+        RequisitionLineItem::getAdjustedConsumption, RequisitionLineItem::setAdjustedConsumption),
+    AVERAGE_CONSUMPTION(RequisitionLineItem.AVERAGE_CONSUMPTION,
+        RequisitionLineItem::getAverageConsumption, RequisitionLineItem::setAverageConsumption),
+    MAXIMUM_STOCK_QUANTITY(RequisitionLineItem.MAXIMUM_STOCK_QUANTITY,
+        RequisitionLineItem::getMaximumStockQuantity,
+        RequisitionLineItem::setMaximumStockQuantity),
+    CALCULATED_ORDER_QUANTITY(RequisitionLineItem.CALCULATED_ORDER_QUANTITY,
+        RequisitionLineItem::getCalculatedOrderQuantity,
+        RequisitionLineItem::setCalculatedOrderQuantity),
+    CALCULATED_ORDER_QUANTITY_ISA(RequisitionLineItem.CALCULATED_ORDER_QUANTITY_ISA,
+        RequisitionLineItem::getCalculatedOrderQuantityIsa,
+        RequisitionLineItem::setCalculatedOrderQuantityIsa),
+    IDEAL_STOCK_AMOUNT("idealStockAmount",
+        RequisitionLineItem::getIdealStockAmount, RequisitionLineItem::setIdealStockAmount);
+
+    private final String column;
+    private final Function<RequisitionLineItem, Integer> getter;
+    private final BiConsumer<RequisitionLineItem, Integer> setter;
+
+    Field(String column, Function<RequisitionLineItem, Integer> getter,
+        BiConsumer<RequisitionLineItem, Integer> setter) {
+      this.column = column;
+      this.getter = getter;
+      this.setter = setter;
+    }
+
+    Integer getValue(RequisitionLineItem lineItem) {
+      return getter.apply(lineItem);
+    }
+
+    void setValue(RequisitionLineItem lineItem, Integer value) {
+      setter.accept(lineItem, value);
+    }
+  }
+
+  /**
+   * Formulas of calculated fields with the fields they read, in the order in which they are
+   * evaluated for a single line item: each formula only reads fields calculated before it.
+   */
+  enum Formula {
+    TOTAL_LOSSES_AND_ADJUSTMENTS(Field.TOTAL_LOSSES_AND_ADJUSTMENTS,
+        plan -> plan.isPopulateStockOnHandFromStockCards() ? Mode.SKIP : Mode.CALCULATE,
+        LineItemCalculationEngine::evaluateTotalLossesAndAdjustments),
+    STOCK_ON_HAND(Field.STOCK_ON_HAND,
+        plan -> getSourceBasedMode(plan, LineItemColumn.STOCK_ON_HAND),
+        LineItemCalculationEngine::evaluateStockOnHand,
+        Field.BEGINNING_BALANCE, Field.TOTAL_RECEIVED_QUANTITY,
+        Field.TOTAL_LOSSES_AND_ADJUSTMENTS, Field.TOTAL_CONSUMED_QUANTITY),
+    TOTAL_CONSUMED_QUANTITY(Field.TOTAL_CONSUMED_QUANTITY,
+        plan -> getSourceBasedMode(plan, LineItemColumn.TOTAL_CONSUMED_QUANTITY),
+        LineItemCalculationEngine::evaluateTotalConsumedQuantity,
+        Field.BEGINNING_BALANCE, Field.TOTAL_RECEIVED_QUANTITY,
+        Field.TOTAL_LOSSES_AND_ADJUSTMENTS, Field.STOCK_ON_HAND),
+    TOTAL(Field.TOTAL,
+        plan -> getDisplayedMode(plan, LineItemColumn.TOTAL),
+        LineItemCalculationEngine::evaluateTotal,
+        Field.BEGINNING_BALANCE, Field.TOTAL_RECEIVED_QUANTITY),
+    ADJUSTED_CONSUMPTION(Field.ADJUSTED_CONSUMPTION,
+        plan -> getInTemplateMode(plan, LineItemColumn.ADJUSTED_CONSUMPTION),
+        LineItemCalculationEngine::evaluateAdjustedConsumption,
+        Field.TOTAL_CONSUMED_QUANTITY, Field.TOTAL_STOCKOUT_DAYS,
+        Field.ADDITIONAL_QUANTITY_REQUIRED),
+    AVERAGE_CONSUMPTION(Field.AVERAGE_CONSUMPTION,
+        plan -> getInTemplateMode(plan, LineItemColumn.AVERAGE_CONSUMPTION),
+        LineItemCalculationEngine::evaluateAverageConsumption,
+        Field.ADJUSTED_CONSUMPTION),
+    MAXIMUM_STOCK_QUANTITY(Field.MAXIMUM_STOCK_QUANTITY,
+        plan -> getDisplayedMode(plan, LineItemColumn.MAXIMUM_STOCK_QUANTITY),
+        LineItemCalculationEngine::evaluateMaximumStockQuantity,
+        Field.AVERAGE_CONSUMPTION),
+    CALCULATED_ORDER_QUANTITY(Field.CALCULATED_ORDER_QUANTITY,
+        plan -> getDisplayedMode(plan, LineItemColumn.CALCULATED_ORDER_QUANTITY),
+        LineItemCalculationEngine::evaluateCalculatedOrderQuantity,
+        Field.MAXIMUM_STOCK_QUANTITY, Field.AVERAGE_CONSUMPTION, Field.STOCK_ON_HAND,
+        Field.BEGINNING_BALANCE, Field.TOTAL_RECEIVED_QUANTITY,
+        Field.TOTAL_LOSSES_AND_ADJUSTMENTS, Field.TOTAL_CONSUMED_QUANTITY),
+    CALCULATED_ORDER_QUANTITY_ISA(Field.CALCULATED_ORDER_QUANTITY_ISA,
+        plan -> getDisplayedMode(plan, LineItemColumn.CALCULATED_ORDER_QUANTITY_ISA),
+        LineItemCalculationEngine::evaluateCalculatedOrderQuantityIsa,
+        Field.IDEAL_STOCK_AMOUNT, Field.STOCK_ON_HAND);
+
+    private final Field output;
+    private final Function<RequisitionTemplatePlan, Mode> mode;
+    private final Evaluator evaluator;
+    private final Set<Field> inputs;
+
+    Formula(Field output, Function<RequisitionTemplatePlan, Mode> mode, Evaluator evaluator,
+        Field... inputs) {
+      this.output = output;
+      this.mode = mode;
+      this.evaluator = evaluator;
+      this.inputs = EnumSet.noneOf(Field.class);
+      Collections.addAll(this.inputs, inputs);
+    }
+
+    Field getOutput() {
+      return output;
+    }
+
+    Set<Field> getInputs() {
+      return inputs;
+    }
+
+    Mode getMode(RequisitionTemplatePlan plan) {
+      return mode.apply(plan);
+    }
+
+    private static Mode getSourceBasedMode(RequisitionTemplatePlan plan, LineItemColumn column) {
+      if (!plan.isInTemplateAndDisplayed(column)) {
+        return Mode.CLEAR;
+      }
+
+      return plan.isCalculated(column) ? Mode.CALCULATE : Mode.SKIP;
+    }
+
+    private static Mode getInTemplateMode(RequisitionTemplatePlan plan, LineItemColumn column) {
+      return plan.isInTemplate(column) ? Mode.CALCULATE : Mode.SKIP;
+    }
+
+    private static Mode getDisplayedMode(RequisitionTemplatePlan plan, LineItemColumn column) {
+      return plan.isInTemplateAndDisplayed(column) ? Mode.CALCULATE : Mode.SKIP;
+    }
+  }
+
+  /**
+   * Evaluates a formula for all line items, null results are marked in the given bitmap.
+   */
+  @FunctionalInterface
+  interface Evaluator {
+    void evaluate(LineItemCalculationEngine engine, int[] result, BitSet resultNulls);
+  }
+
+}
@@ -227,6 +227,30 @@ public final class LineItemFieldsCalculator {
    */
   public static int calculateMaximumStockQuantity(RequisitionLineItem line,
                                                   RequisitionTemplate template) {
+    validateMaximumStockQuantityOption(template);
+
+    return calculateMaximumStockQuantity(
+        zeroIfNull(line.getAverageConsumption()), line.getMaxPeriodsOfStock());
+  }
+
+  /**
+   * Calculates Maximum Stock Quantity (H) with the default option: H = P * MaxPeriodsOfStock.
+   */
+  static int calculateMaximumStockQuantity(int averageConsumption,
+      BigDecimal maxPeriodsOfStock) {
+    return BigDecimal.valueOf(averageConsumption)
+        .multiply(zeroIfNull(maxPeriodsOfStock))
+        .setScale(0, BigDecimal.ROUND_HALF_UP)
+        .intValue();
+  }
+
+  /**
+   * Checks if the Maximum Stock Quantity column of the given template uses a supported option.
+   *
+   * @param template template related with the requisition.
+   * @throws IllegalArgumentException if the option is not supported.
+   */
+  static void validateMaximumStockQuantityOption(RequisitionTemplate template) {
     RequisitionTemplateColumn column = template
         .findColumn(RequisitionLineItem.MAXIMUM_STOCK_QUANTITY);
     AvailableRequisitionColumnOption option = column.getOption();
@@ -241,14 +265,6 @@ public final class LineItemFieldsCalculator {
           "Unsupported option for maximum stock quantity: " + optionName
       );
     }
-
-    int averageConsumption = zeroIfNull(line.getAverageConsumption());
-    BigDecimal maxPeriodsOfStock = zeroIfNull(line.getMaxPeriodsOfStock());
-
-    return BigDecimal.valueOf(averageConsumption)
-        .multiply(maxPeriodsOfStock)
-        .setScale(0, BigDecimal.ROUND_HALF_UP)
-        .intValue();
   }
 
   /**
@@ -403,33 +419,57 @@ public final class LineItemFieldsCalculator {
 
   private static int calculateAdjustedConsumptionValue(Integer totalConsumedQuantity,
       Integer totalStockoutDays, int monthsInThePeriod, Integer additionalQuantityRequired) {
-    int consumedQuantity = zeroIfNull(totalConsumedQuantity);
+    return calculateAdjustedConsumptionValue(zeroIfNull(totalConsumedQuantity),
+        zeroIfNull(totalStockoutDays), monthsInThePeriod, zeroIfNull(additionalQuantityRequired));
+  }
 
+  /**
+   * Calculates Adjusted Consumption (N) from primitive values, null values should be passed as
+   * zeros.
+   */
+  static int calculateAdjustedConsumptionValue(int consumedQuantity, int stockoutDays,
+      int monthsInThePeriod, int additionalQuantityRequired) {
     if (consumedQuantity == 0) {
       return 0;
     }
 
     final int totalDays = 30 * monthsInThePeriod;
-    final int stockoutDays = zeroIfNull(totalStockoutDays);
     final int nonStockoutDays = totalDays - stockoutDays;
 
     if (nonStockoutDays == 0) {
       return consumedQuantity;
     }
 
-    BigDecimal divide = new BigDecimal(totalDays)
-        .divide(new BigDecimal(nonStockoutDays), 1000, BigDecimal.ROUND_HALF_UP);
+    return calculateAdjustedConsumptionValue(consumedQuantity,
+        calculateStockoutAdjustment(totalDays, nonStockoutDays), additionalQuantityRequired);
+  }
 
+  /**
+   * Calculates Adjusted Consumption (N) of a non-zero consumed quantity with the given stockout
+   * adjustment.
+   */
+  static int calculateAdjustedConsumptionValue(int consumedQuantity,
+      BigDecimal stockoutAdjustment, int additionalQuantityRequired) {
     BigDecimal adjustedConsumption = new BigDecimal(consumedQuantity)
-        .multiply(divide)
+        .multiply(stockoutAdjustment)
         .setScale(0, RoundingMode.CEILING);
 
-    if (null != additionalQuantityRequired && additionalQuantityRequired > 0) {
+    if (additionalQuantityRequired > 0) {
       return adjustedConsumption.intValue() + additionalQuantityRequired;
     }
     return adjustedConsumption.intValue();
   }
 
+  /**
+   * Calculates the ratio of all days in the period to days without stockout, by which Total
+   * Consumed Quantity is multiplied to get Adjusted Consumption. The ratio depends only on the
+   * number of days, so it can be reused for line items with the same number of stockout days.
+   */
+  static BigDecimal calculateStockoutAdjustment(int totalDays, int nonStockoutDays) {
+    return new BigDecimal(totalDays)
+        .divide(new BigDecimal(nonStockoutDays), 1000, BigDecimal.ROUND_HALF_UP);
+  }
+
   private static boolean hasNonZeroStockValue(RequisitionLineItem currentLineItem) {
     if (currentLineItem == null) {
       return false;
@@ -95,6 +95,7 @@ import org.openlmis.requisition.dto.SupplyLineDto;
 import org.openlmis.requisition.dto.stockmanagement.StockCardRangeSummaryDto;
 import org.openlmis.requisition.errorhandling.ValidationResult;
 import org.openlmis.requisition.exception.ValidationMessageException;
+import org.openlmis.requisition.metrics.MetricsProfiler;
 import org.openlmis.requisition.service.PermissionService;
 import org.openlmis.requisition.utils.Message;
 import org.openlmis.requisition.utils.RequisitionHelper;
@@ -165,6 +166,23 @@ public class Requisition extends BaseTimestampedEntity {
   @Type(type = UUID_TYPE)
   private UUID programId;
 
+  // facility and program names are copies of reference data, used only to sort and filter
+  // requisitions for convert in the database
+  @DiffIgnore
+  @Getter
+  @Setter
+  private String facilityName;
+
+  @DiffIgnore
+  @Getter
+  @Setter
+  private String facilityCode;
+
+  @DiffIgnore
+  @Getter
+  @Setter
+  private String programName;
+
   @Column(nullable = false)
   @Getter
   @Setter
@@ -320,7 +338,7 @@ public class Requisition extends BaseTimestampedEntity {
   public void updateFrom(Requisition requisition, Map<UUID, OrderableDto> products,
       boolean isDatePhysicalStockCountCompletedEnabled) {
     LOGGER.entry(requisition, products, isDatePhysicalStockCountCompletedEnabled);
-    Profiler profiler = new Profiler("REQUISITION_UPDATE_FROM");
+    Profiler profiler = new MetricsProfiler("REQUISITION_UPDATE_FROM");
     profiler.setLogger(LOGGER);
 
     profiler.start("SET_DRAFT_STATUS_MESSAGE");
@@ -372,7 +390,7 @@ public class Requisition extends BaseTimestampedEntity {
       List<StockCardRangeSummaryDto> stockCardRangeSummariesToAverage,
       List<ProcessingPeriodDto> periods) {
 
-    Profiler profiler = new Profiler("REQUISITION_INITIATE_ENTITY");
+    Profiler profiler = new MetricsProfiler("REQUISITION_INITIATE_ENTITY");
     profiler.setLogger(LOGGER);
     this.template = template;
     this.previousRequisitions = previousRequisitions;
@@ -888,9 +906,9 @@ public class Requisition extends BaseTimestampedEntity {
   }
 
   private void calculateAndValidateTemplateFields(RequisitionTemplate template) {
-    getNonSkippedFullSupplyRequisitionLineItems()
-        .forEach(line ->
-            line.calculateAndSetFields(template, stockAdjustmentReasons, numberOfMonthsInPeriod));
+    new LineItemCalculationEngine(template, RequisitionTemplatePlan.compile(template),
+        stockAdjustmentReasons, numberOfMonthsInPeriod)
+        .calculateAndSetFields(getNonSkippedFullSupplyRequisitionLineItems());
   }
 
   private void updateConsumptions() {
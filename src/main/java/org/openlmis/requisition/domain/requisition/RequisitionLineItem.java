@@ -16,25 +16,16 @@
 package org.openlmis.requisition.domain.requisition;
 
 import static org.openlmis.requisition.CurrencyConfig.currencyCode;
-import static org.openlmis.requisition.domain.requisition.LineItemFieldsCalculator.calculateAdjustedConsumption;
 import static org.openlmis.requisition.domain.requisition.LineItemFieldsCalculator.calculateAverageConsumption;
-import static org.openlmis.requisition.domain.requisition.LineItemFieldsCalculator.calculateCalculatedOrderQuantity;
-import static org.openlmis.requisition.domain.requisition.LineItemFieldsCalculator.calculateCalculatedOrderQuantityIsa;
-import static org.openlmis.requisition.domain.requisition.LineItemFieldsCalculator.calculateMaximumStockQuantity;
 import static org.openlmis.requisition.domain.requisition.LineItemFieldsCalculator.calculateStockBasedAverageConsumption;
 import static org.openlmis.requisition.domain.requisition.LineItemFieldsCalculator.calculateStockBasedTotalConsumedQuantity;
 import static org.openlmis.requisition.domain.requisition.LineItemFieldsCalculator.calculateStockBasedTotalLossesAndAdjustments;
 import static org.openlmis.requisition.domain.requisition.LineItemFieldsCalculator.calculateStockBasedTotalReceivedQuantity;
 import static org.openlmis.requisition.domain.requisition.LineItemFieldsCalculator.calculateStockBasedTotalStockoutDays;
-import static org.openlmis.requisition.domain.requisition.LineItemFieldsCalculator.calculateStockOnHand;
-import static org.openlmis.requisition.domain.requisition.LineItemFieldsCalculator.calculateTotal;
-import static org.openlmis.requisition.domain.requisition.LineItemFieldsCalculator.calculateTotalConsumedQuantity;
-import static org.openlmis.requisition.domain.requisition.LineItemFieldsCalculator.calculateTotalLossesAndAdjustments;
 import static org.openlmis.requisition.i18n.MessageKeys.CAN_NOT_FIND_PROGRAM_DETAILS_FROM_ORDERABLE;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -189,6 +180,7 @@ public class RequisitionLineItem extends BaseEntity {
       name = "previous_adjusted_consumptions",
       joinColumns = @JoinColumn(name = "requisitionLineItemId"))
   @Column(name = "previousAdjustedConsumption")
+  @BatchSize(size = STANDARD_BATCH_SIZE)
   @Setter
   @Getter
   private List<Integer> previousAdjustedConsumptions;
@@ -493,23 +485,6 @@ public class RequisitionLineItem extends BaseEntity {
     }
   }
 
-  /**
-   * Calculate and set all calculated fields in this requisition line item.
-   */
-  void calculateAndSetFields(RequisitionTemplate template,
-      Collection<StockAdjustmentReason> stockAdjustmentReasons,
-      Integer numberOfMonthsInPeriod) {
-    calculateAndSetTotalLossesAndAdjustments(stockAdjustmentReasons, template);
-    calculateAndSetStockOnHand(template);
-    calculateAndSetTotalConsumedQuantity(template);
-    calculateAndSetTotal(template);
-    calculateAndSetAdjustedConsumption(template, numberOfMonthsInPeriod);
-    calculateAndSetAverageConsumption(template);
-    calculateAndSetMaximumStockQuantity(template);
-    calculateAndSetCalculatedOrderQuantity(template);
-    calculateAndSetCalculatedOrderQuantityIsa(template);
-  }
-
   /**
    * Sets value to Total Consumed Quantity column based on stock range summaries.
    */
@@ -577,145 +552,6 @@ public class RequisitionLineItem extends BaseEntity {
     setAverageConsumption(calculated);
   }
 
-  /**
-   * Sets appropriate value for Adjusted Consumption field in {@link RequisitionLineItem} on update.
-   */
-  private void calculateAndSetAverageConsumption(RequisitionTemplate template) {
-    if (template.isColumnInTemplate(AVERAGE_CONSUMPTION)) {
-      Integer averageConsumptionPassed = this.getAverageConsumption();
-      calculateAndSetAverageConsumption();
-
-      if (averageConsumptionPassed != null
-          && !Objects.equals(averageConsumptionPassed, getAverageConsumption())) {
-        LOGGER.warn("Passed Average Consumption does not match calculated one.");
-      }
-    }
-  }
-
-  /**
-   * Sets appropriate value for Total Consumed Quantity field in {@link RequisitionLineItem}.
-   */
-  private void calculateAndSetTotalConsumedQuantity(RequisitionTemplate template) {
-    if (template.isColumnInTemplateAndDisplayed(TOTAL_CONSUMED_QUANTITY)) {
-      if (template.isColumnCalculated(TOTAL_CONSUMED_QUANTITY)) {
-        int calculated = calculateTotalConsumedQuantity(this);
-        if (getTotalConsumedQuantity() != null
-            && !Objects.equals(getTotalConsumedQuantity(), calculated)) {
-          LOGGER.warn("Passed TotalConsumedQuantity does not match calculated one.");
-        }
-        setTotalConsumedQuantity(calculated);
-      }
-    } else {
-      setTotalConsumedQuantity(null);
-    }
-  }
-
-  /**
-   * Sets appropriate value for Total field in {@link RequisitionLineItem}.
-   */
-  private void calculateAndSetTotal(RequisitionTemplate template) {
-    if (template.isColumnInTemplateAndDisplayed(TOTAL_COLUMN)) {
-      int calculated = calculateTotal(this);
-      if (getTotal() != null
-          && !Objects.equals(getTotal(), calculated)) {
-        LOGGER.warn("Passed Total does not match calculated one.");
-      }
-      setTotal(calculated);
-    }
-  }
-
-  /**
-   * Sets appropriate value for Stock On Hand field in {@link RequisitionLineItem}.
-   */
-  private void calculateAndSetStockOnHand(RequisitionTemplate template) {
-    if (template.isColumnInTemplateAndDisplayed(STOCK_ON_HAND)) {
-      if (template.isColumnCalculated(STOCK_ON_HAND)) {
-        int calculated = calculateStockOnHand(this);
-        if (getStockOnHand() != null
-            && !Objects.equals(getStockOnHand(), calculated)) {
-          LOGGER.warn("Passed StockOnHand does not match calculated one.");
-        }
-        setStockOnHand(calculated);
-      }
-    } else {
-      setStockOnHand(null);
-    }
-  }
-
-  /**
-   * Sets appropriate value for Total Consumed Quantity field in {@link RequisitionLineItem}.
-   */
-  private void calculateAndSetTotalLossesAndAdjustments(
-      Collection<StockAdjustmentReason> reasons,
-      RequisitionTemplate template) {
-    if (!template.isPopulateStockOnHandFromStockCards()) {
-      int calculated = calculateTotalLossesAndAdjustments(this, reasons);
-      if (getTotalLossesAndAdjustments() != null
-          && !Objects.equals(getTotalLossesAndAdjustments(), calculated)) {
-        LOGGER.warn("Passed TotalLossesAndAdjustments does not match calculated one.");
-      }
-      setTotalLossesAndAdjustments(calculated);
-    }
-  }
-
-  /**
-   * Sets appropriate value for Adjusted Consumption field in {@link RequisitionLineItem}.
-   */
-  private void calculateAndSetAdjustedConsumption(RequisitionTemplate template,
-                                                  Integer monthsInThePeriod) {
-    Boolean additionalQuantityRequiredVisible = template
-        .isColumnInTemplateAndDisplayed(ADDITIONAL_QUANTITY_REQUIRED);
-    if (template.isColumnInTemplate(ADJUSTED_CONSUMPTION)) {
-      int calculated = calculateAdjustedConsumption(this,
-          monthsInThePeriod, additionalQuantityRequiredVisible);
-
-      if (getAdjustedConsumption() != null
-          && !Objects.equals(getAdjustedConsumption(), calculated)) {
-        LOGGER.warn("Passed Adjusted Consumption does not match calculated one.");
-      }
-      setAdjustedConsumption(calculated);
-    }
-  }
-
-  /**
-   * Sets appropriate value for Maximum Stock Quantity field in {@link RequisitionLineItem}.
-   */
-  private void calculateAndSetMaximumStockQuantity(RequisitionTemplate template) {
-    if (template.isColumnInTemplateAndDisplayed(MAXIMUM_STOCK_QUANTITY)) {
-      int calculated = calculateMaximumStockQuantity(this, template);
-      if (getMaximumStockQuantity() != null
-          && !Objects.equals(getMaximumStockQuantity(), calculated)) {
-        LOGGER.warn("Passed MaximumStockQuantity does not match calculated one.");
-      }
-      setMaximumStockQuantity(calculated);
-    }
-  }
-
-  /**
-   * Sets appropriate value for Calculated Order Quantity field in {@link RequisitionLineItem}.
-   */
-  private void calculateAndSetCalculatedOrderQuantity(RequisitionTemplate template) {
-    if (template.isColumnInTemplateAndDisplayed(CALCULATED_ORDER_QUANTITY)) {
-      int calculated = calculateCalculatedOrderQuantity(this, template);
-      if (getCalculatedOrderQuantity() != null
-          && !Objects.equals(getCalculatedOrderQuantity(), calculated)) {
-        LOGGER.warn("Passed CalculatedOrderQuantity does not match calculated one.");
-      }
-      setCalculatedOrderQuantity(calculated);
-    }
-  }
-
-  private void calculateAndSetCalculatedOrderQuantityIsa(RequisitionTemplate template) {
-    if (template.isColumnInTemplateAndDisplayed(CALCULATED_ORDER_QUANTITY_ISA)) {
-      Integer calculated = calculateCalculatedOrderQuantityIsa(this);
-      if (getCalculatedOrderQuantityIsa() != null
-          && !Objects.equals(getCalculatedOrderQuantityIsa(), calculated)) {
-        LOGGER.warn("Passed CalculatedOrderQuantityIsa does not match calculated one.");
-      }
-      setCalculatedOrderQuantityIsa(calculated);
-    }
-  }
-
   /**
    * checks if line is skipped. Return false if null.
    */
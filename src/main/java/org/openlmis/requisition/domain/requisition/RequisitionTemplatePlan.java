@@ -0,0 +1,145 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.domain.requisition;
+
+import static org.apache.commons.lang3.BooleanUtils.isFalse;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import lombok.Getter;
+import org.openlmis.requisition.domain.RequisitionTemplate;
+import org.openlmis.requisition.domain.RequisitionTemplateColumn;
+import org.openlmis.requisition.domain.SourceType;
+
+/**
+ * Frozen view of the requisition template settings that are checked for every line item of a
+ * requisition. Flags of the well-known line item columns are kept in enum sets (bit vectors), so
+ * checking them needs neither map lookups nor copies of the template columns.
+ *
+ * <p>A plan is compiled for every calculation, so it always reflects the current template
+ * columns, and is shared by all line items of a requisition.</p>
+ */
+public final class RequisitionTemplatePlan {
+  private final Set<LineItemColumn> inTemplate = EnumSet.noneOf(LineItemColumn.class);
+  private final Set<LineItemColumn> displayed = EnumSet.noneOf(LineItemColumn.class);
+  private final Set<LineItemColumn> calculated = EnumSet.noneOf(LineItemColumn.class);
+  private final Set<LineItemColumn> stockBased = EnumSet.noneOf(LineItemColumn.class);
+  private final Set<LineItemColumn> userInput = EnumSet.noneOf(LineItemColumn.class);
+
+  @Getter
+  private final boolean populateStockOnHandFromStockCards;
+
+  /**
+   * Names of all template columns, including the custom ones, that are either hidden or
+   * calculated. Values of those columns should not be taken from the user.
+   */
+  @Getter
+  private final List<String> hiddenOrCalculatedColumns;
+
+  private RequisitionTemplatePlan(RequisitionTemplate template) {
+    for (LineItemColumn column : LineItemColumn.values()) {
+      String name = column.getName();
+      boolean columnDisplayed = template.isColumnInTemplateAndDisplayed(name);
+
+      if (columnDisplayed || template.isColumnInTemplate(name)) {
+        inTemplate.add(column);
+        addIf(displayed, column, columnDisplayed);
+        addIf(calculated, column, template.isColumnCalculated(name));
+        addIf(stockBased, column, template.isColumnStockBased(name));
+        addIf(userInput, column, template.isColumnUserInput(name));
+      }
+    }
+
+    List<String> hiddenOrCalculated = new ArrayList<>();
+    for (RequisitionTemplateColumn column : template.viewColumns().values()) {
+      if (isFalse(column.getIsDisplayed()) || column.getSource() == SourceType.CALCULATED) {
+        hiddenOrCalculated.add(column.getName());
+      }
+    }
+
+    this.populateStockOnHandFromStockCards = template.isPopulateStockOnHandFromStockCards();
+    this.hiddenOrCalculatedColumns = Collections.unmodifiableList(hiddenOrCalculated);
+  }
+
+  /**
+   * Compiles a new plan of the given template.
+   */
+  public static RequisitionTemplatePlan compile(RequisitionTemplate template) {
+    return new RequisitionTemplatePlan(template);
+  }
+
+  public boolean isInTemplate(LineItemColumn column) {
+    return inTemplate.contains(column);
+  }
+
+  public boolean isInTemplateAndDisplayed(LineItemColumn column) {
+    return displayed.contains(column);
+  }
+
+  public boolean isCalculated(LineItemColumn column) {
+    return calculated.contains(column);
+  }
+
+  public boolean isStockBased(LineItemColumn column) {
+    return stockBased.contains(column);
+  }
+
+  public boolean isUserInput(LineItemColumn column) {
+    return userInput.contains(column);
+  }
+
+  private static void addIf(Set<LineItemColumn> set, LineItemColumn column, boolean condition) {
+    if (condition) {
+      set.add(column);
+    }
+  }
+
+  /**
+   * Line item columns known to the calculations.
+   */
+  public enum LineItemColumn {
+    REQUESTED_QUANTITY(RequisitionLineItem.REQUESTED_QUANTITY),
+    REQUESTED_QUANTITY_EXPLANATION(RequisitionLineItem.REQUESTED_QUANTITY_EXPLANATION),
+    BEGINNING_BALANCE(RequisitionLineItem.BEGINNING_BALANCE),
+    TOTAL_RECEIVED_QUANTITY(RequisitionLineItem.TOTAL_RECEIVED_QUANTITY),
+    STOCK_ON_HAND(RequisitionLineItem.STOCK_ON_HAND),
+    TOTAL_CONSUMED_QUANTITY(RequisitionLineItem.TOTAL_CONSUMED_QUANTITY),
+    TOTAL_LOSSES_AND_ADJUSTMENTS(RequisitionLineItem.TOTAL_LOSSES_AND_ADJUSTMENTS),
+    APPROVED_QUANTITY(RequisitionLineItem.APPROVED_QUANTITY),
+    REMARKS(RequisitionLineItem.REMARKS_COLUMN),
+    TOTAL_STOCKOUT_DAYS(RequisitionLineItem.TOTAL_STOCKOUT_DAYS),
+    TOTAL(RequisitionLineItem.TOTAL_COLUMN),
+    NUMBER_OF_NEW_PATIENTS_ADDED(RequisitionLineItem.NUMBER_OF_NEW_PATIENTS_ADDED),
+    SKIPPED(RequisitionLineItem.SKIPPED_COLUMN),
+    ADJUSTED_CONSUMPTION(RequisitionLineItem.ADJUSTED_CONSUMPTION),
+    AVERAGE_CONSUMPTION(RequisitionLineItem.AVERAGE_CONSUMPTION),
+    MAXIMUM_STOCK_QUANTITY(RequisitionLineItem.MAXIMUM_STOCK_QUANTITY),
+    CALCULATED_ORDER_QUANTITY(RequisitionLineItem.CALCULATED_ORDER_QUANTITY),
+    CALCULATED_ORDER_QUANTITY_ISA(RequisitionLineItem.CALCULATED_ORDER_QUANTITY_ISA),
+    ADDITIONAL_QUANTITY_REQUIRED(RequisitionLineItem.ADDITIONAL_QUANTITY_REQUIRED);
+
+    @Getter
+    private final String name;
+
+    LineItemColumn(String name) {
+      this.name = name;
+    }
+  }
+
+}
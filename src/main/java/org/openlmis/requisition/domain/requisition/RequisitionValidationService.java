@@ -24,6 +24,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import org.openlmis.requisition.errorhandling.ValidationResult;
+import org.openlmis.requisition.metrics.MetricsProfiler;
 import org.openlmis.requisition.utils.Message;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -64,7 +65,7 @@ public class RequisitionValidationService {
    */
   ValidationResult validateRequisitionCanBeUpdated() {
     XLOGGER.entry();
-    Profiler profiler = new Profiler("VALIDATE_REQUISITION_CAN_BE_UPDATE");
+    Profiler profiler = new MetricsProfiler("VALIDATE_REQUISITION_CAN_BE_UPDATE");
     profiler.setLogger(XLOGGER);
 
     Map<String, Message> errors = new HashMap<>();
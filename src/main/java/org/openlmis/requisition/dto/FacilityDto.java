@@ -36,6 +36,33 @@ public class FacilityDto extends MinimalFacilityDto {
   private List<SupportedProgramDto> supportedPrograms;
   private FacilityOperatorDto operator;
 
+  /**
+   * Creates a shallow copy of the given facility. Facilities returned by the reference data
+   * service may be cached and shared between requests, so they are copied before any change.
+   *
+   * @param facility facility to copy
+   * @return new instance with the same field values
+   */
+  public static FacilityDto newInstance(FacilityDto facility) {
+    FacilityDto copy = new FacilityDto();
+    copy.setId(facility.getId());
+    copy.setCode(facility.getCode());
+    copy.setName(facility.getName());
+    copy.setActive(facility.getActive());
+    copy.setGeographicZone(facility.getGeographicZone());
+    copy.setType(facility.getType());
+    copy.setDescription(facility.getDescription());
+    copy.setGoLiveDate(facility.getGoLiveDate());
+    copy.setGoDownDate(facility.getGoDownDate());
+    copy.setComment(facility.getComment());
+    copy.setEnabled(facility.getEnabled());
+    copy.setOpenLmisAccessible(facility.getOpenLmisAccessible());
+    copy.setSupportedPrograms(facility.getSupportedPrograms());
+    copy.setOperator(facility.getOperator());
+
+    return copy;
+  }
+
   /**
    * Get zone with given level number by traversing up geographicZone hierarchy if needed.
    * @return zone of the facility with given level number.
@@ -0,0 +1,72 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.dto;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.openlmis.requisition.metrics.Timer;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+@ToString
+public final class TimerDto {
+  private static final double[] PERCENTILES = {0.5, 0.9, 0.95, 0.99};
+  private static final double NANOS_IN_MILLISECOND = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private String name;
+  private Map<String, String> tags;
+  private Long count;
+  private Double totalTime;
+  private Double mean;
+  private Double max;
+  private Map<String, Double> percentiles;
+
+  /**
+   * Creates new instance of TimerDto with current values of the given {@link Timer}. Durations
+   * are in milliseconds.
+   *
+   * @param timer instance of Timer
+   * @return new instance of TimerDto.
+   */
+  public static TimerDto newInstance(Timer timer) {
+    Timer.Snapshot snapshot = timer.takeSnapshot();
+    Map<String, Double> percentiles = new LinkedHashMap<>();
+
+    for (double percentile : PERCENTILES) {
+      percentiles.put(String.valueOf(percentile),
+          toMilliseconds(snapshot.getPercentile(percentile)));
+    }
+
+    return new TimerDto(timer.getName(), timer.getTags(), snapshot.getCount(),
+        toMilliseconds(snapshot.getTotalTime()), toMilliseconds(snapshot.getMean()),
+        toMilliseconds(snapshot.getMaxTime()), percentiles);
+  }
+
+  private static double toMilliseconds(double nanos) {
+    return nanos / NANOS_IN_MILLISECOND;
+  }
+
+}
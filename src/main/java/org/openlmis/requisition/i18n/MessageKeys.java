@@ -46,6 +46,12 @@ public abstract class MessageKeys {
       + ".reporting.template.exist";
   public static final String ERROR_REPORTING_TEMPLATE_NOT_FOUND = ERROR_PREFIX
       + ".reporting.template.notFound";
+  public static final String ERROR_PRINT_REQUISITION_IDS_MISSING = ERROR_PREFIX
+      + ".print.requisitionIds.missing";
+  public static final String ERROR_PRINT_TOO_MANY_REQUISITIONS = ERROR_PREFIX
+      + ".print.requisitionIds.tooMany";
+  public static final String ERROR_PRINT_FORMAT_NOT_SUPPORTED = ERROR_PREFIX
+      + ".print.format.notSupported";
   public static final String ERROR_MUST_BE_SUBMITTED_TO_BE_AUTHORIZED = ERROR_PREFIX
       + ".authorize.mustBeSubmittedToBeAuthorize";
   public static final String ERROR_FINISH_PROVIOUS_REQUISITION = ERROR_PREFIX
@@ -76,6 +82,8 @@ public abstract class MessageKeys {
       + ".facilityNotFound";
   public static final String ERROR_PROGRAM_NOT_FOUND = ERROR_PREFIX
       + ".programNotFound";
+  public static final String ERROR_PERIOD_NOT_FOUND = ERROR_PREFIX
+      + ".periodNotFound";
   public static final String ERROR_ID_MISMATCH = ERROR_PREFIX
       + ".idMismatch";
   public static final String ERROR_NO_SUBMITTED_REQUISITIONS = ERROR_PREFIX
@@ -268,6 +276,8 @@ public abstract class MessageKeys {
       ERROR_PREFIX + ".validation.invalidBooleanFormat";
   public static final String ERROR_INVALID_UUID_FORMAT =
       ERROR_PREFIX + ".validation.invalidUuidFormat";
+  public static final String ERROR_INVALID_CONTINUATION_TOKEN =
+      ERROR_PREFIX + ".validation.invalidContinuationToken";
 
   public static final String REQUISITION_EMAIL_CONVERT_TO_ORDER_SUBJECT
       = "requisition.email.convertToOrder.subject";
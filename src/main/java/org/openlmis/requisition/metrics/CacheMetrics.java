@@ -0,0 +1,50 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.metrics;
+
+import com.google.common.cache.Cache;
+
+/**
+ * Registers gauges of a Guava cache that records its statistics: the number of hits, misses and
+ * evictions since the cache was created and the current number of entries. The gauges are tagged
+ * with the cache name and read the cache statistics every time they are requested.
+ */
+public final class CacheMetrics {
+  static final String HITS = "cache.hits";
+  static final String MISSES = "cache.misses";
+  static final String EVICTIONS = "cache.evictions";
+  static final String SIZE = "cache.size";
+
+  private static final String CACHE_TAG = "cache";
+
+  private CacheMetrics() {
+  }
+
+  /**
+   * Registers gauges of the given cache, replacing gauges of an earlier cache with the same name.
+   *
+   * @param registry registry of the gauges.
+   * @param name     name of the cache, for example {@code facilities}.
+   * @param cache    cache created with statistics recording enabled.
+   */
+  public static void register(MetricsRegistry registry, String name, Cache<?, ?> cache) {
+    registry.gauge(HITS, () -> cache.stats().hitCount(), CACHE_TAG, name);
+    registry.gauge(MISSES, () -> cache.stats().missCount(), CACHE_TAG, name);
+    registry.gauge(EVICTIONS, () -> cache.stats().evictionCount(), CACHE_TAG, name);
+    registry.gauge(SIZE, cache::size, CACHE_TAG, name);
+  }
+
+}
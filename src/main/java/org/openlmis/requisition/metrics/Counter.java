@@ -0,0 +1,61 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.metrics;
+
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.Getter;
+
+/**
+ * Counts events, for example database queries sent while handling requests. The count only
+ * grows and does not change when metrics are disabled in the {@link MetricsRegistry}.
+ */
+public final class Counter implements Meter {
+
+  @Getter
+  private final String name;
+
+  @Getter
+  private final Map<String, String> tags;
+
+  private final MetricsRegistry registry;
+
+  private final LongAdder count = new LongAdder();
+
+  Counter(String name, Map<String, String> tags, MetricsRegistry registry) {
+    this.name = name;
+    this.tags = tags;
+    this.registry = registry;
+  }
+
+  public void increment() {
+    increment(1);
+  }
+
+  /**
+   * Adds the given amount to the count.
+   */
+  public void increment(long amount) {
+    if (registry.isEnabled()) {
+      count.add(amount);
+    }
+  }
+
+  public long getCount() {
+    return count.sum();
+  }
+
+}
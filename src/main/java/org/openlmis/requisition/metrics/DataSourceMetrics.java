@@ -0,0 +1,67 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.metrics;
+
+import javax.annotation.PostConstruct;
+import javax.sql.DataSource;
+import org.apache.tomcat.jdbc.pool.DataSourceProxy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Registers gauges of the database connection pool: the number of active, idle and all open
+ * connections, the maximum number of active connections and the number of threads waiting for
+ * a connection. Only the Tomcat JDBC pool, which is the default pool of this service, is
+ * supported.
+ */
+@Component
+public class DataSourceMetrics {
+  private static final Logger LOGGER = LoggerFactory.getLogger(DataSourceMetrics.class);
+
+  static final String ACTIVE_CONNECTIONS = "jdbc.connections.active";
+  static final String IDLE_CONNECTIONS = "jdbc.connections.idle";
+  static final String OPEN_CONNECTIONS = "jdbc.connections.open";
+  static final String MAX_CONNECTIONS = "jdbc.connections.max";
+  static final String PENDING_CONNECTIONS = "jdbc.connections.pending";
+
+  @Autowired
+  private DataSource dataSource;
+
+  @Autowired
+  private MetricsRegistry metricsRegistry;
+
+  /**
+   * Registers pool gauges if the data source is a Tomcat JDBC pool.
+   */
+  @PostConstruct
+  public void registerGauges() {
+    if (!(dataSource instanceof DataSourceProxy)) {
+      LOGGER.info("Connection pool metrics are not available for {}", dataSource.getClass());
+      return;
+    }
+
+    DataSourceProxy pool = (DataSourceProxy) dataSource;
+
+    metricsRegistry.gauge(ACTIVE_CONNECTIONS, pool::getActive);
+    metricsRegistry.gauge(IDLE_CONNECTIONS, pool::getIdle);
+    metricsRegistry.gauge(OPEN_CONNECTIONS, pool::getSize);
+    metricsRegistry.gauge(MAX_CONNECTIONS, pool::getMaxActive);
+    metricsRegistry.gauge(PENDING_CONNECTIONS, pool::getWaitCount);
+  }
+
+}
@@ -0,0 +1,46 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.metrics;
+
+import java.util.Map;
+import java.util.function.DoubleSupplier;
+import lombok.Getter;
+
+/**
+ * Reports a value that can go up and down, for example the number of active database
+ * connections. The value is read from its source every time it is requested.
+ */
+public final class Gauge implements Meter {
+
+  @Getter
+  private final String name;
+
+  @Getter
+  private final Map<String, String> tags;
+
+  private final DoubleSupplier source;
+
+  Gauge(String name, Map<String, String> tags, DoubleSupplier source) {
+    this.name = name;
+    this.tags = tags;
+    this.source = source;
+  }
+
+  public double getValue() {
+    return source.getAsDouble();
+  }
+
+}
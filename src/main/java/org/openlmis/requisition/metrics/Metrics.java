@@ -0,0 +1,77 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.metrics;
+
+/**
+ * Gives access to the metrics registry of the application. Classes that are not Spring beans,
+ * like domain objects, and classes that keep timers in static fields use it to get their timers.
+ */
+public final class Metrics {
+  private static final MetricsRegistry REGISTRY = new MetricsRegistry();
+
+  /**
+   * Name of timers that measure whole operations, for example {@code REQUISITION_DTO_BUILD}.
+   * They have one tag: {@code operation}.
+   */
+  public static final String OPERATION_TIMER = "requisition.operation";
+
+  /**
+   * Name of timers that measure stages of an operation. They have two tags: {@code operation},
+   * for example {@code REQUISITION_DTO_BUILD}, and {@code stage}, for example {@code EXPORT}.
+   */
+  public static final String STAGE_TIMER = "requisition.stage";
+
+  private static final String OPERATION_TAG = "operation";
+
+  private Metrics() {
+  }
+
+  public static MetricsRegistry getRegistry() {
+    return REGISTRY;
+  }
+
+  /**
+   * Returns the timer with the given name and tags.
+   *
+   * @see MetricsRegistry#timer(String, String...)
+   */
+  public static Timer timer(String name, String... tags) {
+    return REGISTRY.timer(name, tags);
+  }
+
+  /**
+   * Returns the counter with the given name and tags.
+   *
+   * @see MetricsRegistry#counter(String, String...)
+   */
+  public static Counter counter(String name, String... tags) {
+    return REGISTRY.counter(name, tags);
+  }
+
+  /**
+   * Returns the timer of the given operation.
+   */
+  public static Timer operationTimer(String operation) {
+    return REGISTRY.timer(OPERATION_TIMER, OPERATION_TAG, operation);
+  }
+
+  /**
+   * Returns the timer of the given stage of an operation.
+   */
+  public static Timer stageTimer(String operation, String stage) {
+    return REGISTRY.timer(STAGE_TIMER, OPERATION_TAG, operation, "stage", stage);
+  }
+}
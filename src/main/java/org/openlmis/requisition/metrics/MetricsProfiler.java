@@ -0,0 +1,100 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.profiler.Profiler;
+import org.slf4j.profiler.TimeInstrument;
+
+/**
+ * Profiler that also records how long the profiled operation and each of its stages took, so
+ * the same named stages that are logged at debug level can be watched in production. The
+ * operation is recorded by the {@link Metrics#OPERATION_TIMER} timer and its stages by the
+ * {@link Metrics#STAGE_TIMER} timer when the profiler is stopped. Nested profilers are recorded
+ * as separate operations.
+ *
+ * <p>Profilers created between {@link #startTracking()} and {@link #stopTracking()} by the same
+ * thread, for example while a request is handled, are tracked. The ones that the profiled code
+ * did not stop because it threw an exception are stopped and recorded by
+ * {@link #stopTracking()}, so failed operations are recorded too.
+ */
+public class MetricsProfiler extends Profiler {
+  private static final ThreadLocal<List<MetricsProfiler>> RUNNING = new ThreadLocal<>();
+
+  /**
+   * Creates and starts the profiler.
+   */
+  public MetricsProfiler(String name) {
+    super(name);
+
+    List<MetricsProfiler> running = RUNNING.get();
+    if (null != running) {
+      running.add(this);
+    }
+  }
+
+  /**
+   * Starts tracking profilers created by the current thread.
+   */
+  public static void startTracking() {
+    RUNNING.set(new ArrayList<>());
+  }
+
+  /**
+   * Stops tracking profilers created by the current thread. Tracked profilers that are still
+   * running are stopped, which records them.
+   */
+  public static void stopTracking() {
+    List<MetricsProfiler> running = RUNNING.get();
+    RUNNING.remove();
+
+    if (null != running) {
+      running.forEach(MetricsProfiler::stop);
+    }
+  }
+
+  @Override
+  public TimeInstrument stop() {
+    TimeInstrument instrument = super.stop();
+    record(this);
+
+    List<MetricsProfiler> running = RUNNING.get();
+    if (null != running) {
+      running.remove(this);
+    }
+
+    return instrument;
+  }
+
+  private static void record(Profiler profiler) {
+    Metrics
+        .operationTimer(profiler.getName())
+        .record(profiler.elapsedTime(), TimeUnit.NANOSECONDS);
+
+    for (TimeInstrument child : profiler.getCopyOfChildTimeInstruments()) {
+      if (child instanceof Profiler) {
+        record((Profiler) child);
+      } else {
+        Metrics
+            .stageTimer(profiler.getName(), child.getName())
+            .record(child.elapsedTime(), TimeUnit.NANOSECONDS);
+      }
+    }
+  }
+
+}
@@ -0,0 +1,149 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.metrics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.DoubleSupplier;
+import java.util.function.Function;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Keeps timers, counters and gauges identified by name and tags. A timer or counter is created
+ * the first time it is requested and lives as long as the registry. When the registry is
+ * disabled, timers and counters do not record anything.
+ */
+public class MetricsRegistry {
+  private final ConcurrentMap<List<Object>, Timer> timers = new ConcurrentHashMap<>();
+  private final ConcurrentMap<List<Object>, Counter> counters = new ConcurrentHashMap<>();
+  private final ConcurrentMap<List<Object>, Gauge> gauges = new ConcurrentHashMap<>();
+
+  @Getter
+  @Setter
+  private volatile boolean enabled = true;
+
+  /**
+   * Returns the timer with the given name and tags.
+   *
+   * @param name name of the measured operation, for example {@code http.server.requests}.
+   * @param tags tag names followed by their values, for example {@code "method", "GET"}.
+   * @return existing or new timer.
+   */
+  public Timer timer(String name, String... tags) {
+    return getOrCreate(timers, name, tags, tagMap -> new Timer(name, tagMap, this));
+  }
+
+  /**
+   * Returns the counter with the given name and tags.
+   *
+   * @param name name of the counted events, for example {@code http.server.queries}.
+   * @param tags tag names followed by their values, for example {@code "method", "GET"}.
+   * @return existing or new counter.
+   */
+  public Counter counter(String name, String... tags) {
+    return getOrCreate(counters, name, tags, tagMap -> new Counter(name, tagMap, this));
+  }
+
+  /**
+   * Registers a gauge that reads its value from the given source. A gauge registered earlier
+   * with the same name and tags is replaced.
+   *
+   * @param name   name of the value, for example {@code jdbc.connections.active}.
+   * @param source returns the current value.
+   * @param tags   tag names followed by their values.
+   * @return new gauge.
+   */
+  public Gauge gauge(String name, DoubleSupplier source, String... tags) {
+    SortedMap<String, String> tagMap = createTagMap(tags);
+    Gauge gauge = new Gauge(name, tagMap, source);
+    gauges.put(Arrays.asList(name, tagMap), gauge);
+
+    return gauge;
+  }
+
+  /**
+   * Returns all timers, sorted by their names and tags.
+   */
+  public List<Timer> getTimers() {
+    return sort(timers.values());
+  }
+
+  /**
+   * Returns all counters, sorted by their names and tags.
+   */
+  public List<Counter> getCounters() {
+    return sort(counters.values());
+  }
+
+  /**
+   * Returns all gauges, sorted by their names and tags.
+   */
+  public List<Gauge> getGauges() {
+    return sort(gauges.values());
+  }
+
+  /**
+   * Removes all timers, counters and gauges.
+   */
+  public void clear() {
+    timers.clear();
+    counters.clear();
+    gauges.clear();
+  }
+
+  private static <M extends Meter> M getOrCreate(ConcurrentMap<List<Object>, M> meters,
+      String name, String[] tags, Function<SortedMap<String, String>, M> factory) {
+    SortedMap<String, String> tagMap = createTagMap(tags);
+    List<Object> key = Arrays.asList(name, tagMap);
+    M meter = meters.get(key);
+
+    return null == meter
+        ? meters.computeIfAbsent(key, ignored -> factory.apply(tagMap))
+        : meter;
+  }
+
+  private static SortedMap<String, String> createTagMap(String[] tags) {
+    if (tags.length % 2 != 0) {
+      throw new IllegalArgumentException("Each tag must have a name and a value: "
+          + Arrays.toString(tags));
+    }
+
+    SortedMap<String, String> tagMap = new TreeMap<>();
+    for (int i = 0; i < tags.length; i += 2) {
+      tagMap.put(tags[i], tags[i + 1]);
+    }
+
+    return Collections.unmodifiableSortedMap(tagMap);
+  }
+
+  private static <M extends Meter> List<M> sort(Collection<M> meters) {
+    List<M> list = new ArrayList<>(meters);
+    list.sort(Comparator
+        .comparing(Meter::getName)
+        .thenComparing(meter -> meter.getTags().toString()));
+
+    return list;
+  }
+}
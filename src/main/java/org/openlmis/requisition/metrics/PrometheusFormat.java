@@ -0,0 +1,172 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.metrics;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes meters of a {@link MetricsRegistry} in the Prometheus text exposition format. Timers
+ * become histograms in seconds with one bucket per timer bucket bound, together with gauges of
+ * their maximum durations, counters get the {@code _total} suffix and gauges are written as
+ * they are. Dots and other characters not allowed in Prometheus names are replaced by
+ * underscores, so {@code http.server.requests} becomes {@code http_server_requests_seconds}.
+ */
+public final class PrometheusFormat {
+  public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+  private static final double NANOS_IN_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  private static final String[] BUCKET_BOUNDS = createBucketBounds();
+
+  private PrometheusFormat() {
+  }
+
+  /**
+   * Returns current values of all meters of the given registry.
+   */
+  public static String format(MetricsRegistry registry) {
+    StringBuilder builder = new StringBuilder();
+
+    writeTimers(builder, registry.getTimers());
+    writeCounters(builder, registry.getCounters());
+    writeGauges(builder, registry.getGauges());
+
+    return builder.toString();
+  }
+
+  private static void writeTimers(StringBuilder builder, List<Timer> timers) {
+    String family = null;
+
+    for (Timer timer : timers) {
+      String name = sanitize(timer.getName()) + "_seconds";
+      family = writeType(builder, family, name, "histogram");
+
+      Timer.Snapshot snapshot = timer.takeSnapshot();
+      long[] counts = snapshot.getBucketCounts();
+      long cumulative = 0;
+
+      for (int i = 0; i < BUCKET_BOUNDS.length; ++i) {
+        cumulative += counts[i];
+        writeName(builder, name + "_bucket", timer.getTags(), BUCKET_BOUNDS[i]);
+        builder.append(cumulative).append('\n');
+      }
+
+      writeName(builder, name + "_bucket", timer.getTags(), "+Inf");
+      builder.append(snapshot.getCount()).append('\n');
+      writeName(builder, name + "_sum", timer.getTags(), null);
+      builder.append(snapshot.getTotalTime() / NANOS_IN_SECOND).append('\n');
+      writeName(builder, name + "_count", timer.getTags(), null);
+      builder.append(snapshot.getCount()).append('\n');
+    }
+
+    family = null;
+
+    for (Timer timer : timers) {
+      String name = sanitize(timer.getName()) + "_seconds_max";
+      family = writeType(builder, family, name, "gauge");
+
+      writeName(builder, name, timer.getTags(), null);
+      builder.append(timer.takeSnapshot().getMaxTime() / NANOS_IN_SECOND).append('\n');
+    }
+  }
+
+  private static void writeCounters(StringBuilder builder, List<Counter> counters) {
+    String family = null;
+
+    for (Counter counter : counters) {
+      String name = sanitize(counter.getName()) + "_total";
+      family = writeType(builder, family, name, "counter");
+
+      writeName(builder, name, counter.getTags(), null);
+      builder.append(counter.getCount()).append('\n');
+    }
+  }
+
+  private static void writeGauges(StringBuilder builder, List<Gauge> gauges) {
+    String family = null;
+
+    for (Gauge gauge : gauges) {
+      String name = sanitize(gauge.getName());
+      family = writeType(builder, family, name, "gauge");
+
+      writeName(builder, name, gauge.getTags(), null);
+      builder.append(gauge.getValue()).append('\n');
+    }
+  }
+
+  // meters are sorted by name, so the type line is written before the first meter of a family
+  private static String writeType(StringBuilder builder, String previous, String name,
+      String type) {
+    if (!name.equals(previous)) {
+      builder.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    return name;
+  }
+
+  private static void writeName(StringBuilder builder, String name, Map<String, String> tags,
+      String bucketBound) {
+    builder.append(name);
+
+    if (!tags.isEmpty() || null != bucketBound) {
+      char separator = '{';
+
+      for (Map.Entry<String, String> tag : tags.entrySet()) {
+        builder.append(separator);
+        writeLabel(builder, sanitize(tag.getKey()), tag.getValue());
+        separator = ',';
+      }
+
+      if (null != bucketBound) {
+        builder.append(separator);
+        writeLabel(builder, "le", bucketBound);
+      }
+
+      builder.append('}');
+    }
+
+    builder.append(' ');
+  }
+
+  private static void writeLabel(StringBuilder builder, String name, String value) {
+    builder
+        .append(name)
+        .append("=\"")
+        .append(value
+            .replace("\\", "\\\\")
+            .replace("\"", "\\\"")
+            .replace("\n", "\\n"))
+        .append('"');
+  }
+
+  private static String sanitize(String name) {
+    return name.replaceAll("[^a-zA-Z0-9_:]", "_");
+  }
+
+  private static String[] createBucketBounds() {
+    long[] bounds = Timer.getBucketBounds();
+    String[] labels = new String[bounds.length];
+
+    for (int i = 0; i < bounds.length; ++i) {
+      labels[i] = String.valueOf(bounds[i] / NANOS_IN_SECOND);
+    }
+
+    return labels;
+  }
+
+}
@@ -0,0 +1,49 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.metrics;
+
+import org.apache.commons.lang3.mutable.MutableLong;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts SQL statements prepared by Hibernate in each thread, so the number of queries sent
+ * while handling a request can be recorded. It is registered with the
+ * {@code hibernate.session_factory.statement_inspector} property and leaves statements
+ * unchanged.
+ *
+ * <p>Statements are counted per thread only, so queries sent by tasks that run on other threads,
+ * like the ones submitted to an {@code InstrumentedExecutor}, are not attributed to the request
+ * that submitted them.
+ */
+public class QueryCountingStatementInspector implements StatementInspector {
+  private static final long serialVersionUID = 2710566012409851541L;
+
+  private static final ThreadLocal<MutableLong> COUNT = ThreadLocal.withInitial(MutableLong::new);
+
+  /**
+   * Returns the number of statements prepared by the current thread so far.
+   */
+  public static long getCount() {
+    return COUNT.get().longValue();
+  }
+
+  @Override
+  public String inspect(String sql) {
+    COUNT.get().increment();
+    return sql;
+  }
+
+}
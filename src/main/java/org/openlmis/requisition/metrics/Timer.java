@@ -0,0 +1,210 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.metrics;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Measures durations of an operation. Durations are counted in a histogram with fixed buckets
+ * from 10 microseconds to 50 seconds, from which percentiles are estimated. Recording does not
+ * allocate and does nothing when metrics are disabled in the {@link MetricsRegistry}.
+ */
+public final class Timer implements Meter {
+  private static final long[] BUCKET_BOUNDS = createBucketBounds();
+
+  @Getter
+  private final String name;
+
+  @Getter
+  private final Map<String, String> tags;
+
+  private final MetricsRegistry registry;
+
+  private final LongAdder totalTime = new LongAdder();
+  private final AtomicLong maxTime = new AtomicLong();
+  private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_BOUNDS.length + 1);
+
+  Timer(String name, Map<String, String> tags, MetricsRegistry registry) {
+    this.name = name;
+    this.tags = tags;
+    this.registry = registry;
+  }
+
+  /**
+   * Returns upper bounds of histogram buckets, in nanoseconds. The last bucket, for longer
+   * durations, has no upper bound.
+   */
+  public static long[] getBucketBounds() {
+    return BUCKET_BOUNDS.clone();
+  }
+
+  /**
+   * Returns the start time of a measured operation, to be passed to {@link #stop(long)}.
+   */
+  public long start() {
+    return System.nanoTime();
+  }
+
+  /**
+   * Records the time elapsed since the given start time.
+   *
+   * @param started value returned by {@link #start()}.
+   */
+  public void stop(long started) {
+    if (registry.isEnabled()) {
+      add(System.nanoTime() - started);
+    }
+  }
+
+  /**
+   * Records a single duration.
+   */
+  public void record(long duration, TimeUnit unit) {
+    if (registry.isEnabled()) {
+      add(unit.toNanos(duration));
+    }
+  }
+
+  /**
+   * Executes the given supplier and records how long it took, also when it fails.
+   */
+  public <T> T record(Supplier<T> supplier) {
+    long started = start();
+
+    try {
+      return supplier.get();
+    } finally {
+      stop(started);
+    }
+  }
+
+  /**
+   * Executes the given action and records how long it took, also when it fails.
+   */
+  public void record(Runnable action) {
+    long started = start();
+
+    try {
+      action.run();
+    } finally {
+      stop(started);
+    }
+  }
+
+  /**
+   * Returns current values of this timer.
+   */
+  public Snapshot takeSnapshot() {
+    long[] counts = new long[buckets.length()];
+    long count = 0;
+
+    for (int i = 0; i < counts.length; ++i) {
+      counts[i] = buckets.get(i);
+      count += counts[i];
+    }
+
+    return new Snapshot(count, totalTime.sum(), maxTime.get(), counts);
+  }
+
+  private void add(long nanos) {
+    int index = Arrays.binarySearch(BUCKET_BOUNDS, nanos);
+
+    buckets.incrementAndGet(index < 0 ? -index - 1 : index);
+    totalTime.add(nanos);
+    maxTime.accumulateAndGet(nanos, Math::max);
+  }
+
+  private static long[] createBucketBounds() {
+    long[] multipliers = {1, 2, 5};
+    long[] bounds = new long[21];
+    long decade = TimeUnit.MICROSECONDS.toNanos(10);
+
+    for (int i = 0; i < bounds.length; ++i) {
+      bounds[i] = decade * multipliers[i % multipliers.length];
+
+      if (i % multipliers.length == multipliers.length - 1) {
+        decade *= 10;
+      }
+    }
+
+    return bounds;
+  }
+
+  /**
+   * Values of a timer at some point in time. All durations are in nanoseconds.
+   */
+  @Getter
+  @AllArgsConstructor(access = AccessLevel.PRIVATE)
+  public static final class Snapshot {
+    private final long count;
+    private final long totalTime;
+    private final long maxTime;
+
+    @Getter(AccessLevel.NONE)
+    private final long[] bucketCounts;
+
+    /**
+     * Returns the number of durations in each histogram bucket. The last value is the number
+     * of durations longer than the last bucket bound.
+     */
+    public long[] getBucketCounts() {
+      return bucketCounts.clone();
+    }
+
+    public double getMean() {
+      return count == 0 ? 0 : (double) totalTime / count;
+    }
+
+    /**
+     * Estimates the given percentile by linear interpolation inside the histogram bucket that
+     * contains it. The result is never greater than the maximum recorded duration.
+     *
+     * @param quantile value between 0 and 1, for example 0.99 for the 99th percentile.
+     */
+    public double getPercentile(double quantile) {
+      if (count == 0) {
+        return 0;
+      }
+
+      long rank = Math.max(1, (long) Math.ceil(quantile * count));
+      long cumulative = 0;
+
+      for (int i = 0; i < BUCKET_BOUNDS.length; ++i) {
+        if (cumulative + bucketCounts[i] >= rank) {
+          long lower = i == 0 ? 0 : BUCKET_BOUNDS[i - 1];
+          long upper = Math.min(BUCKET_BOUNDS[i], maxTime);
+          double fraction = (double) (rank - cumulative) / bucketCounts[i];
+
+          return Math.min(lower + (upper - lower) * fraction, maxTime);
+        }
+
+        cumulative += bucketCounts[i];
+      }
+
+      return maxTime;
+    }
+  }
+
+}
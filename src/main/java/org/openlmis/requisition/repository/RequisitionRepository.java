@@ -15,20 +15,26 @@
 
 package org.openlmis.requisition.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 import org.javers.spring.annotation.JaversSpringDataAuditable;
 import org.openlmis.requisition.domain.requisition.Requisition;
+import org.openlmis.requisition.domain.requisition.RequisitionStatus;
+import org.openlmis.requisition.dto.PeriodRequisitionDto;
+import org.openlmis.requisition.dto.ReportingRateRequisitionDto;
 import org.openlmis.requisition.repository.custom.RequisitionRepositoryCustom;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.EntityGraph.EntityGraphType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 @JaversSpringDataAuditable
+@SuppressWarnings({"PMD.TooManyMethods", "PMD.AvoidDuplicateLiterals"})
 public interface RequisitionRepository extends
     JpaRepository<Requisition, UUID>,
     RequisitionRepositoryCustom,
@@ -38,6 +44,86 @@ public interface RequisitionRepository extends
   @EntityGraph(attributePaths = { "requisitionLineItems" }, type = EntityGraphType.LOAD)
   List<Requisition> readDistinctByIdIn(Iterable<UUID> ids);
 
+  @EntityGraph(attributePaths = { "requisitionLineItems" }, type = EntityGraphType.LOAD)
+  @Query("SELECT DISTINCT r FROM Requisition r"
+      + " WHERE r.facilityId = :facilityId"
+      + " AND r.programId = :programId"
+      + " AND r.emergency = FALSE"
+      + " AND r.processingPeriodId IN :processingPeriodIds")
+  List<Requisition> findRegularRequisitions(
+      @Param("facilityId") UUID facilityId,
+      @Param("programId") UUID programId,
+      @Param("processingPeriodIds") Collection<UUID> processingPeriodIds);
+
+  /**
+   * The maximum number of facility ids passed to {@link #findFacilityIdsWithRequisitions} and
+   * {@link #findReportingRateRequisitions} at once. Longer lists should be split into chunks of
+   * this size, which keeps the number of query parameters well below the database limit.
+   */
+  int FACILITY_IDS_CHUNK_SIZE = 10000;
+
+  @Query("SELECT DISTINCT r.facilityId FROM Requisition r"
+      + " WHERE r.facilityId IN :facilityIds"
+      + " AND r.programId = :programId"
+      + " AND r.processingPeriodId = :processingPeriodId"
+      + " AND r.status IN :statuses")
+  List<UUID> findFacilityIdsWithRequisitions(
+      @Param("facilityIds") Collection<UUID> facilityIds,
+      @Param("programId") UUID programId,
+      @Param("processingPeriodId") UUID processingPeriodId,
+      @Param("statuses") Collection<RequisitionStatus> statuses);
+
+  @Query("SELECT NEW org.openlmis.requisition.dto.ReportingRateRequisitionDto("
+      + "r.id, r.processingPeriodId, r.facilityId, MIN(sc.createdDate))"
+      + " FROM Requisition r LEFT JOIN r.statusChanges sc WITH sc.status = :status"
+      + " WHERE r.programId = :programId"
+      + " AND r.emergency = FALSE"
+      + " AND r.processingPeriodId IN :processingPeriodIds"
+      + " AND r.facilityId IN :facilityIds"
+      + " GROUP BY r.id, r.processingPeriodId, r.facilityId")
+  List<ReportingRateRequisitionDto> findReportingRateRequisitions(
+      @Param("programId") UUID programId,
+      @Param("processingPeriodIds") Collection<UUID> processingPeriodIds,
+      @Param("facilityIds") Collection<UUID> facilityIds,
+      @Param("status") RequisitionStatus status);
+
+  @Query("SELECT NEW org.openlmis.requisition.dto.PeriodRequisitionDto("
+      + "r.id, r.processingPeriodId, r.status, r.emergency)"
+      + " FROM Requisition r"
+      + " WHERE r.facilityId = :facilityId"
+      + " AND r.programId = :programId"
+      + " AND r.emergency = :emergency"
+      + " AND r.processingPeriodId IN :processingPeriodIds"
+      + " ORDER BY r.createdDate")
+  List<PeriodRequisitionDto> findPeriodRequisitions(
+      @Param("facilityId") UUID facilityId,
+      @Param("programId") UUID programId,
+      @Param("processingPeriodIds") Collection<UUID> processingPeriodIds,
+      @Param("emergency") Boolean emergency);
+
+  @Query("SELECT DISTINCT r.facilityId FROM Requisition r"
+      + " WHERE r.status = ?1")
+  List<UUID> findFacilityIdsByStatus(RequisitionStatus status);
+
+  @Query("SELECT DISTINCT r.programId FROM Requisition r"
+      + " WHERE r.status = ?1")
+  List<UUID> findProgramIdsByStatus(RequisitionStatus status);
+
+  @Modifying
+  @Query("UPDATE Requisition r"
+      + " SET r.facilityName = ?2, r.facilityCode = ?3"
+      + " WHERE r.facilityId = ?1"
+      + " AND (r.facilityName IS NULL OR r.facilityName <> ?2"
+      + " OR r.facilityCode IS NULL OR r.facilityCode <> ?3)")
+  int updateFacilityNames(UUID facilityId, String facilityName, String facilityCode);
+
+  @Modifying
+  @Query("UPDATE Requisition r"
+      + " SET r.programName = ?2"
+      + " WHERE r.programId = ?1"
+      + " AND (r.programName IS NULL OR r.programName <> ?2)")
+  int updateProgramNames(UUID programId, String programName);
+
   @Query(value = "SELECT\n"
       + "    r.*\n"
       + "FROM\n"
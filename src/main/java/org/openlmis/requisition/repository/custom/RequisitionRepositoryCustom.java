@@ -46,9 +46,13 @@ public interface RequisitionRepositoryCustom {
                                        UUID program,
                                        Boolean emergency);
 
-  List<Requisition> searchApprovedRequisitions(String filterBy,
+  Page<Requisition> searchApprovedRequisitions(String filterBy,
                                                Collection<UUID> facilityIds,
-                                               Collection<UUID> programIds);
+                                               Collection<UUID> programIds,
+                                               Set<Pair<UUID, UUID>> programNodePairs,
+                                               Pageable pageable);
+
+  Set<Pair<UUID, UUID>> findApprovedProgramSupervisoryNodePairs();
 
   Page<Requisition> searchApprovableRequisitionsByProgramSupervisoryNodePairs(
       Set<Pair> programNodePairs, Pageable pageable);
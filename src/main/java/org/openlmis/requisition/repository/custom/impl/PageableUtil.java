@@ -39,4 +39,16 @@ final class PageableUtil {
     int firstResult = null != pageable ? pageable.getPageNumber() * pageSize : 0;
     return new ImmutablePair<>(pageSize, firstResult);
   }
+
+  /**
+   * Same as {@link #querysMaxAndFirstResult(Pageable)}, but with one more result. The extra
+   * result is not a part of the page, it only shows that there is a next page.
+   */
+  static Pair<Integer, Integer> querysMaxAndFirstResultWithNext(Pageable pageable) {
+    Pair<Integer, Integer> maxAndFirst = querysMaxAndFirstResult(pageable);
+    int maxResults = maxAndFirst.getLeft() == Integer.MAX_VALUE
+        ? Integer.MAX_VALUE
+        : maxAndFirst.getLeft() + 1;
+    return new ImmutablePair<>(maxResults, maxAndFirst.getRight());
+  }
 }
@@ -15,13 +15,16 @@
 
 package org.openlmis.requisition.repository.custom.impl;
 
-import com.google.common.collect.Lists;
+import static org.openlmis.requisition.i18n.MessageKeys.ERROR_COLUMN_IS_NOT_VALID_FOR_SORTING;
+
+import com.google.common.collect.ImmutableMap;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -52,10 +55,20 @@ import org.openlmis.requisition.domain.requisition.Requisition;
 import org.openlmis.requisition.domain.requisition.RequisitionPermissionString;
 import org.openlmis.requisition.domain.requisition.RequisitionStatus;
 import org.openlmis.requisition.domain.requisition.StatusChange;
+import org.openlmis.requisition.exception.ValidationMessageException;
+import org.openlmis.requisition.metrics.Counter;
+import org.openlmis.requisition.metrics.Metrics;
+import org.openlmis.requisition.metrics.MetricsProfiler;
+import org.openlmis.requisition.metrics.Timer;
 import org.openlmis.requisition.repository.StatusChangeRepository;
 import org.openlmis.requisition.repository.custom.RequisitionRepositoryCustom;
+import org.openlmis.requisition.utils.ContinuationToken;
 import org.openlmis.requisition.utils.DateHelper;
+import org.openlmis.requisition.utils.KeysetPage;
+import org.openlmis.requisition.utils.KeysetPageable;
+import org.openlmis.requisition.utils.Message;
 import org.openlmis.requisition.utils.Pagination;
+import org.openlmis.requisition.utils.UncountedPageRequest;
 import org.slf4j.ext.XLogger;
 import org.slf4j.ext.XLoggerFactory;
 import org.slf4j.profiler.Profiler;
@@ -71,15 +84,25 @@ public class RequisitionRepositoryImpl implements RequisitionRepositoryCustom {
 
   private static final XLogger XLOGGER = XLoggerFactory.getXLogger(RequisitionRepositoryImpl.class);
 
+  private static final String APPROVED_FROM_CLAUSE = " FROM requisition.requisitions r"
+      + " INNER JOIN requisition.status_changes s ON r.id = s.requisitionid"
+      + " WHERE r.status = 'APPROVED'"
+      + " AND s.status = 'APPROVED'";
+
   private static final String SEARCH_APPROVED_SQL = "SELECT"
       + " r.id AS req_id, r.emergency AS req_emergency,"
       + " r.facilityid AS facility_id, r.programid AS program_id,"
       + " r.processingperiodid as period_id, r.supervisorynodeid as node_id,"
       + " s.createdDate as approved_date"
+      + APPROVED_FROM_CLAUSE;
+
+  private static final String COUNT_APPROVED_SQL = "SELECT COUNT(*)" + APPROVED_FROM_CLAUSE;
+
+  private static final String SEARCH_APPROVED_PAIRS_SQL = "SELECT DISTINCT"
+      + " r.programid AS program_id, r.supervisorynodeid AS node_id"
       + " FROM requisition.requisitions r"
-      + " INNER JOIN requisition.status_changes s ON r.id = s.requisitionid"
       + " WHERE r.status = 'APPROVED'"
-      + " AND s.status = 'APPROVED'";
+      + " AND r.supervisorynodeid IS NOT NULL";
 
   private static final String FACILITY_ID = "facilityId";
   private static final String PROGRAM_ID = "programId";
@@ -93,6 +116,28 @@ public class RequisitionRepositoryImpl implements RequisitionRepositoryCustom {
   private static final String FACILITY_NAME = "facilityName";
   private static final String AUTHORIZED_DATE = "authorizedDate";
   private static final String MODIFIED_DATE = "modifiedDate";
+  private static final String ID = "id";
+
+  private static final Map<String, String> APPROVED_SORT_COLUMNS = ImmutableMap.of(
+      EMERGENCY, "r.emergency",
+      PROGRAM_NAME, "r.programname",
+      FACILITY_CODE, "r.facilitycode",
+      FACILITY_NAME, "r.facilityname");
+
+  // the count query costs about as much as the page query, so comparing both timers shows how
+  // much time is saved by clients that do not ask for the total number of elements
+  private static final String SEARCH_QUERY_TIMER = "requisition.search.query";
+  private static final String QUERY_TYPE = "type";
+  private static final Timer COUNT_QUERY_TIMER =
+      Metrics.timer(SEARCH_QUERY_TIMER, QUERY_TYPE, "count");
+  private static final Timer PAGE_QUERY_TIMER =
+      Metrics.timer(SEARCH_QUERY_TIMER, QUERY_TYPE, "page");
+  private static final Counter SKIPPED_COUNT_QUERY_COUNTER =
+      Metrics.counter("requisition.search.query.skipped", QUERY_TYPE, "count");
+
+  private static final Sort APPROVED_DEFAULT_SORT = new Sort(
+      new Sort.Order(Sort.Direction.DESC, EMERGENCY),
+      new Sort.Order(Sort.Direction.ASC, PROGRAM_NAME));
 
   @PersistenceContext
   private EntityManager entityManager;
@@ -141,18 +186,36 @@ public class RequisitionRepositoryImpl implements RequisitionRepositoryCustom {
         initiatedDateTo, modifiedDateFrom, modifiedDateTo, processingPeriodId, supervisoryNodeId,
         requisitionStatuses, emergency, userPermissionStrings, false, pageable);
 
+    if (!isCountNeeded(pageable)) {
+      SKIPPED_COUNT_QUERY_COUNTER.increment();
+
+      Pair<Integer, Integer> maxAndFirst = PageableUtil.querysMaxAndFirstResultWithNext(pageable);
+      long pageQueryStart = PAGE_QUERY_TIMER.start();
+      List<Requisition> requisitions = entityManager.createQuery(requisitionQuery)
+          .setMaxResults(maxAndFirst.getLeft())
+          .setFirstResult(maxAndFirst.getRight())
+          .getResultList();
+      PAGE_QUERY_TIMER.stop(pageQueryStart);
+
+      return getUncountedPage(requisitions, pageable);
+    }
+
     CriteriaQuery<Long> countQuery = builder.createQuery(Long.class);
     countQuery = prepareQuery(countQuery, facilityId, programId, initiatedDateFrom,
         initiatedDateTo, modifiedDateFrom, modifiedDateTo, processingPeriodId, supervisoryNodeId,
         requisitionStatuses, emergency, userPermissionStrings, true, pageable);
 
+    long countQueryStart = COUNT_QUERY_TIMER.start();
     Long count = entityManager.createQuery(countQuery).getSingleResult();
+    COUNT_QUERY_TIMER.stop(countQueryStart);
 
     Pair<Integer, Integer> maxAndFirst = PageableUtil.querysMaxAndFirstResult(pageable);
+    long pageQueryStart = PAGE_QUERY_TIMER.start();
     List<Requisition> requisitions = entityManager.createQuery(requisitionQuery)
         .setMaxResults(maxAndFirst.getLeft())
         .setFirstResult(maxAndFirst.getRight())
         .getResultList();
+    PAGE_QUERY_TIMER.stop(pageQueryStart);
 
     return Pagination.getPage(requisitions, pageable, count);
   }
@@ -196,39 +259,95 @@ public class RequisitionRepositoryImpl implements RequisitionRepositoryCustom {
   }
 
   /**
-   * Get approved requisitions matching all of provided parameters.
-   * Empty list is returned if:
+   * Get a page of approved requisitions matching all of provided parameters.
+   * Empty page is returned if:
    * - facilityIds collection is empty and filterBy is facilityName or facilityCode,
    * - programIds collection is empty and filterBy is programName,
-   * - both facilityIds and programIds collections are empty and filterBy is all.
+   * - both facilityIds and programIds collections are empty and filterBy is all,
+   * - programNodePairs collection is empty.
+   * Requisitions are sorted by emergency flag, program name, facility code or facility name,
+   * by default emergency requisitions go first and then they are ordered by program name.
    *
-   * @param filterBy    Field used to filter: programName, facilityCode, facilityName or all.
-   * @param facilityIds Desired facility UUID list.
-   * @param programIds  Desired program UUID list.
-   * @return List of requisitions with required fields for convert.
+   * @param filterBy         Field used to filter: programName, facilityCode, facilityName or all.
+   * @param facilityIds      Desired facility UUID list.
+   * @param programIds       Desired program UUID list.
+   * @param programNodePairs Desired program / supervisoryNode pairs, null if requisitions should
+   *                         not be filtered by them.
+   * @param pageable         Page number, size and sort of the result.
+   * @return Page of requisitions with required fields for convert.
    */
   @Override
-  public List<Requisition> searchApprovedRequisitions(String filterBy,
+  public Page<Requisition> searchApprovedRequisitions(String filterBy,
                                                       Collection<UUID> facilityIds,
-                                                      Collection<UUID> programIds) {
-    XLOGGER.entry(filterBy, facilityIds, programIds);
+                                                      Collection<UUID> programIds,
+                                                      Set<Pair<UUID, UUID>> programNodePairs,
+                                                      Pageable pageable) {
+    XLOGGER.entry(filterBy, facilityIds, programIds, programNodePairs, pageable);
+
+    if (allFiltersEmpty(filterBy, facilityIds, programIds)
+        || (null != programNodePairs && programNodePairs.isEmpty())) {
+      Page<Requisition> page = Pagination.getPage(Collections.emptyList(), pageable);
 
-    if (allFiltersEmpty(filterBy, facilityIds, programIds)) {
-      return Lists.newArrayList();
+      XLOGGER.exit(page);
+      return page;
     }
 
-    Query query = createQuery(filterBy, facilityIds, programIds);
+    Map<String, Object> parameters = new HashMap<>();
+    String conditions = prepareApprovedConditions(filterBy, facilityIds, programIds,
+        programNodePairs, parameters);
+
+    Query countQuery = entityManager.createNativeQuery(COUNT_APPROVED_SQL + conditions);
+    parameters.forEach(countQuery::setParameter);
+
+    long countQueryStart = COUNT_QUERY_TIMER.start();
+    final Number count = (Number) countQuery.getSingleResult();
+    COUNT_QUERY_TIMER.stop(countQueryStart);
+
+    Query query = entityManager
+        .createNativeQuery(SEARCH_APPROVED_SQL + conditions + prepareApprovedOrder(pageable));
+    parameters.forEach(query::setParameter);
     addScalars(query);
 
+    Pair<Integer, Integer> maxAndFirst = PageableUtil.querysMaxAndFirstResult(pageable);
+    long pageQueryStart = PAGE_QUERY_TIMER.start();
     // hibernate always returns a list of array of objects
     @SuppressWarnings("unchecked")
-    List<Object[]> list = Collections.checkedList(query.getResultList(), Object[].class);
+    List<Object[]> list = Collections.checkedList(query
+        .setMaxResults(maxAndFirst.getLeft())
+        .setFirstResult(maxAndFirst.getRight())
+        .getResultList(), Object[].class);
+    PAGE_QUERY_TIMER.stop(pageQueryStart);
 
     List<Requisition> requisitions = list.stream().map(this::toRequisition)
         .collect(Collectors.toList());
 
-    XLOGGER.exit(requisitions);
-    return requisitions;
+    Page<Requisition> page = Pagination.getPage(requisitions, pageable, count.longValue());
+
+    XLOGGER.exit(page);
+    return page;
+  }
+
+  /**
+   * Get program / supervisoryNode pairs of all approved requisitions.
+   *
+   * @return set of program / supervisoryNode pairs.
+   */
+  @Override
+  public Set<Pair<UUID, UUID>> findApprovedProgramSupervisoryNodePairs() {
+    Query query = entityManager.createNativeQuery(SEARCH_APPROVED_PAIRS_SQL);
+
+    SQLQuery sql = query.unwrap(SQLQuery.class);
+    sql.addScalar("program_id", PostgresUUIDType.INSTANCE);
+    sql.addScalar("node_id", PostgresUUIDType.INSTANCE);
+
+    // hibernate always returns a list of array of objects
+    @SuppressWarnings("unchecked")
+    List<Object[]> list = Collections.checkedList(query.getResultList(), Object[].class);
+
+    return list
+        .stream()
+        .map(values -> Pair.of((UUID) values[0], (UUID) values[1]))
+        .collect(Collectors.toSet());
   }
 
   /**
@@ -243,20 +362,28 @@ public class RequisitionRepositoryImpl implements RequisitionRepositoryCustom {
       Set<Pair> programNodePairs, Pageable pageable) {
     XLOGGER.entry(programNodePairs, pageable);
 
-    Profiler profiler = new Profiler("SEARCH_APPROBABLE_REQ_BY_PROGRAM_SUP_NODE_PAIRS");
+    Profiler profiler = new MetricsProfiler("SEARCH_APPROBABLE_REQ_BY_PROGRAM_SUP_NODE_PAIRS");
     profiler.setLogger(XLOGGER);
 
     profiler.start("CREATE_BUILDER");
     CriteriaBuilder builder = entityManager.getCriteriaBuilder();
 
-    profiler.start("PREPARE_COUNT_QUERY");
-    CriteriaQuery<Long> countQuery = builder.createQuery(Long.class);
-    countQuery = prepareApprovableQuery(builder, countQuery, programNodePairs, true, pageable);
+    Long count = null;
 
-    profiler.start("EXECUTE_COUNT_QUERY");
-    Long count = entityManager.createQuery(countQuery).getSingleResult();
+    if (isCountNeeded(pageable)) {
+      profiler.start("PREPARE_COUNT_QUERY");
+      CriteriaQuery<Long> countQuery = builder.createQuery(Long.class);
+      countQuery = prepareApprovableQuery(builder, countQuery, programNodePairs, true, pageable);
+
+      profiler.start("EXECUTE_COUNT_QUERY");
+      long countQueryStart = COUNT_QUERY_TIMER.start();
+      count = entityManager.createQuery(countQuery).getSingleResult();
+      COUNT_QUERY_TIMER.stop(countQueryStart);
+    } else {
+      SKIPPED_COUNT_QUERY_COUNTER.increment();
+    }
 
-    if (count == 0) {
+    if (null != count && count == 0) {
       profiler.start("CREATE_RESULT_PAGE");
       Page<Requisition> page = Pagination.getPage(Collections.emptyList());
 
@@ -271,18 +398,27 @@ public class RequisitionRepositoryImpl implements RequisitionRepositoryCustom {
     graph.addSubgraph(Requisition.STATUS_CHANGES);
 
     profiler.start("GET_MAX_AND_FIRST");
-    final Pair<Integer, Integer> maxAndFirst = PageableUtil.querysMaxAndFirstResult(pageable);
+    final Pair<Integer, Integer> maxAndFirst = null == count
+        ? PageableUtil.querysMaxAndFirstResultWithNext(pageable)
+        : PageableUtil.querysMaxAndFirstResult(pageable);
 
     profiler.start("PREPARE_MAIN_QUERY");
     CriteriaQuery<Requisition> query = builder.createQuery(Requisition.class);
     query = prepareApprovableQuery(builder, query, programNodePairs, false, pageable);
 
     profiler.start("EXECUTE_MAIN_QUERY");
+    long pageQueryStart = PAGE_QUERY_TIMER.start();
     List<Requisition> requisitions = entityManager.createQuery(query)
         .setHint(QueryHints.LOADGRAPH, graph)
         .setMaxResults(maxAndFirst.getLeft())
         .setFirstResult(maxAndFirst.getRight())
         .getResultList();
+    PAGE_QUERY_TIMER.stop(pageQueryStart);
+
+    Page<Requisition> page = null == count
+        ? getUncountedPage(requisitions, pageable)
+        : Pagination.getPage(requisitions, pageable, count);
+    requisitions = page.getContent();
 
     profiler.start("GET_REQUISITIONS_IDS");
     Set<UUID> requisitionIds = requisitions
@@ -303,9 +439,6 @@ public class RequisitionRepositoryImpl implements RequisitionRepositoryCustom {
           requisition.setStatusChanges(statusChanges);
         });
 
-    profiler.start("CREATE_RESULT_PAGE");
-    Page<Requisition> page = Pagination.getPage(requisitions, pageable, count);
-
     XLOGGER.exit(page);
     profiler.stop().log();
 
@@ -391,6 +524,10 @@ public class RequisitionRepositoryImpl implements RequisitionRepositoryCustom {
     Predicate permissionStringPredicate = permissionStringExp.in(userPermissionStrings);
     predicate = builder.and(predicate, permissionStringPredicate);
 
+    if (!count) {
+      predicate = addSeekPredicate(builder, predicate, root, pageable);
+    }
+
     query.where(predicate);
 
     query.distinct(true);
@@ -442,6 +579,7 @@ public class RequisitionRepositoryImpl implements RequisitionRepositoryCustom {
       predicate = builder.and(predicate,
           builder.equal(statusChanges.get(STATUS), RequisitionStatus.AUTHORIZED),
           statusChanges.get(CREATED_DATE).in(subquery));
+      predicate = addSeekPredicate(builder, predicate, root, pageable);
     }
 
     if (!isCountQuery && pageable != null && pageable.getSort() != null) {
@@ -468,6 +606,39 @@ public class RequisitionRepositoryImpl implements RequisitionRepositoryCustom {
     return predicateToUse;
   }
 
+  private boolean isCountNeeded(Pageable pageable) {
+    return !(pageable instanceof KeysetPageable || pageable instanceof UncountedPageRequest);
+  }
+
+  private Page<Requisition> getUncountedPage(List<Requisition> requisitions, Pageable pageable) {
+    return pageable instanceof KeysetPageable
+        ? KeysetPage.of(requisitions, (KeysetPageable) pageable)
+        : UncountedPageRequest.getPage(requisitions, pageable);
+  }
+
+  private Predicate addSeekPredicate(CriteriaBuilder builder, Predicate predicate,
+      Root<Requisition> root, Pageable pageable) {
+    if (!(pageable instanceof KeysetPageable)) {
+      return predicate;
+    }
+
+    ContinuationToken token = ((KeysetPageable) pageable).getContinuationToken();
+
+    if (null == token) {
+      return predicate;
+    }
+
+    // requisitions after the token in the (createdDate, id) order
+    Path<ZonedDateTime> createdDate = root.get(CREATED_DATE);
+    Path<UUID> id = root.get(ID);
+
+    return builder.and(predicate, builder.or(
+        builder.greaterThan(createdDate, token.getCreatedDate()),
+        builder.and(
+            builder.equal(createdDate, token.getCreatedDate()),
+            builder.greaterThan(id, token.getId()))));
+  }
+
   private <T> CriteriaQuery<T> addSortProperties(CriteriaBuilder builder,
       CriteriaQuery<T> query, Root<Requisition> root, Pageable pageable) {
     List<Order> orders = new ArrayList<>();
@@ -502,13 +673,16 @@ public class RequisitionRepositoryImpl implements RequisitionRepositoryCustom {
     return query.orderBy(orders);
   }
 
-  private Query createQuery(String filterBy, Collection<UUID> facilityIds,
-                            Collection<UUID> programIds) {
-    StringBuilder builder = new StringBuilder(SEARCH_APPROVED_SQL);
+  // ids are bound as array parameters, so the statement text depends only on which filters are
+  // used and not on the ids themselves, and the database can reuse prepared statements
+  private String prepareApprovedConditions(String filterBy, Collection<UUID> facilityIds,
+      Collection<UUID> programIds, Set<Pair<UUID, UUID>> programNodePairs,
+      Map<String, Object> parameters) {
+    StringBuilder builder = new StringBuilder(256);
 
     if (!StringUtils.isEmpty(filterBy)) {
-      String facilities = idsSubquery("r.facilityid in %s", facilityIds);
-      String programs = idsSubquery("r.programid in %s", programIds);
+      String facilities = idsCondition("r.facilityid", "facilityIds", facilityIds, parameters);
+      String programs = idsCondition("r.programid", "programIds", programIds, parameters);
 
       if (facilities != null && programs != null && "all".equals(filterBy)) {
         builder.append(String.format(" AND (%s OR %s)", facilities, programs));
@@ -521,7 +695,45 @@ public class RequisitionRepositoryImpl implements RequisitionRepositoryCustom {
       }
     }
 
-    return entityManager.createNativeQuery(builder.toString());
+    if (null != programNodePairs) {
+      List<UUID> pairProgramIds = new ArrayList<>();
+      List<UUID> pairNodeIds = new ArrayList<>();
+
+      for (Pair<UUID, UUID> pair : programNodePairs) {
+        pairProgramIds.add(pair.getLeft());
+        pairNodeIds.add(pair.getRight());
+      }
+
+      parameters.put("pairProgramIds", toUuidArray(pairProgramIds));
+      parameters.put("pairNodeIds", toUuidArray(pairNodeIds));
+
+      builder.append(" AND (r.programid, r.supervisorynodeid) IN (SELECT * FROM unnest("
+          + "CAST(:pairProgramIds AS uuid[]), CAST(:pairNodeIds AS uuid[])))");
+    }
+
+    return builder.toString();
+  }
+
+  private String prepareApprovedOrder(Pageable pageable) {
+    Sort sort = null == pageable || null == pageable.getSort()
+        ? APPROVED_DEFAULT_SORT
+        : pageable.getSort();
+
+    StringBuilder builder = new StringBuilder(" ORDER BY ");
+
+    for (Sort.Order order : sort) {
+      String column = APPROVED_SORT_COLUMNS.get(order.getProperty());
+
+      if (null == column) {
+        throw new ValidationMessageException(
+            new Message(ERROR_COLUMN_IS_NOT_VALID_FOR_SORTING, order.getProperty()));
+      }
+
+      builder.append(column).append(order.isAscending() ? " ASC, " : " DESC, ");
+    }
+
+    // requisition id makes the order stable between pages
+    return builder.append("r.id").toString();
   }
 
   private void addScalars(Query query) {
@@ -535,26 +747,21 @@ public class RequisitionRepositoryImpl implements RequisitionRepositoryCustom {
     sql.addScalar("approved_date", ZonedDateTimeType.INSTANCE);
   }
 
-  private String idsSubquery(String base, Collection<UUID> uuids) {
+  private String idsCondition(String column, String parameter, Collection<UUID> uuids,
+      Map<String, Object> parameters) {
     if (CollectionUtils.isEmpty(uuids)) {
       return null;
-    } else {
-      return String.format(base, mergeIds(uuids));
     }
-  }
-
-  private String mergeIds(Collection<UUID> ids) {
-    StringBuilder idsBuilder = new StringBuilder("(");
-    String prefix = "";
 
-    for (UUID id : ids) {
-      idsBuilder.append(prefix);
-      idsBuilder.append("'" + id + "'");
-      prefix = ",";
-    }
-    idsBuilder.append(')');
+    parameters.put(parameter, toUuidArray(uuids));
+    return String.format("%s = ANY(CAST(:%s AS uuid[]))", column, parameter);
+  }
 
-    return idsBuilder.toString();
+  private String toUuidArray(Collection<UUID> ids) {
+    return ids
+        .stream()
+        .map(UUID::toString)
+        .collect(Collectors.joining(",", "{", "}"));
   }
 
   private Requisition toRequisition(Object[] values) {
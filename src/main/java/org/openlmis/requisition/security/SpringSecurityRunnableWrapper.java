@@ -28,14 +28,21 @@ public class SpringSecurityRunnableWrapper implements Runnable {
   }
 
   /**
-   * Sets context and run delegate.
+   * Sets context and run delegate. The previous context is restored afterwards, so the wrapper
+   * can be also executed by the calling thread.
    */
   public void run() {
+    SecurityContext previous = SecurityContextHolder.getContext();
+
     try {
       SecurityContextHolder.setContext(context);
       delegate.run();
     } finally {
-      SecurityContextHolder.clearContext();
+      if (SecurityContextHolder.createEmptyContext().equals(previous)) {
+        SecurityContextHolder.clearContext();
+      } else {
+        SecurityContextHolder.setContext(previous);
+      }
     }
   }
-}
\ No newline at end of file
+}
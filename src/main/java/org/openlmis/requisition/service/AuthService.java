@@ -28,7 +28,6 @@ import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestOperations;
-import org.springframework.web.client.RestTemplate;
 
 @Service
 public class AuthService {
@@ -43,7 +42,8 @@ public class AuthService {
   @Value("${auth.server.authorizationUrl}")
   private String authorizationUrl;
 
-  private RestOperations restTemplate = new RestTemplate();
+  private RestOperations restTemplate = OutboundRequestMetricsInterceptor
+      .createRestTemplate(AuthService.class);
 
   /**
    * Retrieves access token from the auth service.
@@ -23,8 +23,10 @@ import static org.openlmis.requisition.utils.RequestHelper.createUri;
 import java.lang.reflect.Array;
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.openlmis.requisition.dto.ResultDto;
@@ -45,13 +47,13 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestOperations;
-import org.springframework.web.client.RestTemplate;
 
 @SuppressWarnings("PMD.TooManyMethods")
 public abstract class BaseCommunicationService<T> {
   protected final Logger logger = LoggerFactory.getLogger(getClass());
 
-  protected RestOperations restTemplate = new RestTemplate();
+  protected RestOperations restTemplate = OutboundRequestMetricsInterceptor
+      .createRestTemplate(getClass());
 
   protected AuthService authService;
 
@@ -68,6 +70,16 @@ public abstract class BaseCommunicationService<T> {
 
   protected abstract String getServiceName();
 
+  /**
+   * Returns the cache that should be used for GET requests sent by this service. By default
+   * responses are not cached.
+   *
+   * @return cache instance or null if responses should not be cached.
+   */
+  protected ResponseCache getResponseCache() {
+    return null;
+  }
+
   /**
    * Return one object from service.
    *
@@ -105,11 +117,12 @@ public abstract class BaseCommunicationService<T> {
         .setAll(parameters);
 
     try {
-      return runWithTokenRetry(() -> restTemplate.exchange(
+      return withCache(Arrays.asList(url, params, type), () ->
+          runWithTokenRetry(() -> restTemplate.exchange(
               createUri(url, params),
               HttpMethod.GET,
               createEntity(authService.obtainAccessToken()),
-              type)).getBody();
+              type)).getBody());
     } catch (HttpStatusCodeException ex) {
       // rest template will handle 404 as an exception, instead of returning null
       if (HttpStatus.NOT_FOUND == ex.getStatusCode()) {
@@ -161,11 +174,11 @@ public abstract class BaseCommunicationService<T> {
         .setAll(parameters);
 
     try {
-      ResponseEntity<P[]> response = runWithTokenRetry(
-          () -> doListRequest(url, params, payload, method, type)
+      P[] body = withCache(method, payload, Arrays.asList(url, params, type), () ->
+          runWithTokenRetry(() -> doListRequest(url, params, payload, method, type)).getBody()
       );
 
-      return Stream.of(response.getBody()).collect(Collectors.toList());
+      return Stream.of(body).collect(Collectors.toList());
     } catch (HttpStatusCodeException ex) {
       throw buildDataRetrievalException(ex);
     }
@@ -199,10 +212,15 @@ public abstract class BaseCommunicationService<T> {
         .setAll(parameters);
 
     try {
-      ResponseEntity<PageDto<P>> response = runWithTokenRetry(
-          () -> doPageRequest(url, params, payload, method, type)
+      Page<P> page = withCache(method, payload, Arrays.asList(url, params, PageDto.class, type),
+          () -> runWithTokenRetry(() -> doPageRequest(url, params, payload, method, type))
+              .getBody()
       );
-      return response.getBody();
+
+      // cached pages are shared, so every caller gets its own list of the page content
+      return null == page ? null : new PageDto<>(page.isLast(), page.isFirst(),
+          page.getTotalPages(), page.getTotalElements(), page.getSize(), page.getNumber(),
+          page.getNumberOfElements(), page.getSort(), new ArrayList<>(page.getContent()));
     } catch (HttpStatusCodeException ex) {
       throw buildDataRetrievalException(ex);
     }
@@ -225,6 +243,18 @@ public abstract class BaseCommunicationService<T> {
     return response.getBody();
   }
 
+  private <P> P withCache(HttpMethod method, Object payload, Object key, Supplier<P> request) {
+    // only plain GET requests are idempotent enough to be served from the cache
+    return HttpMethod.GET == method && null == payload
+        ? withCache(key, request)
+        : request.get();
+  }
+
+  private <P> P withCache(Object key, Supplier<P> request) {
+    ResponseCache cache = getResponseCache();
+    return null == cache ? request.get() : cache.get(key, request);
+  }
+
   private <E> ResponseEntity<E[]> doListRequest(String url, RequestParameters parameters,
                                                 Object payload, HttpMethod method,
                                                 Class<E[]> type) {
@@ -0,0 +1,211 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.service;
+
+import static org.openlmis.requisition.i18n.MessageKeys.ERROR_IO;
+import static org.openlmis.requisition.i18n.MessageKeys.ERROR_JASPER_FILE_FORMAT;
+import static org.openlmis.requisition.i18n.MessageKeys.ERROR_REQUISITION_NOT_FOUND;
+
+import com.google.common.collect.Lists;
+import com.lowagie.text.Document;
+import com.lowagie.text.DocumentException;
+import com.lowagie.text.pdf.PdfCopy;
+import com.lowagie.text.pdf.PdfReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JasperExportManager;
+import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.export.JRCsvExporter;
+import net.sf.jasperreports.export.SimpleExporterInput;
+import net.sf.jasperreports.export.SimpleWriterExporterOutput;
+import org.apache.commons.io.output.CloseShieldOutputStream;
+import org.openlmis.requisition.domain.BaseEntity;
+import org.openlmis.requisition.domain.requisition.Requisition;
+import org.openlmis.requisition.exception.ContentNotFoundMessageException;
+import org.openlmis.requisition.exception.JasperReportViewException;
+import org.openlmis.requisition.metrics.MetricsProfiler;
+import org.openlmis.requisition.repository.RequisitionRepository;
+import org.openlmis.requisition.utils.Message;
+import org.slf4j.ext.XLogger;
+import org.slf4j.ext.XLoggerFactory;
+import org.slf4j.profiler.Profiler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Prints many requisitions in one request. Requisitions are loaded in small pages and written to
+ * the output one at a time, and the persistence context is cleared after each page, so memory use
+ * does not grow with the number of printed requisitions.
+ */
+@Service
+public class BulkRequisitionPrintService {
+  private static final XLogger XLOGGER = XLoggerFactory.getXLogger(
+      BulkRequisitionPrintService.class);
+
+  static final int PAGE_SIZE = 10;
+
+  @Autowired
+  private RequisitionRepository requisitionRepository;
+
+  @Autowired
+  private PermissionService permissionService;
+
+  @Autowired
+  private JasperReportsViewService jasperReportsViewService;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  /**
+   * Checks that all requisitions exist and that the current user can view them. It should be
+   * called before anything is written to the response, because an error cannot be reported once
+   * the output has been started.
+   *
+   * @param ids UUIDs of requisitions to print.
+   */
+  public void checkCanPrint(List<UUID> ids) {
+    for (List<UUID> page : Lists.partition(ids, PAGE_SIZE)) {
+      for (Requisition requisition : findPage(page)) {
+        permissionService.canViewRequisition(requisition).throwExceptionIfHasErrors();
+      }
+      entityManager.clear();
+    }
+  }
+
+  /**
+   * Writes requisitions as a single PDF document, in the given order.
+   *
+   * @param ids    UUIDs of requisitions to print.
+   * @param output stream to write the document to.
+   * @throws JasperReportViewException if there will be any problem with creating the document.
+   */
+  public void writePdf(List<UUID> ids, OutputStream output) throws JasperReportViewException {
+    XLOGGER.entry(ids.size());
+    Profiler profiler = new MetricsProfiler("WRITE_REQUISITIONS_PDF");
+    profiler.setLogger(XLOGGER);
+
+    Document document = new Document();
+
+    try {
+      PdfCopy copy = new PdfCopy(document, output);
+      document.open();
+
+      for (List<UUID> page : Lists.partition(ids, PAGE_SIZE)) {
+        profiler.start("PRINT_PAGE");
+        for (Requisition requisition : findPage(page)) {
+          PdfReader reader = new PdfReader(JasperExportManager
+              .exportReportToPdf(jasperReportsViewService.fillRequisitionReport(requisition)));
+
+          for (int number = 1; number <= reader.getNumberOfPages(); ++number) {
+            copy.addPage(copy.getImportedPage(reader, number));
+          }
+
+          copy.freeReader(reader);
+          reader.close();
+        }
+        entityManager.clear();
+      }
+
+      document.close();
+    } catch (JRException err) {
+      throw new JasperReportViewException(err, ERROR_JASPER_FILE_FORMAT, err.getMessage());
+    } catch (IOException | DocumentException err) {
+      throw new JasperReportViewException(err, ERROR_IO, err.getMessage());
+    } finally {
+      profiler.stop().log();
+      XLOGGER.exit();
+    }
+  }
+
+  /**
+   * Writes requisitions as a zip archive with one CSV file for each requisition.
+   *
+   * @param ids    UUIDs of requisitions to print.
+   * @param output stream to write the archive to.
+   * @throws JasperReportViewException if there will be any problem with creating the archive.
+   */
+  public void writeCsvArchive(List<UUID> ids, OutputStream output)
+      throws JasperReportViewException {
+    XLOGGER.entry(ids.size());
+    Profiler profiler = new MetricsProfiler("WRITE_REQUISITIONS_CSV");
+    profiler.setLogger(XLOGGER);
+
+    try (ZipOutputStream zip = new ZipOutputStream(output)) {
+      for (List<UUID> page : Lists.partition(ids, PAGE_SIZE)) {
+        profiler.start("PRINT_PAGE");
+        for (Requisition requisition : findPage(page)) {
+          JasperPrint print = jasperReportsViewService.fillRequisitionReport(requisition);
+
+          zip.putNextEntry(new ZipEntry("requisition_" + requisition.getId() + ".csv"));
+          writeCsv(print, zip);
+          zip.closeEntry();
+        }
+        entityManager.clear();
+      }
+    } catch (JRException err) {
+      throw new JasperReportViewException(err, ERROR_JASPER_FILE_FORMAT, err.getMessage());
+    } catch (IOException err) {
+      throw new JasperReportViewException(err, ERROR_IO, err.getMessage());
+    } finally {
+      profiler.stop().log();
+      XLOGGER.exit();
+    }
+  }
+
+  private void writeCsv(JasperPrint print, OutputStream output) throws JRException {
+    // the exporter closes its output, which must not close the whole archive
+    SimpleWriterExporterOutput exporterOutput =
+        new SimpleWriterExporterOutput(new CloseShieldOutputStream(output));
+
+    JRCsvExporter exporter = new JRCsvExporter();
+    exporter.setExporterInput(new SimpleExporterInput(print));
+    exporter.setExporterOutput(exporterOutput);
+    exporter.exportReport();
+
+    exporterOutput.close();
+  }
+
+  private List<Requisition> findPage(List<UUID> ids) {
+    Map<UUID, Requisition> requisitions = requisitionRepository
+        .findAll(ids)
+        .stream()
+        .collect(Collectors.toMap(BaseEntity::getId, Function.identity()));
+
+    return ids
+        .stream()
+        .map(id -> {
+          Requisition requisition = requisitions.get(id);
+
+          if (null == requisition) {
+            throw new ContentNotFoundMessageException(
+                new Message(ERROR_REQUISITION_NOT_FOUND, id));
+          }
+
+          return requisition;
+        })
+        .collect(Collectors.toList());
+  }
+}
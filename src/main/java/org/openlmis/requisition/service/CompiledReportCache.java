@@ -0,0 +1,172 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import javax.annotation.PostConstruct;
+import net.sf.jasperreports.engine.JasperReport;
+import org.openlmis.requisition.domain.JasperTemplate;
+import org.openlmis.requisition.domain.RequisitionTemplate;
+import org.openlmis.requisition.domain.requisition.RequisitionStatus;
+import org.openlmis.requisition.exception.JasperReportViewException;
+import org.openlmis.requisition.metrics.CacheMetrics;
+import org.openlmis.requisition.metrics.MetricsRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps compiled Jasper reports in memory, so they are not deserialized or compiled on every
+ * report request. Reports of stored templates are kept under the template id and the checksum
+ * of the template data stored with the template, so a template changed by another instance of
+ * the service is never served from a stale entry. {@link JasperTemplateService} invalidates the
+ * entries of a template when it is saved or deleted. Requisition line subreports are kept under
+ * the requisition template id, the key, label, display flag and display order of each template
+ * column and the requisition status, so a template changed in place is never served from a stale
+ * entry either. They are invalidated when the requisition template is updated. Statistics of the
+ * cache are available as gauges tagged with the {@code jasperReports} cache name.
+ */
+@Component
+public class CompiledReportCache {
+  private static final Logger LOGGER = LoggerFactory.getLogger(CompiledReportCache.class);
+
+  private final Cache<Object, JasperReport> cache;
+
+  @Autowired
+  private MetricsRegistry metricsRegistry;
+
+  /**
+   * Creates a new cache that keeps up to the given number of compiled reports.
+   */
+  @Autowired
+  public CompiledReportCache(@Value("${jasper.cache.maxSize}") long maximumSize) {
+    LOGGER.info("Caching up to {} compiled Jasper reports", maximumSize);
+    this.cache = CacheBuilder
+        .newBuilder()
+        .maximumSize(maximumSize)
+        .recordStats()
+        .build();
+  }
+
+  @PostConstruct
+  public void registerMetrics() {
+    CacheMetrics.register(metricsRegistry, "jasperReports", cache);
+  }
+
+  /**
+   * Returns the compiled report of the given template. If there is no such report, it will be
+   * retrieved by the loader and stored for later use.
+   *
+   * @param template template with the report data.
+   * @param loader   creates the report from the template data.
+   * @return cached or freshly loaded report.
+   */
+  public JasperReport get(JasperTemplate template, ReportLoader loader)
+      throws JasperReportViewException {
+    return getOrLoad(Arrays.asList(template.getId(), template.getChecksum()), loader);
+  }
+
+  /**
+   * Returns the compiled requisition line subreport customized for the given requisition template
+   * and status. If there is no such report, it will be retrieved by the loader and stored for
+   * later use.
+   *
+   * @param template requisition template with columns to print.
+   * @param status   status of the printed requisition.
+   * @param loader   creates and compiles the customized report.
+   * @return cached or freshly loaded report.
+   */
+  public JasperReport get(RequisitionTemplate template, RequisitionStatus status,
+      ReportLoader loader) throws JasperReportViewException {
+    return getOrLoad(Arrays.asList(template.getId(), getColumnSettings(template), status), loader);
+  }
+
+  /**
+   * Returns the compiled report stored under the given resource path. If there is no such report,
+   * it will be retrieved by the loader and stored for later use.
+   *
+   * @param resourcePath path of the report file on the class path.
+   * @param loader       compiles the report file.
+   * @return cached or freshly loaded report.
+   */
+  public JasperReport get(String resourcePath, ReportLoader loader)
+      throws JasperReportViewException {
+    return getOrLoad(resourcePath, loader);
+  }
+
+  /**
+   * Removes all compiled reports of the given Jasper or requisition template.
+   */
+  public void invalidate(UUID templateId) {
+    if (null != templateId) {
+      cache.asMap().keySet().removeIf(key -> key instanceof List
+          && templateId.equals(((List) key).get(0)));
+    }
+  }
+
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  public long size() {
+    return cache.size();
+  }
+
+  private List<List<Object>> getColumnSettings(RequisitionTemplate template) {
+    return template
+        .viewColumns()
+        .entrySet()
+        .stream()
+        .sorted(Comparator.comparing(Map.Entry::getKey))
+        .map(entry -> Arrays.<Object>asList(entry.getKey(), entry.getValue().getLabel(),
+            entry.getValue().getIsDisplayed(), entry.getValue().getDisplayOrder()))
+        .collect(Collectors.toList());
+  }
+
+  private JasperReport getOrLoad(Object key, ReportLoader loader) throws JasperReportViewException {
+    JasperReport cached = cache.getIfPresent(key);
+
+    if (null != cached) {
+      return cached;
+    }
+
+    JasperReport report = loader.load();
+
+    if (null != report) {
+      cache.put(key, report);
+    }
+
+    return report;
+  }
+
+  /**
+   * Creates a compiled report when it is not in the cache.
+   */
+  @FunctionalInterface
+  public interface ReportLoader {
+    JasperReport load() throws JasperReportViewException;
+  }
+
+}
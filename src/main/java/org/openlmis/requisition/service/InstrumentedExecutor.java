@@ -0,0 +1,187 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Supplier;
+import lombok.Getter;
+import org.openlmis.requisition.metrics.Counter;
+import org.openlmis.requisition.metrics.Metrics;
+import org.openlmis.requisition.metrics.MetricsRegistry;
+import org.openlmis.requisition.metrics.Timer;
+import org.openlmis.requisition.security.SpringSecurityRunnableWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Bounded thread pool that executes tasks with the security context of the thread that submitted
+ * them. When all threads are busy, tasks wait in a queue of limited capacity. Once the queue is
+ * full, a task is executed by the submitting thread instead, which slows down the producer rather
+ * than using more memory.
+ *
+ * <p>The executor registers meters tagged with its name in the metrics registry: the number of
+ * submitted and failed tasks, gauges of the queue depth and of the number of busy threads, and
+ * timers of how long tasks waited in the queue and how long they were executed. Running and
+ * queued tasks are allowed to finish when the application is stopped.</p>
+ */
+public class InstrumentedExecutor implements DisposableBean {
+  private static final Logger LOGGER = LoggerFactory.getLogger(InstrumentedExecutor.class);
+
+  private static final int AWAIT_TERMINATION_SECONDS = 30;
+  private static final String EXECUTOR_TAG = "executor";
+
+  @Getter
+  private final String name;
+
+  private final ThreadPoolTaskExecutor executor;
+
+  private final Counter submittedTasks;
+  private final Counter failedTasks;
+  private final Timer waitTimer;
+  private final Timer executionTimer;
+
+  /**
+   * Creates the thread pool.
+   *
+   * @param name          used as a prefix of thread names.
+   * @param poolSize      the maximum number of tasks executed at the same time.
+   * @param queueCapacity the maximum number of tasks waiting for a free thread.
+   */
+  public InstrumentedExecutor(String name, int poolSize, int queueCapacity) {
+    this(name, poolSize, queueCapacity, Metrics.getRegistry());
+  }
+
+  /**
+   * Creates the thread pool that registers its meters in the given registry.
+   *
+   * @param name          used as a prefix of thread names and as the {@code executor} tag.
+   * @param poolSize      the maximum number of tasks executed at the same time.
+   * @param queueCapacity the maximum number of tasks waiting for a free thread.
+   * @param registry      registry of the executor meters.
+   */
+  public InstrumentedExecutor(String name, int poolSize, int queueCapacity,
+      MetricsRegistry registry) {
+    this.name = name;
+    this.executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(poolSize);
+    executor.setMaxPoolSize(poolSize);
+    executor.setQueueCapacity(queueCapacity);
+    executor.setAllowCoreThreadTimeOut(true);
+    executor.setThreadNamePrefix(name + "-");
+    executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+    executor.setWaitForTasksToCompleteOnShutdown(true);
+    executor.setAwaitTerminationSeconds(AWAIT_TERMINATION_SECONDS);
+    executor.initialize();
+
+    submittedTasks = registry.counter("executor.tasks.submitted", EXECUTOR_TAG, name);
+    failedTasks = registry.counter("executor.tasks.failed", EXECUTOR_TAG, name);
+    waitTimer = registry.timer("executor.task.wait", EXECUTOR_TAG, name);
+    executionTimer = registry.timer("executor.task.execution", EXECUTOR_TAG, name);
+    registry.gauge("executor.queue.size", this::getQueueSize, EXECUTOR_TAG, name);
+    registry.gauge("executor.active", this::getActiveCount, EXECUTOR_TAG, name);
+
+    LOGGER.info("Executing {} tasks by {} threads, up to {} waiting tasks",
+        name, poolSize, queueCapacity);
+  }
+
+  /**
+   * Waits for the given future and returns its value. An exception thrown by the task is
+   * rethrown as it is, so it is handled in the same way as if the task was executed directly.
+   *
+   * @param future result of {@link #supplyAsync(Supplier)}.
+   * @return the retrieved value.
+   */
+  public static <T> T join(CompletableFuture<T> future) {
+    try {
+      return future.join();
+    } catch (CompletionException exp) {
+      if (exp.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) exp.getCause();
+      }
+
+      throw exp;
+    }
+  }
+
+  /**
+   * Executes the given supplier asynchronously with the current security context.
+   *
+   * @param supplier retrieves a value, usually from another service.
+   * @return future completed with the retrieved value or the thrown exception.
+   */
+  public <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier) {
+    SecurityContext context = SecurityContextHolder.getContext();
+    CompletableFuture<T> future = new CompletableFuture<>();
+    long submitted = waitTimer.start();
+
+    submittedTasks.increment();
+    executor.execute(new SpringSecurityRunnableWrapper(context, () -> {
+      waitTimer.stop(submitted);
+      long started = executionTimer.start();
+
+      // meters are updated before the future is completed, so they are up to date for
+      // threads waiting for the result
+      T result;
+      try {
+        result = supplier.get();
+      } catch (RuntimeException | Error exp) {
+        failedTasks.increment();
+        executionTimer.stop(started);
+        future.completeExceptionally(exp);
+        return;
+      }
+
+      executionTimer.stop(started);
+      future.complete(result);
+    }));
+
+    return future;
+  }
+
+  /**
+   * Executes the given task asynchronously with the current security context.
+   *
+   * @param task action to execute, usually a call to another service.
+   * @return future completed when the task is done.
+   */
+  public CompletableFuture<Void> runAsync(Runnable task) {
+    return supplyAsync(() -> {
+      task.run();
+      return null;
+    });
+  }
+
+  public int getQueueSize() {
+    return executor.getThreadPoolExecutor().getQueue().size();
+  }
+
+  public int getActiveCount() {
+    return executor.getActiveCount();
+  }
+
+  @Override
+  public void destroy() {
+    LOGGER.info("Shutting down {} executor, {} tasks waiting", name, getQueueSize());
+    executor.shutdown();
+  }
+
+}
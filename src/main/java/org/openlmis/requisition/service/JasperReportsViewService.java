@@ -15,31 +15,29 @@
 
 package org.openlmis.requisition.service;
 
-import static java.io.File.createTempFile;
 import static net.sf.jasperreports.engine.export.JRHtmlExporterParameter.IS_USING_IMAGES_TO_ALIGN;
-import static org.apache.commons.io.FileUtils.writeByteArrayToFile;
 import static org.openlmis.requisition.dto.TimelinessReportFacilityDto.DISTRICT_LEVEL;
 import static org.openlmis.requisition.i18n.MessageKeys.ERROR_CLASS_NOT_FOUND;
 import static org.openlmis.requisition.i18n.MessageKeys.ERROR_IO;
-import static org.openlmis.requisition.i18n.MessageKeys.ERROR_JASPER_FILE_CREATION;
 import static org.openlmis.requisition.i18n.MessageKeys.ERROR_JASPER_FILE_FORMAT;
 import static org.openlmis.requisition.i18n.MessageKeys.ERROR_REPORTING_TEMPLATE_PARAMETER_INVALID;
+import static org.openlmis.requisition.repository.RequisitionRepository.FACILITY_IDS_CHUNK_SIZE;
 
+import com.google.common.collect.Iterables;
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
 import java.text.NumberFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -53,6 +51,8 @@ import net.sf.jasperreports.engine.JRBand;
 import net.sf.jasperreports.engine.JRException;
 import net.sf.jasperreports.engine.JRExporterParameter;
 import net.sf.jasperreports.engine.JasperCompileManager;
+import net.sf.jasperreports.engine.JasperFillManager;
+import net.sf.jasperreports.engine.JasperPrint;
 import net.sf.jasperreports.engine.JasperReport;
 import net.sf.jasperreports.engine.data.JRBeanCollectionDataSource;
 import net.sf.jasperreports.engine.design.JasperDesign;
@@ -72,18 +72,17 @@ import org.openlmis.requisition.dto.RequisitionReportDto;
 import org.openlmis.requisition.dto.TimelinessReportFacilityDto;
 import org.openlmis.requisition.exception.JasperReportViewException;
 import org.openlmis.requisition.exception.ValidationMessageException;
+import org.openlmis.requisition.repository.RequisitionRepository;
 import org.openlmis.requisition.service.referencedata.FacilityReferenceDataService;
 import org.openlmis.requisition.service.referencedata.GeographicZoneReferenceDataService;
 import org.openlmis.requisition.service.referencedata.PeriodReferenceDataService;
 import org.openlmis.requisition.service.referencedata.ProgramReferenceDataService;
 import org.openlmis.requisition.utils.Message;
-import org.openlmis.requisition.utils.Pagination;
 import org.openlmis.requisition.utils.ReportUtils;
 import org.openlmis.requisition.web.ReportingRateReportDtoBuilder;
 import org.openlmis.requisition.web.RequisitionReportDtoBuilder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.web.context.WebApplicationContext;
 import org.springframework.web.context.support.WebApplicationContextUtils;
@@ -91,6 +90,7 @@ import org.springframework.web.servlet.ModelAndView;
 import org.springframework.web.servlet.view.jasperreports.JasperReportsMultiFormatView;
 
 @Service
+@SuppressWarnings("PMD.TooManyMethods")
 public class JasperReportsViewService {
   private static final String DATASOURCE = "datasource";
   private static final String REQUISITION_REPORT_DIR = "/jasperTemplates/requisition.jrxml";
@@ -116,11 +116,14 @@ public class JasperReportsViewService {
   private GeographicZoneReferenceDataService geographicZoneReferenceDataService;
 
   @Autowired
-  private RequisitionService requisitionService;
+  private RequisitionRepository requisitionRepository;
 
   @Autowired
   private ReportingRateReportDtoBuilder reportingRateReportDtoBuilder;
 
+  @Autowired
+  private CompiledReportCache compiledReportCache;
+
   @Value("${dateFormat}")
   private String dateFormat;
 
@@ -138,8 +141,8 @@ public class JasperReportsViewService {
 
   /**
    * Create Jasper Report View.
-   * Create Jasper Report (".jasper" file) from bytes from Template entity.
-   * Set 'Jasper' exporter parameters, JDBC data source, web application context, url to file.
+   * Get compiled Jasper Report from bytes from Template entity.
+   * Set 'Jasper' exporter parameters, JDBC data source, web application context.
    *
    * @param jasperTemplate template that will be used to create a view
    * @param request  it is used to take web application context
@@ -148,9 +151,9 @@ public class JasperReportsViewService {
    */
   public JasperReportsMultiFormatView getJasperReportsView(
       JasperTemplate jasperTemplate, HttpServletRequest request) throws JasperReportViewException {
-    JasperReportsMultiFormatView jasperView = new JasperReportsMultiFormatView();
+    JasperReportsMultiFormatView jasperView =
+        createJasperMultiFormatView(getReportForTemplate(jasperTemplate));
     setExportParams(jasperView);
-    jasperView.setUrl(getReportUrlForReportData(jasperTemplate));
     jasperView.setJdbcDataSource(replicationDataSource);
 
     if (getApplicationContext(request) != null) {
@@ -170,9 +173,9 @@ public class JasperReportsViewService {
   public JasperReportsMultiFormatView getReportingRateJasperReportsView(
       JasperTemplate jasperTemplate, HttpServletRequest request, Map<String, Object> params)
       throws JasperReportViewException {
-    JasperReportsMultiFormatView jasperView = createJasperMultiFormatView();
+    JasperReportsMultiFormatView jasperView =
+        createJasperMultiFormatView(getReportForTemplate(jasperTemplate));
     setExportParams(jasperView);
-    jasperView.setUrl(getReportUrlForReportData(jasperTemplate));
 
     UUID programId = (UUID) processParameter(params, "Program", true, UUID.class);
     ProgramDto program = programReferenceDataService.findOne(programId);
@@ -214,22 +217,11 @@ public class JasperReportsViewService {
    */
   public ModelAndView getRequisitionJasperReportView(
       Requisition requisition, HttpServletRequest request) throws JasperReportViewException {
-    RequisitionReportDto reportDto = requisitionReportDtoBuilder.build(requisition);
-    RequisitionTemplate template = requisition.getTemplate();
+    Map<String, Object> params = createRequisitionReportParameters(requisition);
 
-    Map<String, Object> params = ReportUtils.createParametersMap();
-    params.put("subreport", createCustomizedRequisitionLineSubreport(template,
-        requisition.getStatus()));
-    params.put(DATASOURCE, Collections.singletonList(reportDto));
-    params.put("template", template);
-    params.put("dateFormat", dateFormat);
-    params.put("decimalFormat", createDecimalFormat());
-    params.put("currencyDecimalFormat",
-        NumberFormat.getCurrencyInstance(getLocaleFromService()));
-
-    JasperReportsMultiFormatView jasperView = new JasperReportsMultiFormatView();
+    JasperReportsMultiFormatView jasperView =
+        createJasperMultiFormatView(getRequisitionReport());
     setExportParams(jasperView);
-    setCustomizedJasperTemplateForRequisitionReport(jasperView);
 
     if (getApplicationContext(request) != null) {
       jasperView.setApplicationContext(getApplicationContext(request));
@@ -237,6 +229,26 @@ public class JasperReportsViewService {
     return new ModelAndView(jasperView, params);
   }
 
+  /**
+   * Fill the requisition report for the given requisition. The report and its subreport are
+   * compiled only once, so many requisitions can be printed one after another at a low cost.
+   *
+   * @param requisition requisition to fill the report for.
+   * @return filled report, ready to be exported.
+   * @throws JasperReportViewException if there will be any problem with filling the report.
+   */
+  public JasperPrint fillRequisitionReport(Requisition requisition)
+      throws JasperReportViewException {
+    Map<String, Object> params = createRequisitionReportParameters(requisition);
+
+    try {
+      return JasperFillManager.fillReport(getRequisitionReport(), params,
+          new JRBeanCollectionDataSource((Collection<?>) params.get(DATASOURCE)));
+    } catch (JRException err) {
+      throw new JasperReportViewException(err, ERROR_JASPER_FILE_FORMAT, err.getMessage());
+    }
+  }
+
   /**
    * Get customized Jasper Report View for Timeliness Report.
    *
@@ -268,6 +280,41 @@ public class JasperReportsViewService {
     return new ModelAndView(jasperView, parameters);
   }
 
+  private Map<String, Object> createRequisitionReportParameters(Requisition requisition)
+      throws JasperReportViewException {
+    RequisitionReportDto reportDto = requisitionReportDtoBuilder.build(requisition);
+    RequisitionTemplate template = requisition.getTemplate();
+
+    Map<String, Object> params = ReportUtils.createParametersMap();
+    params.put("subreport", getRequisitionLineSubreport(template, requisition.getStatus()));
+    params.put(DATASOURCE, Collections.singletonList(reportDto));
+    params.put("template", template);
+    params.put("dateFormat", dateFormat);
+    params.put("decimalFormat", createDecimalFormat());
+    params.put("currencyDecimalFormat",
+        NumberFormat.getCurrencyInstance(getLocaleFromService()));
+
+    return params;
+  }
+
+  /**
+   * Get compiled requisition line subreport with columns from the given template. The subreport
+   * is customized and compiled only once for each template and status and then kept in the cache.
+   */
+  private JasperReport getRequisitionLineSubreport(RequisitionTemplate template,
+      RequisitionStatus requisitionStatus) throws JasperReportViewException {
+    return compiledReportCache.get(template, requisitionStatus, () -> compileReport(
+        createCustomizedRequisitionLineSubreport(template, requisitionStatus)));
+  }
+
+  private JasperReport compileReport(JasperDesign design) throws JasperReportViewException {
+    try {
+      return JasperCompileManager.compileReport(design);
+    } catch (JRException err) {
+      throw new JasperReportViewException(err, ERROR_JASPER_FILE_FORMAT, err.getMessage());
+    }
+  }
+
   private JasperDesign createCustomizedRequisitionLineSubreport(RequisitionTemplate template,
                                                                 RequisitionStatus requisitionStatus)
       throws JasperReportViewException {
@@ -290,20 +337,16 @@ public class JasperReportsViewService {
     }
   }
 
-  private void setCustomizedJasperTemplateForRequisitionReport(
-      JasperReportsMultiFormatView jasperView) throws JasperReportViewException {
-    try (InputStream inputStream = getClass().getResourceAsStream(REQUISITION_REPORT_DIR)) {
-      File reportTempFile = createTempFile("requisitionReport_temp", ".jasper");
-      JasperReport report = JasperCompileManager.compileReport(inputStream);
-
-      ByteArrayOutputStream bos = createByteArrayOutputStream();
-      try (ObjectOutputStream out = createObjectOutputStream(bos)) {
-
-        out.writeObject(report);
-        writeByteArrayToFile(reportTempFile, bos.toByteArray());
+  /**
+   * Get compiled requisition report. The report is compiled only once and then kept in the cache.
+   */
+  private JasperReport getRequisitionReport() throws JasperReportViewException {
+    return compiledReportCache.get(REQUISITION_REPORT_DIR, this::compileRequisitionReport);
+  }
 
-        jasperView.setUrl(reportTempFile.toURI().toURL().toString());
-      }
+  private JasperReport compileRequisitionReport() throws JasperReportViewException {
+    try (InputStream inputStream = getClass().getResourceAsStream(REQUISITION_REPORT_DIR)) {
+      return JasperCompileManager.compileReport(inputStream);
     } catch (IOException err) {
       throw new JasperReportViewException(err, ERROR_IO, err.getMessage());
     } catch (JRException err) {
@@ -329,33 +372,20 @@ public class JasperReportsViewService {
   }
 
   /**
-   * Create ".jasper" file with byte array from Template.
+   * Get compiled report from byte array from Template. The report is read only once for each
+   * version of the template and then kept in the cache.
    *
-   * @return Url to ".jasper" file.
+   * @return compiled report.
    */
-  private String getReportUrlForReportData(JasperTemplate jasperTemplate)
+  private JasperReport getReportForTemplate(JasperTemplate jasperTemplate)
       throws JasperReportViewException {
-    File tmpFile;
-
-    try {
-      tmpFile = createTempFile(jasperTemplate.getName() + "_temp", ".jasper");
-    } catch (IOException exp) {
-      throw new JasperReportViewException(
-          exp, ERROR_JASPER_FILE_CREATION
-      );
-    }
+    return compiledReportCache.get(jasperTemplate, () -> readReportForTemplate(jasperTemplate));
+  }
 
+  private JasperReport readReportForTemplate(JasperTemplate jasperTemplate)
+      throws JasperReportViewException {
     try (ObjectInputStream inputStream = createObjectInputStream(jasperTemplate)) {
-      JasperReport jasperReport = readReportData(inputStream);
-
-      try (ByteArrayOutputStream bos = createByteArrayOutputStream();
-           ObjectOutputStream out = createObjectOutputStream(bos)) {
-
-        out.writeObject(jasperReport);
-        writeByteArrayToFile(tmpFile, bos.toByteArray());
-
-        return tmpFile.toURI().toURL().toString();
-      }
+      return readReportData(inputStream);
     } catch (IOException exp) {
       throw new JasperReportViewException(exp, ERROR_IO, exp.getMessage());
     } catch (ClassNotFoundException exp) {
@@ -376,20 +406,25 @@ public class JasperReportsViewService {
       facilities.addAll(facilityReferenceDataService.findAll());
     }
 
+    Set<UUID> activeFacilityIds = facilities.stream()
+        .filter(MinimalFacilityDto::getActive)
+        .map(MinimalFacilityDto::getId)
+        .collect(Collectors.toSet());
+
+    // find facilities that have R&R in a single query for each chunk of facility ids
+    Set<UUID> facilitiesWithRnR = new HashSet<>();
+    for (List<UUID> chunk : Iterables.partition(activeFacilityIds, FACILITY_IDS_CHUNK_SIZE)) {
+      facilitiesWithRnR.addAll(requisitionRepository.findFacilityIdsWithRequisitions(
+          chunk, program.getId(), processingPeriod.getId(), validStatuses));
+    }
+
     List<TimelinessReportFacilityDto> facilitiesMissingRnR = new ArrayList<>();
     // find active facilities that are missing R&R
     for (MinimalFacilityDto facility : facilities) {
-      if (facility.getActive()) {
-        List<Requisition> requisitions = requisitionService.searchRequisitions(
-            facility.getId(), program.getId(), null, null, null, null, processingPeriod.getId(),
-            null, validStatuses, null,
-            new PageRequest(Pagination.DEFAULT_PAGE_NUMBER, Pagination.NO_PAGINATION))
-            .getContent();
-        if (requisitions.isEmpty()) {
-          TimelinessReportFacilityDto timelinessFacility = new TimelinessReportFacilityDto();
-          facility.export(timelinessFacility);
-          facilitiesMissingRnR.add(timelinessFacility);
-        }
+      if (facility.getActive() && !facilitiesWithRnR.contains(facility.getId())) {
+        TimelinessReportFacilityDto timelinessFacility = new TimelinessReportFacilityDto();
+        facility.export(timelinessFacility);
+        facilitiesMissingRnR.add(timelinessFacility);
       }
     }
 
@@ -435,22 +470,13 @@ public class JasperReportsViewService {
     return decimalFormat;
   }
 
-  protected ByteArrayOutputStream createByteArrayOutputStream() {
-    return new ByteArrayOutputStream();
-  }
-
-  protected ObjectOutputStream createObjectOutputStream(ByteArrayOutputStream bos)
-      throws IOException {
-    return new ObjectOutputStream(bos);
-  }
-
   protected ObjectInputStream createObjectInputStream(JasperTemplate jasperTemplate)
       throws IOException {
     return new ObjectInputStream(new ByteArrayInputStream(jasperTemplate.getData()));
   }
 
-  protected JasperReportsMultiFormatView createJasperMultiFormatView() {
-    return new JasperReportsMultiFormatView();
+  protected JasperReportsMultiFormatView createJasperMultiFormatView(JasperReport report) {
+    return new CompiledJasperReportsView(report);
   }
 
   protected JasperReport readReportData(ObjectInputStream objectInputStream)
@@ -461,4 +487,20 @@ public class JasperReportsViewService {
   protected Locale getLocaleFromService() {
     return new Locale(defaultLocale, currencyLocale);
   }
+
+  /**
+   * Jasper view that fills an already compiled report instead of loading it from an url.
+   */
+  static class CompiledJasperReportsView extends JasperReportsMultiFormatView {
+    private final JasperReport report;
+
+    CompiledJasperReportsView(JasperReport report) {
+      this.report = report;
+    }
+
+    @Override
+    protected JasperReport getReport() {
+      return report;
+    }
+  }
 }
@@ -64,6 +64,9 @@ public class JasperTemplateService {
   @Autowired
   private JasperTemplateRepository jasperTemplateRepository;
 
+  @Autowired
+  private CompiledReportCache compiledReportCache;
+
   public JasperTemplate getByName(String name) {
     return jasperTemplateRepository.findByName(name);
   }
@@ -87,6 +90,7 @@ public class JasperTemplateService {
     JasperTemplate templateTmp = jasperTemplateRepository.findByName(jasperTemplate.getName());
     if (templateTmp != null) {
       jasperTemplateRepository.delete(templateTmp.getId());
+      compiledReportCache.invalidate(templateTmp.getId());
     }
     validateFileAndSetData(jasperTemplate, file);
     saveWithParameters(jasperTemplate);
@@ -97,6 +101,15 @@ public class JasperTemplateService {
    */
   public void saveWithParameters(JasperTemplate jasperTemplate) {
     jasperTemplateRepository.save(jasperTemplate);
+    compiledReportCache.invalidate(jasperTemplate.getId());
+  }
+
+  /**
+   * Delete template and remove its compiled report from the cache.
+   */
+  public void delete(JasperTemplate jasperTemplate) {
+    jasperTemplateRepository.delete(jasperTemplate);
+    compiledReportCache.invalidate(jasperTemplate.getId());
   }
 
   /**
@@ -0,0 +1,74 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.service;
+
+import java.io.IOException;
+import java.util.Collections;
+import org.openlmis.requisition.metrics.Metrics;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Records how long requests to other services take, per client class, HTTP method and response
+ * status. Requests that failed without a response are recorded with the {@code IO_ERROR}
+ * status.
+ */
+public class OutboundRequestMetricsInterceptor implements ClientHttpRequestInterceptor {
+  static final String REQUEST_TIMER = "http.client.requests";
+  static final String IO_ERROR = "IO_ERROR";
+
+  private final String client;
+
+  public OutboundRequestMetricsInterceptor(Class<?> client) {
+    this.client = ClassUtils.getUserClass(client).getSimpleName();
+  }
+
+  /**
+   * Creates a rest template that records requests sent by the given client class.
+   */
+  public static RestTemplate createRestTemplate(Class<?> client) {
+    RestTemplate restTemplate = new RestTemplate();
+    restTemplate.setInterceptors(
+        Collections.singletonList(new OutboundRequestMetricsInterceptor(client)));
+
+    return restTemplate;
+  }
+
+  @Override
+  public ClientHttpResponse intercept(HttpRequest request, byte[] body,
+      ClientHttpRequestExecution execution) throws IOException {
+    long started = System.nanoTime();
+    String status = IO_ERROR;
+
+    try {
+      ClientHttpResponse response = execution.execute(request, body);
+      status = String.valueOf(response.getRawStatusCode());
+
+      return response;
+    } finally {
+      Metrics
+          .timer(REQUEST_TIMER,
+              "client", client,
+              "method", String.valueOf(request.getMethod()),
+              "status", status)
+          .stop(started);
+    }
+  }
+}
@@ -19,6 +19,7 @@ import static org.openlmis.requisition.dto.BasicProcessingPeriodDto.START_DATE;
 import static org.openlmis.requisition.i18n.MessageKeys.ERROR_FINISH_PROVIOUS_REQUISITION;
 import static org.openlmis.requisition.i18n.MessageKeys.ERROR_INCORRECT_SUGGESTED_PERIOD;
 import static org.openlmis.requisition.i18n.MessageKeys.ERROR_PERIOD_MUST_BELONG_TO_THE_SAME_SCHEDULE;
+import static org.openlmis.requisition.i18n.MessageKeys.ERROR_PERIOD_NOT_FOUND;
 import static org.openlmis.requisition.i18n.MessageKeys.ERROR_PERIOD_SHOULD_BE_OLDEST_AND_NOT_ASSOCIATED;
 import static org.openlmis.requisition.i18n.MessageKeys.ERROR_REQUISITION_GROUP_PROGRAM_SCHEDULE_WITH_PROGRAM_AND_FACILITY_NOT_FOUND;
 
@@ -27,10 +28,13 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
-import org.openlmis.requisition.domain.requisition.Requisition;
 import org.openlmis.requisition.domain.requisition.RequisitionStatus;
+import org.openlmis.requisition.dto.PeriodRequisitionDto;
 import org.openlmis.requisition.dto.ProcessingPeriodDto;
 import org.openlmis.requisition.dto.ProcessingScheduleDto;
 import org.openlmis.requisition.dto.RequisitionPeriodDto;
@@ -112,21 +116,23 @@ public class PeriodService {
       periods = searchByProgramAndFacility(program, facility);
     }
 
+    Map<UUID, List<PeriodRequisitionDto>> requisitionsByPeriod =
+        findPeriodRequisitions(program, facility, periods, emergency);
     List<RequisitionPeriodDto> requisitionPeriods = new ArrayList<>();
 
     for (ProcessingPeriodDto period : periods) {
       RequisitionPeriodDto requisitionPeriod = RequisitionPeriodDto.newInstance(period);
       requisitionPeriods.add(requisitionPeriod);
 
-      List<Requisition> requisitions = requisitionRepository.searchRequisitions(
-          period.getId(), facility, program, emergency);
+      List<PeriodRequisitionDto> requisitions = requisitionsByPeriod
+          .getOrDefault(period.getId(), Collections.emptyList());
 
-      List<Requisition> preAuthorizeRequisitions = requisitions.stream()
+      List<PeriodRequisitionDto> preAuthorizeRequisitions = requisitions.stream()
           .filter(requisition -> requisition.getStatus().isPreAuthorize())
           .collect(Collectors.toList());
 
       if (emergency) {
-        for (Requisition requisition : preAuthorizeRequisitions) {
+        for (PeriodRequisitionDto requisition : preAuthorizeRequisitions) {
           RequisitionPeriodDto additionalPeriod = RequisitionPeriodDto.newInstance(period);
           additionalPeriod.setRequisitionId(requisition.getId());
           additionalPeriod.setRequisitionStatus(requisition.getStatus());
@@ -145,6 +151,28 @@ public class PeriodService {
     return requisitionPeriods;
   }
 
+  /**
+   * Find and return processing periods with the given ids, mapped by id.
+   *
+   * @param periodIds UUIDs of periods.
+   * @return a map of processing periods.
+   * @throws ContentNotFoundMessageException if any of the periods could not be found.
+   */
+  public Map<UUID, ProcessingPeriodDto> getPeriods(Collection<UUID> periodIds) {
+    Map<UUID, ProcessingPeriodDto> periods = periodReferenceDataService
+        .findByIds(periodIds)
+        .stream()
+        .collect(Collectors.toMap(ProcessingPeriodDto::getId, Function.identity()));
+
+    for (UUID periodId : periodIds) {
+      if (!periods.containsKey(periodId)) {
+        throw new ContentNotFoundMessageException(ERROR_PERIOD_NOT_FOUND, periodId);
+      }
+    }
+
+    return periods;
+  }
+
   /**
    * Find recent periods for the given period.
    *
@@ -251,12 +279,14 @@ public class PeriodService {
     Collection<ProcessingPeriodDto> periods = searchByProgramAndFacility(programId, facilityId);
 
     if (periods != null) {
+      Map<UUID, List<PeriodRequisitionDto>> requisitionsByPeriod =
+          findPeriodRequisitions(programId, facilityId, periods, false);
       RequisitionStatus previousStatus = null;
 
       for (ProcessingPeriodDto dto : periods) {
         // There is always maximum one regular requisition for given period, facility and program
-        List<Requisition> requisitions = requisitionRepository.searchRequisitions(
-            dto.getId(), facilityId, programId, false);
+        List<PeriodRequisitionDto> requisitions = requisitionsByPeriod
+            .getOrDefault(dto.getId(), Collections.emptyList());
 
         if (!requisitions.isEmpty()) {
           previousStatus = requisitions.get(0).getStatus();
@@ -274,4 +304,27 @@ public class PeriodService {
     return result;
   }
 
+  /**
+   * Finds requisitions of the given facility and program for all of the given periods with a
+   * single query.
+   *
+   * @return requisitions grouped by period id, in order of their creation.
+   */
+  private Map<UUID, List<PeriodRequisitionDto>> findPeriodRequisitions(UUID programId,
+      UUID facilityId, Collection<ProcessingPeriodDto> periods, boolean emergency) {
+    Set<UUID> periodIds = periods
+        .stream()
+        .map(ProcessingPeriodDto::getId)
+        .collect(Collectors.toSet());
+
+    if (periodIds.isEmpty()) {
+      return Collections.emptyMap();
+    }
+
+    return requisitionRepository
+        .findPeriodRequisitions(facilityId, programId, periodIds, emergency)
+        .stream()
+        .collect(Collectors.groupingBy(PeriodRequisitionDto::getProcessingPeriodId));
+  }
+
 }
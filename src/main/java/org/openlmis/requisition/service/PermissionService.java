@@ -35,6 +35,7 @@ import org.openlmis.requisition.dto.ResultDto;
 import org.openlmis.requisition.dto.RightDto;
 import org.openlmis.requisition.dto.UserDto;
 import org.openlmis.requisition.errorhandling.ValidationResult;
+import org.openlmis.requisition.metrics.MetricsProfiler;
 import org.openlmis.requisition.repository.RequisitionRepository;
 import org.openlmis.requisition.service.referencedata.UserReferenceDataService;
 import org.openlmis.requisition.utils.AuthenticationHelper;
@@ -75,6 +76,9 @@ public class PermissionService {
   @Autowired
   private RequisitionRepository requisitionRepository;
 
+  @Autowired
+  private UserPermissionEvaluator userPermissionEvaluator;
+
   @Value("${auth.server.clientId}")
   private String serviceTokenClientId;
 
@@ -255,6 +259,16 @@ public class PermissionService {
     return checkPermission(REPORTS_VIEW, null, null, null);
   }
 
+  /**
+   * Checks if current user has permission to view metrics of the service. Metrics are available
+   * to administrators who can manage requisition templates and to service-level tokens.
+   *
+   * @return ValidationResult containing info about the result of this check
+   */
+  public ValidationResult canViewMetrics() {
+    return checkPermission(REQUISITION_TEMPLATES_MANAGE, null, null, null);
+  }
+
   private ValidationResult checkPermissionOnUpdate(String rightName, Requisition requisition) {
     if (!hasPermission(rightName, requisition.getProgramId(), requisition.getFacilityId(), null)) {
       RequisitionStatus status = requisition.getStatus();
@@ -291,7 +305,7 @@ public class PermissionService {
         rightName, program, facility, warehouse,
         allowUserTokens, allowServiceTokens, allowApiKey
     );
-    Profiler profiler = new Profiler("HAS_PERMISSION");
+    Profiler profiler = new MetricsProfiler("HAS_PERMISSION");
     profiler.setLogger(XLOGGER);
 
     profiler.start("GET_AUTHENTICATION");
@@ -318,6 +332,13 @@ public class PermissionService {
     profiler.start("GET_CURRENT_USER");
     UserDto user = authenticationHelper.getCurrentUser();
 
+    if (null != program && null != facility && null == warehouse
+        && userPermissionEvaluator.isEnabled()) {
+      profiler.start("CHECK_PERMISSION_STRINGS");
+      return userPermissionEvaluator
+          .hasSupervisionRight(user.getId(), rightName, program, facility);
+    }
+
     profiler.start("GET_RIGHT");
     RightDto right = authenticationHelper.getRight(rightName);
 
@@ -355,6 +376,6 @@ public class PermissionService {
       return Collections.emptyList();
     }
     UserDto user = authenticationHelper.getCurrentUser();
-    return userReferenceDataService.getPermissionStrings(user.getId());
+    return authenticationHelper.getPermissionStrings(user.getId());
   }
 }
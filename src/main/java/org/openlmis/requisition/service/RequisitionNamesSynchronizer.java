@@ -0,0 +1,100 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.service;
+
+import static org.openlmis.requisition.domain.requisition.RequisitionStatus.APPROVED;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import org.openlmis.requisition.dto.FacilityDto;
+import org.openlmis.requisition.dto.ProgramDto;
+import org.openlmis.requisition.repository.RequisitionRepository;
+import org.openlmis.requisition.service.referencedata.FacilityReferenceDataService;
+import org.openlmis.requisition.service.referencedata.ProgramReferenceDataService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Copies facility names, facility codes and program names from reference data to approved
+ * requisitions, which are sorted by them on the convert to order screen. The first run fills
+ * names of requisitions created before the names were stored, later runs pick up facilities
+ * and programs renamed in reference data. Only rows with different names are updated.
+ */
+@Service
+public class RequisitionNamesSynchronizer {
+  private static final Logger LOGGER = LoggerFactory.getLogger(RequisitionNamesSynchronizer.class);
+
+  @Autowired
+  private RequisitionRepository requisitionRepository;
+
+  @Autowired
+  private FacilityReferenceDataService facilityReferenceDataService;
+
+  @Autowired
+  private ProgramReferenceDataService programReferenceDataService;
+
+  /**
+   * Updates names stored in approved requisitions. This is run shortly after the service starts
+   * and then periodically, based on the {@code requisition.names.sync.*} properties.
+   */
+  @Scheduled(initialDelayString = "${requisition.names.sync.initialDelay}",
+      fixedDelayString = "${requisition.names.sync.interval}")
+  @Transactional
+  public void synchronizeNames() {
+    try {
+      int facilityRows = synchronizeFacilityNames();
+      int programRows = synchronizeProgramNames();
+
+      LOGGER.info("Updated facility names of {} and program names of {} requisitions",
+          facilityRows, programRows);
+    } catch (RuntimeException ex) {
+      // reference data may not be available yet, the next run will try again
+      LOGGER.warn("Could not synchronize names of approved requisitions", ex);
+    }
+  }
+
+  private int synchronizeFacilityNames() {
+    Set<UUID> facilityIds = new HashSet<>(requisitionRepository.findFacilityIdsByStatus(APPROVED));
+    int rows = 0;
+
+    if (!facilityIds.isEmpty()) {
+      for (FacilityDto facility : facilityReferenceDataService.search(facilityIds)) {
+        rows += requisitionRepository
+            .updateFacilityNames(facility.getId(), facility.getName(), facility.getCode());
+      }
+    }
+
+    return rows;
+  }
+
+  private int synchronizeProgramNames() {
+    Set<UUID> programIds = new HashSet<>(requisitionRepository.findProgramIdsByStatus(APPROVED));
+    int rows = 0;
+
+    if (!programIds.isEmpty()) {
+      for (ProgramDto program : programReferenceDataService.search(programIds)) {
+        rows += requisitionRepository.updateProgramNames(program.getId(), program.getName());
+      }
+    }
+
+    return rows;
+  }
+}
@@ -16,6 +16,7 @@
 package org.openlmis.requisition.service;
 
 import static java.util.Objects.isNull;
+import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toMap;
 import static java.util.stream.Collectors.toSet;
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
@@ -29,6 +30,7 @@ import static org.openlmis.requisition.i18n.MessageKeys.ERROR_REQUISITION_MUST_B
 import static org.openlmis.requisition.i18n.MessageKeys.ERROR_REQUISITION_MUST_BE_WAITING_FOR_APPROVAL;
 import static org.openlmis.requisition.i18n.MessageKeys.ERROR_REQUISITION_NOT_FOUND;
 import static org.openlmis.requisition.i18n.MessageKeys.ERROR_VALIDATION_CANNOT_CONVERT_WITHOUT_APPROVED_QTY;
+import static org.openlmis.requisition.service.InstrumentedExecutor.join;
 import static org.springframework.util.CollectionUtils.isEmpty;
 
 import java.time.LocalDate;
@@ -36,19 +38,20 @@ import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
 import org.openlmis.requisition.domain.RequisitionTemplate;
 import org.openlmis.requisition.domain.requisition.Requisition;
 import org.openlmis.requisition.domain.requisition.RequisitionBuilder;
-import org.openlmis.requisition.domain.requisition.RequisitionLineItem;
 import org.openlmis.requisition.domain.requisition.RequisitionStatus;
 import org.openlmis.requisition.domain.requisition.StatusChange;
 import org.openlmis.requisition.domain.requisition.StatusMessage;
@@ -71,6 +74,7 @@ import org.openlmis.requisition.dto.stockmanagement.StockCardRangeSummaryDto;
 import org.openlmis.requisition.errorhandling.ValidationResult;
 import org.openlmis.requisition.exception.ValidationMessageException;
 import org.openlmis.requisition.i18n.MessageKeys;
+import org.openlmis.requisition.metrics.MetricsProfiler;
 import org.openlmis.requisition.repository.RequisitionRepository;
 import org.openlmis.requisition.repository.StatusMessageRepository;
 import org.openlmis.requisition.service.fulfillment.OrderFulfillmentService;
@@ -87,7 +91,6 @@ import org.openlmis.requisition.service.stockmanagement.StockOnHandRetrieverBuil
 import org.openlmis.requisition.utils.AuthenticationHelper;
 import org.openlmis.requisition.utils.Message;
 import org.openlmis.requisition.utils.Pagination;
-import org.openlmis.requisition.utils.RequisitionForConvertComparator;
 import org.openlmis.requisition.web.OrderDtoBuilder;
 import org.openlmis.requisition.web.RequisitionForConvertBuilder;
 import org.slf4j.Logger;
@@ -163,6 +166,9 @@ public class RequisitionService {
   @Autowired
   private StockCardRangeSummaryStockManagementService stockCardRangeSummaryStockManagementService;
 
+  @Autowired
+  private OutboundRequestExecutor outboundRequestExecutor;
+
   /**
    * Initiated given requisition if possible.
    *
@@ -177,13 +183,16 @@ public class RequisitionService {
       ProcessingPeriodDto period, boolean emergency,
       List<StockAdjustmentReason> stockAdjustmentReasons,
       RequisitionTemplate requisitionTemplate) {
-    Profiler profiler = new Profiler("REQUISITION_INITIATE_SERVICE");
+    Profiler profiler = new MetricsProfiler("REQUISITION_INITIATE_SERVICE");
     profiler.setLogger(LOGGER);
 
     profiler.start("BUILD_REQUISITION");
     Requisition requisition = RequisitionBuilder.newRequisition(
         facility.getId(), program.getId(), emergency);
     requisition.setStatus(RequisitionStatus.INITIATED);
+    requisition.setFacilityName(facility.getName());
+    requisition.setFacilityCode(facility.getCode());
+    requisition.setProgramName(program.getName());
 
     requisition.setProcessingPeriodId(period.getId());
     requisition.setNumberOfMonthsInPeriod(period.getDurationInMonths());
@@ -197,65 +206,77 @@ public class RequisitionService {
       numberOfPreviousPeriodsToAverage--;
     }
 
-    profiler.start("FIND_APPROVED_PRODUCTS");
-    ApproveProductsAggregator approvedProducts = approvedProductReferenceDataService
-        .getApprovedProducts(facility.getId(), program.getId());
+    final boolean stockBased = requisitionTemplate.isPopulateStockOnHandFromStockCards();
+    final int numberOfPeriodsToFetch = numberOfPreviousPeriodsToAverage;
+
+    // fetches that do not depend on each other are sent at the same time
+    profiler.start("FIND_REFERENCE_DATA");
+    CompletableFuture<ApproveProductsAggregator> approvedProductsFuture = outboundRequestExecutor
+        .supplyAsync(() -> approvedProductReferenceDataService
+            .getApprovedProducts(facility.getId(), program.getId()));
+    final CompletableFuture<Map<UUID, Integer>> idealStockAmountsFuture = outboundRequestExecutor
+        .supplyAsync(() -> idealStockAmountReferenceDataService
+            .search(requisition.getFacilityId(), requisition.getProcessingPeriodId())
+            .stream()
+            .collect(toMap(isa -> isa.getCommodityType().getId(), IdealStockAmountDto::getAmount)));
+    CompletableFuture<List<ProcessingPeriodDto>> periodsForAveragingFuture = outboundRequestExecutor
+        .supplyAsync(() -> periodService.findPreviousPeriods(
+            requisition.getProcessingPeriodId(), Math.max(numberOfPeriodsToFetch, 1)));
+    CompletableFuture<List<ProcessingPeriodDto>> previousPeriodsFuture = stockBased
+        ? outboundRequestExecutor
+            .supplyAsync(() -> periodService.findPreviousPeriods(period, numberOfPeriodsToFetch))
+        : CompletableFuture.completedFuture(null);
 
-    profiler.start("FIND_STOCK_ON_HANDS");
-    Map<UUID, Integer> orderableSoh = stockOnHandRetrieverBuilderFactory
-        .getInstance(requisitionTemplate, RequisitionLineItem.STOCK_ON_HAND)
-        .forProgram(program.getId())
-        .forFacility(facility.getId())
-        .forProducts(approvedProducts)
-        .asOfDate(period.getEndDate())
-        .build()
-        .get();
+    profiler.start("GET_PREV_REQUISITIONS_FOR_AVERAGING");
+    List<Requisition> previousRequisitions =
+        getRecentRegularRequisitions(requisition, join(periodsForAveragingFuture));
+
+    profiler.start("GET_POD");
+    final CompletableFuture<ProofOfDeliveryDto> podFuture =
+        !emergency && !isEmpty(previousRequisitions)
+            ? outboundRequestExecutor
+                .supplyAsync(() -> proofOfDeliveryService.get(previousRequisitions.get(0)))
+            : CompletableFuture.completedFuture(null);
+
+    profiler.start("FIND_APPROVED_PRODUCTS");
+    ApproveProductsAggregator approvedProducts = join(approvedProductsFuture);
 
-    profiler.start("FIND_BEGINNING_BALANCES");
-    Map<UUID, Integer> orderableBeginning = stockOnHandRetrieverBuilderFactory
-        .getInstance(requisitionTemplate, RequisitionLineItem.BEGINNING_BALANCE)
+    profiler.start("FIND_STOCK_DATA");
+    final CompletableFuture<StockData> stockDataFuture = stockOnHandRetrieverBuilderFactory
+        .getStockDataInstance(requisitionTemplate)
         .forProgram(program.getId())
         .forFacility(facility.getId())
         .forProducts(approvedProducts)
-        .asOfDate(period.getStartDate().minusDays(1))
-        .build()
-        .get();
-
-    final StockData stockData = new StockData(orderableSoh, orderableBeginning);
-
-    profiler.start("FIND_IDEAL_STOCK_AMOUNTS");
-    final Map<UUID, Integer> idealStockAmounts = idealStockAmountReferenceDataService
-        .search(requisition.getFacilityId(), requisition.getProcessingPeriodId())
-        .stream()
-        .collect(toMap(isa -> isa.getCommodityType().getId(), IdealStockAmountDto::getAmount));
-
-    profiler.start("GET_PREV_REQUISITIONS_FOR_AVERAGING");
-    List<Requisition> previousRequisitions =
-        getRecentRegularRequisitions(requisition, Math.max(numberOfPreviousPeriodsToAverage, 1));
+        .forPeriod(period)
+        .getAsync();
 
     List<StockCardRangeSummaryDto> stockCardRangeSummaryDtos = null;
     List<StockCardRangeSummaryDto> stockCardRangeSummariesToAverage = null;
     List<ProcessingPeriodDto> previousPeriods = null;
-    if (requisitionTemplate.isPopulateStockOnHandFromStockCards()) {
-      stockCardRangeSummaryDtos =
-          stockCardRangeSummaryStockManagementService
+    if (stockBased) {
+      CompletableFuture<List<StockCardRangeSummaryDto>> stockCardRangeSummariesFuture =
+          outboundRequestExecutor.supplyAsync(() -> stockCardRangeSummaryStockManagementService
               .search(program.getId(), facility.getId(),
                   approvedProducts.getOrderableIds(), null,
-                  period.getStartDate(), period.getEndDate());
+                  period.getStartDate(), period.getEndDate()));
 
       profiler.start("GET_PREVIOUS_PERIODS");
-      previousPeriods = periodService
-          .findPreviousPeriods(period, numberOfPreviousPeriodsToAverage);
+      // the periods may come from the reference data cache, so the current one is added to a copy
+      previousPeriods = new ArrayList<>(join(previousPeriodsFuture));
 
-      profiler.start("FIND_IDEAL_STOCK_AMOUNTS_FOR_AVERAGE");
+      profiler.start("FIND_STOCK_CARD_RANGE_SUMMARIES_FOR_AVERAGE");
       if (previousPeriods.size() > 1) {
-        stockCardRangeSummariesToAverage =
-            stockCardRangeSummaryStockManagementService
+        LocalDate averagingStartDate = previousPeriods
+            .get(previousPeriods.size() - 1)
+            .getStartDate();
+        stockCardRangeSummariesToAverage = join(outboundRequestExecutor
+            .supplyAsync(() -> stockCardRangeSummaryStockManagementService
                 .search(program.getId(), facility.getId(),
                     approvedProducts.getOrderableIds(), null,
-                    previousPeriods.get(previousPeriods.size() - 1).getStartDate(),
-                    period.getEndDate());
+                    averagingStartDate, period.getEndDate())));
+        stockCardRangeSummaryDtos = join(stockCardRangeSummariesFuture);
       } else {
+        stockCardRangeSummaryDtos = join(stockCardRangeSummariesFuture);
         stockCardRangeSummariesToAverage = stockCardRangeSummaryDtos;
       }
 
@@ -264,12 +285,14 @@ public class RequisitionService {
       numberOfPreviousPeriodsToAverage = previousRequisitions.size();
     }
 
-    profiler.start("GET_POD");
-    ProofOfDeliveryDto pod = null;
+    profiler.start("WAIT_FOR_STOCK_DATA");
+    final StockData stockData = join(stockDataFuture);
 
-    if (!emergency && !isEmpty(previousRequisitions)) {
-      pod = proofOfDeliveryService.get(previousRequisitions.get(0));
-    }
+    profiler.start("WAIT_FOR_IDEAL_STOCK_AMOUNTS");
+    final Map<UUID, Integer> idealStockAmounts = join(idealStockAmountsFuture);
+
+    profiler.start("WAIT_FOR_POD");
+    ProofOfDeliveryDto pod = join(podFuture);
 
     profiler.start("INITIATE");
     requisition.initiate(requisitionTemplate, approvedProducts.getFullSupplyProducts(),
@@ -347,7 +370,7 @@ public class RequisitionService {
                                               Set<RequisitionStatus> requisitionStatuses,
                                               Boolean emergency,
                                               Pageable pageable) {
-    Profiler profiler = new Profiler("REQUISITION_SERVICE_SEARCH");
+    Profiler profiler = new MetricsProfiler("REQUISITION_SERVICE_SEARCH");
     profiler.setLogger(LOGGER);
 
     profiler.start("GET_PERM_STRINGS");
@@ -381,7 +404,7 @@ public class RequisitionService {
    */
   public Page<Requisition> getRequisitionsForApproval(UserDto user, UUID programId,
       Pageable pageable) {
-    Profiler profiler = new Profiler("REQUISITION_SERVICE_GET_FOR_APPROVAL");
+    Profiler profiler = new MetricsProfiler("REQUISITION_SERVICE_GET_FOR_APPROVAL");
     profiler.setLogger(LOGGER);
 
     Page<Requisition> requisitionsForApproval = Pagination.getPage(
@@ -487,7 +510,7 @@ public class RequisitionService {
    */
   private List<Requisition> releaseRequisitionsAsOrder(
       List<ReleasableRequisitionDto> convertToOrderDtos, UserDto user) {
-    Profiler profiler = new Profiler("RELEASE_REQUISITIONS_AS_ORDER");
+    Profiler profiler = new MetricsProfiler("RELEASE_REQUISITIONS_AS_ORDER");
     profiler.setLogger(LOGGER);
 
     profiler.start("GET_ORDERS_EDIT_RIGHT_DTO");
@@ -535,7 +558,7 @@ public class RequisitionService {
    */
   private List<Requisition> releaseRequisitionsWithoutOrder(
       List<ReleasableRequisitionDto> releaseWithoutOrderDtos) {
-    Profiler profiler = new Profiler("RELEASE_REQUISITIONS_WITHOUT_ORDER");
+    Profiler profiler = new MetricsProfiler("RELEASE_REQUISITIONS_WITHOUT_ORDER");
     profiler.setLogger(LOGGER);
 
     List<Requisition> releasedRequisitions = new ArrayList<>();
@@ -554,7 +577,10 @@ public class RequisitionService {
   }
 
   /**
-   * Get approved requisitions matching all of provided parameters.
+   * Get approved requisitions matching all of provided parameters. Requisitions are filtered,
+   * sorted and paginated by the database, reference data is retrieved only for requisitions on
+   * the returned page. Sorting by facility and program uses names stored in requisitions, which
+   * are kept up to date by {@link RequisitionNamesSynchronizer}.
    *
    * @param filterValues Expressions to be used in filters.
    * @param filterBy     Field used to filter: "programName", "facilityCode", "facilityName" or
@@ -569,31 +595,40 @@ public class RequisitionService {
                                                            String filterBy,
                                                            Pageable pageable,
                                                            Collection<UUID> userManagedFacilities) {
-    Profiler profiler = new Profiler("SEARCH_APPROVED_REQUISITIONS_SERVICE");
+    Profiler profiler = new MetricsProfiler("SEARCH_APPROVED_REQUISITIONS_SERVICE");
     profiler.setLogger(LOGGER);
 
+    profiler.start("FIND_USER_MANAGED_SUPPLYING_DEPOTS");
+    Map<Pair<UUID, UUID>, List<FacilityDto>> supplyingDepots = requisitionForConvertBuilder
+        .getUserManagedSupplyingDepots(
+            requisitionRepository.findApprovedProgramSupervisoryNodePairs(),
+            userManagedFacilities);
+
+    String filterField = !isEmpty(filterValues)
+        && (isFilterByProgramProperty(filterBy) || isFilterByFacilityProperty(filterBy))
+        ? filterBy
+        : null;
+
     profiler.start("FIND_DESIRED_PROGRAMS");
-    Map<UUID, ProgramDto> programs = findProgramsWithFilter(filterBy, filterValues);
+    Set<UUID> programIds = findProgramIdsWithFilter(filterField, filterValues);
 
     profiler.start("FIND_DESIRED_FACILITIES");
-    Map<UUID, MinimalFacilityDto> facilities = findFacilitiesWithFilter(filterBy, filterValues);
+    Set<UUID> facilityIds = findFacilityIdsWithFilter(filterField, filterValues);
 
     profiler.start("SEARCH_APPROVED_REQUISITIONS");
-    List<Requisition> requisitionsList =
-        requisitionRepository.searchApprovedRequisitions(filterBy,
-            facilities.keySet(),
-            programs.keySet());
+    Page<Requisition> requisitions = requisitionRepository.searchApprovedRequisitions(
+        filterField, facilityIds, programIds, supplyingDepots.keySet(), pageable);
 
-    profiler.start("BUILD_DTOS");
-    List<RequisitionWithSupplyingDepotsDto> responseList =
-        requisitionForConvertBuilder.buildRequisitions(requisitionsList, userManagedFacilities,
-            facilities, programs);
+    profiler.start("FIND_PROGRAMS_AND_FACILITIES");
+    Map<UUID, ProgramDto> programs = findPrograms(requisitions.getContent());
+    Map<UUID, MinimalFacilityDto> facilities = findFacilities(requisitions.getContent());
 
-    profiler.start("SORT");
-    responseList.sort(new RequisitionForConvertComparator(pageable));
+    profiler.start("BUILD_DTOS");
+    List<RequisitionWithSupplyingDepotsDto> responseList = requisitionForConvertBuilder
+        .buildRequisitions(requisitions.getContent(), supplyingDepots, facilities, programs);
 
-    profiler.start("PAGINATE");
-    Page<RequisitionWithSupplyingDepotsDto> page = Pagination.getPage(responseList, pageable);
+    Page<RequisitionWithSupplyingDepotsDto> page = Pagination
+        .getPage(responseList, pageable, requisitions.getTotalElements());
 
     profiler.stop().log();
     return page;
@@ -603,7 +638,7 @@ public class RequisitionService {
    * Converting Requisition list to Orders.
    */
   public List<Requisition> convertToOrder(List<ReleasableRequisitionDto> list, UserDto user) {
-    Profiler profiler = new Profiler("CONVERT_TO_ORDER");
+    Profiler profiler = new MetricsProfiler("CONVERT_TO_ORDER");
     profiler.setLogger(LOGGER);
 
     profiler.start("RELEASE_REQUISITIONS_AS_ORDER");
@@ -630,7 +665,7 @@ public class RequisitionService {
    * Release requisitions without order.
    */
   public List<Requisition> releaseWithoutOrder(List<ReleasableRequisitionDto> list) {
-    Profiler profiler = new Profiler("RELEASE_WITHOUT_ORDER");
+    Profiler profiler = new MetricsProfiler("RELEASE_WITHOUT_ORDER");
     profiler.setLogger(LOGGER);
 
     profiler.start("RELEASE_REQUISITIONS_WITHOUT_ORDER");
@@ -744,39 +779,66 @@ public class RequisitionService {
     return requisition.getTemplate().isColumnInTemplateAndDisplayed(APPROVED_QUANTITY);
   }
 
-  private Map<UUID, ProgramDto> findProgramsWithFilter(String filterBy,
-                                                       List<String> filterValues) {
-    Collection<ProgramDto> foundPrograms = new HashSet<>();
+  private Set<UUID> findProgramIdsWithFilter(String filterBy, List<String> filterValues) {
+    Set<UUID> foundPrograms = new HashSet<>();
 
-    if (CollectionUtils.isEmpty(filterValues)
-        || !isFilterByProgramProperty(filterBy)) {
-      foundPrograms = programReferenceDataService.findAll();
-    } else {
+    if (isFilterByProgramProperty(filterBy)) {
       for (String expression : filterValues) {
-        foundPrograms.addAll(programReferenceDataService.search(expression));
+        programReferenceDataService
+            .search(expression)
+            .forEach(program -> foundPrograms.add(program.getId()));
       }
     }
 
-    return foundPrograms.stream().collect(toMap(ProgramDto::getId, Function.identity()));
+    return foundPrograms;
   }
 
-  private Map<UUID, MinimalFacilityDto> findFacilitiesWithFilter(String filterBy,
-                                                                  List<String> filterValues) {
-    Collection<MinimalFacilityDto> foundFacilities = new HashSet<>();
+  private Set<UUID> findFacilityIdsWithFilter(String filterBy, List<String> filterValues) {
+    Set<UUID> foundFacilities = new HashSet<>();
 
-    if (CollectionUtils.isEmpty(filterValues)
-        || !isFilterByFacilityProperty(filterBy)) {
-      foundFacilities.addAll(facilityReferenceDataService.findAll());
-    } else {
+    if (isFilterByFacilityProperty(filterBy)) {
       for (String expression : filterValues) {
         String code = isFilterAll(filterBy) || "facilityCode".equals(filterBy) ? expression : null;
         String name = isFilterAll(filterBy) || "facilityName".equals(filterBy) ? expression : null;
 
-        foundFacilities.addAll(facilityReferenceDataService.search(code, name, null, false));
+        facilityReferenceDataService
+            .search(code, name, null, false)
+            .forEach(facility -> foundFacilities.add(facility.getId()));
       }
     }
 
-    return foundFacilities.stream()
+    return foundFacilities;
+  }
+
+  private Map<UUID, ProgramDto> findPrograms(List<Requisition> requisitions) {
+    Set<UUID> programIds = requisitions
+        .stream()
+        .map(Requisition::getProgramId)
+        .collect(toSet());
+
+    if (programIds.isEmpty()) {
+      return Collections.emptyMap();
+    }
+
+    return programReferenceDataService
+        .search(programIds)
+        .stream()
+        .collect(toMap(ProgramDto::getId, Function.identity()));
+  }
+
+  private Map<UUID, MinimalFacilityDto> findFacilities(List<Requisition> requisitions) {
+    Set<UUID> facilityIds = requisitions
+        .stream()
+        .map(Requisition::getFacilityId)
+        .collect(toSet());
+
+    if (facilityIds.isEmpty()) {
+      return Collections.emptyMap();
+    }
+
+    return facilityReferenceDataService
+        .search(facilityIds)
+        .stream()
         .collect(toMap(MinimalFacilityDto::getId, Function.identity()));
   }
 
@@ -794,24 +856,28 @@ public class RequisitionService {
     return isFilterAll(filterBy) || "programName".equalsIgnoreCase(filterBy);
   }
 
-  private List<Requisition> getRecentRegularRequisitions(Requisition requisition, int amount) {
-    List<ProcessingPeriodDto> previousPeriods =
-        periodService.findPreviousPeriods(requisition.getProcessingPeriodId(), amount);
+  private List<Requisition> getRecentRegularRequisitions(Requisition requisition,
+                                                         List<ProcessingPeriodDto> periods) {
+    List<UUID> previousPeriodIds = periods
+        .stream()
+        .map(ProcessingPeriodDto::getId)
+        .collect(toList());
 
-    List<Requisition> recentRequisitions = new ArrayList<>();
-    for (ProcessingPeriodDto period : previousPeriods) {
-      List<Requisition> requisitionsByPeriod = getRegularRequisitionsByPeriod(requisition, period);
-      if (!requisitionsByPeriod.isEmpty()) {
-        Requisition requisitionByPeriod = requisitionsByPeriod.get(0);
-        recentRequisitions.add(requisitionByPeriod);
-      }
+    if (previousPeriodIds.isEmpty()) {
+      return new ArrayList<>();
     }
-    return recentRequisitions;
-  }
 
-  private List<Requisition> getRegularRequisitionsByPeriod(Requisition requisition,
-                                                           ProcessingPeriodDto period) {
-    return requisitionRepository.searchRequisitions(
-        period.getId(), requisition.getFacilityId(), requisition.getProgramId(), false);
+    // There is always maximum one regular requisition for given period, facility and program
+    Map<UUID, Requisition> requisitionsByPeriod = new HashMap<>();
+    requisitionRepository
+        .findRegularRequisitions(
+            requisition.getFacilityId(), requisition.getProgramId(), previousPeriodIds)
+        .forEach(item -> requisitionsByPeriod.putIfAbsent(item.getProcessingPeriodId(), item));
+
+    return previousPeriodIds
+        .stream()
+        .map(requisitionsByPeriod::get)
+        .filter(Objects::nonNull)
+        .collect(toList());
   }
 }
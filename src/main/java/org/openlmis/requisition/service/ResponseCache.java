@@ -0,0 +1,96 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.service;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import lombok.Getter;
+import org.openlmis.requisition.metrics.CacheMetrics;
+import org.openlmis.requisition.metrics.MetricsRegistry;
+
+/**
+ * In-memory cache for responses retrieved by {@link BaseCommunicationService}. Entries expire
+ * after the given time to live and the least recently used entries are evicted once the cache
+ * reaches its maximum size. Null responses (e.g. resource not found) are never stored.
+ * Cached responses are shared by all threads that read them, so callers must not modify them
+ * and should work on copies instead.
+ */
+public class ResponseCache {
+
+  @Getter
+  private final String name;
+
+  private final Cache<Object, Object> cache;
+
+  public ResponseCache(String name, long timeToLive, long maximumSize) {
+    this(name, timeToLive, maximumSize, Ticker.systemTicker());
+  }
+
+  ResponseCache(String name, long timeToLive, long maximumSize, Ticker ticker) {
+    this.name = name;
+    this.cache = CacheBuilder
+        .newBuilder()
+        .expireAfterWrite(timeToLive, TimeUnit.SECONDS)
+        .maximumSize(maximumSize)
+        .ticker(ticker)
+        .recordStats()
+        .build();
+  }
+
+  /**
+   * Returns the response stored under the given key. If there is no such response, it will be
+   * retrieved by the loader and stored for later use.
+   *
+   * @param key    identifies the request, should contain resource url and query parameters.
+   * @param loader retrieves the response from the external service.
+   * @return cached or freshly retrieved response.
+   */
+  @SuppressWarnings("unchecked")
+  public <P> P get(Object key, Supplier<P> loader) {
+    Object cached = cache.getIfPresent(key);
+
+    if (null != cached) {
+      return (P) cached;
+    }
+
+    P response = loader.get();
+
+    if (null != response) {
+      cache.put(key, response);
+    }
+
+    return response;
+  }
+
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  public long size() {
+    return cache.size();
+  }
+
+  /**
+   * Registers gauges of hits, misses, evictions and size of this cache, tagged with its name.
+   */
+  public void registerMetrics(MetricsRegistry registry) {
+    CacheMetrics.register(registry, name, cache);
+  }
+
+}
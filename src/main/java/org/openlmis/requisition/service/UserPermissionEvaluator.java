@@ -0,0 +1,144 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.service;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import org.openlmis.requisition.metrics.CacheMetrics;
+import org.openlmis.requisition.metrics.MetricsRegistry;
+import org.openlmis.requisition.utils.AuthenticationHelper;
+import org.slf4j.ext.XLogger;
+import org.slf4j.ext.XLoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Answers supervision right checks of a user from the user's permission strings, so that checking
+ * many requisitions at once does not require a call to the Reference Data service for each of
+ * them. Permission strings are retrieved once per user and kept for a short time, set by the
+ * {@code permission.cache.timeToLive} property. A time to live that is not positive disables the
+ * evaluator. Statistics of the cache are available as gauges tagged with the
+ * {@code permissions} cache name.
+ */
+@Component
+public class UserPermissionEvaluator {
+  private static final XLogger XLOGGER = XLoggerFactory.getXLogger(UserPermissionEvaluator.class);
+
+  private static final String SEPARATOR = "|";
+
+  private final Cache<UUID, Set<String>> permissionStrings;
+
+  private final boolean enabled;
+
+  @Autowired
+  private AuthenticationHelper authenticationHelper;
+
+  @Autowired
+  private MetricsRegistry metricsRegistry;
+
+  /**
+   * Creates a new instance of the evaluator.
+   *
+   * @param timeToLive number of seconds permission strings of a user are kept in memory.
+   * @param maximumSize maximum number of users whose permission strings are kept in memory.
+   */
+  @Autowired
+  public UserPermissionEvaluator(@Value("${permission.cache.timeToLive}") long timeToLive,
+                                 @Value("${permission.cache.maxSize}") long maximumSize) {
+    this(timeToLive, maximumSize, Ticker.systemTicker());
+  }
+
+  UserPermissionEvaluator(long timeToLive, long maximumSize, Ticker ticker) {
+    this.enabled = timeToLive > 0;
+    this.permissionStrings = CacheBuilder
+        .newBuilder()
+        .expireAfterWrite(Math.max(timeToLive, 0), TimeUnit.SECONDS)
+        .maximumSize(maximumSize)
+        .ticker(ticker)
+        .recordStats()
+        .build();
+  }
+
+  @PostConstruct
+  public void registerMetrics() {
+    CacheMetrics.register(metricsRegistry, "permissions", permissionStrings);
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Checks if the given user has the supervision right for the given program and facility.
+   *
+   * @param user      id of the user.
+   * @param rightName name of the right, for example {@code REQUISITION_VIEW}.
+   * @param program   id of the program.
+   * @param facility  id of the facility.
+   * @return true if one of the user's permission strings matches the right, facility and program.
+   */
+  public boolean hasSupervisionRight(UUID user, String rightName, UUID program, UUID facility) {
+    String permissionString = String.join(
+        SEPARATOR, rightName, facility.toString(), program.toString());
+
+    return getPermissionStrings(user).contains(permissionString);
+  }
+
+  /**
+   * Removes permission strings of the given user, so they are retrieved again on the next check.
+   */
+  public void invalidate(UUID user) {
+    permissionStrings.invalidate(user);
+  }
+
+  public void invalidateAll() {
+    permissionStrings.invalidateAll();
+  }
+
+  public long size() {
+    return permissionStrings.size();
+  }
+
+  private Set<String> getPermissionStrings(UUID user) {
+    Set<String> cached = permissionStrings.getIfPresent(user);
+
+    if (null != cached) {
+      return cached;
+    }
+
+    XLOGGER.debug("Retrieving permission strings of user {}", user);
+    Collection<String> retrieved = authenticationHelper.getPermissionStrings(user);
+    Set<String> index = null == retrieved
+        ? Collections.emptySet()
+        : Collections.unmodifiableSet(new HashSet<>(retrieved));
+
+    if (enabled && null != retrieved) {
+      permissionStrings.put(user, index);
+    }
+
+    return index;
+  }
+
+}
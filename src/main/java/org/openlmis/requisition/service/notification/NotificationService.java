@@ -21,6 +21,7 @@ import java.util.HashMap;
 import java.util.Map;
 import org.openlmis.requisition.dto.UserDto;
 import org.openlmis.requisition.service.AuthService;
+import org.openlmis.requisition.service.OutboundRequestMetricsInterceptor;
 import org.openlmis.requisition.utils.RequestHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -29,7 +30,6 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestOperations;
-import org.springframework.web.client.RestTemplate;
 
 @Service
 public class NotificationService {
@@ -41,7 +41,8 @@ public class NotificationService {
   @Value("${notification.url}")
   private String notificationUrl;
 
-  private RestOperations restTemplate = new RestTemplate();
+  private RestOperations restTemplate = OutboundRequestMetricsInterceptor
+      .createRestTemplate(NotificationService.class);
 
   /**
    * Send an email notification.
@@ -16,6 +16,8 @@
 package org.openlmis.requisition.service.referencedata;
 
 import org.openlmis.requisition.service.BaseCommunicationService;
+import org.openlmis.requisition.service.ResponseCache;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 
 public abstract class BaseReferenceDataService<T> extends BaseCommunicationService<T> {
@@ -23,6 +25,8 @@ public abstract class BaseReferenceDataService<T> extends BaseCommunicationServi
   @Value("${referencedata.url}")
   private String referenceDataUrl;
 
+  private ReferenceDataCacheManager cacheManager;
+
   @Override
   protected String getServiceName() {
     return "Reference Data";
@@ -32,4 +36,26 @@ public abstract class BaseReferenceDataService<T> extends BaseCommunicationServi
   protected String getServiceUrl() {
     return referenceDataUrl;
   }
+
+  /**
+   * Returns the name of the resource type used to look up cache settings. Services that return
+   * null (the default) always send requests to the reference data service.
+   */
+  protected String getCacheName() {
+    return null;
+  }
+
+  @Override
+  protected ResponseCache getResponseCache() {
+    String cacheName = getCacheName();
+
+    return null == cacheManager || null == cacheName
+        ? null
+        : cacheManager.getCache(cacheName);
+  }
+
+  @Autowired(required = false)
+  void setCacheManager(ReferenceDataCacheManager cacheManager) {
+    this.cacheManager = cacheManager;
+  }
 }
@@ -45,6 +45,11 @@ public class FacilityReferenceDataService extends BaseReferenceDataService<Facil
     return FacilityDto[].class;
   }
 
+  @Override
+  protected String getCacheName() {
+    return "facilities";
+  }
+
   /**
    * This method retrieves Facilities for given ids.
    *
@@ -43,6 +43,11 @@ public class OrderableReferenceDataService
     return OrderableDto[].class;
   }
 
+  @Override
+  protected String getCacheName() {
+    return "orderables";
+  }
+
   @Override
   public List<OrderableDto> findAll() {
     return getPage(RequestParameters.init()).getContent();
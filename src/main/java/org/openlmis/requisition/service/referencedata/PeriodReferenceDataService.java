@@ -17,6 +17,7 @@ package org.openlmis.requisition.service.referencedata;
 
 import java.time.LocalDate;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
@@ -25,6 +26,7 @@ import org.openlmis.requisition.service.RequestParameters;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.util.CollectionUtils;
 
 @Service
 public class PeriodReferenceDataService extends BaseReferenceDataService<ProcessingPeriodDto> {
@@ -44,6 +46,11 @@ public class PeriodReferenceDataService extends BaseReferenceDataService<Process
     return ProcessingPeriodDto[].class;
   }
 
+  @Override
+  protected String getCacheName() {
+    return "processingPeriods";
+  }
+
   /**
    * Retrieves periods from the reference data service by schedule ID and end date.
    *
@@ -81,11 +88,21 @@ public class PeriodReferenceDataService extends BaseReferenceDataService<Process
    * @return List of ProcessingPeriodDto.
    */
   public List<ProcessingPeriodDto> search(Set<UUID> periodIds) {
-    RequestParameters parameters = RequestParameters
-        .init()
-        .set("id", periodIds);
+    return findByIds(periodIds);
+  }
 
-    return getPage(parameters).getContent();
+  /**
+   * Finds processing periods by their ids. Long id lists are split into several requests, so
+   * that none of them exceeds the maximum url length.
+   *
+   * @param ids ids to look for.
+   * @return a list of processing periods.
+   */
+  public List<ProcessingPeriodDto> findByIds(Collection<UUID> ids) {
+    if (CollectionUtils.isEmpty(ids)) {
+      return Collections.emptyList();
+    }
+    return getPage(RequestParameters.init().set("id", ids)).getContent();
   }
 
   /**
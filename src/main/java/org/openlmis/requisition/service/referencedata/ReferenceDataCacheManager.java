@@ -0,0 +1,92 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.service.referencedata;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.openlmis.requisition.metrics.MetricsRegistry;
+import org.openlmis.requisition.service.ResponseCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps response caches for reference data resources. Each resource type has its own time to
+ * live and maximum size, set by the {@code referencedata.cache.<name>.timeToLive} and
+ * {@code referencedata.cache.<name>.maxSize} properties. A resource without a positive time to
+ * live is not cached. Hits, misses, evictions and size of created caches are available as gauges
+ * in the metrics registry.
+ */
+@Component
+public class ReferenceDataCacheManager {
+  private static final Logger LOGGER = LoggerFactory.getLogger(ReferenceDataCacheManager.class);
+
+  private static final String PROPERTY_PREFIX = "referencedata.cache.";
+
+  private final ConcurrentMap<String, Optional<ResponseCache>> caches = new ConcurrentHashMap<>();
+
+  @Autowired
+  private Environment environment;
+
+  @Autowired
+  private MetricsRegistry metricsRegistry;
+
+  @Value("${referencedata.cache.maxSize}")
+  private long defaultMaxSize;
+
+  /**
+   * Returns the cache for the given resource type.
+   *
+   * @param name resource type, for example {@code facilities}.
+   * @return cache instance or null if the given resource should not be cached.
+   */
+  public ResponseCache getCache(String name) {
+    return caches
+        .computeIfAbsent(name, key -> Optional.ofNullable(createCache(key)))
+        .orElse(null);
+  }
+
+  /**
+   * Removes all cached responses.
+   */
+  public void invalidateAll() {
+    caches.values().forEach(cache -> cache.ifPresent(ResponseCache::invalidateAll));
+  }
+
+  private ResponseCache createCache(String name) {
+    long timeToLive = environment
+        .getProperty(PROPERTY_PREFIX + name + ".timeToLive", Long.class, 0L);
+
+    if (timeToLive <= 0) {
+      LOGGER.debug("Caching of {} is disabled", name);
+      return null;
+    }
+
+    long maxSize = environment
+        .getProperty(PROPERTY_PREFIX + name + ".maxSize", Long.class, defaultMaxSize);
+
+    LOGGER.info("Caching {} for {} seconds, up to {} responses", name, timeToLive, maxSize);
+    ResponseCache cache = new ResponseCache(name, timeToLive, maxSize);
+    cache.registerMetrics(metricsRegistry);
+
+    return cache;
+  }
+
+}
@@ -38,6 +38,11 @@ public class RightReferenceDataService extends BaseReferenceDataService<RightDto
     return RightDto[].class;
   }
 
+  @Override
+  protected String getCacheName() {
+    return "rights";
+  }
+
   /**
    * Find a correct right by the provided name.
    *
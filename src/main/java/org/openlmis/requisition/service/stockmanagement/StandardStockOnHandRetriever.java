@@ -15,8 +15,8 @@
 
 package org.openlmis.requisition.service.stockmanagement;
 
+import com.google.common.collect.Maps;
 import java.time.LocalDate;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -43,7 +43,7 @@ final class StandardStockOnHandRetriever implements StockOnHandRetriever {
   }
 
   private Map<UUID, Integer> convert(List<StockCardSummaryDto> cards) {
-    Map<UUID, Integer> stockCardsMap = new HashMap<>();
+    Map<UUID, Integer> stockCardsMap = Maps.newHashMapWithExpectedSize(cards.size());
     cards.forEach(card -> stockCardsMap.put(card.getOrderable().getId(), card.getStockOnHand()));
     return stockCardsMap;
   }
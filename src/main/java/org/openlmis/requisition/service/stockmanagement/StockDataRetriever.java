@@ -0,0 +1,99 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.service.stockmanagement;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import org.openlmis.requisition.domain.requisition.StockData;
+import org.openlmis.requisition.dto.ProcessingPeriodDto;
+import org.openlmis.requisition.service.InstrumentedExecutor;
+import org.openlmis.requisition.service.referencedata.ApproveProductsAggregator;
+
+/**
+ * Retrieves stock on hand and beginning balances of full supply products for a period. Both
+ * snapshots are taken for the same set of orderables and requested at the same time, so
+ * requisition initiation waits for a single round trip to the stock management service. A
+ * snapshot that is not needed by the template is not requested at all.
+ */
+public final class StockDataRetriever {
+  private final StockOnHandRetrieverBuilder stockOnHandBuilder;
+  private final StockOnHandRetrieverBuilder beginningBalanceBuilder;
+  private final InstrumentedExecutor executor;
+
+  StockDataRetriever(StockOnHandRetrieverBuilder stockOnHandBuilder,
+      StockOnHandRetrieverBuilder beginningBalanceBuilder, InstrumentedExecutor executor) {
+    this.stockOnHandBuilder = stockOnHandBuilder;
+    this.beginningBalanceBuilder = beginningBalanceBuilder;
+    this.executor = executor;
+  }
+
+  /**
+   * Sets products for which stock data should be retrieved.
+   */
+  public StockDataRetriever forProducts(ApproveProductsAggregator products) {
+    stockOnHandBuilder.forProducts(products);
+    beginningBalanceBuilder.forProducts(products);
+    return this;
+  }
+
+  /**
+   * Sets program for which stock data should be retrieved.
+   */
+  public StockDataRetriever forProgram(UUID programId) {
+    stockOnHandBuilder.forProgram(programId);
+    beginningBalanceBuilder.forProgram(programId);
+    return this;
+  }
+
+  /**
+   * Sets facility for which stock data should be retrieved.
+   */
+  public StockDataRetriever forFacility(UUID facilityId) {
+    stockOnHandBuilder.forFacility(facilityId);
+    beginningBalanceBuilder.forFacility(facilityId);
+    return this;
+  }
+
+  /**
+   * Sets period for which stock data should be retrieved. Stock on hand is taken as of the period
+   * end date and beginning balances as of the day before the period start date.
+   */
+  public StockDataRetriever forPeriod(ProcessingPeriodDto period) {
+    stockOnHandBuilder.asOfDate(period.getEndDate());
+    beginningBalanceBuilder.asOfDate(period.getStartDate().minusDays(1));
+    return this;
+  }
+
+  /**
+   * Requests both snapshots and returns a future that completes once both of them are available.
+   */
+  public CompletableFuture<StockData> getAsync() {
+    CompletableFuture<Map<UUID, Integer>> stockOnHands = retrieve(stockOnHandBuilder.build());
+    CompletableFuture<Map<UUID, Integer>> beginningBalances =
+        retrieve(beginningBalanceBuilder.build());
+
+    return stockOnHands.thenCombine(beginningBalances, StockData::new);
+  }
+
+  private CompletableFuture<Map<UUID, Integer>> retrieve(StockOnHandRetriever retriever) {
+    // there is no request to wait for, so there is no reason to occupy another thread
+    return retriever instanceof EmptyStockOnHandRetriever
+        ? CompletableFuture.completedFuture(retriever.get())
+        : executor.supplyAsync(retriever);
+  }
+
+}
@@ -0,0 +1,36 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.service.stockmanagement;
+
+import org.openlmis.requisition.service.InstrumentedExecutor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Thread pool used to submit stock events created from approved requisitions. It is separate from
+ * other pools, so a large batch approval does not delay other outbound requests.
+ */
+@Component
+public class StockEventExecutor extends InstrumentedExecutor {
+
+  @Autowired
+  public StockEventExecutor(@Value("${stockmanagement.stockEvent.executor.poolSize}") int poolSize,
+      @Value("${stockmanagement.stockEvent.executor.queueCapacity}") int queueCapacity) {
+    super("stock-event", poolSize, queueCapacity);
+  }
+
+}
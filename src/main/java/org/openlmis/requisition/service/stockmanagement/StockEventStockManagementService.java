@@ -19,9 +19,16 @@ import static org.openlmis.requisition.utils.RequestHelper.createUri;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import org.openlmis.requisition.dto.LocalizedMessageDto;
 import org.openlmis.requisition.dto.stockmanagement.StockEventDto;
+import org.openlmis.requisition.dto.stockmanagement.StockEventLineItemDto;
 import org.openlmis.requisition.exception.ExternalApiException;
 import org.openlmis.requisition.exception.ServerException;
 import org.openlmis.requisition.i18n.MessageKeys;
@@ -44,6 +51,46 @@ public class StockEventStockManagementService
   @Autowired
   private ObjectMapper objectMapper;
 
+  @Autowired
+  private StockEventExecutor stockEventExecutor;
+
+  /**
+   * Saves the given stock events to the stockmanagement service. Events with the same program,
+   * facility and user are merged into a single event, so they are saved by one request. Merged
+   * events are submitted at the same time.
+   *
+   * @param stockEvents the stock events to be submitted, mapped by ids of requisitions they were
+   *                    built from
+   * @return errors that occurred, mapped by requisition ids. If a merged event could not be saved,
+   *     the error is returned for all requisitions that the event was built from.
+   */
+  public Map<UUID, RuntimeException> submitAll(Map<UUID, StockEventDto> stockEvents) {
+    Map<List<UUID>, List<UUID>> groups = new LinkedHashMap<>();
+    stockEvents.forEach((requisitionId, event) -> groups
+        .computeIfAbsent(Arrays.asList(event.getProgramId(), event.getFacilityId(),
+            event.getUserId()), key -> new ArrayList<>())
+        .add(requisitionId));
+
+    LOGGER.debug("Merged {} stock events into {}", stockEvents.size(), groups.size());
+
+    Map<List<UUID>, CompletableFuture<Void>> futures = new LinkedHashMap<>();
+    groups.forEach((key, requisitionIds) -> {
+      StockEventDto merged = merge(key, requisitionIds, stockEvents);
+      futures.put(key, stockEventExecutor.runAsync(() -> submit(merged)));
+    });
+
+    Map<UUID, RuntimeException> errors = new LinkedHashMap<>();
+    futures.forEach((key, future) -> {
+      try {
+        StockEventExecutor.join(future);
+      } catch (RuntimeException exp) {
+        groups.get(key).forEach(requisitionId -> errors.put(requisitionId, exp));
+      }
+    });
+
+    return errors;
+  }
+
   /**
    * Saves the given stock event to the stockmanagement service.
    *
@@ -80,6 +127,23 @@ public class StockEventStockManagementService
     }
   }
 
+  private StockEventDto merge(List<UUID> key, List<UUID> requisitionIds,
+      Map<UUID, StockEventDto> stockEvents) {
+    if (requisitionIds.size() == 1) {
+      return stockEvents.get(requisitionIds.get(0));
+    }
+
+    List<StockEventLineItemDto> lineItems = new ArrayList<>();
+    requisitionIds.forEach(requisitionId -> {
+      List<StockEventLineItemDto> eventLineItems = stockEvents.get(requisitionId).getLineItems();
+      if (null != eventLineItems) {
+        lineItems.addAll(eventLineItems);
+      }
+    });
+
+    return new StockEventDto(key.get(0), key.get(1), lineItems, key.get(2));
+  }
+
   @Override
   protected String getUrl() {
     return "/api/stockEvents";
@@ -16,6 +16,8 @@
 package org.openlmis.requisition.service.stockmanagement;
 
 import org.openlmis.requisition.domain.RequisitionTemplate;
+import org.openlmis.requisition.domain.requisition.RequisitionLineItem;
+import org.openlmis.requisition.service.OutboundRequestExecutor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -25,6 +27,9 @@ public class StockOnHandRetrieverBuilderFactory {
   @Autowired
   private StockCardSummariesStockManagementService stockCardSummariesStockManagementService;
 
+  @Autowired
+  private OutboundRequestExecutor outboundRequestExecutor;
+
   /**
    * Creates new instance of {@link StockOnHandRetrieverBuilder} based on settings from the
    * {@link RequisitionTemplate}.
@@ -49,4 +54,16 @@ public class StockOnHandRetrieverBuilderFactory {
     return builder;
   }
 
+  /**
+   * Creates new instance of {@link StockDataRetriever} that retrieves stock on hand and beginning
+   * balances required by the {@link RequisitionTemplate}.
+   */
+  public final StockDataRetriever getStockDataInstance(RequisitionTemplate template) {
+    return new StockDataRetriever(
+        getInstance(template, RequisitionLineItem.STOCK_ON_HAND),
+        getInstance(template, RequisitionLineItem.BEGINNING_BALANCE),
+        outboundRequestExecutor
+    );
+  }
+
 }
@@ -18,18 +18,41 @@ package org.openlmis.requisition.utils;
 import static org.openlmis.requisition.i18n.MessageKeys.ERROR_RIGHT_NOT_FOUND;
 import static org.openlmis.requisition.i18n.MessageKeys.ERROR_USER_NOT_FOUND;
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Supplier;
 import org.openlmis.requisition.dto.RightDto;
 import org.openlmis.requisition.dto.UserDto;
 import org.openlmis.requisition.exception.AuthenticationMessageException;
+import org.openlmis.requisition.metrics.Counter;
+import org.openlmis.requisition.metrics.Metrics;
 import org.openlmis.requisition.service.referencedata.RightReferenceDataService;
 import org.openlmis.requisition.service.referencedata.UserReferenceDataService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
+/**
+ * Resolves the current user and rights. Within an HTTP request each user, right and list of
+ * permission strings is retrieved from the Reference Data service at most once, later lookups in
+ * the same request are answered from a memo kept in the request attributes. Lookups made outside
+ * of an HTTP request (e.g. in background threads) are not memoized. Both kinds of lookups are
+ * counted by the {@code authentication.lookups} counter, tagged with their source.
+ */
 @Component
 public class AuthenticationHelper {
+  private static final String MEMO_ATTRIBUTE = AuthenticationHelper.class.getName() + ".MEMO";
+
+  private static final String LOOKUPS_COUNTER = "authentication.lookups";
+  private static final String SOURCE_TAG = "source";
+
+  static final Counter REMOTE_LOOKUPS = Metrics.counter(LOOKUPS_COUNTER, SOURCE_TAG, "remote");
+  static final Counter MEMOIZED_LOOKUPS = Metrics.counter(LOOKUPS_COUNTER, SOURCE_TAG, "memo");
 
   @Autowired
   private UserReferenceDataService userReferenceDataService;
@@ -46,7 +69,8 @@ public class AuthenticationHelper {
    */
   public UserDto getCurrentUser() {
     UUID userId = (UUID) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-    UserDto user = userReferenceDataService.findOne(userId);
+    UserDto user = memoize(Arrays.asList("user", userId),
+        () -> userReferenceDataService.findOne(userId));
 
     if (user == null) {
       throw new AuthenticationMessageException(new Message(ERROR_USER_NOT_FOUND, userId));
@@ -63,7 +87,8 @@ public class AuthenticationHelper {
    * @throws AuthenticationMessageException if right cannot be found.
    */
   public RightDto getRight(String name) {
-    RightDto right = rightReferenceDataService.findRight(name);
+    RightDto right = memoize(Arrays.asList("right", name),
+        () -> rightReferenceDataService.findRight(name));
 
     if (null == right) {
       throw new AuthenticationMessageException(new Message(ERROR_RIGHT_NOT_FOUND, name));
@@ -71,4 +96,50 @@ public class AuthenticationHelper {
 
     return right;
   }
+
+  /**
+   * Method returns permission strings of the given user and fetches them from reference-data
+   * service.
+   *
+   * @param userId id of the user
+   * @return list of user's permission strings.
+   */
+  public List<String> getPermissionStrings(UUID userId) {
+    return memoize(Arrays.asList("permissionStrings", userId),
+        () -> userReferenceDataService.getPermissionStrings(userId));
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> T memoize(Object key, Supplier<T> loader) {
+    RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+
+    if (null == attributes) {
+      REMOTE_LOOKUPS.increment();
+      return loader.get();
+    }
+
+    Map<Object, Object> memo = (Map<Object, Object>) attributes
+        .getAttribute(MEMO_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+
+    if (null == memo) {
+      memo = new HashMap<>();
+      attributes.setAttribute(MEMO_ATTRIBUTE, memo, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    Object memoized = memo.get(key);
+
+    if (null != memoized) {
+      MEMOIZED_LOOKUPS.increment();
+      return (T) memoized;
+    }
+
+    REMOTE_LOOKUPS.increment();
+    T value = loader.get();
+
+    if (null != value) {
+      memo.put(key, value);
+    }
+
+    return value;
+  }
 }
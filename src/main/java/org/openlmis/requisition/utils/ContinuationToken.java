@@ -0,0 +1,95 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.utils;
+
+import static org.openlmis.requisition.i18n.MessageKeys.ERROR_INVALID_CONTINUATION_TOKEN;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.openlmis.requisition.domain.BaseTimestampedEntity;
+import org.openlmis.requisition.exception.ValidationMessageException;
+
+/**
+ * Position of the last element of a keyset paginated page. The next page starts right after this
+ * position, so the database can seek to it with an index instead of reading and skipping all
+ * elements of the previous pages. Clients receive the token in an encoded, opaque form and should
+ * not depend on its content.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor
+public final class ContinuationToken {
+  private static final String SEPARATOR = "_";
+
+  private final ZonedDateTime createdDate;
+  private final UUID id;
+
+  /**
+   * Creates a token that points to the given entity.
+   */
+  public static ContinuationToken of(BaseTimestampedEntity entity) {
+    return new ContinuationToken(
+        entity.getCreatedDate().withZoneSameInstant(ZoneOffset.UTC), entity.getId());
+  }
+
+  /**
+   * Decodes the token received from a client.
+   *
+   * @param value encoded token.
+   * @return decoded token or null if the value is empty, which means the first page.
+   * @throws ValidationMessageException if the value is not a valid token.
+   */
+  public static ContinuationToken decode(String value) {
+    if (null == value || value.isEmpty()) {
+      return null;
+    }
+
+    try {
+      String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+      String[] parts = decoded.split(SEPARATOR);
+
+      if (parts.length != 2) {
+        throw new IllegalArgumentException(decoded);
+      }
+
+      return new ContinuationToken(
+          Instant.parse(parts[0]).atZone(ZoneOffset.UTC), UUID.fromString(parts[1]));
+    } catch (IllegalArgumentException | DateTimeParseException cause) {
+      throw new ValidationMessageException(
+          new Message(ERROR_INVALID_CONTINUATION_TOKEN, value), cause);
+    }
+  }
+
+  /**
+   * Encodes the token so that it can be passed to a client.
+   */
+  public String encode() {
+    String value = createdDate.toInstant() + SEPARATOR + id;
+    return Base64.getUrlEncoder().withoutPadding()
+        .encodeToString(value.getBytes(StandardCharsets.UTF_8));
+  }
+
+}
@@ -0,0 +1,103 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.utils;
+
+import java.util.List;
+import org.openlmis.requisition.domain.BaseTimestampedEntity;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Page returned for a {@link KeysetPageable}. Elements are not counted, so the total number of
+ * elements and pages is reported as -1. The continuation token of the next page is null if this
+ * is the last page.
+ */
+public class KeysetPage<T> extends PageImpl<T> {
+  private static final long serialVersionUID = 6453718826312849237L;
+
+  private final KeysetPageable pageable;
+  private final String continuationToken;
+
+  /**
+   * Creates a new instance of {@link KeysetPage}.
+   */
+  public KeysetPage(List<T> content, KeysetPageable pageable, String continuationToken) {
+    super(content, pageable, content.size());
+    this.pageable = pageable;
+    this.continuationToken = continuationToken;
+  }
+
+  /**
+   * Creates a page from elements retrieved for the given pageable. The caller should retrieve one
+   * element more than the page size, so it can be found out if there is a next page.
+   */
+  public static <T extends BaseTimestampedEntity> KeysetPage<T> of(List<T> elements,
+      KeysetPageable pageable) {
+    if (elements.size() <= pageable.getPageSize()) {
+      return new KeysetPage<>(elements, pageable, null);
+    }
+
+    List<T> content = elements.subList(0, pageable.getPageSize());
+    T last = content.get(content.size() - 1);
+
+    return new KeysetPage<>(content, pageable, ContinuationToken.of(last).encode());
+  }
+
+  /**
+   * Creates a page with the same continuation token and new content, for example DTOs built from
+   * the elements of this page.
+   */
+  public <S> KeysetPage<S> withContent(List<S> content) {
+    return new KeysetPage<>(content, pageable, continuationToken);
+  }
+
+  public String getContinuationToken() {
+    return continuationToken;
+  }
+
+  @Override
+  public long getTotalElements() {
+    return -1;
+  }
+
+  @Override
+  public int getTotalPages() {
+    return -1;
+  }
+
+  @Override
+  public boolean hasNext() {
+    return null != continuationToken;
+  }
+
+  @Override
+  public boolean isLast() {
+    return !hasNext();
+  }
+
+  @Override
+  public boolean isFirst() {
+    return null == pageable.getContinuationToken();
+  }
+
+  @Override
+  public Pageable nextPageable() {
+    return hasNext()
+        ? new KeysetPageable(ContinuationToken.decode(continuationToken), getSize())
+        : null;
+  }
+
+}
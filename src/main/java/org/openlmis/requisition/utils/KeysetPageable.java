@@ -0,0 +1,104 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.utils;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+
+/**
+ * Requests a page of elements that follow the position from the continuation token, instead of
+ * a page with the given number. Elements are always ordered by creation date and id, which gives
+ * them a stable order even if new elements are added between requests.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+public final class KeysetPageable implements Pageable {
+  private static final Sort SORT = new Sort(Direction.ASC, "createdDate", "id");
+
+  private final ContinuationToken continuationToken;
+  private final int pageSize;
+
+  /**
+   * Creates a new instance of {@link KeysetPageable}.
+   *
+   * @param continuationToken position of the last element of the previous page, null for the
+   *                          first page.
+   * @param pageSize          maximum number of elements on the page.
+   */
+  public KeysetPageable(ContinuationToken continuationToken, int pageSize) {
+    this.continuationToken = continuationToken;
+    this.pageSize = pageSize;
+  }
+
+  /**
+   * Returns a {@link KeysetPageable} if the client sent a continuation token, even an empty one
+   * to get the first page. Otherwise the given pageable is returned.
+   *
+   * @param continuationToken encoded continuation token, null if the client did not send it.
+   * @param pageable          pageable with the requested page size.
+   * @throws org.openlmis.requisition.exception.ValidationMessageException if the token is not
+   *                          valid.
+   */
+  public static Pageable of(String continuationToken, Pageable pageable) {
+    if (null == continuationToken) {
+      return pageable;
+    }
+
+    return new KeysetPageable(
+        ContinuationToken.decode(continuationToken), Pagination.getPageSize(pageable));
+  }
+
+  @Override
+  public int getPageNumber() {
+    return Pagination.DEFAULT_PAGE_NUMBER;
+  }
+
+  @Override
+  public int getOffset() {
+    return 0;
+  }
+
+  @Override
+  public Sort getSort() {
+    return SORT;
+  }
+
+  @Override
+  public Pageable next() {
+    throw new UnsupportedOperationException("Next page is defined by the continuation token");
+  }
+
+  @Override
+  public Pageable previousOrFirst() {
+    return first();
+  }
+
+  @Override
+  public Pageable first() {
+    return new KeysetPageable(null, pageSize);
+  }
+
+  @Override
+  public boolean hasPrevious() {
+    return false;
+  }
+
+}
@@ -27,17 +27,20 @@ import org.openlmis.requisition.dto.BasicOrderableDto;
 import org.openlmis.requisition.dto.BatchApproveRequisitionLineItemDto;
 import org.openlmis.requisition.dto.OrderableDto;
 import org.openlmis.requisition.dto.RequisitionLineItemDto;
+import org.openlmis.requisition.metrics.Metrics;
+import org.openlmis.requisition.metrics.Timer;
 import org.openlmis.requisition.service.referencedata.OrderableReferenceDataService;
-import org.slf4j.ext.XLogger;
-import org.slf4j.ext.XLoggerFactory;
-import org.slf4j.profiler.Profiler;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 @Component
 public class RequisitionExportHelper {
 
-  private static final XLogger XLOGGER = XLoggerFactory.getXLogger(RequisitionExportHelper.class);
+  private static final String OPERATION = "EXPORT_LINE_ITEMS_TO_DTOS";
+  private static final Timer FIND_ORDERABLES_TIMER =
+      Metrics.stageTimer(OPERATION, "FIND_ORDERABLES_BY_IDS");
+  private static final Timer CONVERT_TIMER =
+      Metrics.stageTimer(OPERATION, "CONVERT_LINE_ITEMS_TO_DTOS");
 
   @Autowired
   private OrderableReferenceDataService orderableReferenceDataService;
@@ -62,52 +65,39 @@ public class RequisitionExportHelper {
   public List<RequisitionLineItemDto> exportToDtos(List<RequisitionLineItem> requisitionLineItems,
                                                    Map<UUID, OrderableDto> orderables,
                                                    boolean batch) {
-    XLOGGER.entry(requisitionLineItems);
-    Profiler profiler = new Profiler("EXPORT_LINE_ITEMS_TO_DTOS");
-    profiler.setLogger(XLOGGER);
-
     Map<UUID, OrderableDto> orderablesForLines;
     if (orderables == null) {
-      profiler.start("GET_ORDERABLE_IDS_FROM_LINE_ITEMS");
+      long started = FIND_ORDERABLES_TIMER.start();
       Set<UUID> orderableIds = new HashSet<>(requisitionLineItems.size());
       for (RequisitionLineItem lineItem : requisitionLineItems) {
         orderableIds.add(lineItem.getOrderableId());
       }
 
-      profiler.start("FIND_ORDERABLES_BY_IDS");
       orderablesForLines =
           orderableReferenceDataService.findByIds(orderableIds)
               .stream()
               .collect(Collectors.toMap(BasicOrderableDto::getId, orderable -> orderable));
-
+      FIND_ORDERABLES_TIMER.stop(started);
     } else {
       orderablesForLines = orderables;
     }
 
-    profiler.start("CONVERT_LINE_ITEMS_TO_DTOS");
+    long started = CONVERT_TIMER.start();
     List<RequisitionLineItemDto> requisitionLineItemDtos =
         new ArrayList<>(requisitionLineItems.size());
     for (RequisitionLineItem lineItem : requisitionLineItems) {
       requisitionLineItemDtos.add(exportToDto(lineItem, orderablesForLines, batch));
     }
+    CONVERT_TIMER.stop(started);
 
-    profiler.stop().log();
-    XLOGGER.exit(requisitionLineItemDtos);
     return requisitionLineItemDtos;
   }
 
-
   private RequisitionLineItemDto exportToDto(RequisitionLineItem requisitionLineItem,
                                              Map<UUID, OrderableDto> orderables,
                                              boolean batch) {
-    XLOGGER.entry(requisitionLineItem, orderables);
-    Profiler profiler = new Profiler("EXPORT_LINE_ITEM_TO_DTO");
-    profiler.setLogger(XLOGGER);
-
-    profiler.start("GET_LINE_ITEM_ORDERABLE_FROM_ORDERABLES");
     final OrderableDto orderableDto = orderables.get(requisitionLineItem.getOrderableId());
 
-    profiler.start("CONSTRUCT_REQUISITION_LINE_ITEM_DTO");
     RequisitionLineItemDto dto;
     if (batch) {
       dto = new BatchApproveRequisitionLineItemDto();
@@ -115,11 +105,7 @@ public class RequisitionExportHelper {
       dto = new RequisitionLineItemDto();
     }
 
-    profiler.start("EXPORT_TO_DTO");
     requisitionLineItem.export(dto, orderableDto);
-
-    profiler.stop().log();
-    XLOGGER.exit(dto);
     return dto;
   }
 }
@@ -34,6 +34,7 @@ import org.openlmis.requisition.dto.stockmanagement.StockCardDto;
 import org.openlmis.requisition.dto.stockmanagement.StockEventAdjustmentDto;
 import org.openlmis.requisition.dto.stockmanagement.StockEventDto;
 import org.openlmis.requisition.dto.stockmanagement.StockEventLineItemDto;
+import org.openlmis.requisition.metrics.MetricsProfiler;
 import org.openlmis.requisition.service.referencedata.PeriodReferenceDataService;
 import org.openlmis.requisition.service.stockmanagement.StockCardStockManagementService;
 import org.openlmis.requisition.settings.service.ConfigurationSettingService;
@@ -72,7 +73,7 @@ public class StockEventBuilder {
    */
   public StockEventDto fromRequisition(Requisition requisition, UUID currentUserId) {
     XLOGGER.entry(requisition);
-    Profiler profiler = new Profiler("BUILD_STOCK_EVENT_FROM_REQUISITION");
+    Profiler profiler = new MetricsProfiler("BUILD_STOCK_EVENT_FROM_REQUISITION");
     profiler.setLogger(XLOGGER);
 
     LOGGER.debug("Building stock events for requisition: {}", requisition.getId());
@@ -131,7 +132,7 @@ public class StockEventBuilder {
 
     XLOGGER.entry(lineItem, reasons, template, stockCards);
 
-    Profiler profiler = new Profiler("GET_STOCK_ADJUSTMENTS");
+    Profiler profiler = new MetricsProfiler("GET_STOCK_ADJUSTMENTS");
     profiler.setLogger(XLOGGER);
 
     List<StockEventAdjustmentDto> stockAdjustments = new ArrayList<>();
@@ -0,0 +1,79 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.utils;
+
+import java.util.List;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Requests a page without counting all matching elements. The page query fetches one element
+ * more than the page size instead, so the returned total number of elements is a lower bound:
+ * elements up to this page plus one if there is a next page. This is enough to tell whether the
+ * page is the last one.
+ */
+public class UncountedPageRequest extends PageRequest {
+  private static final long serialVersionUID = -1853349281736523474L;
+
+  /**
+   * Creates a new instance of {@link UncountedPageRequest}.
+   */
+  public UncountedPageRequest(Pageable pageable) {
+    super(Pagination.getPageNumber(pageable), Pagination.getPageSize(pageable),
+        null == pageable ? null : pageable.getSort());
+  }
+
+  /**
+   * Returns an {@link UncountedPageRequest} if the client does not need the total number of
+   * elements. Otherwise the given pageable is returned.
+   */
+  public static Pageable of(boolean count, Pageable pageable) {
+    return count || pageable instanceof KeysetPageable
+        ? pageable
+        : new UncountedPageRequest(pageable);
+  }
+
+  /**
+   * Returns a page built from elements retrieved for the given pageable, with the extra element
+   * removed.
+   */
+  public static <T> Page<T> getPage(List<T> elements, Pageable pageable) {
+    int pageSize = Pagination.getPageSize(pageable);
+    boolean hasNext = elements.size() > pageSize;
+    List<T> content = hasNext ? elements.subList(0, pageSize) : elements;
+    long total = (long) Pagination.getPageNumber(pageable) * pageSize + content.size()
+        + (hasNext ? 1 : 0);
+
+    return Pagination.getPage(content, pageable, total);
+  }
+
+  @Override
+  public Pageable next() {
+    return new UncountedPageRequest(super.next());
+  }
+
+  @Override
+  public Pageable previousOrFirst() {
+    return new UncountedPageRequest(super.previousOrFirst());
+  }
+
+  @Override
+  public Pageable first() {
+    return new UncountedPageRequest(super.first());
+  }
+
+}
@@ -18,6 +18,7 @@ package org.openlmis.requisition.web;
 import java.util.stream.Collectors;
 import org.openlmis.requisition.domain.AvailableRequisitionColumn;
 import org.openlmis.requisition.dto.AvailableRequisitionColumnDto;
+import org.openlmis.requisition.metrics.MetricsProfiler;
 import org.openlmis.requisition.repository.AvailableRequisitionColumnRepository;
 import org.slf4j.ext.XLogger;
 import org.slf4j.ext.XLoggerFactory;
@@ -52,7 +53,7 @@ public class AvailableRequisitionColumnController {
   @ResponseStatus(HttpStatus.OK)
   @ResponseBody
   public Page<AvailableRequisitionColumnDto> getAllColumns(Pageable pageable) {
-    Profiler profiler = new Profiler("GET_ALL_AVAILABLE_REQUISITION_COLUMNS");
+    Profiler profiler = new MetricsProfiler("GET_ALL_AVAILABLE_REQUISITION_COLUMNS");
     profiler.setLogger(logger);
 
     profiler.start("GET_FROM_REPOSITORY");
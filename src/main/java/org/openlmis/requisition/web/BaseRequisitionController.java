@@ -63,6 +63,7 @@ import org.openlmis.requisition.errorhandling.ValidationResult;
 import org.openlmis.requisition.exception.ContentNotFoundMessageException;
 import org.openlmis.requisition.exception.IdempotencyKeyException;
 import org.openlmis.requisition.exception.ValidationMessageException;
+import org.openlmis.requisition.metrics.MetricsProfiler;
 import org.openlmis.requisition.repository.RequisitionRepository;
 import org.openlmis.requisition.repository.custom.ProcessedRequestsRedisRepository;
 import org.openlmis.requisition.service.PeriodService;
@@ -133,10 +134,10 @@ public abstract class BaseRequisitionController extends BaseController {
   private RequisitionStatusProcessor requisitionStatusProcessor;
 
   @Autowired
-  private StockEventStockManagementService stockEventStockManagementService;
+  StockEventStockManagementService stockEventStockManagementService;
 
   @Autowired
-  private StockEventBuilder stockEventBuilder;
+  StockEventBuilder stockEventBuilder;
 
   @Autowired
   private DatePhysicalStockCountCompletedEnabledPredicate
@@ -242,8 +243,7 @@ public abstract class BaseRequisitionController extends BaseController {
 
   void submitStockEvent(Requisition requisition, UUID currentUserId) {
     Profiler profiler = getProfiler("SUBMIT_STOCK_EVENT", requisition, currentUserId);
-    if (requisition.getStatus().isApproved()
-        && isNotTrue(requisition.getEmergency())) {
+    if (isStockEventRequired(requisition)) {
       profiler.start("BUILD_STOCK_EVENT_FROM_REQUISITION");
       StockEventDto stockEventDto = stockEventBuilder.fromRequisition(requisition, currentUserId);
 
@@ -253,6 +253,10 @@ public abstract class BaseRequisitionController extends BaseController {
     }
   }
 
+  boolean isStockEventRequired(Requisition requisition) {
+    return requisition.getStatus().isApproved() && isNotTrue(requisition.getEmergency());
+  }
+
   Set<UUID> getLineItemOrderableIds(Requisition requisition) {
     return requisition.getRequisitionLineItems().stream().map(
         RequisitionLineItem::getOrderableId).collect(Collectors.toSet());
@@ -302,7 +306,7 @@ public abstract class BaseRequisitionController extends BaseController {
   Profiler getProfiler(String name, Object... entryArgs) {
     extLogger.entry(entryArgs);
 
-    Profiler profiler = new Profiler(name);
+    Profiler profiler = new MetricsProfiler(name);
     profiler.setLogger(extLogger);
 
     return profiler;
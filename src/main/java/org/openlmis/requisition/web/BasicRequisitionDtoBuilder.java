@@ -31,20 +31,21 @@ import org.openlmis.requisition.dto.FacilityDto;
 import org.openlmis.requisition.dto.MinimalFacilityDto;
 import org.openlmis.requisition.dto.ProcessingPeriodDto;
 import org.openlmis.requisition.dto.ProgramDto;
+import org.openlmis.requisition.metrics.Metrics;
+import org.openlmis.requisition.metrics.Timer;
 import org.openlmis.requisition.service.PeriodService;
 import org.openlmis.requisition.service.referencedata.FacilityReferenceDataService;
 import org.openlmis.requisition.service.referencedata.PeriodReferenceDataService;
 import org.openlmis.requisition.service.referencedata.ProgramReferenceDataService;
-import org.slf4j.ext.XLogger;
-import org.slf4j.ext.XLoggerFactory;
-import org.slf4j.profiler.Profiler;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 @Component
 public class BasicRequisitionDtoBuilder {
-  private static final XLogger XLOGGER = XLoggerFactory.getXLogger(
-      BasicRequisitionDtoBuilder.class);
+  private static final String OPERATION = "BASIC_REQUISITION_DTO_BUILD";
+  private static final Timer EXPORT_TIMER = Metrics.stageTimer(OPERATION, "EXPORT");
+  private static final Timer SET_SUB_RESOURCES_TIMER =
+      Metrics.stageTimer(OPERATION, "SET_SUB_RESOURCES");
 
   @Autowired
   private FacilityReferenceDataService facilityReferenceDataService;
@@ -131,22 +132,17 @@ public class BasicRequisitionDtoBuilder {
 
   private BasicRequisitionDto build(Requisition requisition, MinimalFacilityDto facility,
       ProgramDto program, ProcessingPeriodDto period) {
-    XLOGGER.entry(requisition);
-
     if (null == requisition) {
-      XLOGGER.exit();
       return null;
     }
 
-    Profiler profiler = new Profiler("BASIC_REQUISITION_DTO_BUILD");
-    profiler.setLogger(XLOGGER);
-
     BasicRequisitionDto requisitionDto = new BasicRequisitionDto();
 
-    profiler.start("EXPORT");
+    long started = EXPORT_TIMER.start();
     requisition.export(requisitionDto);
+    EXPORT_TIMER.stop(started);
 
-    profiler.start("SET_SUB_RESOURCES");
+    started = SET_SUB_RESOURCES_TIMER.start();
     requisitionDto.setFacility(
         Optional
         .ofNullable(facility)
@@ -162,9 +158,8 @@ public class BasicRequisitionDtoBuilder {
             .ofNullable(period)
             .orElseGet(() -> periodService.getPeriod(requisition.getProcessingPeriodId()))
     );
+    SET_SUB_RESOURCES_TIMER.stop(started);
 
-    profiler.stop().log();
-    XLOGGER.exit(requisitionDto);
     return requisitionDto;
   }
 }
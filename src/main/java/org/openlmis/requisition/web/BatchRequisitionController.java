@@ -15,38 +15,35 @@
 
 package org.openlmis.requisition.web;
 
-import static java.util.concurrent.CompletableFuture.runAsync;
-import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toMap;
-import static org.apache.commons.lang3.BooleanUtils.isFalse;
+import static org.apache.commons.lang3.StringUtils.isNotBlank;
 import static org.openlmis.requisition.i18n.MessageKeys.ERROR_NO_FOLLOWING_PERMISSION;
+import static org.openlmis.requisition.i18n.MessageKeys.ERROR_SERVICE_OCCURED;
+import static org.openlmis.requisition.service.InstrumentedExecutor.join;
 
 import com.google.common.collect.Lists;
 import java.lang.reflect.InvocationTargetException;
-import java.util.Collection;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.apache.commons.beanutils.PropertyUtils;
 import org.apache.commons.lang3.tuple.Pair;
-import org.openlmis.requisition.domain.RequisitionTemplateColumn;
-import org.openlmis.requisition.domain.SourceType;
 import org.openlmis.requisition.domain.requisition.Requisition;
 import org.openlmis.requisition.domain.requisition.RequisitionBuilder;
 import org.openlmis.requisition.domain.requisition.RequisitionLineItem;
+import org.openlmis.requisition.domain.requisition.RequisitionTemplatePlan;
 import org.openlmis.requisition.dto.ApproveRequisitionDto;
 import org.openlmis.requisition.dto.ApproveRequisitionLineItemDto;
 import org.openlmis.requisition.dto.BasicOrderableDto;
 import org.openlmis.requisition.dto.FacilityDto;
+import org.openlmis.requisition.dto.LocalizedMessageDto;
 import org.openlmis.requisition.dto.OrderableDto;
 import org.openlmis.requisition.dto.ProcessingPeriodDto;
 import org.openlmis.requisition.dto.ReleasableRequisitionBatchDto;
@@ -56,13 +53,19 @@ import org.openlmis.requisition.dto.RequisitionsProcessingStatusDto;
 import org.openlmis.requisition.dto.SupervisoryNodeDto;
 import org.openlmis.requisition.dto.SupplyLineDto;
 import org.openlmis.requisition.dto.UserDto;
+import org.openlmis.requisition.dto.stockmanagement.StockEventDto;
 import org.openlmis.requisition.errorhandling.ValidationFailure;
 import org.openlmis.requisition.errorhandling.ValidationResult;
+import org.openlmis.requisition.exception.BaseMessageException;
+import org.openlmis.requisition.exception.ExternalApiException;
 import org.openlmis.requisition.i18n.MessageKeys;
 import org.openlmis.requisition.i18n.MessageService;
+import org.openlmis.requisition.metrics.MetricsProfiler;
+import org.openlmis.requisition.service.OutboundRequestExecutor;
 import org.openlmis.requisition.service.PermissionService;
 import org.openlmis.requisition.service.referencedata.SupervisoryNodeReferenceDataService;
 import org.openlmis.requisition.service.referencedata.UserReferenceDataService;
+import org.openlmis.requisition.service.stockmanagement.StockEventExecutor;
 import org.openlmis.requisition.utils.Message;
 import org.slf4j.ext.XLogger;
 import org.slf4j.ext.XLoggerFactory;
@@ -86,6 +89,8 @@ public class BatchRequisitionController extends BaseRequisitionController {
   private static final XLogger XLOGGER = XLoggerFactory.getXLogger(
       BatchRequisitionController.class);
 
+  private static final String STOCK_MANAGEMENT = "Stock Management";
+
   @Autowired
   private MessageService messageService;
 
@@ -95,6 +100,12 @@ public class BatchRequisitionController extends BaseRequisitionController {
   @Autowired
   private UserReferenceDataService userReferenceDataService;
 
+  @Autowired
+  private OutboundRequestExecutor outboundRequestExecutor;
+
+  @Autowired
+  private StockEventExecutor stockEventExecutor;
+
   /**
    * Attempts to retrieve requisitions with the provided UUIDs.
    */
@@ -104,16 +115,20 @@ public class BatchRequisitionController extends BaseRequisitionController {
       @RequestParam(value = "id") List<UUID> uuids) {
 
     XLOGGER.entry(uuids);
-    Profiler profiler = new Profiler("BATCH_RETRIEVE_ALL_REQUISITIONS");
+    Profiler profiler = new MetricsProfiler("BATCH_RETRIEVE_ALL_REQUISITIONS");
     profiler.setLogger(XLOGGER);
 
     profiler.start("FIND_ALL_REQUISITIONS_BY_IDS");
     List<Requisition> requisitions = Lists.newArrayList(requisitionRepository.findAll(uuids));
 
-    Map<UUID, FacilityDto> facilities = findFacilities(requisitions, profiler);
-    profiler.start("FIND_ALL_ORDERABLES_FOR_REQUISITIONS");
-    Map<UUID, OrderableDto> orderables = getUuidOrderableDtoMap(requisitions);
-    Map<UUID, ProcessingPeriodDto> periods = findPeriods(requisitions, profiler);
+    profiler.start("FIND_REFERENCE_DATA");
+    CompletableFuture<Map<UUID, FacilityDto>> facilitiesFuture = findFacilities(requisitions);
+    CompletableFuture<Map<UUID, OrderableDto>> orderablesFuture = findOrderables(requisitions);
+    CompletableFuture<Map<UUID, ProcessingPeriodDto>> periodsFuture = findPeriods(requisitions);
+
+    Map<UUID, FacilityDto> facilities = join(facilitiesFuture);
+    Map<UUID, OrderableDto> orderables = join(orderablesFuture);
+    Map<UUID, ProcessingPeriodDto> periods = join(periodsFuture);
 
     profiler.start("CHECK_PERM_AND_BUILD_DTO");
     RequisitionsProcessingStatusDto processingStatus = new RequisitionsProcessingStatusDto();
@@ -152,7 +167,7 @@ public class BatchRequisitionController extends BaseRequisitionController {
   public ResponseEntity<RequisitionsProcessingStatusDto> approve(
       @RequestParam(value = "id") List<UUID> uuids) {
     XLOGGER.entry(uuids);
-    Profiler profiler = new Profiler("BATCH_APPROVE_ALL_REQUISITIONS");
+    Profiler profiler = new MetricsProfiler("BATCH_APPROVE_ALL_REQUISITIONS");
     profiler.setLogger(XLOGGER);
 
     RequisitionsProcessingStatusDto processingStatus = new RequisitionsProcessingStatusDto();
@@ -163,19 +178,23 @@ public class BatchRequisitionController extends BaseRequisitionController {
     profiler.start("FIND_REQUISITIONS");
     List<Requisition> requisitions = requisitionRepository.readDistinctByIdIn(uuids);
 
-    profiler.start("GET_USER_PERMISSION_STRINGS");
-    List<String> permissionStrings = userReferenceDataService.getPermissionStrings(user.getId());
-
-    Map<UUID, SupervisoryNodeDto> supervisoryNodeMap = findSupervisoryNodes(requisitions, profiler);
-    Map<UUID, OrderableDto> orderables = findOrderables(
-        profiler, () -> getLineItemOrderableIds(requisitions)
-    );
-    Map<Pair<UUID, UUID>, List<SupplyLineDto>> supplyLinesMap =
-        findSupplyLines(requisitions, profiler);
-
-    Map<UUID, FacilityDto> facilities = findFacilities(requisitions, profiler);
-
-    Map<UUID, ProcessingPeriodDto> periods = findPeriods(requisitions, profiler);
+    profiler.start("FIND_REFERENCE_DATA");
+    CompletableFuture<List<String>> permissionStringsFuture = outboundRequestExecutor
+        .supplyAsync(() -> userReferenceDataService.getPermissionStrings(user.getId()));
+    CompletableFuture<Map<UUID, SupervisoryNodeDto>> supervisoryNodesFuture =
+        findSupervisoryNodes(requisitions);
+    CompletableFuture<Map<UUID, OrderableDto>> orderablesFuture = findOrderables(requisitions);
+    CompletableFuture<Map<Pair<UUID, UUID>, List<SupplyLineDto>>> supplyLinesFuture =
+        findSupplyLines(requisitions);
+    CompletableFuture<Map<UUID, FacilityDto>> facilitiesFuture = findFacilities(requisitions);
+    CompletableFuture<Map<UUID, ProcessingPeriodDto>> periodsFuture = findPeriods(requisitions);
+
+    List<String> permissionStrings = join(permissionStringsFuture);
+    Map<UUID, SupervisoryNodeDto> supervisoryNodeMap = join(supervisoryNodesFuture);
+    Map<UUID, OrderableDto> orderables = join(orderablesFuture);
+    Map<Pair<UUID, UUID>, List<SupplyLineDto>> supplyLinesMap = join(supplyLinesFuture);
+    Map<UUID, FacilityDto> facilities = join(facilitiesFuture);
+    Map<UUID, ProcessingPeriodDto> periods = join(periodsFuture);
 
     profiler.start("VALIDATE_AND_APPROVE");
     for (Requisition requisition : requisitions) {
@@ -190,7 +209,7 @@ public class BatchRequisitionController extends BaseRequisitionController {
           facilities, periods, approveParams);
     }
 
-    submitStockEvent(profiler, user, requisitions);
+    submitStockEvents(profiler, user, requisitions, processingStatus);
 
     ResponseEntity<RequisitionsProcessingStatusDto> response =
         buildResponse(processingStatus, profiler, HttpStatus.OK);
@@ -209,7 +228,7 @@ public class BatchRequisitionController extends BaseRequisitionController {
       @RequestBody List<ApproveRequisitionDto> dtos) {
 
     XLOGGER.entry(dtos);
-    Profiler profiler = new Profiler("BATCH_SAVE_ALL_REQUISITIONS");
+    Profiler profiler = new MetricsProfiler("BATCH_SAVE_ALL_REQUISITIONS");
     profiler.setLogger(XLOGGER);
 
     RequisitionsProcessingStatusDto processingStatus = new RequisitionsProcessingStatusDto();
@@ -298,32 +317,36 @@ public class BatchRequisitionController extends BaseRequisitionController {
   }
 
 
-  private Map<UUID, SupervisoryNodeDto> findSupervisoryNodes(List<Requisition> requisitions,
-      Profiler profiler) {
-    profiler.start("FIND_SUPERVISORY_NODES");
-    List<UUID> supervisoryNodeIds = requisitions.stream()
+  private CompletableFuture<Map<UUID, SupervisoryNodeDto>> findSupervisoryNodes(
+      List<Requisition> requisitions) {
+    Set<UUID> supervisoryNodeIds = requisitions.stream()
         .map(Requisition::getSupervisoryNodeId)
-        .collect(toList());
+        .filter(Objects::nonNull)
+        .collect(Collectors.toSet());
 
-    return supervisoryNodeService
+    return outboundRequestExecutor.supplyAsync(() -> supervisoryNodeService
         .findByIds(supervisoryNodeIds)
         .stream()
-        .collect(toMap(SupervisoryNodeDto::getId, supervisoryNode -> supervisoryNode));
+        .collect(toMap(SupervisoryNodeDto::getId, supervisoryNode -> supervisoryNode)));
   }
 
-  private Map<Pair<UUID, UUID>, List<SupplyLineDto>> findSupplyLines(
-      List<Requisition> requisitions, Profiler profiler) {
-    profiler.start("GET_SUPPLY_LINES");
-    Set<Pair<UUID, UUID>> programsFacilities = new HashSet<>();
-    requisitions
-        .forEach(r -> programsFacilities.add(Pair.of(r.getProgramId(), r.getSupervisoryNodeId())));
-
-    Map<Pair<UUID, UUID>, List<SupplyLineDto>> supplyLinesMap = new HashMap<>();
-    for (Pair<UUID, UUID> pair : programsFacilities) {
-      supplyLinesMap.put(pair,
-          supplyLineReferenceDataService.search(pair.getLeft(), pair.getRight()));
+  private CompletableFuture<Map<Pair<UUID, UUID>, List<SupplyLineDto>>> findSupplyLines(
+      List<Requisition> requisitions) {
+    Map<Pair<UUID, UUID>, CompletableFuture<List<SupplyLineDto>>> futures = new HashMap<>();
+    for (Requisition requisition : requisitions) {
+      futures.computeIfAbsent(
+          Pair.of(requisition.getProgramId(), requisition.getSupervisoryNodeId()),
+          pair -> outboundRequestExecutor.supplyAsync(() -> supplyLineReferenceDataService
+              .search(pair.getLeft(), pair.getRight())));
     }
-    return supplyLinesMap;
+
+    return CompletableFuture
+        .allOf(futures.values().toArray(new CompletableFuture[futures.size()]))
+        .thenApply(ignored -> {
+          Map<Pair<UUID, UUID>, List<SupplyLineDto>> supplyLinesMap = new HashMap<>();
+          futures.forEach((pair, future) -> supplyLinesMap.put(pair, future.join()));
+          return supplyLinesMap;
+        });
   }
 
   private void validateAndApprove(Requisition requisition,
@@ -369,22 +392,59 @@ public class BatchRequisitionController extends BaseRequisitionController {
     return ValidationResult.success();
   }
 
-  private void submitStockEvent(Profiler profiler, UserDto user, List<Requisition> requisitions) {
-    profiler.start("SEND_STOCK_EVENT");
-    ExecutorService executor = Executors.newFixedThreadPool(requisitions.size());
-    List<CompletableFuture<Void>> futures = Lists.newArrayList();
-    try {
-      for (Requisition requisition : requisitions) {
-        CompletableFuture<Void> future = runAsync(
-            () -> submitStockEvent(requisition, user.getId()), executor);
-        futures.add(future);
+  private void submitStockEvents(Profiler profiler, UserDto user, List<Requisition> requisitions,
+      RequisitionsProcessingStatusDto processingStatus) {
+    profiler.start("BUILD_STOCK_EVENTS");
+    Map<UUID, CompletableFuture<StockEventDto>> futures = new LinkedHashMap<>();
+    for (Requisition requisition : requisitions) {
+      if (isStockEventRequired(requisition)) {
+        futures.put(requisition.getId(), stockEventExecutor.supplyAsync(
+            () -> stockEventBuilder.fromRequisition(requisition, user.getId())));
       }
-    } finally {
-      profiler.start("JOIN_RESULTS");
-      futures.forEach(CompletableFuture::join);
+    }
+
+    profiler.start("JOIN_STOCK_EVENTS");
+    Map<UUID, StockEventDto> stockEvents = new LinkedHashMap<>();
+    futures.forEach((requisitionId, future) -> {
+      try {
+        stockEvents.put(requisitionId, join(future));
+      } catch (RuntimeException exp) {
+        addStockEventError(processingStatus, requisitionId, exp);
+      }
+    });
+
+    if (!stockEvents.isEmpty()) {
+      profiler.start("SUBMIT_STOCK_EVENTS");
+      stockEventStockManagementService
+          .submitAll(stockEvents)
+          .forEach((requisitionId, exp) ->
+              addStockEventError(processingStatus, requisitionId, exp));
     }
   }
 
+  private void addStockEventError(RequisitionsProcessingStatusDto processingStatus,
+      UUID requisitionId, RuntimeException exp) {
+    XLOGGER.warn("Unable to submit stock event for requisition {}", requisitionId, exp);
+    processingStatus.addProcessingError(
+        new RequisitionErrorMessage(requisitionId, localizeStockEventError(exp)));
+  }
+
+  private Message.LocalizedMessage localizeStockEventError(RuntimeException exp) {
+    if (exp instanceof ExternalApiException) {
+      LocalizedMessageDto external = ((ExternalApiException) exp).getMessageLocalized();
+
+      if (isNotBlank(external.getMessage())) {
+        return new Message(external.getMessageKey()).new LocalizedMessage(external.getMessage());
+      }
+    }
+
+    if (exp instanceof BaseMessageException) {
+      return localizeMessage(((BaseMessageException) exp).asMessage());
+    }
+
+    return localizeMessage(new Message(ERROR_SERVICE_OCCURED, STOCK_MANAGEMENT));
+  }
+
   private Requisition buildRequisition(ApproveRequisitionDto dto, Requisition requisitionToUpdate) {
     Map<UUID, OrderableDto> orderables = orderableReferenceDataService
         .findByIds(requisitionToUpdate.getAllOrderableIds())
@@ -434,18 +494,18 @@ public class BatchRequisitionController extends BaseRequisitionController {
   }
 
   private void setNullForCalculatedFields(Requisition requisition) {
+    List<String> fields = RequisitionTemplatePlan
+        .compile(requisition.getTemplate())
+        .getHiddenOrCalculatedColumns();
+
     for (RequisitionLineItem lineItem : requisition.getRequisitionLineItems()) {
-      for (RequisitionTemplateColumn column : requisition.getTemplate().viewColumns().values()) {
-        if (isFalse(column.getIsDisplayed()) || column.getSource() == SourceType.CALCULATED) {
-          setNullForField(lineItem, column);
-        }
+      for (String field : fields) {
+        setNullForField(lineItem, field);
       }
     }
   }
 
-  private void setNullForField(RequisitionLineItem lineItem, RequisitionTemplateColumn column) {
-    String field = column.getName();
-
+  private void setNullForField(RequisitionLineItem lineItem, String field) {
     try {
       PropertyUtils.setSimpleProperty(lineItem, field, null);
     } catch (IllegalAccessException | InvocationTargetException | NoSuchMethodException exp) {
@@ -468,46 +528,41 @@ public class BatchRequisitionController extends BaseRequisitionController {
     return message == null ? null : messageService.localize(message);
   }
 
-  private Map<UUID, FacilityDto> findFacilities(List<Requisition> requisitions, Profiler profiler) {
-    profiler.start("FIND_ALL_FACILITIES_FOR_REQUISITIONS");
+  private CompletableFuture<Map<UUID, FacilityDto>> findFacilities(
+      List<Requisition> requisitions) {
     Set<UUID> facilityIds = requisitions.stream()
         .map(Requisition::getFacilityId)
         .collect(Collectors.toSet());
 
-    List<FacilityDto> list = facilityReferenceDataService.search(facilityIds);
+    return outboundRequestExecutor.supplyAsync(() -> {
+      List<FacilityDto> list = facilityReferenceDataService.search(facilityIds);
 
-    Map<UUID, FacilityDto> facilities = new HashMap<>(facilityIds.size());
-    for (FacilityDto facility : list) {
-      facilities.put(facility.getId(), facility);
-    }
+      Map<UUID, FacilityDto> facilities = new HashMap<>(facilityIds.size());
+      for (FacilityDto facility : list) {
+        facilities.put(facility.getId(), facility);
+      }
 
-    return facilities;
+      return facilities;
+    });
   }
 
-  private Map<UUID, ProcessingPeriodDto> findPeriods(List<Requisition> requisitions,
-      Profiler profiler) {
-    profiler.start("FIND_ALL_PERIODS_FOR_REQUISITIONS");
+  private CompletableFuture<Map<UUID, ProcessingPeriodDto>> findPeriods(
+      List<Requisition> requisitions) {
     Set<UUID> periodIds = requisitions.stream()
         .map(Requisition::getProcessingPeriodId)
         .collect(Collectors.toSet());
 
-    Map<UUID, ProcessingPeriodDto> periods = new HashMap<>(periodIds.size());
-    for (UUID periodId : periodIds) {
-      periods.put(periodId, periodService.getPeriod(periodId));
-    }
-
-    return periods;
+    return outboundRequestExecutor.supplyAsync(() -> periodService.getPeriods(periodIds));
   }
 
-  private Map<UUID, OrderableDto> getUuidOrderableDtoMap(List<Requisition> requisitions) {
-    Set<UUID> orderableIds = requisitions.stream()
-        .map(Requisition::getRequisitionLineItems)
-        .flatMap(Collection::stream)
-        .map(RequisitionLineItem::getOrderableId)
-        .collect(Collectors.toSet());
+  private CompletableFuture<Map<UUID, OrderableDto>> findOrderables(
+      List<Requisition> requisitions) {
+    // line items are loaded lazily, so they have to be read by the request thread
+    Set<UUID> orderableIds = getLineItemOrderableIds(requisitions);
 
-    return orderableReferenceDataService.findByIds(orderableIds)
+    return outboundRequestExecutor.supplyAsync(() -> orderableReferenceDataService
+        .findByIds(orderableIds)
         .stream()
-        .collect(toMap(BasicOrderableDto::getId, orderable -> orderable));
+        .collect(toMap(BasicOrderableDto::getId, orderable -> orderable)));
   }
 }
@@ -154,7 +154,7 @@ public class JasperTemplateController extends BaseController {
       throw new ContentNotFoundMessageException(new Message(
           MessageKeys.ERROR_JASPER_TEMPLATE_NOT_FOUND, templateId));
     } else {
-      jasperTemplateRepository.delete(jasperTemplate);
+      jasperTemplateService.delete(jasperTemplate);
     }
   }
 
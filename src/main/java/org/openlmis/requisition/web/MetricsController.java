@@ -0,0 +1,77 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.web;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import org.openlmis.requisition.dto.TimerDto;
+import org.openlmis.requisition.metrics.MetricsRegistry;
+import org.openlmis.requisition.metrics.PrometheusFormat;
+import org.openlmis.requisition.service.PermissionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller used for displaying metrics of the service.
+ */
+@RestController
+@RequestMapping(BaseController.API_URL + "/metrics")
+public class MetricsController {
+
+  @Autowired
+  private MetricsRegistry metricsRegistry;
+
+  @Autowired
+  private PermissionService permissionService;
+
+  /**
+   * Returns all timers with their counts, total, mean and maximum durations and percentiles.
+   *
+   * @return list of timers
+   */
+  @GetMapping
+  @ResponseStatus(HttpStatus.OK)
+  @ResponseBody
+  public List<TimerDto> getTimers() {
+    permissionService.canViewMetrics().throwExceptionIfHasErrors();
+
+    return metricsRegistry
+        .getTimers()
+        .stream()
+        .map(TimerDto::newInstance)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Returns all timers, counters and gauges in the Prometheus text format, so they can be
+   * scraped by a Prometheus server.
+   *
+   * @return metrics in the Prometheus text format
+   */
+  @GetMapping(value = "/prometheus", produces = PrometheusFormat.CONTENT_TYPE)
+  @ResponseStatus(HttpStatus.OK)
+  @ResponseBody
+  public String getPrometheusMetrics() {
+    permissionService.canViewMetrics().throwExceptionIfHasErrors();
+
+    return PrometheusFormat.format(metricsRegistry);
+  }
+}
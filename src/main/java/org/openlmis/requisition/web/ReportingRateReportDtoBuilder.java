@@ -15,24 +15,32 @@
 
 package org.openlmis.requisition.web;
 
+import static org.openlmis.requisition.repository.RequisitionRepository.FACILITY_IDS_CHUNK_SIZE;
+
+import com.google.common.collect.Iterables;
 import java.time.LocalDate;
+import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
-import org.openlmis.requisition.domain.requisition.Requisition;
+import org.apache.commons.lang3.tuple.Pair;
 import org.openlmis.requisition.domain.requisition.RequisitionStatus;
-import org.openlmis.requisition.domain.requisition.StatusChange;
 import org.openlmis.requisition.dto.GeographicZoneDto;
 import org.openlmis.requisition.dto.MinimalFacilityDto;
 import org.openlmis.requisition.dto.ProcessingPeriodDto;
 import org.openlmis.requisition.dto.ProgramDto;
 import org.openlmis.requisition.dto.ReportingRateReportDto;
+import org.openlmis.requisition.dto.ReportingRateRequisitionDto;
 import org.openlmis.requisition.dto.RequisitionCompletionDto;
 import org.openlmis.requisition.repository.RequisitionRepository;
 import org.openlmis.requisition.service.referencedata.FacilityReferenceDataService;
@@ -73,22 +81,67 @@ public class ReportingRateReportDtoBuilder {
 
     Collection<ProcessingPeriodDto> periods = getLatestPeriods(period, LATEST_PERIODS);
     Collection<GeographicZoneDto> zones = getAvailableGeographicZones(zone);
-    Collection<MinimalFacilityDto> facilities = getAvailableFacilities(zones);
 
-    report.setCompletionByPeriod(getCompletionsByPeriod(program, periods, facilities, dueDays));
-    report.setCompletionByZone(getCompletionsByZone(program, periods, zones, dueDays));
+    Map<GeographicZoneDto, Collection<MinimalFacilityDto>> facilitiesByZone =
+        new LinkedHashMap<>();
+    zones.forEach(item -> facilitiesByZone
+        .put(item, getAvailableFacilities(Collections.singletonList(item))));
+
+    Collection<MinimalFacilityDto> facilities = facilitiesByZone
+        .values()
+        .stream()
+        .flatMap(Collection::stream)
+        .collect(Collectors.toList());
+
+    Map<Pair<UUID, UUID>, List<ReportingRateRequisitionDto>> requisitions =
+        findRequisitions(program, periods, facilities);
+
+    report.setCompletionByPeriod(
+        getCompletionsByPeriod(periods, facilities, dueDays, requisitions));
+    report.setCompletionByZone(
+        getCompletionsByZone(periods, facilitiesByZone, dueDays, requisitions));
 
     return report;
   }
 
-  private List<RequisitionCompletionDto> getCompletionsByPeriod(
+  private Map<Pair<UUID, UUID>, List<ReportingRateRequisitionDto>> findRequisitions(
       ProgramDto program, Collection<ProcessingPeriodDto> periods,
-      Collection<MinimalFacilityDto> facilities, Integer dueDays) {
+      Collection<MinimalFacilityDto> facilities) {
+    Set<UUID> periodIds = periods
+        .stream()
+        .map(ProcessingPeriodDto::getId)
+        .collect(Collectors.toSet());
+    Set<UUID> facilityIds = facilities
+        .stream()
+        .map(MinimalFacilityDto::getId)
+        .collect(Collectors.toSet());
+
+    Map<Pair<UUID, UUID>, List<ReportingRateRequisitionDto>> requisitions = new HashMap<>();
+
+    if (periodIds.isEmpty()) {
+      return requisitions;
+    }
+
+    for (List<UUID> chunk : Iterables.partition(facilityIds, FACILITY_IDS_CHUNK_SIZE)) {
+      requisitionRepository
+          .findReportingRateRequisitions(program.getId(), periodIds, chunk, REQUIRED_STATUS)
+          .forEach(requisition -> requisitions
+              .computeIfAbsent(Pair.of(requisition.getProcessingPeriodId(),
+                  requisition.getFacilityId()), key -> new ArrayList<>())
+              .add(requisition));
+    }
+
+    return requisitions;
+  }
+
+  private List<RequisitionCompletionDto> getCompletionsByPeriod(
+      Collection<ProcessingPeriodDto> periods, Collection<MinimalFacilityDto> facilities,
+      Integer dueDays, Map<Pair<UUID, UUID>, List<ReportingRateRequisitionDto>> requisitions) {
     List<RequisitionCompletionDto> completionByPeriod = new ArrayList<>();
 
     for (ProcessingPeriodDto period : periods) {
       RequisitionCompletionDto completion = getCompletionForFacilities(
-          program, Collections.singletonList(period), facilities, dueDays);
+          Collections.singletonList(period), facilities, dueDays, requisitions);
       completion.setGrouping(period.getName());
       completionByPeriod.add(completion);
     }
@@ -97,21 +150,19 @@ public class ReportingRateReportDtoBuilder {
   }
 
   private List<RequisitionCompletionDto> getCompletionsByZone(
-      ProgramDto program, Collection<ProcessingPeriodDto> periods,
-      Collection<GeographicZoneDto> zones, Integer dueDays) {
+      Collection<ProcessingPeriodDto> periods,
+      Map<GeographicZoneDto, Collection<MinimalFacilityDto>> facilitiesByZone, Integer dueDays,
+      Map<Pair<UUID, UUID>, List<ReportingRateRequisitionDto>> requisitions) {
     List<RequisitionCompletionDto> completionByZone = new ArrayList<>();
 
-    for (GeographicZoneDto zone : zones) {
-      Collection<MinimalFacilityDto> facilities =
-          getAvailableFacilities(Collections.singletonList(zone));
-
+    facilitiesByZone.forEach((zone, facilities) -> {
       if (!facilities.isEmpty()) {
         RequisitionCompletionDto completion =
-            getCompletionForFacilities(program, periods, facilities, dueDays);
+            getCompletionForFacilities(periods, facilities, dueDays, requisitions);
         completion.setGrouping(zone.getName());
         completionByZone.add(completion);
       }
-    }
+    });
 
     // Sort by zone names
     return completionByZone
@@ -121,18 +172,16 @@ public class ReportingRateReportDtoBuilder {
   }
 
   private RequisitionCompletionDto getCompletionForFacilities(
-      ProgramDto program, Collection<ProcessingPeriodDto> periods,
-      Collection<MinimalFacilityDto> facilities, Integer dueDays) {
+      Collection<ProcessingPeriodDto> periods, Collection<MinimalFacilityDto> facilities,
+      Integer dueDays, Map<Pair<UUID, UUID>, List<ReportingRateRequisitionDto>> requisitions) {
     CompletionCounter completions = new CompletionCounter();
 
     for (ProcessingPeriodDto period : periods) {
       LocalDate dueDate = period.getEndDate().plusDays(dueDays);
 
       for (MinimalFacilityDto facility : facilities) {
-        List<Requisition> requisitions = requisitionRepository
-            .searchRequisitions(period.getId(), facility.getId(), program.getId(), false);
-
-        updateCompletionsWithRequisitions(completions, requisitions, dueDate);
+        updateCompletionsWithRequisitions(completions, requisitions.getOrDefault(
+            Pair.of(period.getId(), facility.getId()), Collections.emptyList()), dueDate);
       }
     }
 
@@ -156,21 +205,19 @@ public class ReportingRateReportDtoBuilder {
     return completion;
   }
 
-  void updateCompletionsWithRequisitions(
-      CompletionCounter completions, List<Requisition> requisitions, LocalDate dueDate) {
+  void updateCompletionsWithRequisitions(CompletionCounter completions,
+      List<ReportingRateRequisitionDto> requisitions, LocalDate dueDate) {
     int missed = completions.getMissed();
     int late = completions.getLate();
     int onTime = completions.getOnTime();
 
     if (!requisitions.isEmpty()) {
-      for (Requisition requisition : requisitions) {
-        Optional<StatusChange> entry = requisition.getStatusChanges().stream()
-            .filter(statusChange -> statusChange.getStatus() == REQUIRED_STATUS)
-            .findFirst();
-        if (!entry.isPresent()) {
+      for (ReportingRateRequisitionDto requisition : requisitions) {
+        ZonedDateTime statusChangeDate = requisition.getStatusChangeDate();
+        if (null == statusChangeDate) {
           missed++;
         } else {
-          LocalDate submissionDate = entry.get().getCreatedDate().toLocalDate();
+          LocalDate submissionDate = statusChangeDate.toLocalDate();
           if (submissionDate.isAfter(dueDate)) {
             late++;
           } else {
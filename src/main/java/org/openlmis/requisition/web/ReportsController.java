@@ -15,26 +15,40 @@
 
 package org.openlmis.requisition.web;
 
+import java.io.IOException;
+import java.util.List;
 import java.util.UUID;
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import org.openlmis.requisition.domain.requisition.Requisition;
 import org.openlmis.requisition.exception.ContentNotFoundMessageException;
 import org.openlmis.requisition.exception.JasperReportViewException;
+import org.openlmis.requisition.exception.ValidationMessageException;
 import org.openlmis.requisition.i18n.MessageKeys;
 import org.openlmis.requisition.repository.RequisitionRepository;
+import org.openlmis.requisition.service.BulkRequisitionPrintService;
 import org.openlmis.requisition.service.JasperReportsViewService;
 import org.openlmis.requisition.service.PermissionService;
 import org.openlmis.requisition.utils.Message;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.servlet.ModelAndView;
 
 @Controller
 public class ReportsController extends BaseController {
+  private static final String PDF = "pdf";
+  private static final String CSV = "csv";
 
   @Autowired
   private RequisitionRepository requisitionRepository;
@@ -45,6 +59,12 @@ public class ReportsController extends BaseController {
   @Autowired
   private JasperReportsViewService jasperReportsViewService;
 
+  @Autowired
+  private BulkRequisitionPrintService bulkRequisitionPrintService;
+
+  @Value("${requisition.print.maxRequisitions}")
+  private int maxPrintedRequisitions;
+
   /**
    * Print out requisition as a PDF file.
    *
@@ -66,4 +86,46 @@ public class ReportsController extends BaseController {
 
     return jasperReportsViewService.getRequisitionJasperReportView(requisition, request);
   }
+
+  /**
+   * Print out many requisitions as a single PDF file or as a zip archive of CSV files. The
+   * requisitions are written straight to the response, one after another.
+   *
+   * @param ids    The UUIDs of requisitions to print, in the order they should be printed, at
+   *               most {@code requisition.print.maxRequisitions} of them
+   * @param format "pdf" (default) or "csv"
+   */
+  @RequestMapping(value = "/requisitions/print", method = RequestMethod.POST)
+  @ResponseStatus(HttpStatus.OK)
+  public void printAll(@RequestBody List<UUID> ids,
+      @RequestParam(value = "format", defaultValue = PDF) String format,
+      HttpServletResponse response) throws JasperReportViewException, IOException {
+    if (ids.isEmpty()) {
+      throw new ValidationMessageException(
+          new Message(MessageKeys.ERROR_PRINT_REQUISITION_IDS_MISSING));
+    }
+
+    if (ids.size() > maxPrintedRequisitions) {
+      throw new ValidationMessageException(
+          new Message(MessageKeys.ERROR_PRINT_TOO_MANY_REQUISITIONS, maxPrintedRequisitions));
+    }
+
+    if (!PDF.equals(format) && !CSV.equals(format)) {
+      throw new ValidationMessageException(
+          new Message(MessageKeys.ERROR_PRINT_FORMAT_NOT_SUPPORTED, format));
+    }
+
+    bulkRequisitionPrintService.checkCanPrint(ids);
+
+    if (PDF.equals(format)) {
+      response.setContentType(MediaType.APPLICATION_PDF_VALUE);
+      response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=requisitions.pdf");
+      bulkRequisitionPrintService.writePdf(ids, response.getOutputStream());
+    } else {
+      response.setContentType("application/zip");
+      response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+          "attachment; filename=requisitions.zip");
+      bulkRequisitionPrintService.writeCsvArchive(ids, response.getOutputStream());
+    }
+  }
 }
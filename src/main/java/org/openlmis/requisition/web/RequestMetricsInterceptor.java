@@ -0,0 +1,82 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.web;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.openlmis.requisition.metrics.Metrics;
+import org.openlmis.requisition.metrics.MetricsProfiler;
+import org.openlmis.requisition.metrics.QueryCountingStatementInspector;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+
+/**
+ * Records how long requests take, per HTTP method, request mapping and response status, and
+ * counts database queries sent while handling them, per HTTP method and request mapping. Only
+ * queries sent by the thread handling the request are counted, see
+ * {@link QueryCountingStatementInspector}. Profilers that were not stopped because handling the
+ * request failed are recorded when the request is completed, see {@link MetricsProfiler}.
+ */
+public class RequestMetricsInterceptor extends HandlerInterceptorAdapter {
+  static final String REQUEST_TIMER = "http.server.requests";
+  static final String QUERY_COUNTER = "http.server.queries";
+  static final String STARTED_ATTRIBUTE = RequestMetricsInterceptor.class.getName() + ".started";
+  static final String QUERIES_ATTRIBUTE = RequestMetricsInterceptor.class.getName() + ".queries";
+  static final String UNMAPPED_URI = "UNMAPPED";
+
+  private static final String METHOD_TAG = "method";
+  private static final String URI_TAG = "uri";
+
+  @Override
+  public boolean preHandle(HttpServletRequest request, HttpServletResponse response,
+      Object handler) {
+    request.setAttribute(STARTED_ATTRIBUTE, System.nanoTime());
+    request.setAttribute(QUERIES_ATTRIBUTE, QueryCountingStatementInspector.getCount());
+    MetricsProfiler.startTracking();
+    return true;
+  }
+
+  @Override
+  public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+      Object handler, Exception ex) {
+    MetricsProfiler.stopTracking();
+
+    Object started = request.getAttribute(STARTED_ATTRIBUTE);
+    Object queries = request.getAttribute(QUERIES_ATTRIBUTE);
+
+    if (!(started instanceof Long) || !(queries instanceof Long)) {
+      return;
+    }
+
+    Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    String uri = null == pattern ? UNMAPPED_URI : pattern.toString();
+    int status = null != ex && response.getStatus() < HttpStatus.BAD_REQUEST.value()
+        ? HttpStatus.INTERNAL_SERVER_ERROR.value()
+        : response.getStatus();
+
+    Metrics
+        .timer(REQUEST_TIMER,
+            METHOD_TAG, request.getMethod(),
+            URI_TAG, uri,
+            "status", String.valueOf(status))
+        .stop((Long) started);
+
+    Metrics
+        .counter(QUERY_COUNTER, METHOD_TAG, request.getMethod(), URI_TAG, uri)
+        .increment(QueryCountingStatementInspector.getCount() - (Long) queries);
+  }
+}
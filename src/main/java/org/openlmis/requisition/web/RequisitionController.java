@@ -58,8 +58,11 @@ import org.openlmis.requisition.service.RequisitionTemplateService;
 import org.openlmis.requisition.service.referencedata.SupervisoryNodeReferenceDataService;
 import org.openlmis.requisition.service.referencedata.UserFulfillmentFacilitiesReferenceDataService;
 import org.openlmis.requisition.service.stockmanagement.ValidReasonStockmanagementService;
+import org.openlmis.requisition.utils.KeysetPage;
+import org.openlmis.requisition.utils.KeysetPageable;
 import org.openlmis.requisition.utils.Message;
 import org.openlmis.requisition.utils.Pagination;
+import org.openlmis.requisition.utils.UncountedPageRequest;
 import org.openlmis.requisition.validate.ReasonsValidator;
 import org.slf4j.profiler.Profiler;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -392,6 +395,8 @@ public class RequisitionController extends BaseRequisitionController {
       Pageable pageable) {
 
     RequisitionSearchParams params = new RequisitionSearchParams(queryParams);
+    final Pageable searchPageable = UncountedPageRequest.of(params.isCount(),
+        KeysetPageable.of(params.getContinuationToken(), pageable));
 
     final UUID facility = params.getFacility();
     final UUID program = params.getProgram();
@@ -413,14 +418,11 @@ public class RequisitionController extends BaseRequisitionController {
     profiler.start("REQUISITION_SERVICE_SEARCH");
     Page<Requisition> requisitionPage = requisitionService.searchRequisitions(facility, program,
         initiatedDateFrom, initiatedDateTo, modifiedDateFrom, modifiedDateTo, processingPeriod,
-        supervisoryNode, requisitionStatuses, emergency, pageable);
+        supervisoryNode, requisitionStatuses, emergency, searchPageable);
 
     profiler.start("REQUISITION_DTO_BUILD");
     assert requisitionPage != null;
-    Page<BasicRequisitionDto> requisitionDtoPage = Pagination.getPage(
-        basicRequisitionDtoBuilder.build(requisitionPage.getContent()),
-        pageable,
-        requisitionPage.getTotalElements());
+    Page<BasicRequisitionDto> requisitionDtoPage = buildBasicDtoPage(requisitionPage, pageable);
 
     stopProfiler(profiler, requisitionDtoPage);
     return requisitionDtoPage;
@@ -556,19 +558,19 @@ public class RequisitionController extends BaseRequisitionController {
   @ResponseBody
   public Page<BasicRequisitionDto> requisitionsForApproval(
           @RequestParam(value = "program", required = false) UUID programId,
+          @RequestParam(value = "continuationToken", required = false) String continuationToken,
+          @RequestParam(value = "count", defaultValue = "true") boolean count,
           Pageable pageable) {
     Profiler profiler = getProfiler("REQUISITIONS_FOR_APPROVAL", programId, pageable);
     UserDto user = getCurrentUser(profiler);
 
     profiler.start("REQUISITION_SERVICE_GET_FOR_APPROVAL");
-    Page<Requisition> approvalRequisitions = requisitionService
-        .getRequisitionsForApproval(user, programId, pageable);
+    Page<Requisition> approvalRequisitions = requisitionService.getRequisitionsForApproval(
+        user, programId,
+        UncountedPageRequest.of(count, KeysetPageable.of(continuationToken, pageable)));
 
     profiler.start(BUILD_DTO_LIST);
-    Page<BasicRequisitionDto> dtoPage = Pagination.getPage(
-        basicRequisitionDtoBuilder.build(approvalRequisitions.getContent()),
-        pageable,
-        approvalRequisitions.getTotalElements());
+    Page<BasicRequisitionDto> dtoPage = buildBasicDtoPage(approvalRequisitions, pageable);
 
     stopProfiler(profiler);
     return dtoPage;
@@ -740,4 +742,13 @@ public class RequisitionController extends BaseRequisitionController {
 
     return StockAdjustmentReason.newInstance(reasonDtos);
   }
+
+  private Page<BasicRequisitionDto> buildBasicDtoPage(Page<Requisition> requisitions,
+      Pageable pageable) {
+    List<BasicRequisitionDto> dtos = basicRequisitionDtoBuilder.build(requisitions.getContent());
+
+    return requisitions instanceof KeysetPage
+        ? ((KeysetPage<Requisition>) requisitions).withContent(dtos)
+        : Pagination.getPage(dtos, pageable, requisitions.getTotalElements());
+  }
 }
@@ -36,6 +36,7 @@ import org.openlmis.requisition.dto.ProgramDto;
 import org.openlmis.requisition.dto.ProgramOrderableDto;
 import org.openlmis.requisition.dto.RequisitionDto;
 import org.openlmis.requisition.dto.RequisitionLineItemDto;
+import org.openlmis.requisition.metrics.MetricsProfiler;
 import org.openlmis.requisition.service.PeriodService;
 import org.openlmis.requisition.service.referencedata.FacilityReferenceDataService;
 import org.openlmis.requisition.service.referencedata.OrderableReferenceDataService;
@@ -85,7 +86,7 @@ public class RequisitionDtoBuilder {
    */
   public RequisitionDto build(Requisition requisition) {
     XLOGGER.entry(requisition);
-    Profiler profiler = new Profiler("REQUISITION_DTO_BUILD_WITHOUT_FACILITY_PROGRAM");
+    Profiler profiler = new MetricsProfiler("REQUISITION_DTO_BUILD_WITHOUT_FACILITY_PROGRAM");
     profiler.setLogger(XLOGGER);
 
     profiler.start("GET_FACILITY");
@@ -116,7 +117,7 @@ public class RequisitionDtoBuilder {
       XLOGGER.exit();
       return null;
     }
-    Profiler profiler = new Profiler("REQUISITION_DTO_BUILD_WITHOUT_ORDERABLES");
+    Profiler profiler = new MetricsProfiler("REQUISITION_DTO_BUILD_WITHOUT_ORDERABLES");
     profiler.setLogger(XLOGGER);
 
     profiler.start("GET_ORDERABLES");
@@ -148,7 +149,7 @@ public class RequisitionDtoBuilder {
       return null;
     }
 
-    Profiler profiler = new Profiler("REQUISITION_DTO_BUILD");
+    Profiler profiler = new MetricsProfiler("REQUISITION_DTO_BUILD");
     profiler.setLogger(XLOGGER);
 
     RequisitionDto requisitionDto = new RequisitionDto();
@@ -197,7 +198,7 @@ public class RequisitionDtoBuilder {
       XLOGGER.exit();
       return null;
     }
-    Profiler profiler = new Profiler("REQUISITION_DTO_BUILD");
+    Profiler profiler = new MetricsProfiler("REQUISITION_DTO_BUILD");
     profiler.setLogger(XLOGGER);
 
     RequisitionDto requisitionDto = new BatchApproveRequisitionDto();
@@ -230,9 +231,11 @@ public class RequisitionDtoBuilder {
         BasicRequisitionTemplateDto.newInstance(requisition.getTemplate()));
 
     if (facility != null) {
-      facility.setSupportedPrograms(null);
+      // the facility may be cached and shared with other requests, so only a copy is changed
+      FacilityDto facilityCopy = FacilityDto.newInstance(facility);
+      facilityCopy.setSupportedPrograms(null);
+      requisitionDto.setFacility(facilityCopy);
     }
-    requisitionDto.setFacility(facility);
     if (period != null) {
       requisitionDto.setProcessingPeriod(period);
     } else {
@@ -23,8 +23,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
-import lombok.AllArgsConstructor;
-import lombok.EqualsAndHashCode;
+import org.apache.commons.lang3.tuple.Pair;
 import org.openlmis.requisition.domain.requisition.Requisition;
 import org.openlmis.requisition.dto.BasicRequisitionDto;
 import org.openlmis.requisition.dto.FacilityDto;
@@ -35,6 +34,7 @@ import org.openlmis.requisition.repository.RequisitionRepository;
 import org.openlmis.requisition.service.referencedata.FacilityReferenceDataService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import org.springframework.util.CollectionUtils;
 
 @Component
 public class RequisitionForConvertBuilder {
@@ -48,31 +48,56 @@ public class RequisitionForConvertBuilder {
   @Autowired
   private BasicRequisitionDtoBuilder basicRequisitionDtoBuilder;
 
+  /**
+   * Finds supplying depots that the user has rights to for each of the given program /
+   * supervisory node pairs. Pairs without such depots are skipped.
+   *
+   * @param programNodePairs      program / supervisory node pairs of requisitions
+   * @param userManagedFacilities UUIDs of supplying depots the user has rights to
+   * @return a map of program / supervisory node pairs to supplying depots the user has rights to
+   */
+  public Map<Pair<UUID, UUID>, List<FacilityDto>> getUserManagedSupplyingDepots(
+      Collection<Pair<UUID, UUID>> programNodePairs, Collection<UUID> userManagedFacilities) {
+    Map<Pair<UUID, UUID>, List<FacilityDto>> supplyingDepots = new HashMap<>();
+
+    for (Pair<UUID, UUID> pair : programNodePairs) {
+      List<FacilityDto> facilities = facilityReferenceDataService
+          .searchSupplyingDepots(pair.getLeft(), pair.getRight())
+          .stream()
+          .filter(f -> userManagedFacilities.contains(f.getId()))
+          .collect(Collectors.toList());
+
+      if (!facilities.isEmpty()) {
+        supplyingDepots.put(pair, facilities);
+      }
+    }
+
+    return supplyingDepots;
+  }
+
   /**
    * Builds representation of the requisitions that are ready for converting to an order,
    * containing supplying facilities that the user has rights to.
    *
-   * @param requisitions          the list of requisitions to build for
-   * @param userManagedFacilities UUIDs of supplying depots the user has rights to
-   * @param minimalFacilities     filtered facilities for creating requisition dto
-   * @param programs              filtered programs for creating requisition dto
+   * @param requisitions      the list of requisitions to build for
+   * @param supplyingDepots   supplying depots the user has rights to, by program / supervisory
+   *                          node pair, see {@link #getUserManagedSupplyingDepots}
+   * @param minimalFacilities facilities of the requisitions for creating requisition dto
+   * @param programs          programs of the requisitions for creating requisition dto
    * @return a list of requisition with supplying depots representation
    */
   public List<RequisitionWithSupplyingDepotsDto> buildRequisitions(List<Requisition> requisitions,
-                                                 Collection<UUID> userManagedFacilities,
-                                                 Map<UUID, MinimalFacilityDto> minimalFacilities,
-                                                 Map<UUID, ProgramDto> programs) {
+      Map<Pair<UUID, UUID>, List<FacilityDto>> supplyingDepots,
+      Map<UUID, MinimalFacilityDto> minimalFacilities,
+      Map<UUID, ProgramDto> programs) {
 
     List<RequisitionWithSupplyingDepotsDto> responseList = new ArrayList<>();
-    Map<RightsFor, List<FacilityDto>> cache = new HashMap<>();
 
     for (Requisition requisition : requisitions) {
-      List<FacilityDto> facilities = getAvailableSupplyingDepots(requisition, cache)
-          .stream()
-          .filter(f -> userManagedFacilities.contains(f.getId()))
-          .collect(Collectors.toList());
+      List<FacilityDto> facilities = supplyingDepots.get(
+          Pair.of(requisition.getProgramId(), requisition.getSupervisoryNodeId()));
 
-      if (!facilities.isEmpty()) {
+      if (!CollectionUtils.isEmpty(facilities)) {
         BasicRequisitionDto requisitionDto = basicRequisitionDtoBuilder.build(requisition,
             minimalFacilities.get(requisition.getFacilityId()),
             programs.get(requisition.getProgramId()));
@@ -83,7 +108,6 @@ public class RequisitionForConvertBuilder {
     return responseList;
   }
 
-
   /**
    * Retrieves available supplying depots for given requisition.
    *
@@ -94,51 +118,10 @@ public class RequisitionForConvertBuilder {
     return getAvailableSupplyingDepotsForRequisition(requisitionRepository.findOne(requisitionId));
   }
 
-  /**
-   * Retrieves available supplying depots for given requisition.
-   *
-   * @param requisition requisition to find facilities for
-   * @param cache a map containing supplying depots for rights that were already processed
-   *
-   * @return list of facilities
-   */
-  public List<FacilityDto> getAvailableSupplyingDepots(Requisition requisition,
-                                                       Map<RightsFor, List<FacilityDto>> cache) {
-    List<FacilityDto> supplyingFacilities = getCached(cache, requisition);
-    if (supplyingFacilities == null) {
-      Collection<FacilityDto> facilityDtos = getAvailableSupplyingDepotsForRequisition(requisition);
-
-      supplyingFacilities = Lists.newArrayList(facilityDtos);
-      addCached(cache, requisition, supplyingFacilities);
-    }
-
-    return supplyingFacilities;
-  }
-
   private List<FacilityDto> getAvailableSupplyingDepotsForRequisition(Requisition requisition) {
     Collection<FacilityDto> facilityDtos = facilityReferenceDataService
         .searchSupplyingDepots(requisition.getProgramId(), requisition.getSupervisoryNodeId());
 
     return Lists.newArrayList(facilityDtos);
   }
-
-
-  private List<FacilityDto> getCached(Map<RightsFor, List<FacilityDto>> cache,
-                                      Requisition requisition) {
-    return cache.get(
-        new RightsFor(requisition.getProgramId(), requisition.getSupervisoryNodeId()));
-  }
-
-  private void addCached(Map<RightsFor, List<FacilityDto>> cache,
-                              Requisition requisition, List<FacilityDto> facilities) {
-    cache.put(
-        new RightsFor(requisition.getProgramId(), requisition.getSupervisoryNodeId()), facilities);
-  }
-
-  @AllArgsConstructor
-  @EqualsAndHashCode
-  private class RightsFor {
-    private UUID program;
-    private UUID supervisoryNode;
-  }
 }
@@ -48,10 +48,12 @@ public final class RequisitionSearchParams {
   private static final String EMERGENCY = "emergency";
   private static final String MODIFIED_DATE_FROM = "modifiedDateFrom";
   private static final String MODIFIED_DATE_TO = "modifiedDateTo";
+  private static final String CONTINUATION_TOKEN = "continuationToken";
+  private static final String COUNT = "count";
 
   private static final List<String> ALL_PARAMETERS = asList(FACILITY, PROGRAM, INITIATED_DATE_FROM,
       INITIATED_DATE_TO, MODIFIED_DATE_FROM, MODIFIED_DATE_TO, PROCESSING_PERIOD,
-      SUPERVISORY_NODE, REQUISITION_STATUS, EMERGENCY);
+      SUPERVISORY_NODE, REQUISITION_STATUS, EMERGENCY, CONTINUATION_TOKEN, COUNT);
 
   private SearchParams queryParams;
 
@@ -173,6 +175,34 @@ public final class RequisitionSearchParams {
     return queryParams.getBoolean(EMERGENCY);
   }
 
+  /**
+   * Gets value for continuationToken parameter. An empty value means that the client wants the
+   * first page of keyset paginated results.
+   *
+   * @return encoded continuation token or null if params doesn't contain "continuationToken" key.
+   */
+  public String getContinuationToken() {
+    if (!queryParams.containsKey(CONTINUATION_TOKEN)) {
+      return null;
+    }
+    String value = queryParams.getFirst(CONTINUATION_TOKEN);
+    return null == value ? "" : value;
+  }
+
+  /**
+   * Gets value for count parameter. When it is false, the total number of matching requisitions
+   * is not counted. If param value has incorrect format {@link ValidationMessageException} will
+   * be thrown.
+   *
+   * @return Boolean value of count flag or true if params doesn't contain "count" key.
+   */
+  public boolean isCount() {
+    if (!queryParams.containsKey(COUNT)) {
+      return true;
+    }
+    return queryParams.getBoolean(COUNT);
+  }
+
   /**
    * Checks if query params are valid. Returns false if any provided param is not on supported list.
    */
@@ -28,6 +28,7 @@ import org.openlmis.requisition.i18n.MessageKeys;
 import org.openlmis.requisition.repository.AvailableRequisitionColumnRepository;
 import org.openlmis.requisition.repository.RequisitionRepository;
 import org.openlmis.requisition.repository.RequisitionTemplateRepository;
+import org.openlmis.requisition.service.CompiledReportCache;
 import org.openlmis.requisition.service.PermissionService;
 import org.openlmis.requisition.utils.Message;
 import org.openlmis.requisition.validate.RequisitionTemplateDtoValidator;
@@ -69,6 +70,9 @@ public class RequisitionTemplateController extends BaseController {
   @Autowired
   private AvailableRequisitionColumnRepository availableRequisitionColumnRepository;
 
+  @Autowired
+  private CompiledReportCache compiledReportCache;
+
   /**
    * Allows creating a new Requisition Template.
    * If the id is specified, it will be ignored.
@@ -158,6 +162,7 @@ public class RequisitionTemplateController extends BaseController {
       LOGGER.debug("Updating requisition template {}", requisitionTemplateId);
       toSave = toUpdate;
       toSave.updateFrom(template);
+      compiledReportCache.invalidate(toUpdate.getId());
     }
 
     toSave = requisitionTemplateRepository.save(toSave);
@@ -214,6 +219,7 @@ public class RequisitionTemplateController extends BaseController {
     }
 
     requisitionTemplateRepository.delete(template);
+    compiledReportCache.invalidate(template.getId());
   }
 
   private List<String> findColumnNamesWithTagRequired() {
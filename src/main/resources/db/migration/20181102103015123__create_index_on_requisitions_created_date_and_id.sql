@@ -0,0 +1 @@
+CREATE INDEX requisitions_createddate_id_idx ON requisitions (createddate, id);
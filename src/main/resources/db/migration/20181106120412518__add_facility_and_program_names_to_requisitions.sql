@@ -0,0 +1,9 @@
+-- facility and program names are copied from reference data so that requisitions for convert
+-- can be sorted by them in the database
+ALTER TABLE requisition.requisitions
+  ADD COLUMN facilityname text,
+  ADD COLUMN facilitycode text,
+  ADD COLUMN programname text;
+
+CREATE INDEX requisitions_approved_idx ON requisition.requisitions (emergency, programname)
+  WHERE status = 'APPROVED';
@@ -0,0 +1,8 @@
+-- checksums let compiled reports be cached under the template id and checksum without hashing
+-- the template data on every report request
+ALTER TABLE requisition.jasper_templates
+  ADD COLUMN checksum text;
+
+UPDATE requisition.jasper_templates
+  SET checksum = md5(data)
+  WHERE data IS NOT NULL;
@@ -0,0 +1,205 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.domain.requisition;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.openlmis.requisition.domain.requisition.RequisitionLineItem.MAXIMUM_STOCK_QUANTITY;
+import static org.openlmis.requisition.domain.requisition.RequisitionLineItem.TOTAL_CONSUMED_QUANTITY;
+
+import com.google.common.collect.Sets;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import org.junit.Test;
+import org.openlmis.requisition.domain.AvailableRequisitionColumnOption;
+import org.openlmis.requisition.domain.RequisitionTemplate;
+import org.openlmis.requisition.domain.RequisitionTemplateDataBuilder;
+import org.openlmis.requisition.domain.SourceType;
+import org.openlmis.requisition.domain.requisition.LineItemCalculationEngine.Field;
+import org.openlmis.requisition.domain.requisition.LineItemCalculationEngine.Formula;
+import org.openlmis.requisition.dto.ReasonType;
+
+@SuppressWarnings("PMD.TooManyMethods")
+public class LineItemCalculationEngineTest {
+  private static final int MONTHS_IN_PERIOD = 2;
+  private static final int LINE_ITEMS = 500;
+
+  private final List<StockAdjustmentReason> reasons = Arrays.asList(
+      newReason(ReasonType.CREDIT), newReason(ReasonType.DEBIT), newReason(ReasonType.DEBIT));
+
+  @Test
+  public void shouldCalculateSameValuesAsLineItems() {
+    verifySameValues(new RequisitionTemplateDataBuilder().withAllColumns().build());
+  }
+
+  @Test
+  public void shouldCalculateSameValuesWhenStockOnHandIsCalculated() {
+    verifySameValues(new RequisitionTemplateDataBuilder()
+        .withStockOnHandColumnCalculated()
+        .build());
+  }
+
+  @Test
+  public void shouldCalculateSameValuesWhenTotalConsumedQuantityIsCalculated() {
+    verifySameValues(withCalculatedTotalConsumedQuantity());
+  }
+
+  @Test
+  public void shouldCalculateSameValuesWhenColumnsAreHidden() {
+    verifySameValues(new RequisitionTemplateDataBuilder()
+        .withStockOnHandColumnHiden()
+        .build());
+    verifySameValues(new RequisitionTemplateDataBuilder()
+        .withTotalConsumedQuantityColumnHidden()
+        .build());
+  }
+
+  @Test
+  public void shouldCalculateSameValuesWhenAdditionalQuantityRequiredIsDisplayed() {
+    verifySameValues(new RequisitionTemplateDataBuilder()
+        .withAdditionalQuantityRequiredColumnDisplayed()
+        .build());
+  }
+
+  @Test
+  public void shouldCalculateSameValuesWhenStockIsPopulatedFromStockCards() {
+    verifySameValues(new RequisitionTemplateDataBuilder()
+        .withAllColumns()
+        .withPopulateStockOnHandFromStockCards()
+        .build());
+  }
+
+  @Test
+  public void shouldEvaluateFormulasInDependencyOrder() {
+    List<Formula> order = newEngine(withCalculatedTotalConsumedQuantity()).getOrder();
+
+    assertThat(order.indexOf(Formula.TOTAL_LOSSES_AND_ADJUSTMENTS)
+        < order.indexOf(Formula.TOTAL_CONSUMED_QUANTITY), is(true));
+    assertThat(order.indexOf(Formula.TOTAL_CONSUMED_QUANTITY)
+        < order.indexOf(Formula.CALCULATED_ORDER_QUANTITY), is(true));
+    assertThat(order.contains(Formula.STOCK_ON_HAND), is(false));
+  }
+
+  @Test
+  public void shouldClearHiddenColumnBeforeItIsRead() {
+    RequisitionTemplate template = new RequisitionTemplateDataBuilder()
+        .withStockOnHandColumnHiden()
+        .build();
+
+    List<Formula> order = newEngine(template).getOrder();
+
+    assertThat(order.indexOf(Formula.STOCK_ON_HAND)
+        < order.indexOf(Formula.CALCULATED_ORDER_QUANTITY), is(true));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectUnsupportedMaximumStockQuantityOption() {
+    RequisitionTemplate template = new RequisitionTemplateDataBuilder()
+        .withAllColumns()
+        .withColumn(MAXIMUM_STOCK_QUANTITY, "H", SourceType.CALCULATED,
+            new AvailableRequisitionColumnOption(null, "unsupported", "label"),
+            Sets.newHashSet(SourceType.CALCULATED))
+        .build();
+
+    newEngine(template).calculateAndSetFields(newLineItems(new Random(1), 1));
+  }
+
+  @Test
+  public void shouldDoNothingForEmptyLineItems() {
+    newEngine(new RequisitionTemplateDataBuilder().withAllColumns().build())
+        .calculateAndSetFields(Collections.emptyList());
+  }
+
+  private void verifySameValues(RequisitionTemplate template) {
+    RequisitionTemplatePlan plan = RequisitionTemplatePlan.compile(template);
+    List<RequisitionLineItem> expected = newLineItems(new Random(42), LINE_ITEMS);
+    List<RequisitionLineItem> actual = newLineItems(new Random(42), LINE_ITEMS);
+
+    PerLineItemCalculator reference =
+        new PerLineItemCalculator(template, plan, reasons, MONTHS_IN_PERIOD);
+    expected.forEach(reference::calculateAndSetFields);
+    new LineItemCalculationEngine(template, plan, reasons, MONTHS_IN_PERIOD)
+        .calculateAndSetFields(actual);
+
+    for (int i = 0; i < LINE_ITEMS; ++i) {
+      for (Field field : Field.values()) {
+        assertThat(field + " of line " + i, field.getValue(actual.get(i)),
+            is(field.getValue(expected.get(i))));
+      }
+    }
+  }
+
+  private RequisitionTemplate withCalculatedTotalConsumedQuantity() {
+    return new RequisitionTemplateDataBuilder()
+        .withAllColumns()
+        .withColumn(TOTAL_CONSUMED_QUANTITY, "C", SourceType.CALCULATED,
+            Sets.newHashSet(SourceType.USER_INPUT, SourceType.CALCULATED))
+        .build();
+  }
+
+  private LineItemCalculationEngine newEngine(RequisitionTemplate template) {
+    return new LineItemCalculationEngine(template, RequisitionTemplatePlan.compile(template),
+        reasons, MONTHS_IN_PERIOD);
+  }
+
+  private List<RequisitionLineItem> newLineItems(Random random, int count) {
+    List<RequisitionLineItem> lineItems = new ArrayList<>(count);
+
+    for (int i = 0; i < count; ++i) {
+      RequisitionLineItem line = new RequisitionLineItemDataBuilder().build();
+
+      for (Field field : Field.values()) {
+        field.setValue(line, random.nextInt(10) == 0 ? null : random.nextInt(1000));
+      }
+
+      List<Integer> previous = new ArrayList<>();
+      for (int j = random.nextInt(3); j > 0; --j) {
+        previous.add(random.nextInt(1000));
+      }
+      line.setPreviousAdjustedConsumptions(previous);
+
+      List<StockAdjustment> adjustments = new ArrayList<>();
+      for (int j = random.nextInt(4); j > 0; --j) {
+        UUID reasonId = random.nextInt(5) == 0
+            ? UUID.randomUUID()
+            : reasons.get(random.nextInt(reasons.size())).getReasonId();
+        adjustments.add(new StockAdjustment(reasonId, random.nextInt(100)));
+      }
+      line.setStockAdjustments(adjustments);
+
+      line.setMaxPeriodsOfStock(random.nextInt(10) == 0
+          ? null
+          : BigDecimal.valueOf(random.nextInt(50), 1));
+      line.setTotalStockoutDays(random.nextInt(MONTHS_IN_PERIOD * 30 + 1));
+
+      lineItems.add(line);
+    }
+
+    return lineItems;
+  }
+
+  private static StockAdjustmentReason newReason(ReasonType type) {
+    StockAdjustmentReason reason = new StockAdjustmentReason();
+    reason.setReasonId(UUID.randomUUID());
+    reason.setReasonType(type);
+    return reason;
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.domain.requisition;
+
+import static org.openlmis.requisition.domain.requisition.LineItemFieldsCalculator.calculateAdjustedConsumption;
+import static org.openlmis.requisition.domain.requisition.LineItemFieldsCalculator.calculateCalculatedOrderQuantity;
+import static org.openlmis.requisition.domain.requisition.LineItemFieldsCalculator.calculateCalculatedOrderQuantityIsa;
+import static org.openlmis.requisition.domain.requisition.LineItemFieldsCalculator.calculateMaximumStockQuantity;
+import static org.openlmis.requisition.domain.requisition.LineItemFieldsCalculator.calculateStockOnHand;
+import static org.openlmis.requisition.domain.requisition.LineItemFieldsCalculator.calculateTotal;
+import static org.openlmis.requisition.domain.requisition.LineItemFieldsCalculator.calculateTotalConsumedQuantity;
+import static org.openlmis.requisition.domain.requisition.LineItemFieldsCalculator.calculateTotalLossesAndAdjustments;
+
+import java.util.Collection;
+import org.openlmis.requisition.domain.RequisitionTemplate;
+import org.openlmis.requisition.domain.requisition.RequisitionTemplatePlan.LineItemColumn;
+
+/**
+ * Reference implementation of the template field calculation. It applies the
+ * {@link LineItemFieldsCalculator} formulas to one line item at a time, in the order used before
+ * {@link LineItemCalculationEngine} was added, so tests can check that the engine gives the same
+ * values and benchmarks can compare both approaches.
+ */
+public final class PerLineItemCalculator {
+  private final RequisitionTemplate template;
+  private final RequisitionTemplatePlan plan;
+  private final Collection<StockAdjustmentReason> reasons;
+  private final Integer numberOfMonthsInPeriod;
+
+  /**
+   * Creates a calculator for line items of a requisition with the given template.
+   */
+  public PerLineItemCalculator(RequisitionTemplate template, RequisitionTemplatePlan plan,
+      Collection<StockAdjustmentReason> reasons, Integer numberOfMonthsInPeriod) {
+    this.template = template;
+    this.plan = plan;
+    this.reasons = reasons;
+    this.numberOfMonthsInPeriod = numberOfMonthsInPeriod;
+  }
+
+  /**
+   * Calculates and sets all calculated fields of the given line item.
+   */
+  public void calculateAndSetFields(RequisitionLineItem line) {
+    calculateAndSetStockFields(line);
+    calculateAndSetConsumptionFields(line);
+    calculateAndSetOrderFields(line);
+  }
+
+  private void calculateAndSetStockFields(RequisitionLineItem line) {
+    if (!plan.isPopulateStockOnHandFromStockCards()) {
+      line.setTotalLossesAndAdjustments(calculateTotalLossesAndAdjustments(line, reasons));
+    }
+
+    if (!plan.isInTemplateAndDisplayed(LineItemColumn.STOCK_ON_HAND)) {
+      line.setStockOnHand(null);
+    } else if (plan.isCalculated(LineItemColumn.STOCK_ON_HAND)) {
+      line.setStockOnHand(calculateStockOnHand(line));
+    }
+  }
+
+  private void calculateAndSetConsumptionFields(RequisitionLineItem line) {
+    if (!plan.isInTemplateAndDisplayed(LineItemColumn.TOTAL_CONSUMED_QUANTITY)) {
+      line.setTotalConsumedQuantity(null);
+    } else if (plan.isCalculated(LineItemColumn.TOTAL_CONSUMED_QUANTITY)) {
+      line.setTotalConsumedQuantity(calculateTotalConsumedQuantity(line));
+    }
+
+    if (plan.isInTemplateAndDisplayed(LineItemColumn.TOTAL)) {
+      line.setTotal(calculateTotal(line));
+    }
+
+    if (plan.isInTemplate(LineItemColumn.ADJUSTED_CONSUMPTION)) {
+      line.setAdjustedConsumption(calculateAdjustedConsumption(line, numberOfMonthsInPeriod,
+          plan.isInTemplateAndDisplayed(LineItemColumn.ADDITIONAL_QUANTITY_REQUIRED)));
+    }
+
+    if (plan.isInTemplate(LineItemColumn.AVERAGE_CONSUMPTION)) {
+      line.calculateAndSetAverageConsumption();
+    }
+  }
+
+  private void calculateAndSetOrderFields(RequisitionLineItem line) {
+    if (plan.isInTemplateAndDisplayed(LineItemColumn.MAXIMUM_STOCK_QUANTITY)) {
+      line.setMaximumStockQuantity(calculateMaximumStockQuantity(line, template));
+    }
+
+    if (plan.isInTemplateAndDisplayed(LineItemColumn.CALCULATED_ORDER_QUANTITY)) {
+      line.setCalculatedOrderQuantity(calculateCalculatedOrderQuantity(line, template));
+    }
+
+    if (plan.isInTemplateAndDisplayed(LineItemColumn.CALCULATED_ORDER_QUANTITY_ISA)) {
+      line.setCalculatedOrderQuantityIsa(calculateCalculatedOrderQuantityIsa(line));
+    }
+  }
+
+}
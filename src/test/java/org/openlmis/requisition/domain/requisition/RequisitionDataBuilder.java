@@ -37,6 +37,9 @@ public class RequisitionDataBuilder {
   private UUID facilityId = UUID.randomUUID();
   private UUID programId = UUID.randomUUID();
   private UUID processingPeriodId = UUID.randomUUID();
+  private String facilityName = null;
+  private String facilityCode = null;
+  private String programName = null;
   private UUID supplyingFacilityId = null;
   private RequisitionStatus status = RequisitionStatus.INITIATED;
   private List<StatusChange> statusChanges = new ArrayList<>();
@@ -79,7 +82,8 @@ public class RequisitionDataBuilder {
   public Requisition buildInitiatedRegularRequisition() {
     Requisition requisition = new Requisition(
         requisitionLineItems, version, draftStatusMessage, template, facilityId, programId,
-        processingPeriodId, supplyingFacilityId, status, statusChanges, emergency, reportOnly,
+        facilityName, facilityCode, programName, processingPeriodId, supplyingFacilityId,
+        status, statusChanges, emergency, reportOnly,
         numberOfMonthsInPeriod, supervisoryNodeId, previousRequisitions, availableProducts,
         datePhysicalStockCountCompleted, stockAdjustmentReasons, permissionStrings
     );
@@ -0,0 +1,144 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.domain.requisition;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.openlmis.requisition.domain.requisition.RequisitionLineItem.CALCULATED_ORDER_QUANTITY;
+import static org.openlmis.requisition.domain.requisition.RequisitionLineItem.REQUESTED_QUANTITY;
+import static org.openlmis.requisition.domain.requisition.RequisitionLineItem.REQUESTED_QUANTITY_EXPLANATION;
+
+import com.google.common.collect.Sets;
+import java.util.List;
+import org.junit.Test;
+import org.openlmis.requisition.domain.RequisitionTemplate;
+import org.openlmis.requisition.domain.RequisitionTemplateDataBuilder;
+import org.openlmis.requisition.domain.SourceType;
+import org.openlmis.requisition.domain.requisition.RequisitionTemplatePlan.LineItemColumn;
+
+public class RequisitionTemplatePlanTest {
+
+  @Test
+  public void shouldCompileColumnFlags() {
+    RequisitionTemplate template = new RequisitionTemplateDataBuilder()
+        .withStockOnHandColumnCalculated()
+        .build();
+
+    RequisitionTemplatePlan plan = RequisitionTemplatePlan.compile(template);
+
+    for (LineItemColumn column : LineItemColumn.values()) {
+      String name = column.getName();
+      boolean inTemplate = template.isColumnInTemplate(name);
+
+      assertThat(name, plan.isInTemplate(column), is(inTemplate));
+      assertThat(name, plan.isInTemplateAndDisplayed(column),
+          is(template.isColumnInTemplateAndDisplayed(name)));
+      assertThat(name, plan.isCalculated(column),
+          is(inTemplate && template.isColumnCalculated(name)));
+      assertThat(name, plan.isStockBased(column),
+          is(inTemplate && template.isColumnStockBased(name)));
+      assertThat(name, plan.isUserInput(column),
+          is(inTemplate && template.isColumnUserInput(name)));
+    }
+
+    assertTrue(plan.isCalculated(LineItemColumn.STOCK_ON_HAND));
+    assertFalse(plan.isPopulateStockOnHandFromStockCards());
+  }
+
+  @Test
+  public void shouldNotMarkHiddenColumnsAsDisplayed() {
+    RequisitionTemplatePlan plan = RequisitionTemplatePlan.compile(
+        new RequisitionTemplateDataBuilder().withTotalConsumedQuantityColumnHidden().build());
+
+    assertTrue(plan.isInTemplate(LineItemColumn.TOTAL_CONSUMED_QUANTITY));
+    assertFalse(plan.isInTemplateAndDisplayed(LineItemColumn.TOTAL_CONSUMED_QUANTITY));
+  }
+
+  @Test
+  public void shouldNotMarkColumnsMissingInTemplate() {
+    RequisitionTemplatePlan plan = RequisitionTemplatePlan.compile(
+        new RequisitionTemplateDataBuilder().withRequiredColumns().build());
+
+    assertFalse(plan.isInTemplate(LineItemColumn.STOCK_ON_HAND));
+    assertFalse(plan.isInTemplateAndDisplayed(LineItemColumn.STOCK_ON_HAND));
+    assertFalse(plan.isCalculated(LineItemColumn.STOCK_ON_HAND));
+    assertTrue(plan.isCalculated(LineItemColumn.CALCULATED_ORDER_QUANTITY));
+    assertTrue(plan.isUserInput(LineItemColumn.REQUESTED_QUANTITY));
+  }
+
+  @Test
+  public void shouldCompileStockBasedColumnsAndOptionFlags() {
+    RequisitionTemplatePlan plan = RequisitionTemplatePlan.compile(
+        new RequisitionTemplateDataBuilder()
+            .withAllColumns()
+            .withPopulateStockOnHandFromStockCards()
+            .build());
+
+    assertTrue(plan.isPopulateStockOnHandFromStockCards());
+    assertTrue(plan.isStockBased(LineItemColumn.STOCK_ON_HAND));
+    assertFalse(plan.isUserInput(LineItemColumn.STOCK_ON_HAND));
+  }
+
+  @Test
+  public void shouldListHiddenAndCalculatedColumnsIncludingCustomOnes() {
+    RequisitionTemplate template = new RequisitionTemplateDataBuilder()
+        .withRequiredColumns()
+        .withColumn("customColumn", "X", SourceType.USER_INPUT,
+            Sets.newHashSet(SourceType.USER_INPUT), false)
+        .build();
+
+    List<String> columns = RequisitionTemplatePlan.compile(template)
+        .getHiddenOrCalculatedColumns();
+
+    assertThat(columns, containsInAnyOrder(CALCULATED_ORDER_QUANTITY, "customColumn"));
+    assertThat(columns, not(hasItem(REQUESTED_QUANTITY)));
+    assertThat(columns, not(hasItem(REQUESTED_QUANTITY_EXPLANATION)));
+  }
+
+  @Test
+  public void shouldHideOrderRelatedColumnsOfReportOnlyTemplate() {
+    RequisitionTemplate template = new RequisitionTemplateDataBuilder()
+        .withRequiredColumns()
+        .build();
+    RequisitionTemplate reportOnly = new RequisitionTemplate(template);
+    reportOnly.hideOrderRelatedColumns();
+
+    assertTrue(RequisitionTemplatePlan.compile(template)
+        .isInTemplateAndDisplayed(LineItemColumn.CALCULATED_ORDER_QUANTITY));
+    assertFalse(RequisitionTemplatePlan.compile(reportOnly)
+        .isInTemplateAndDisplayed(LineItemColumn.CALCULATED_ORDER_QUANTITY));
+  }
+
+  @Test
+  public void shouldReflectTemplateUpdatedInPlace() {
+    RequisitionTemplate template = new RequisitionTemplateDataBuilder()
+        .withAllColumns()
+        .build();
+    assertFalse(RequisitionTemplatePlan.compile(template).isPopulateStockOnHandFromStockCards());
+
+    template.updateFrom(new RequisitionTemplateDataBuilder()
+        .withAllColumns()
+        .withPopulateStockOnHandFromStockCards()
+        .build());
+
+    assertTrue(RequisitionTemplatePlan.compile(template).isPopulateStockOnHandFromStockCards());
+  }
+}
@@ -15,8 +15,14 @@
 
 package org.openlmis.requisition.dto;
 
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
 import java.util.List;
 import nl.jqno.equalsverifier.EqualsVerifier;
+import org.junit.Test;
 import org.openlmis.requisition.testutils.DtoGenerator;
 
 public class FacilityDtoTest extends DtoTest<FacilityDto> {
@@ -33,4 +39,14 @@ public class FacilityDtoTest extends DtoTest<FacilityDto> {
     verifier.withRedefinedSubclass(TimelinessReportFacilityDto.class);
     verifier.withPrefabValues(GeographicZoneDto.class, zones.get(0), zones.get(1));
   }
+
+  @Test
+  public void shouldCreateCopyOfFacility() {
+    FacilityDto facility = DtoGenerator.of(FacilityDto.class);
+
+    FacilityDto copy = FacilityDto.newInstance(facility);
+
+    assertThat(copy, is(facility));
+    assertThat(copy, is(not(sameInstance(facility))));
+  }
 }
@@ -0,0 +1,60 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.dto;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.hasEntry;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.openlmis.requisition.metrics.MetricsRegistry;
+import org.openlmis.requisition.metrics.Timer;
+import org.openlmis.requisition.testutils.ToStringTestUtils;
+
+public class TimerDtoTest extends DtoTest<TimerDto> {
+  private static final double DELTA = 0.001;
+
+  @Override
+  protected Class<TimerDto> getTestClass() {
+    return TimerDto.class;
+  }
+
+  @Test
+  public void shouldImplementToString() {
+    ToStringTestUtils.verify(TimerDto.class, new TimerDto(),
+        "PERCENTILES", "NANOS_IN_MILLISECOND");
+  }
+
+  @Test
+  public void shouldCreateNewInstanceWithDurationsInMilliseconds() {
+    Timer timer = new MetricsRegistry().timer("test", "stage", "EXPORT");
+    timer.record(10, TimeUnit.MILLISECONDS);
+    timer.record(30, TimeUnit.MILLISECONDS);
+
+    TimerDto dto = TimerDto.newInstance(timer);
+
+    assertThat(dto.getName(), is("test"));
+    assertThat(dto.getTags(), hasEntry("stage", "EXPORT"));
+    assertThat(dto.getCount(), is(2L));
+    assertThat(dto.getTotalTime(), closeTo(40, DELTA));
+    assertThat(dto.getMean(), closeTo(20, DELTA));
+    assertThat(dto.getMax(), closeTo(30, DELTA));
+    assertThat(dto.getPercentiles().keySet().size(), is(4));
+    assertThat(dto.getPercentiles().get("0.99"), closeTo(30, DELTA));
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.metrics;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Test;
+
+public class CacheMetricsTest {
+  private static final String NAME = "test";
+
+  private MetricsRegistry registry = new MetricsRegistry();
+
+  private Cache<String, String> cache = CacheBuilder
+      .newBuilder()
+      .concurrencyLevel(1)
+      .maximumSize(1)
+      .recordStats()
+      .build();
+
+  @Test
+  public void shouldRegisterGaugesTaggedWithCacheName() {
+    CacheMetrics.register(registry, NAME, cache);
+
+    List<String> names = registry
+        .getGauges()
+        .stream()
+        .map(Gauge::getName)
+        .collect(Collectors.toList());
+
+    assertThat(names, contains(CacheMetrics.EVICTIONS, CacheMetrics.HITS, CacheMetrics.MISSES,
+        CacheMetrics.SIZE));
+    registry.getGauges().forEach(gauge -> assertThat(gauge.getTags().get("cache"), is(NAME)));
+  }
+
+  @Test
+  public void shouldReadCurrentCacheStatistics() {
+    CacheMetrics.register(registry, NAME, cache);
+
+    cache.put("first", "value");
+    cache.getIfPresent("first");
+    cache.getIfPresent("second");
+    cache.put("second", "value");
+
+    List<Gauge> gauges = registry.getGauges();
+
+    assertThat(gauges.get(0).getValue(), is(1.0));
+    assertThat(gauges.get(1).getValue(), is(1.0));
+    assertThat(gauges.get(2).getValue(), is(1.0));
+    assertThat(gauges.get(3).getValue(), is(1.0));
+  }
+
+}
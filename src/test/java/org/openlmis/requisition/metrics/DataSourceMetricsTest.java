@@ -0,0 +1,71 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.metrics;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.sql.DataSource;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class DataSourceMetricsTest {
+  private MetricsRegistry registry = new MetricsRegistry();
+  private DataSourceMetrics dataSourceMetrics = new DataSourceMetrics();
+
+  @Test
+  public void shouldRegisterGaugesOfTomcatPool() {
+    org.apache.tomcat.jdbc.pool.DataSource pool =
+        mock(org.apache.tomcat.jdbc.pool.DataSource.class);
+    when(pool.getActive()).thenReturn(4);
+    when(pool.getMaxActive()).thenReturn(100);
+
+    register(pool);
+
+    List<String> names = registry
+        .getGauges()
+        .stream()
+        .map(Gauge::getName)
+        .collect(Collectors.toList());
+
+    assertThat(names, contains(
+        DataSourceMetrics.ACTIVE_CONNECTIONS, DataSourceMetrics.IDLE_CONNECTIONS,
+        DataSourceMetrics.MAX_CONNECTIONS, DataSourceMetrics.OPEN_CONNECTIONS,
+        DataSourceMetrics.PENDING_CONNECTIONS));
+    assertThat(registry.getGauges().get(0).getValue(), is(4.0));
+    assertThat(registry.getGauges().get(2).getValue(), is(100.0));
+  }
+
+  @Test
+  public void shouldNotRegisterGaugesOfOtherDataSources() {
+    register(mock(DataSource.class));
+
+    assertThat(registry.getGauges(), is(empty()));
+  }
+
+  private void register(DataSource dataSource) {
+    ReflectionTestUtils.setField(dataSourceMetrics, "dataSource", dataSource);
+    ReflectionTestUtils.setField(dataSourceMetrics, "metricsRegistry", registry);
+
+    dataSourceMetrics.registerGauges();
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.metrics;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.profiler.Profiler;
+
+public class MetricsProfilerTest {
+  private static final String OPERATION = "OPERATION";
+  private static final String FIRST_STAGE = "FIRST_STAGE";
+  private static final String SECOND_STAGE = "SECOND_STAGE";
+  private static final String NESTED = "NESTED";
+
+  @Before
+  public void setUp() {
+    Metrics.getRegistry().clear();
+  }
+
+  @Test
+  public void shouldRecordOperationAndStages() {
+    Profiler profiler = new MetricsProfiler(OPERATION);
+    profiler.start(FIRST_STAGE);
+    profiler.start(SECOND_STAGE);
+    profiler.start(FIRST_STAGE);
+    profiler.stop();
+
+    assertThat(getCount(Metrics.operationTimer(OPERATION)), is(1L));
+    assertThat(getCount(Metrics.stageTimer(OPERATION, FIRST_STAGE)), is(2L));
+    assertThat(getCount(Metrics.stageTimer(OPERATION, SECOND_STAGE)), is(1L));
+  }
+
+  @Test
+  public void shouldRecordNestedProfilerAsSeparateOperation() {
+    Profiler profiler = new MetricsProfiler(OPERATION);
+    profiler.start(FIRST_STAGE);
+    profiler.startNested(NESTED).start(SECOND_STAGE);
+    profiler.stop();
+
+    assertThat(getCount(Metrics.operationTimer(NESTED)), is(1L));
+    assertThat(getCount(Metrics.stageTimer(NESTED, SECOND_STAGE)), is(1L));
+    assertThat(getCount(Metrics.stageTimer(OPERATION, FIRST_STAGE)), is(1L));
+  }
+
+  @Test
+  public void shouldRecordTrackedProfilerThatWasNotStopped() {
+    MetricsProfiler.startTracking();
+    Profiler profiler = new MetricsProfiler(OPERATION);
+    profiler.start(FIRST_STAGE);
+    MetricsProfiler.stopTracking();
+
+    assertThat(getCount(Metrics.operationTimer(OPERATION)), is(1L));
+    assertThat(getCount(Metrics.stageTimer(OPERATION, FIRST_STAGE)), is(1L));
+  }
+
+  @Test
+  public void shouldNotRecordStoppedTrackedProfilerAgain() {
+    MetricsProfiler.startTracking();
+    Profiler profiler = new MetricsProfiler(OPERATION);
+    profiler.stop();
+    MetricsProfiler.stopTracking();
+
+    assertThat(getCount(Metrics.operationTimer(OPERATION)), is(1L));
+  }
+
+  @Test
+  public void shouldNotTrackProfilersCreatedAfterTrackingStopped() {
+    MetricsProfiler.startTracking();
+    MetricsProfiler.stopTracking();
+    new MetricsProfiler(OPERATION);
+    MetricsProfiler.stopTracking();
+
+    assertThat(Metrics.getRegistry().getTimers().isEmpty(), is(true));
+  }
+
+  @Test
+  public void shouldNotRecordBeforeStopped() {
+    Profiler profiler = new MetricsProfiler(OPERATION);
+    profiler.start(FIRST_STAGE);
+
+    assertThat(Metrics.getRegistry().getTimers().isEmpty(), is(true));
+  }
+
+  private long getCount(Timer timer) {
+    return timer.takeSnapshot().getCount();
+  }
+}
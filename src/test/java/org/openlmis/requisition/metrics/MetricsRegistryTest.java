@@ -0,0 +1,92 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.metrics;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.ImmutableMap;
+import org.junit.Test;
+
+public class MetricsRegistryTest {
+  private static final String NAME = "name";
+  private static final String METHOD = "method";
+  private static final String STATUS = "status";
+  private static final String GET = "GET";
+  private static final String PUT = "PUT";
+  private static final String OK = "200";
+
+  private MetricsRegistry registry = new MetricsRegistry();
+
+  @Test
+  public void shouldReturnSameTimerForSameNameAndTags() {
+    Timer timer = registry.timer(NAME, METHOD, GET, STATUS, OK);
+
+    assertThat(registry.timer(NAME, STATUS, OK, METHOD, GET), is(sameInstance(timer)));
+    assertThat(registry.timer(NAME, METHOD, PUT, STATUS, OK), is(not(sameInstance(timer))));
+    assertThat(timer.getTags(), is(ImmutableMap.of(METHOD, GET, STATUS, OK)));
+  }
+
+  @Test
+  public void shouldRejectTagWithoutValue() {
+    assertThatThrownBy(() -> registry.timer(NAME, METHOD))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void shouldReturnTimersSortedByNameAndTags() {
+    Timer second = registry.timer("b");
+    Timer third = registry.timer("c", METHOD, GET);
+    Timer first = registry.timer("a");
+    Timer fourth = registry.timer("c", METHOD, PUT);
+
+    assertThat(registry.getTimers(), contains(first, second, third, fourth));
+  }
+
+  @Test
+  public void shouldReturnSameCounterForSameNameAndTags() {
+    Counter counter = registry.counter(NAME, METHOD, GET);
+
+    assertThat(registry.counter(NAME, METHOD, GET), is(sameInstance(counter)));
+    assertThat(registry.getCounters(), contains(counter));
+  }
+
+  @Test
+  public void shouldReplaceGaugeWithSameNameAndTags() {
+    registry.gauge(NAME, () -> 1, METHOD, GET);
+    Gauge gauge = registry.gauge(NAME, () -> 2, METHOD, GET);
+
+    assertThat(registry.getGauges(), contains(gauge));
+    assertThat(gauge.getValue(), is(2.0));
+  }
+
+  @Test
+  public void shouldRemoveAllMeters() {
+    registry.timer(NAME);
+    registry.counter(NAME);
+    registry.gauge(NAME, () -> 0);
+    registry.clear();
+
+    assertThat(registry.getTimers(), is(empty()));
+    assertThat(registry.getCounters(), is(empty()));
+    assertThat(registry.getGauges(), is(empty()));
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.metrics;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class PrometheusFormatTest {
+  private static final String TIMER_NAME = "http.server.requests";
+  private static final String TIMER_TAGS = "method=\"GET\",uri=\"/api/requisitions\"";
+  private static final String BUCKET = "http_server_requests_seconds_bucket{" + TIMER_TAGS;
+  private static final String METHOD = "method";
+
+  private MetricsRegistry registry = new MetricsRegistry();
+
+  @Test
+  public void shouldWriteTimersAsHistogramsInSeconds() {
+    Timer timer = registry.timer(TIMER_NAME, "uri", "/api/requisitions", METHOD, "GET");
+    timer.record(3, TimeUnit.MILLISECONDS);
+    timer.record(30, TimeUnit.MILLISECONDS);
+
+    String text = PrometheusFormat.format(registry);
+
+    assertThat(text, containsString("# TYPE http_server_requests_seconds histogram\n"));
+    assertThat(text, containsString(
+        BUCKET + ",le=\"0.002\"} 0\n"));
+    assertThat(text, containsString(
+        BUCKET + ",le=\"0.005\"} 1\n"));
+    assertThat(text, containsString(
+        BUCKET + ",le=\"0.05\"} 2\n"));
+    assertThat(text, containsString(
+        BUCKET + ",le=\"+Inf\"} 2\n"));
+    assertThat(text, containsString(
+        "http_server_requests_seconds_sum{" + TIMER_TAGS + "} 0.033\n"));
+    assertThat(text, containsString(
+        "http_server_requests_seconds_count{" + TIMER_TAGS + "} 2\n"));
+    assertThat(text, containsString("# TYPE http_server_requests_seconds_max gauge\n"));
+    assertThat(text, containsString(
+        "http_server_requests_seconds_max{" + TIMER_TAGS + "} 0.03\n"));
+  }
+
+  @Test
+  public void shouldWriteTypeOnceForEachFamily() {
+    registry.timer(TIMER_NAME, METHOD, "GET");
+    registry.timer(TIMER_NAME, METHOD, "PUT");
+
+    String text = PrometheusFormat.format(registry);
+    String type = "# TYPE http_server_requests_seconds histogram\n";
+
+    assertThat(text.indexOf(type), is(text.lastIndexOf(type)));
+  }
+
+  @Test
+  public void shouldWriteCountersAndGauges() {
+    registry.counter("http.server.queries", METHOD, "GET").increment(7);
+    registry.gauge("jdbc.connections.active", () -> 3);
+
+    String text = PrometheusFormat.format(registry);
+
+    assertThat(text, containsString("# TYPE http_server_queries_total counter\n"
+        + "http_server_queries_total{method=\"GET\"} 7\n"));
+    assertThat(text, containsString("# TYPE jdbc_connections_active gauge\n"
+        + "jdbc_connections_active 3.0\n"));
+  }
+
+  @Test
+  public void shouldEscapeLabelValues() {
+    registry.counter("test", "stage", "a\"b\\c\nd").increment();
+
+    assertThat(PrometheusFormat.format(registry),
+        containsString("test_total{stage=\"a\\\"b\\\\c\\nd\"} 1\n"));
+  }
+
+  @Test
+  public void shouldWriteNothingIfThereAreNoMeters() {
+    assertThat(PrometheusFormat.format(registry), is(not(containsString("#"))));
+  }
+}
@@ -0,0 +1,46 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.metrics;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+public class QueryCountingStatementInspectorTest {
+  private QueryCountingStatementInspector inspector = new QueryCountingStatementInspector();
+
+  @Test
+  public void shouldCountStatementsAndLeaveThemUnchanged() {
+    long count = QueryCountingStatementInspector.getCount();
+
+    assertThat(inspector.inspect("SELECT 1"), is("SELECT 1"));
+    inspector.inspect("SELECT 2");
+
+    assertThat(QueryCountingStatementInspector.getCount(), is(count + 2));
+  }
+
+  @Test
+  public void shouldCountStatementsOfEachThreadSeparately() throws InterruptedException {
+    long count = QueryCountingStatementInspector.getCount();
+
+    Thread thread = new Thread(() -> inspector.inspect("SELECT 1"));
+    thread.start();
+    thread.join();
+
+    assertThat(QueryCountingStatementInspector.getCount(), is(count));
+  }
+}
@@ -0,0 +1,122 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.metrics;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TimerTest {
+  private static final double DELTA = 0.001;
+
+  private MetricsRegistry registry;
+  private Timer timer;
+
+  @Before
+  public void setUp() {
+    registry = new MetricsRegistry();
+    timer = registry.timer("test");
+  }
+
+  @Test
+  public void shouldRecordDurations() {
+    timer.record(1, TimeUnit.MILLISECONDS);
+    timer.record(3, TimeUnit.MILLISECONDS);
+
+    Timer.Snapshot snapshot = timer.takeSnapshot();
+
+    assertThat(snapshot.getCount(), is(2L));
+    assertThat(snapshot.getTotalTime(), is(TimeUnit.MILLISECONDS.toNanos(4)));
+    assertThat(snapshot.getMaxTime(), is(TimeUnit.MILLISECONDS.toNanos(3)));
+    assertThat(snapshot.getMean(), closeTo(TimeUnit.MILLISECONDS.toNanos(2), DELTA));
+  }
+
+  @Test
+  public void shouldCountDurationsInBuckets() {
+    long[] bounds = Timer.getBucketBounds();
+
+    timer.record(bounds[0], TimeUnit.NANOSECONDS);
+    timer.record(bounds[0] + 1, TimeUnit.NANOSECONDS);
+    timer.record(bounds[bounds.length - 1] + 1, TimeUnit.NANOSECONDS);
+
+    long[] counts = timer.takeSnapshot().getBucketCounts();
+
+    assertThat(counts.length, is(bounds.length + 1));
+    assertThat(counts[0], is(1L));
+    assertThat(counts[1], is(1L));
+    assertThat(counts[bounds.length], is(1L));
+  }
+
+  @Test
+  public void shouldEstimatePercentilesFromBuckets() {
+    for (int i = 1; i <= 100; ++i) {
+      timer.record(i, TimeUnit.MILLISECONDS);
+    }
+
+    Timer.Snapshot snapshot = timer.takeSnapshot();
+
+    assertThat(snapshot.getPercentile(0.5), closeTo(TimeUnit.MILLISECONDS.toNanos(50), DELTA));
+    assertThat(snapshot.getPercentile(0.99), closeTo(TimeUnit.MILLISECONDS.toNanos(99), DELTA));
+    assertThat(snapshot.getPercentile(1), closeTo(TimeUnit.MILLISECONDS.toNanos(100), DELTA));
+  }
+
+  @Test
+  public void shouldNotEstimatePercentileAboveMaximum() {
+    timer.record(1, TimeUnit.MINUTES);
+
+    assertThat(timer.takeSnapshot().getPercentile(0.99),
+        closeTo(TimeUnit.MINUTES.toNanos(1), DELTA));
+  }
+
+  @Test
+  public void shouldReturnZerosIfNothingWasRecorded() {
+    Timer.Snapshot snapshot = timer.takeSnapshot();
+
+    assertThat(snapshot.getCount(), is(0L));
+    assertThat(snapshot.getMean(), closeTo(0, DELTA));
+    assertThat(snapshot.getPercentile(0.99), closeTo(0, DELTA));
+  }
+
+  @Test
+  public void shouldNotRecordIfRegistryIsDisabled() {
+    registry.setEnabled(false);
+
+    timer.record(1, TimeUnit.MILLISECONDS);
+    timer.stop(timer.start());
+
+    assertThat(timer.takeSnapshot().getCount(), is(0L));
+  }
+
+  @Test
+  public void shouldRecordExecutionOfSupplier() {
+    assertThat(timer.record(() -> "value"), is("value"));
+    assertThat(timer.takeSnapshot().getCount(), is(1L));
+  }
+
+  @Test
+  public void shouldRecordFailedExecution() {
+    assertThatThrownBy(() -> timer.record((Runnable) () -> {
+      throw new IllegalStateException();
+    })).isInstanceOf(IllegalStateException.class);
+
+    assertThat(timer.takeSnapshot().getCount(), is(1L));
+  }
+}
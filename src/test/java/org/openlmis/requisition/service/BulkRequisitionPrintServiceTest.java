@@ -0,0 +1,159 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.lowagie.text.pdf.PdfReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import javax.persistence.EntityManager;
+import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.base.JRBasePrintPage;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.openlmis.requisition.domain.requisition.Requisition;
+import org.openlmis.requisition.errorhandling.ValidationResult;
+import org.openlmis.requisition.exception.ContentNotFoundMessageException;
+import org.openlmis.requisition.repository.RequisitionRepository;
+
+@RunWith(MockitoJUnitRunner.class)
+public class BulkRequisitionPrintServiceTest {
+  private static final int REQUISITIONS = BulkRequisitionPrintService.PAGE_SIZE + 2;
+
+  @Mock
+  private RequisitionRepository requisitionRepository;
+
+  @Mock
+  private PermissionService permissionService;
+
+  @Mock
+  private JasperReportsViewService jasperReportsViewService;
+
+  @Mock
+  private EntityManager entityManager;
+
+  @InjectMocks
+  private BulkRequisitionPrintService service;
+
+  private List<UUID> ids = new ArrayList<>();
+  private List<Requisition> requisitions = new ArrayList<>();
+
+  @Before
+  public void setUp() throws Exception {
+    for (int i = 0; i < REQUISITIONS; ++i) {
+      Requisition requisition = mock(Requisition.class);
+      UUID id = UUID.randomUUID();
+      when(requisition.getId()).thenReturn(id);
+
+      ids.add(id);
+      requisitions.add(requisition);
+    }
+
+    when(requisitionRepository.findAll(any(Iterable.class))).thenAnswer(invocation -> {
+      Collection<UUID> pageIds = (Collection<UUID>) invocation.getArguments()[0];
+      return requisitions
+          .stream()
+          .filter(requisition -> pageIds.contains(requisition.getId()))
+          .collect(Collectors.toList());
+    });
+
+    when(permissionService.canViewRequisition(any(Requisition.class)))
+        .thenReturn(ValidationResult.success());
+    when(jasperReportsViewService.fillRequisitionReport(any(Requisition.class)))
+        .thenAnswer(invocation -> createPrint());
+  }
+
+  @Test
+  public void shouldCheckPermissionsForAllRequisitions() {
+    service.checkCanPrint(ids);
+
+    requisitions.forEach(requisition ->
+        verify(permissionService).canViewRequisition(requisition));
+    verify(requisitionRepository, times(2)).findAll(any(Iterable.class));
+    verify(entityManager, times(2)).clear();
+  }
+
+  @Test(expected = ContentNotFoundMessageException.class)
+  public void shouldThrowExceptionIfRequisitionDoesNotExist() {
+    ids.add(UUID.randomUUID());
+
+    service.checkCanPrint(ids);
+  }
+
+  @Test
+  public void shouldWriteAllRequisitionsToSinglePdfInGivenOrder() throws Exception {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    service.writePdf(ids, output);
+
+    PdfReader reader = new PdfReader(output.toByteArray());
+    assertEquals(REQUISITIONS, reader.getNumberOfPages());
+
+    InOrder order = inOrder(jasperReportsViewService);
+    for (Requisition requisition : requisitions) {
+      order.verify(jasperReportsViewService).fillRequisitionReport(requisition);
+    }
+    verify(entityManager, times(2)).clear();
+  }
+
+  @Test
+  public void shouldWriteCsvFileForEachRequisition() throws Exception {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    service.writeCsvArchive(ids, output);
+
+    List<String> entries = new ArrayList<>();
+    try (ZipInputStream zip = new ZipInputStream(
+        new ByteArrayInputStream(output.toByteArray()))) {
+      for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+        entries.add(entry.getName());
+      }
+    }
+
+    assertEquals(ids
+        .stream()
+        .map(id -> "requisition_" + id + ".csv")
+        .collect(Collectors.toList()), entries);
+  }
+
+  private JasperPrint createPrint() {
+    JasperPrint print = new JasperPrint();
+    print.setName("requisition");
+    print.setPageWidth(842);
+    print.setPageHeight(595);
+    print.addPage(new JRBasePrintPage());
+    return print;
+  }
+}
@@ -0,0 +1,181 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.service;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.openlmis.requisition.domain.requisition.RequisitionLineItem.REQUESTED_QUANTITY;
+import static org.openlmis.requisition.domain.requisition.RequisitionStatus.APPROVED;
+import static org.openlmis.requisition.domain.requisition.RequisitionStatus.AUTHORIZED;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.sf.jasperreports.engine.JasperReport;
+import org.junit.Test;
+import org.openlmis.requisition.domain.JasperTemplate;
+import org.openlmis.requisition.domain.RequisitionTemplate;
+import org.openlmis.requisition.domain.RequisitionTemplateDataBuilder;
+import org.openlmis.requisition.metrics.MetricsRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@SuppressWarnings("PMD.TooManyMethods")
+public class CompiledReportCacheTest {
+  private static final String RESOURCE_PATH = "/jasperTemplates/requisition.jrxml";
+
+  private CompiledReportCache cache = new CompiledReportCache(10);
+  private AtomicInteger loads = new AtomicInteger();
+
+  @Test
+  public void shouldReturnCachedReportForTheSameTemplateData() throws Exception {
+    JasperTemplate template = createTemplate(UUID.randomUUID(), new byte[]{1});
+
+    JasperReport report = cache.get(template, this::load);
+
+    assertThat(cache.get(template, this::load), is(sameInstance(report)));
+    assertThat(loads.get(), is(1));
+  }
+
+  @Test
+  public void shouldLoadReportAgainIfTemplateDataChanged() throws Exception {
+    JasperTemplate template = createTemplate(UUID.randomUUID(), new byte[]{1});
+    cache.get(template, this::load);
+
+    template.setData(new byte[]{2});
+    cache.get(template, this::load);
+
+    assertThat(loads.get(), is(2));
+  }
+
+  @Test
+  public void shouldUseChecksumStoredWithTemplate() throws Exception {
+    JasperTemplate template = createTemplate(UUID.randomUUID(), new byte[]{1});
+    JasperReport report = cache.get(template, this::load);
+
+    // data read from the database comes with its stored checksum
+    ReflectionTestUtils.setField(template, "data", new byte[]{1});
+
+    assertThat(cache.get(template, this::load), is(sameInstance(report)));
+    assertThat(loads.get(), is(1));
+  }
+
+  @Test
+  public void shouldRegisterCacheGauges() throws Exception {
+    MetricsRegistry registry = new MetricsRegistry();
+    ReflectionTestUtils.setField(cache, "metricsRegistry", registry);
+    cache.registerMetrics();
+
+    cache.get(RESOURCE_PATH, this::load);
+
+    assertThat(registry.getGauges(), hasSize(4));
+    assertThat(registry.getGauges().get(0).getTags().get("cache"), is("jasperReports"));
+  }
+
+  @Test
+  public void shouldReturnCachedReportForResourcePath() throws Exception {
+    JasperReport report = cache.get(RESOURCE_PATH, this::load);
+
+    assertThat(cache.get(RESOURCE_PATH, this::load), is(sameInstance(report)));
+    assertThat(loads.get(), is(1));
+  }
+
+  @Test
+  public void shouldReturnCachedSubreportForRequisitionTemplateAndStatus() throws Exception {
+    RequisitionTemplate template = new RequisitionTemplateDataBuilder().build();
+
+    JasperReport report = cache.get(template, AUTHORIZED, this::load);
+
+    assertThat(cache.get(template, AUTHORIZED, this::load), is(sameInstance(report)));
+    assertThat(cache.get(template, APPROVED, this::load), is(not(sameInstance(report))));
+    assertThat(loads.get(), is(2));
+  }
+
+  @Test
+  public void shouldLoadSubreportAgainIfTemplateColumnsChangedInPlace() throws Exception {
+    RequisitionTemplate template = new RequisitionTemplateDataBuilder().withAllColumns().build();
+    cache.get(template, AUTHORIZED, this::load);
+
+    template.changeColumnLabel(REQUESTED_QUANTITY, "Requested");
+    cache.get(template, AUTHORIZED, this::load);
+
+    template.changeColumnDisplay(REQUESTED_QUANTITY, false);
+    cache.get(template, AUTHORIZED, this::load);
+
+    assertThat(loads.get(), is(3));
+  }
+
+  @Test
+  public void shouldInvalidateSubreportsOfRequisitionTemplate() throws Exception {
+    RequisitionTemplate template = new RequisitionTemplateDataBuilder().build();
+    cache.get(template, AUTHORIZED, this::load);
+    cache.get(template, APPROVED, this::load);
+
+    cache.invalidate(template.getId());
+
+    assertThat(cache.size(), is(0L));
+  }
+
+  @Test
+  public void shouldNotCacheNullReport() throws Exception {
+    JasperTemplate template = createTemplate(UUID.randomUUID(), new byte[]{1});
+
+    assertThat(cache.get(template, () -> null), is(nullValue()));
+    cache.get(template, this::load);
+
+    assertThat(loads.get(), is(1));
+  }
+
+  @Test
+  public void shouldInvalidateReportsOfGivenTemplateOnly() throws Exception {
+    JasperTemplate template = createTemplate(UUID.randomUUID(), new byte[]{1});
+    JasperTemplate otherTemplate = createTemplate(UUID.randomUUID(), new byte[]{1});
+    cache.get(template, this::load);
+    cache.get(otherTemplate, this::load);
+    cache.get(RESOURCE_PATH, this::load);
+
+    cache.invalidate(template.getId());
+
+    assertThat(cache.size(), is(2L));
+    cache.get(template, this::load);
+    assertThat(loads.get(), is(4));
+  }
+
+  @Test
+  public void shouldInvalidateAllReports() throws Exception {
+    cache.get(createTemplate(UUID.randomUUID(), new byte[]{1}), this::load);
+    cache.get(RESOURCE_PATH, this::load);
+
+    cache.invalidateAll();
+
+    assertThat(cache.size(), is(0L));
+  }
+
+  private JasperTemplate createTemplate(UUID id, byte[] data) {
+    JasperTemplate template = new JasperTemplate();
+    template.setId(id);
+    template.setData(data);
+    return template;
+  }
+
+  private JasperReport load() {
+    loads.incrementAndGet();
+    return mock(JasperReport.class);
+  }
+}
@@ -0,0 +1,175 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.service;
+
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openlmis.requisition.exception.ValidationMessageException;
+import org.openlmis.requisition.metrics.Gauge;
+import org.openlmis.requisition.metrics.MetricsRegistry;
+import org.openlmis.requisition.metrics.Timer.Snapshot;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+@SuppressWarnings("PMD.TooManyMethods")
+public class InstrumentedExecutorTest {
+
+  private static final String EXECUTOR = "executor";
+  private static final String NAME = "test";
+
+  private MetricsRegistry registry = new MetricsRegistry();
+
+  private InstrumentedExecutor executor = new InstrumentedExecutor(NAME, 2, 0, registry);
+
+  private Authentication authentication = new TestingAuthenticationToken("user", "pass");
+
+  @Before
+  public void setUp() {
+    SecurityContextHolder.getContext().setAuthentication(authentication);
+  }
+
+  @After
+  public void tearDown() {
+    SecurityContextHolder.clearContext();
+    executor.destroy();
+  }
+
+  @Test
+  public void shouldExecuteTaskWithCurrentSecurityContext() {
+    CompletableFuture<Authentication> future = executor
+        .supplyAsync(() -> SecurityContextHolder.getContext().getAuthentication());
+
+    assertThat(InstrumentedExecutor.join(future), is(sameInstance(authentication)));
+  }
+
+  @Test
+  public void shouldExecuteTasksConcurrently() throws InterruptedException {
+    CountDownLatch latch = new CountDownLatch(2);
+    CompletableFuture<Boolean> first = executor.supplyAsync(() -> countDownAndAwait(latch));
+    CompletableFuture<Boolean> second = executor.supplyAsync(() -> countDownAndAwait(latch));
+
+    assertThat(InstrumentedExecutor.join(first), is(true));
+    assertThat(InstrumentedExecutor.join(second), is(true));
+  }
+
+  @Test
+  public void shouldExecuteTaskByCallerIfPoolIsFull() {
+    CountDownLatch latch = new CountDownLatch(3);
+    final CompletableFuture<Boolean> first = executor.supplyAsync(() -> countDownAndAwait(latch));
+    final CompletableFuture<Boolean> second = executor.supplyAsync(() -> countDownAndAwait(latch));
+    CompletableFuture<Thread> third = executor.supplyAsync(Thread::currentThread);
+
+    assertThat(third.isDone(), is(true));
+    assertThat(InstrumentedExecutor.join(third), is(sameInstance(Thread.currentThread())));
+    assertThat(SecurityContextHolder.getContext().getAuthentication(),
+        is(sameInstance(authentication)));
+
+    latch.countDown();
+    assertThat(InstrumentedExecutor.join(first), is(true));
+    assertThat(InstrumentedExecutor.join(second), is(true));
+  }
+
+  @Test(expected = ValidationMessageException.class)
+  public void shouldRethrowExceptionThrownByTask() {
+    CompletableFuture<Object> future = executor.supplyAsync(() -> {
+      throw new ValidationMessageException("test");
+    });
+
+    InstrumentedExecutor.join(future);
+  }
+
+  @Test
+  public void shouldNotLeaveSecurityContextInPoolThreads() {
+    InstrumentedExecutor.join(executor.supplyAsync(() -> null));
+    SecurityContextHolder.clearContext();
+
+    CompletableFuture<Authentication> future = executor
+        .supplyAsync(() -> SecurityContextHolder.getContext().getAuthentication());
+
+    assertThat(InstrumentedExecutor.join(future), is(nullValue()));
+  }
+
+  @Test
+  public void shouldCountSubmittedCompletedAndFailedTasks() {
+    InstrumentedExecutor.join(executor.runAsync(() -> { }));
+    CompletableFuture<Object> failed = executor.supplyAsync(() -> {
+      throw new ValidationMessageException("test");
+    });
+    failed.handle((value, exp) -> null).join();
+
+    assertThat(registry.counter("executor.tasks.submitted", EXECUTOR, NAME).getCount(), is(2L));
+    assertThat(registry.counter("executor.tasks.failed", EXECUTOR, NAME).getCount(), is(1L));
+    assertThat(registry.timer("executor.task.wait", EXECUTOR, NAME).takeSnapshot().getCount(),
+        is(2L));
+    assertThat(registry.timer("executor.task.execution", EXECUTOR, NAME).takeSnapshot()
+        .getCount(), is(2L));
+  }
+
+  @Test
+  public void shouldRecordTaskExecutionTime() {
+    InstrumentedExecutor.join(executor.runAsync(() -> sleep(60)));
+
+    Snapshot snapshot = registry.timer("executor.task.execution", EXECUTOR, NAME).takeSnapshot();
+    assertThat(snapshot.getMaxTime(), is(greaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(50))));
+    assertThat(snapshot.getTotalTime(),
+        is(greaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(50))));
+  }
+
+  @Test
+  public void shouldRegisterQueueAndActiveThreadGauges() {
+    List<Gauge> gauges = registry.getGauges();
+
+    assertThat(gauges, hasSize(2));
+    assertThat(gauges.get(0).getName(), is("executor.active"));
+    assertThat(gauges.get(0).getTags().get(EXECUTOR), is(NAME));
+    assertThat(gauges.get(0).getValue(), is(0.0));
+    assertThat(gauges.get(1).getName(), is("executor.queue.size"));
+    assertThat(gauges.get(1).getValue(), is(0.0));
+  }
+
+  private void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException exp) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private boolean countDownAndAwait(CountDownLatch latch) {
+    latch.countDown();
+
+    try {
+      return latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException exp) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+}
@@ -15,27 +15,27 @@
 
 package org.openlmis.requisition.service;
 
-import static java.util.Collections.singletonList;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.openlmis.requisition.domain.requisition.RequisitionStatus.APPROVED;
 import static org.openlmis.requisition.domain.requisition.RequisitionStatus.AUTHORIZED;
 import static org.openlmis.requisition.domain.requisition.RequisitionStatus.INITIATED;
 import static org.openlmis.requisition.dto.TimelinessReportFacilityDto.DISTRICT_LEVEL;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
 import java.text.NumberFormat;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -51,6 +51,7 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
@@ -79,7 +80,6 @@ import org.openlmis.requisition.service.referencedata.ProgramReferenceDataServic
 import org.openlmis.requisition.testutils.DtoGenerator;
 import org.openlmis.requisition.web.ReportingRateReportDtoBuilder;
 import org.openlmis.requisition.web.RequisitionReportDtoBuilder;
-import org.springframework.data.domain.Page;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockServletContext;
 import org.springframework.test.util.ReflectionTestUtils;
@@ -114,12 +114,6 @@ public class JasperReportsViewServiceTest {
   @Mock
   private ReportingRateReportDtoBuilder reportingRateReportDtoBuilder;
 
-  @Mock
-  private RequisitionService requisitionService;
-
-  @Mock
-  private ByteArrayOutputStream byteArrayOutputStream;
-
   @Mock
   private ObjectInputStream objectInputStream;
 
@@ -135,6 +129,8 @@ public class JasperReportsViewServiceTest {
   @Mock
   private RequisitionRepository requisitionRepository;
 
+  private List<UUID> facilitiesWithRnR = new ArrayList<>();
+
   @Mock
   private RequisitionLineItem lineItem1;
 
@@ -171,22 +167,26 @@ public class JasperReportsViewServiceTest {
     ReflectionTestUtils.setField(service, "groupingSize", GROUPING_SIZE);
     ReflectionTestUtils.setField(service, "defaultLocale", DEFAULT_LOCALE);
     ReflectionTestUtils.setField(service, "currencyLocale", CURRENCY_LOCALE);
+    ReflectionTestUtils.setField(service, "compiledReportCache", new CompiledReportCache(10));
 
     jasperTemplate = mock(JasperTemplate.class);
     when(jasperTemplate.getName()).thenReturn("report1.jrxml");
     byte[] reportByteData = new byte[1];
     when(jasperTemplate.getData()).thenReturn(reportByteData);
 
-    ObjectOutputStream objectOutputStream = createObjectOutputStream();
-
     doReturn(objectInputStream).when(service).createObjectInputStream(jasperTemplate);
-    doReturn(byteArrayOutputStream).when(service).createByteArrayOutputStream();
-    doReturn(objectOutputStream).when(service).createObjectOutputStream(byteArrayOutputStream);
-    doReturn(jasperReportsMultiFormatView).when(service).createJasperMultiFormatView();
+    doReturn(jasperReportsMultiFormatView).when(service).createJasperMultiFormatView(jasperReport);
     doReturn(jasperReport).when(service).readReportData(objectInputStream);
-    doReturn(new byte[0]).when(byteArrayOutputStream).toByteArray();
 
     MockitoAnnotations.initMocks(this);
+
+    when(requisitionRepository.findFacilityIdsWithRequisitions(any(), any(), any(), any()))
+        .thenAnswer(invocation -> {
+          Collection<UUID> facilityIds = (Collection<UUID>) invocation.getArguments()[0];
+          return facilitiesWithRnR.stream()
+              .filter(facilityIds::contains)
+              .collect(Collectors.toList());
+        });
   }
 
   @Test
@@ -251,6 +251,12 @@ public class JasperReportsViewServiceTest {
         .map(FacilityDto::getId).collect(Collectors.toList());
     Assert.assertTrue(facilityIds.contains(facility.getId()));
     Assert.assertTrue(facilityIds.contains(anotherFacility.getId()));
+
+    // all active facilities are checked in a single query
+    ArgumentCaptor<Collection> facilityIdsCaptor = ArgumentCaptor.forClass(Collection.class);
+    verify(requisitionRepository).findFacilityIdsWithRequisitions(facilityIdsCaptor.capture(),
+        eq(program.getId()), eq(period.getId()), any());
+    Assert.assertEquals(3, facilityIdsCaptor.getValue().size());
   }
 
   @Test
@@ -407,6 +413,64 @@ public class JasperReportsViewServiceTest {
         outputParams.get("currencyDecimalFormat"));
   }
 
+  @Test
+  public void shouldReadTemplateReportOnlyOnce() throws Exception {
+    HttpServletRequest httpServletRequest = new MockHttpServletRequest(new MockServletContext(""));
+
+    service.getJasperReportsView(jasperTemplate, httpServletRequest);
+    service.getJasperReportsView(jasperTemplate, httpServletRequest);
+
+    verify(service, times(1)).readReportData(any(ObjectInputStream.class));
+    verify(service, times(2)).createJasperMultiFormatView(any(JasperReport.class));
+  }
+
+  @Test
+  public void shouldReadTemplateReportAgainIfTemplateDataChanged() throws Exception {
+    HttpServletRequest httpServletRequest = new MockHttpServletRequest(new MockServletContext(""));
+
+    service.getJasperReportsView(jasperTemplate, httpServletRequest);
+    when(jasperTemplate.getData()).thenReturn(new byte[]{1, 2});
+    when(jasperTemplate.getChecksum()).thenReturn("changed");
+    service.getJasperReportsView(jasperTemplate, httpServletRequest);
+
+    verify(service, times(2)).readReportData(any(ObjectInputStream.class));
+  }
+
+  @Test
+  public void shouldCompileRequisitionReportOnlyOnce() throws Exception {
+    doReturn(locale).when(service).getLocaleFromService();
+    when(requisitionReportDtoBuilder.build(requisition))
+        .thenReturn(DtoGenerator.of(RequisitionReportDto.class));
+    HttpServletRequest httpServletRequest = new MockHttpServletRequest(new MockServletContext(""));
+
+    service.getRequisitionJasperReportView(requisition, httpServletRequest);
+    service.getRequisitionJasperReportView(requisition, httpServletRequest);
+
+    ArgumentCaptor<JasperReport> reportCaptor = ArgumentCaptor.forClass(JasperReport.class);
+    verify(service, times(2)).createJasperMultiFormatView(reportCaptor.capture());
+    Assert.assertSame(reportCaptor.getAllValues().get(0), reportCaptor.getAllValues().get(1));
+  }
+
+  @Test
+  public void shouldCompileRequisitionLineSubreportOnceForTemplateAndStatus() throws Exception {
+    doReturn(locale).when(service).getLocaleFromService();
+    when(requisitionReportDtoBuilder.build(requisition))
+        .thenReturn(DtoGenerator.of(RequisitionReportDto.class));
+    HttpServletRequest httpServletRequest = new MockHttpServletRequest(new MockServletContext(""));
+
+    Object subreport = service.getRequisitionJasperReportView(requisition, httpServletRequest)
+        .getModel().get("subreport");
+    Object cachedSubreport = service.getRequisitionJasperReportView(requisition,
+        httpServletRequest).getModel().get("subreport");
+    requisition.setStatus(APPROVED);
+    Object approvedSubreport = service.getRequisitionJasperReportView(requisition,
+        httpServletRequest).getModel().get("subreport");
+
+    Assert.assertTrue(subreport instanceof JasperReport);
+    Assert.assertSame(subreport, cachedSubreport);
+    Assert.assertNotSame(subreport, approvedSubreport);
+  }
+
   private List<FacilityDto> extractFacilitiesFromOutputParams(Map<String, Object> outputParams) {
     JRBeanCollectionDataSource datasource =
         (JRBeanCollectionDataSource) outputParams.get("datasource");
@@ -459,13 +523,9 @@ public class JasperReportsViewServiceTest {
     when(geographicZoneDto.getLevel()).thenReturn(geographicLevelDto);
     when(geographicZoneReferenceDataService.findOne(districtId)).thenReturn(geographicZoneDto);
 
-    Requisition mockRequisition = mock(Requisition.class);
-    Page<Requisition> requisitionPage = mock(Page.class);
-    when(requisitionPage.getContent()).thenReturn(
-        (isMissingRnR) ? Collections.emptyList() : singletonList(mockRequisition));
-    when(requisitionService.searchRequisitions(eq(facilityId), eq(program.getId()), any(), any(),
-        any(), any(), eq(period.getId()), any(), any(), any(), any()))
-        .thenReturn(requisitionPage);
+    if (!isMissingRnR) {
+      facilitiesWithRnR.add(facilityId);
+    }
 
     return geographicZoneDto;
   }
@@ -496,25 +556,4 @@ public class JasperReportsViewServiceTest {
     return requisition;
   }
 
-  // We use in the service writeObject method which has the final modifier
-  // and we can't mock the method.
-  private ObjectOutputStream createObjectOutputStream() throws IOException {
-    return new ObjectOutputStream() {
-
-      @Override
-      protected final void writeObjectOverride(Object obj) {
-        // nothing to do here
-      }
-
-      @Override
-      public void flush() {
-        // nothing to do here
-      }
-
-      @Override
-      public void close() {
-        // nothing to do here
-      }
-    };
-  }
 }
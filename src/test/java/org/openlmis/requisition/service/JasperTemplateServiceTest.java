@@ -46,6 +46,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.stream.Collectors;
 import javax.servlet.http.HttpServletRequest;
 import net.sf.jasperreports.engine.JRExpression;
@@ -82,6 +83,9 @@ public class JasperTemplateServiceTest {
   @Mock
   private JasperTemplateRepository jasperTemplateRepository;
 
+  @Mock
+  private CompiledReportCache compiledReportCache;
+
   @InjectMocks
   private JasperTemplateService jasperTemplateService;
 
@@ -305,6 +309,28 @@ public class JasperTemplateServiceTest {
         is(PARAM_DISPLAY_NAME));
   }
   
+  @Test
+  public void shouldInvalidateCompiledReportWhenTemplateIsSaved() {
+    JasperTemplate jasperTemplate = new JasperTemplate();
+    jasperTemplate.setId(UUID.randomUUID());
+
+    jasperTemplateService.saveWithParameters(jasperTemplate);
+
+    verify(jasperTemplateRepository).save(jasperTemplate);
+    verify(compiledReportCache).invalidate(jasperTemplate.getId());
+  }
+
+  @Test
+  public void shouldInvalidateCompiledReportWhenTemplateIsDeleted() {
+    JasperTemplate jasperTemplate = new JasperTemplate();
+    jasperTemplate.setId(UUID.randomUUID());
+
+    jasperTemplateService.delete(jasperTemplate);
+
+    verify(jasperTemplateRepository).delete(jasperTemplate);
+    verify(compiledReportCache).invalidate(jasperTemplate.getId());
+  }
+
   @Test
   public void mapRequestParametersToTemplateShouldReturnEmptyMapIfNoParameters() {
     when(request.getParameterMap()).thenReturn(Collections.emptyMap());
@@ -0,0 +1,107 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.service;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.when;
+import static org.openlmis.requisition.service.OutboundRequestMetricsInterceptor.IO_ERROR;
+import static org.openlmis.requisition.service.OutboundRequestMetricsInterceptor.REQUEST_TIMER;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.openlmis.requisition.metrics.Metrics;
+import org.openlmis.requisition.metrics.Timer;
+import org.openlmis.requisition.service.referencedata.FacilityReferenceDataService;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+
+@RunWith(MockitoJUnitRunner.class)
+public class OutboundRequestMetricsInterceptorTest {
+  private static final String STATUS = "status";
+  private static final byte[] BODY = new byte[0];
+
+  @Mock
+  private HttpRequest request;
+
+  @Mock
+  private ClientHttpRequestExecution execution;
+
+  @Mock
+  private ClientHttpResponse response;
+
+  private OutboundRequestMetricsInterceptor interceptor =
+      new OutboundRequestMetricsInterceptor(FacilityReferenceDataService.class);
+
+  @Before
+  public void setUp() {
+    Metrics.getRegistry().clear();
+    when(request.getMethod()).thenReturn(HttpMethod.GET);
+  }
+
+  @Test
+  public void shouldRecordRequestByClientMethodAndStatus() throws IOException {
+    when(execution.execute(request, BODY)).thenReturn(response);
+    when(response.getRawStatusCode()).thenReturn(404);
+
+    assertThat(interceptor.intercept(request, BODY, execution), is(sameInstance(response)));
+
+    Timer timer = getRequestTimer();
+    assertThat(timer.getTags().get("client"), is("FacilityReferenceDataService"));
+    assertThat(timer.getTags().get("method"), is("GET"));
+    assertThat(timer.getTags().get(STATUS), is("404"));
+    assertThat(timer.takeSnapshot().getCount(), is(1L));
+  }
+
+  @Test
+  public void shouldRecordRequestThatFailedWithoutResponse() throws IOException {
+    when(execution.execute(request, BODY)).thenThrow(new IOException());
+
+    assertThatThrownBy(() -> interceptor.intercept(request, BODY, execution))
+        .isInstanceOf(IOException.class);
+
+    assertThat(getRequestTimer().getTags().get(STATUS), is(IO_ERROR));
+  }
+
+  @Test
+  public void shouldCreateRestTemplateWithInterceptor() {
+    assertThat(OutboundRequestMetricsInterceptor
+        .createRestTemplate(AuthService.class)
+        .getInterceptors(), hasSize(1));
+  }
+
+  private Timer getRequestTimer() {
+    List<Timer> timers = Metrics.getRegistry()
+        .getTimers()
+        .stream()
+        .filter(timer -> REQUEST_TIMER.equals(timer.getName()))
+        .collect(Collectors.toList());
+
+    assertThat(timers, hasSize(1));
+    return timers.get(0);
+  }
+}
@@ -29,7 +29,11 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -42,12 +46,16 @@ import static org.openlmis.requisition.domain.requisition.RequisitionStatus.SUBM
 import static org.openlmis.requisition.dto.BasicProcessingPeriodDto.START_DATE;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import org.junit.Before;
@@ -55,9 +63,11 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.openlmis.requisition.domain.requisition.Requisition;
 import org.openlmis.requisition.domain.requisition.RequisitionStatus;
+import org.openlmis.requisition.dto.PeriodRequisitionDto;
 import org.openlmis.requisition.dto.ProcessingPeriodDto;
 import org.openlmis.requisition.dto.ProcessingScheduleDto;
 import org.openlmis.requisition.dto.RequisitionPeriodDto;
@@ -75,18 +85,6 @@ import org.springframework.data.domain.Sort.Direction;
 @SuppressWarnings("PMD.TooManyMethods")
 public class PeriodServiceTest {
 
-  @Mock
-  private Requisition initiatedRequsition;
-
-  @Mock
-  private Requisition submittedRequsition;
-
-  @Mock
-  private Requisition authorizedRequsition;
-
-  @Mock
-  private Requisition approvedRequsition;
-
   @Mock
   private PeriodReferenceDataService periodReferenceDataService;
 
@@ -111,6 +109,8 @@ public class PeriodServiceTest {
 
   private ProcessingScheduleDto schedule;
 
+  private Map<List<Object>, List<PeriodRequisitionDto>> requisitions = new HashMap<>();
+
   @Before
   public void setUp() throws Exception {
     schedule = new ProcessingScheduleDtoDataBuilder().build();
@@ -121,40 +121,23 @@ public class PeriodServiceTest {
     period3 = createPeriod(3);
     period4 = createPeriod(4);
 
-    doReturn(INITIATED).when(initiatedRequsition).getStatus();
-    doReturn(SUBMITTED).when(submittedRequsition).getStatus();
-    doReturn(AUTHORIZED).when(authorizedRequsition).getStatus();
-    doReturn(APPROVED).when(approvedRequsition).getStatus();
-
-    doReturn(Collections.emptyList())
-        .when(requisitionRepository)
-        .searchRequisitions(currentPeriod.getId(), facilityId, programId, false);
-    doReturn(singletonList(initiatedRequsition))
-        .when(requisitionRepository)
-        .searchRequisitions(period1.getId(), facilityId, programId, false);
-    doReturn(singletonList(submittedRequsition))
-        .when(requisitionRepository)
-        .searchRequisitions(period2.getId(), facilityId, programId, false);
-    doReturn(singletonList(authorizedRequsition))
-        .when(requisitionRepository)
-        .searchRequisitions(period3.getId(), facilityId, programId, false);
-    doReturn(singletonList(approvedRequsition))
-        .when(requisitionRepository)
-        .searchRequisitions(period4.getId(), facilityId, programId, false);
+    when(requisitionRepository.findPeriodRequisitions(
+        any(UUID.class), eq(programId), anyCollectionOf(UUID.class), anyBoolean()))
+        .thenAnswer(this::findPeriodRequisitions);
+
+    mockRequisitionFound(getRequisition(INITIATED), period1.getId(), facilityId, programId);
+    mockRequisitionFound(getRequisition(SUBMITTED), period2.getId(), facilityId, programId);
+    mockRequisitionFound(getRequisition(AUTHORIZED), period3.getId(), facilityId, programId);
+    mockRequisitionFound(getRequisition(APPROVED), period4.getId(), facilityId, programId);
   }
 
   @Test
   public void shouldReturnCurrentPeriod() throws Exception {
-    Requisition requisition = new Requisition();
-    requisition.setStatus(SUBMITTED);
-
     doReturn(singletonList(currentPeriod))
         .when(periodReferenceDataService)
         .searchByProgramAndFacility(programId, facilityId);
 
-    doReturn(singletonList(requisition))
-        .when(requisitionRepository)
-        .searchRequisitions(currentPeriod.getId(), facilityId, programId, false);
+    mockRequisitionFound(getRequisition(SUBMITTED), currentPeriod.getId(), facilityId, programId);
 
     List<ProcessingPeriodDto> currentPeriods =
         periodService.getCurrentPeriods(programId, facilityId);
@@ -165,9 +148,6 @@ public class PeriodServiceTest {
 
   @Test
   public void shouldReturnCurrentPeriodsIfThereIsMoreThanOne() throws Exception {
-    Requisition requisition = new Requisition();
-    requisition.setStatus(SUBMITTED);
-
     ProcessingPeriodDto period6 = new ProcessingPeriodDto();
     period6.setId(UUID.randomUUID());
     period6.setStartDate(currentPeriod.getStartDate());
@@ -177,12 +157,8 @@ public class PeriodServiceTest {
         .when(periodReferenceDataService)
         .searchByProgramAndFacility(programId, facilityId);
 
-    doReturn(singletonList(requisition))
-        .when(requisitionRepository)
-        .searchRequisitions(currentPeriod.getId(), facilityId, programId, false);
-    doReturn(singletonList(requisition))
-        .when(requisitionRepository)
-        .searchRequisitions(period6.getId(), facilityId, programId, false);
+    mockRequisitionFound(getRequisition(SUBMITTED), currentPeriod.getId(), facilityId, programId);
+    mockRequisitionFound(getRequisition(SUBMITTED), period6.getId(), facilityId, programId);
 
     List<ProcessingPeriodDto> currentPeriods =
         periodService.getCurrentPeriods(programId, facilityId);
@@ -202,9 +178,7 @@ public class PeriodServiceTest {
         .when(periodReferenceDataService)
         .searchByProgramAndFacility(programId, facilityId);
 
-    doReturn(Collections.emptyList())
-        .when(requisitionRepository)
-        .searchRequisitions(currentPeriod.getId(), facilityId, programId, false);
+    mockNoRequisitionFound(currentPeriod.getId(), facilityId, programId);
 
     List<ProcessingPeriodDto> currentPeriods =
         periodService.getCurrentPeriods(programId, facilityId);
@@ -226,16 +200,11 @@ public class PeriodServiceTest {
 
   @Test
   public void shouldReturnCurrentPeriodIfThereIsNonSubmittedRequisition() throws Exception {
-    Requisition requisition = new Requisition();
-    requisition.setStatus(INITIATED);
-
     doReturn(singletonList(currentPeriod))
         .when(periodReferenceDataService)
         .searchByProgramAndFacility(programId, facilityId);
 
-    doReturn(singletonList(requisition))
-        .when(requisitionRepository)
-        .searchRequisitions(currentPeriod.getId(), facilityId, programId, false);
+    mockRequisitionFound(getRequisition(INITIATED), currentPeriod.getId(), facilityId, programId);
 
     List<ProcessingPeriodDto> currentPeriods =
         periodService.getCurrentPeriods(programId, facilityId);
@@ -256,7 +225,9 @@ public class PeriodServiceTest {
     Collection<RequisitionPeriodDto> periods =
         periodService.getPeriods(programId, facilityId, false);
 
-    verify(requisitionRepository, times(5)).searchRequisitions(
+    verify(requisitionRepository, times(1)).findPeriodRequisitions(
+        any(UUID.class), any(UUID.class), anyCollectionOf(UUID.class), anyBoolean());
+    verify(requisitionRepository, never()).searchRequisitions(
         any(UUID.class), any(UUID.class), any(UUID.class), any());
 
     assertNotNull(periods);
@@ -278,13 +249,8 @@ public class PeriodServiceTest {
         .when(periodReferenceDataService)
         .searchByProgramAndFacility(programId, facilityId);
 
-    Requisition requisition = new Requisition();
-    requisition.setId(UUID.randomUUID());
-    requisition.setStatus(INITIATED);
-
-    doReturn(singletonList(requisition))
-        .when(requisitionRepository)
-        .searchRequisitions(currentPeriod.getId(), facilityId, programId, false);
+    Requisition requisition = getRequisition(INITIATED);
+    mockRequisitionFound(requisition, currentPeriod.getId(), facilityId, programId);
 
     Collection<RequisitionPeriodDto> periods =
         periodService.getPeriods(programId, facilityId, false);
@@ -312,9 +278,8 @@ public class PeriodServiceTest {
     anotherRequisition.setStatus(SUBMITTED);
     anotherRequisition.setEmergency(true);
 
-    doReturn(Arrays.asList(requisition, anotherRequisition))
-        .when(requisitionRepository)
-        .searchRequisitions(currentPeriod.getId(), facilityId, programId, true);
+    mockRequisitionsFound(currentPeriod.getId(), facilityId, true,
+        requisition, anotherRequisition);
 
     Collection<RequisitionPeriodDto> periods =
         periodService.getPeriods(programId, facilityId, true);
@@ -351,9 +316,8 @@ public class PeriodServiceTest {
     anotherRequisition.setStatus(RELEASED);
     anotherRequisition.setEmergency(true);
 
-    doReturn(Arrays.asList(requisition, anotherRequisition))
-        .when(requisitionRepository)
-        .searchRequisitions(currentPeriod.getId(), facilityId, programId, true);
+    mockRequisitionsFound(currentPeriod.getId(), facilityId, true,
+        requisition, anotherRequisition);
 
     Collection<RequisitionPeriodDto> periods =
         periodService.getPeriods(programId, facilityId, true);
@@ -363,6 +327,31 @@ public class PeriodServiceTest {
     assertNull(periods.iterator().next().getRequisitionId());
   }
 
+  @Test
+  public void shouldReturnPeriodsMappedById() {
+    Set<UUID> ids = Sets.newHashSet(period1.getId(), period2.getId());
+    doReturn(Arrays.asList(period1, period2))
+        .when(periodReferenceDataService)
+        .findByIds(ids);
+
+    Map<UUID, ProcessingPeriodDto> periods = periodService.getPeriods(ids);
+
+    assertThat(periods.size(), is(2));
+    assertThat(periods.get(period1.getId()), is(period1));
+    assertThat(periods.get(period2.getId()), is(period2));
+    verify(periodReferenceDataService, never()).findOne(any(UUID.class));
+  }
+
+  @Test(expected = ContentNotFoundMessageException.class)
+  public void shouldThrowExceptionIfAnyOfPeriodsDoesNotExist() {
+    Set<UUID> ids = Sets.newHashSet(period1.getId(), UUID.randomUUID());
+    doReturn(singletonList(period1))
+        .when(periodReferenceDataService)
+        .findByIds(ids);
+
+    periodService.getPeriods(ids);
+  }
+
   @Test
   public void shouldReturnPreviousPeriods() throws Exception {
     doReturn(period4)
@@ -549,7 +538,8 @@ public class PeriodServiceTest {
 
     // we mock the requisition search to return a requisition for the first period
     // in facility with ID facilityId
-    mockRequisitionFound(initiatedRequsition, currentPeriod.getId(), facilityId, programId);
+    mockRequisitionFound(getRequisition(INITIATED), currentPeriod.getId(), facilityId,
+        programId);
 
     //when
     ProcessingPeriodDto period = periodService.findPeriod(programId, facility2Id, null, false);
@@ -569,21 +559,40 @@ public class PeriodServiceTest {
 
   private Requisition getRequisition(RequisitionStatus status) {
     Requisition requisition = new Requisition();
+    requisition.setId(UUID.randomUUID());
     requisition.setStatus(status);
     return requisition;
   }
 
   private void mockRequisitionFound(
       Requisition requisition, UUID periodId, UUID facilityId, UUID programId) {
-    doReturn(singletonList(requisition))
-        .when(requisitionRepository)
-        .searchRequisitions(periodId, facilityId, programId, false);
+    mockRequisitionsFound(periodId, facilityId, false, requisition);
+  }
+
+  private void mockRequisitionsFound(UUID periodId, UUID facilityId, boolean emergency,
+                                     Requisition... found) {
+    requisitions.put(Arrays.asList(facilityId, periodId, emergency), Arrays
+        .stream(found)
+        .map(requisition -> new PeriodRequisitionDto(requisition.getId(), periodId,
+            requisition.getStatus(), emergency))
+        .collect(Collectors.toList()));
   }
 
   private void mockNoRequisitionFound(UUID periodId, UUID facilityId, UUID programId) {
-    doReturn(Collections.emptyList())
-        .when(requisitionRepository)
-        .searchRequisitions(periodId, facilityId, programId, false);
+    requisitions.remove(Arrays.asList(facilityId, periodId, false));
+  }
+
+  private List<PeriodRequisitionDto> findPeriodRequisitions(InvocationOnMock invocation) {
+    UUID facility = invocation.getArgumentAt(0, UUID.class);
+    Collection<?> periodIds = invocation.getArgumentAt(2, Collection.class);
+    Boolean emergency = invocation.getArgumentAt(3, Boolean.class);
+
+    return periodIds
+        .stream()
+        .map(periodId -> requisitions.get(Arrays.asList(facility, periodId, emergency)))
+        .filter(Objects::nonNull)
+        .flatMap(List::stream)
+        .collect(Collectors.toList());
   }
 
   private void setMockForFindPeriod() {
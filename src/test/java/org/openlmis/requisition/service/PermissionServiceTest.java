@@ -19,8 +19,13 @@ import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 import static org.openlmis.requisition.i18n.MessageKeys.ERROR_NO_FOLLOWING_PERMISSION;
 import static org.openlmis.requisition.i18n.MessageKeys.ERROR_NO_FOLLOWING_PERMISSION_FOR_REQUISITION_UPDATE;
@@ -81,6 +86,9 @@ public class PermissionServiceTest {
   @Mock
   private RequisitionRepository requisitionRepository;
 
+  @Mock
+  private UserPermissionEvaluator userPermissionEvaluator;
+
   @InjectMocks
   private PermissionService permissionService;
 
@@ -159,6 +167,41 @@ public class PermissionServiceTest {
     verifySupervisionRight(order, REQUISITION_CREATE, requisitionCreateRight);
   }
 
+  @Test
+  public void canViewRequisitionUsingPermissionStrings() {
+    when(userPermissionEvaluator.isEnabled()).thenReturn(true);
+    when(userPermissionEvaluator
+        .hasSupervisionRight(user.getId(), REQUISITION_VIEW, programId, facilityId))
+        .thenReturn(true);
+
+    expectValidationSucceeds(permissionService.canViewRequisition(requisition));
+
+    verify(authenticationHelper, never()).getRight(anyString());
+    verifyZeroInteractions(userReferenceDataService);
+  }
+
+  @Test
+  public void cannotViewRequisitionUsingPermissionStrings() {
+    when(userPermissionEvaluator.isEnabled()).thenReturn(true);
+
+    expectMissingPermission(permissionService.canViewRequisition(requisition), REQUISITION_VIEW);
+
+    verify(userPermissionEvaluator)
+        .hasSupervisionRight(user.getId(), REQUISITION_VIEW, programId, facilityId);
+    verifyZeroInteractions(userReferenceDataService);
+  }
+
+  @Test
+  public void shouldCheckGeneralAdminRightRemotelyWhenPermissionStringsAreUsed() {
+    when(userPermissionEvaluator.isEnabled()).thenReturn(true);
+    hasRight(manageRequisitionTemplateRight, true);
+
+    expectValidationSucceeds(permissionService.canManageRequisitionTemplate());
+
+    verify(userPermissionEvaluator, never())
+        .hasSupervisionRight(any(UUID.class), anyString(), any(UUID.class), any(UUID.class));
+  }
+
   @Test
   public void cannotInitRequisition() {
     expectMissingPermission(permissionService.canInitRequisition(programId, facilityId),
@@ -348,6 +391,21 @@ public class PermissionServiceTest {
         REQUISITION_TEMPLATES_MANAGE);
   }
 
+  @Test
+  public void canViewMetrics() throws Exception {
+    hasRight(manageRequisitionTemplateRight, true);
+
+    permissionService.canViewMetrics();
+
+    InOrder order = inOrder(authenticationHelper, userReferenceDataService);
+    verifyGeneralAdminRight(order, REQUISITION_TEMPLATES_MANAGE, manageRequisitionTemplateRight);
+  }
+
+  @Test
+  public void cannotViewMetrics() throws Exception {
+    expectMissingPermission(permissionService.canViewMetrics(), REQUISITION_TEMPLATES_MANAGE);
+  }
+
   @Test
   public void serviceLevelTokensShouldHaveAllThePermissions() {
     when(securityContext.getAuthentication()).thenReturn(trustedClient);
@@ -370,6 +428,9 @@ public class PermissionServiceTest {
     assertThat(permissionService.canViewReports().isSuccess(), is(true));
     assertThat(permissionService.canEditReportTemplates().isSuccess(), is(true));
     assertThat(permissionService.canManageRequisitionTemplate().isSuccess(), is(true));
+
+    // Metrics permissions
+    assertThat(permissionService.canViewMetrics().isSuccess(), is(true));
   }
 
   @Test
@@ -423,7 +484,7 @@ public class PermissionServiceTest {
   @Test
   public void getPermissionStringsShouldGet() {
     // given
-    when(userReferenceDataService.getPermissionStrings(user.getId()))
+    when(authenticationHelper.getPermissionStrings(user.getId()))
         .thenReturn(Collections.singletonList("permissionString"));
     
     // when
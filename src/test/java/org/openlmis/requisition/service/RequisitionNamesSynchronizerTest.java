@@ -0,0 +1,105 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.service;
+
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonList;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anySetOf;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+import static org.openlmis.requisition.domain.requisition.RequisitionStatus.APPROVED;
+
+import java.util.Collections;
+import java.util.UUID;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.openlmis.requisition.dto.FacilityDto;
+import org.openlmis.requisition.dto.ProgramDto;
+import org.openlmis.requisition.repository.RequisitionRepository;
+import org.openlmis.requisition.service.referencedata.FacilityReferenceDataService;
+import org.openlmis.requisition.service.referencedata.ProgramReferenceDataService;
+import org.openlmis.requisition.testutils.DtoGenerator;
+
+@RunWith(MockitoJUnitRunner.class)
+public class RequisitionNamesSynchronizerTest {
+
+  @Mock
+  private RequisitionRepository requisitionRepository;
+
+  @Mock
+  private FacilityReferenceDataService facilityReferenceDataService;
+
+  @Mock
+  private ProgramReferenceDataService programReferenceDataService;
+
+  @InjectMocks
+  private RequisitionNamesSynchronizer synchronizer;
+
+  private FacilityDto facility = DtoGenerator.of(FacilityDto.class);
+  private ProgramDto program = DtoGenerator.of(ProgramDto.class);
+
+  @Before
+  public void setUp() {
+    when(requisitionRepository.findFacilityIdsByStatus(APPROVED))
+        .thenReturn(singletonList(facility.getId()));
+    when(requisitionRepository.findProgramIdsByStatus(APPROVED))
+        .thenReturn(singletonList(program.getId()));
+    when(facilityReferenceDataService.search(singleton(facility.getId())))
+        .thenReturn(singletonList(facility));
+    when(programReferenceDataService.search(singleton(program.getId())))
+        .thenReturn(singletonList(program));
+  }
+
+  @Test
+  public void shouldCopyNamesFromReferenceDataToApprovedRequisitions() {
+    synchronizer.synchronizeNames();
+
+    verify(requisitionRepository)
+        .updateFacilityNames(facility.getId(), facility.getName(), facility.getCode());
+    verify(requisitionRepository).updateProgramNames(program.getId(), program.getName());
+  }
+
+  @Test
+  public void shouldNotCallReferenceDataIfThereAreNoApprovedRequisitions() {
+    when(requisitionRepository.findFacilityIdsByStatus(APPROVED))
+        .thenReturn(Collections.emptyList());
+    when(requisitionRepository.findProgramIdsByStatus(APPROVED))
+        .thenReturn(Collections.emptyList());
+
+    synchronizer.synchronizeNames();
+
+    verifyZeroInteractions(facilityReferenceDataService, programReferenceDataService);
+  }
+
+  @Test
+  public void shouldNotFailIfReferenceDataIsNotAvailable() {
+    when(facilityReferenceDataService.search(anySetOf(UUID.class)))
+        .thenThrow(new IllegalStateException());
+
+    synchronizer.synchronizeNames();
+
+    verify(requisitionRepository, never())
+        .updateFacilityNames(any(UUID.class), anyString(), anyString());
+  }
+}
@@ -17,8 +17,10 @@ package org.openlmis.requisition.service;
 
 import static com.google.common.collect.Sets.newHashSet;
 import static java.util.Collections.emptyMap;
+import static java.util.Collections.emptySet;
 import static java.util.Collections.singleton;
 import static java.util.Collections.singletonList;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasItems;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
@@ -65,10 +67,16 @@ import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -144,7 +152,6 @@ import org.openlmis.requisition.web.RequisitionForConvertBuilder;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.test.util.ReflectionTestUtils;
 
 @SuppressWarnings({"PMD.TooManyMethods", "PMD.UnusedPrivateField"})
@@ -273,6 +280,7 @@ public class RequisitionServiceTest {
   private static final UUID NON_FULL_PRODUCT_ID = UUID.randomUUID();
   private String productNamePrefix = "Product ";
   private StockCardRangeSummaryDto stockCardRangeSummaryDto;
+  private OutboundRequestExecutor outboundRequestExecutor = new OutboundRequestExecutor(4, 10);
 
   @Before
   public void setUp() {
@@ -281,15 +289,24 @@ public class RequisitionServiceTest {
     generateReasons();
     mockRepositories();
     when(permissionService.getPermissionStrings()).thenReturn(permissionStrings);
+    ReflectionTestUtils.setField(
+        requisitionService, "outboundRequestExecutor", outboundRequestExecutor);
     ReflectionTestUtils.setField(
         stockOnHandRetrieverBuilderFactory,
         "stockCardSummariesStockManagementService",
         stockCardSummariesStockManagementService
     );
+    ReflectionTestUtils.setField(
+        stockOnHandRetrieverBuilderFactory, "outboundRequestExecutor", outboundRequestExecutor);
 
     stockCardRangeSummaryDto = new StockCardRangeSummaryDtoDataBuilder().build();
   }
 
+  @After
+  public void tearDown() {
+    outboundRequestExecutor.destroy();
+  }
+
   @Test
   public void shouldDeleteRequisitionIfItIsInitiated() {
     validateRequisitionDeleteWithStatus(INITIATED);
@@ -658,13 +675,15 @@ public class RequisitionServiceTest {
 
     assertEquals(INITIATED, initiatedRequisition.getStatus());
     assertEquals(1, initiatedRequisition.getNumberOfMonthsInPeriod().longValue());
+    assertEquals(facility.getName(), initiatedRequisition.getFacilityName());
+    assertEquals(facility.getCode(), initiatedRequisition.getFacilityCode());
+    assertEquals(program.getName(), initiatedRequisition.getProgramName());
   }
 
   @Test
   public void shouldInitiatePreviousAdjustedConsumptions() {
     prepareForTestInitiate(SETTING);
-    when(periodService.findPreviousPeriods(any(UUID.class), eq(SETTING - 1)))
-        .thenReturn(singletonList(new ProcessingPeriodDto()));
+    stubPreviousPeriod();
     mockPreviousRequisition();
     mockApprovedProduct(new UUID[]{PRODUCT_ID}, new boolean[]{true});
 
@@ -680,8 +699,7 @@ public class RequisitionServiceTest {
   @Test
   public void shouldInitiateReportOnlyRequisition() {
     prepareForTestInitiate(SETTING);
-    when(periodService.findPreviousPeriods(any(UUID.class), eq(SETTING - 1)))
-        .thenReturn(singletonList(new ProcessingPeriodDto()));
+    stubPreviousPeriod();
     mockPreviousRequisition();
     mockApprovedProduct(new UUID[]{PRODUCT_ID}, new boolean[]{true});
 
@@ -697,8 +715,7 @@ public class RequisitionServiceTest {
   @Test
   public void shouldInitiateRegularRequisitionIfItIsEmergencyForReportOnlyPeriod() {
     prepareForTestInitiate(SETTING);
-    when(periodService.findPreviousPeriods(any(UUID.class), eq(SETTING - 1)))
-        .thenReturn(singletonList(new ProcessingPeriodDto()));
+    stubPreviousPeriod();
     mockPreviousRequisition();
     mockApprovedProduct(new UUID[]{PRODUCT_ID}, new boolean[]{true});
 
@@ -725,8 +742,8 @@ public class RequisitionServiceTest {
     RequisitionLineItem requisitionLineItem = initiatedRequisition.getRequisitionLineItems().get(0);
     assertEquals(Integer.valueOf(ADJUSTED_CONSUMPTION),
         requisitionLineItem.getPreviousAdjustedConsumptions().get(0));
-    verify(requisitionRepository).searchRequisitions(
-        PERIOD_ID, facility.getId(), program.getId(), false);
+    verify(requisitionRepository).findRegularRequisitions(
+        facility.getId(), program.getId(), singletonList(PERIOD_ID));
   }
 
   @Test
@@ -742,8 +759,70 @@ public class RequisitionServiceTest {
 
     UUID previousRequisitionId = initiatedRequisition.getPreviousRequisitions().get(0).getId();
     assertEquals(previousRequisition.getId(), previousRequisitionId);
-    verify(requisitionRepository).searchRequisitions(
-        PERIOD_ID, facility.getId(), program.getId(), false);
+    verify(requisitionRepository).findRegularRequisitions(
+        facility.getId(), program.getId(), singletonList(PERIOD_ID));
+  }
+
+  @Test
+  public void shouldFindPreviousRequisitionsOfAllPeriodsWithSingleQuery() {
+    prepareForTestInitiate(SETTING);
+    mockApprovedProduct(new UUID[]{PRODUCT_ID}, new boolean[]{true});
+
+    ProcessingPeriodDto firstPeriod = new ProcessingPeriodDto();
+    firstPeriod.setId(UUID.randomUUID());
+    ProcessingPeriodDto secondPeriod = new ProcessingPeriodDto();
+    secondPeriod.setId(UUID.randomUUID());
+    when(periodService.findPreviousPeriods(any(UUID.class), eq(SETTING - 1)))
+        .thenReturn(Arrays.asList(firstPeriod, secondPeriod));
+
+    Requisition first = new Requisition();
+    first.setId(UUID.randomUUID());
+    first.setProcessingPeriodId(firstPeriod.getId());
+    first.setRequisitionLineItems(new ArrayList<>());
+    Requisition second = new Requisition();
+    second.setId(UUID.randomUUID());
+    second.setProcessingPeriodId(secondPeriod.getId());
+    second.setRequisitionLineItems(new ArrayList<>());
+
+    when(requisitionRepository.findRegularRequisitions(facility.getId(), program.getId(),
+        Arrays.asList(firstPeriod.getId(), secondPeriod.getId())))
+        .thenReturn(Arrays.asList(second, first));
+
+    Requisition initiatedRequisition = requisitionService.initiate(
+        program, facility, processingPeriod, false,
+        stockAdjustmentReasons, requisitionTemplate);
+
+    assertThat(initiatedRequisition.getPreviousRequisitions(), contains(first, second));
+    verify(requisitionRepository, never())
+        .searchRequisitions(any(), any(), any(), any());
+  }
+
+  @Test
+  public void shouldFetchIndependentDataConcurrentlyDuringInitiate() {
+    prepareForTestInitiate(SETTING);
+    mockApprovedProduct(new UUID[]{PRODUCT_ID}, new boolean[]{true});
+    ApproveProductsAggregator approvedProducts = approvedProductReferenceDataService
+        .getApprovedProducts(facility.getId(), program.getId());
+
+    // each of the fetches waits until the other one has started
+    CountDownLatch started = new CountDownLatch(2);
+    AtomicBoolean concurrent = new AtomicBoolean(true);
+
+    when(approvedProductReferenceDataService.getApprovedProducts(any(), any()))
+        .thenAnswer(invocation -> {
+          awaitOther(started, concurrent);
+          return approvedProducts;
+        });
+    when(idealStockAmountReferenceDataService.search(any(UUID.class), any(UUID.class)))
+        .thenAnswer(invocation -> {
+          awaitOther(started, concurrent);
+          return Lists.newArrayList();
+        });
+
+    requisitionService.initiate(program, facility, processingPeriod, false,
+        stockAdjustmentReasons, requisitionTemplate);
+
+    assertTrue(concurrent.get());
   }
 
   @Test
@@ -918,6 +997,40 @@ public class RequisitionServiceTest {
     assertTrue(initiatedRequisition.getRequisitionLineItems().isEmpty());
   }
 
+  @Test
+  public void shouldNotModifyPreviousPeriodsReturnedByPeriodService() {
+    prepareForGetStockOnHandTest();
+    ProcessingPeriodDto previousPeriod = new ProcessingPeriodDtoDataBuilder()
+        .withProcessingSchedule(processingPeriod.getProcessingSchedule())
+        .withStartDate(processingPeriod.getStartDate().minusMonths(1))
+        .build();
+    ProcessingPeriodDto olderPeriod = new ProcessingPeriodDtoDataBuilder()
+        .withProcessingSchedule(processingPeriod.getProcessingSchedule())
+        .withStartDate(processingPeriod.getStartDate().minusMonths(2))
+        .build();
+
+    // the same list is returned twice, like a response served from the reference data cache
+    List<ProcessingPeriodDto> periods = new ArrayList<>();
+    periods.add(previousPeriod);
+    periods.add(olderPeriod);
+
+    when(periodService
+        .findPreviousPeriods(processingPeriod, new Integer(4)))
+        .thenReturn(periods);
+
+    mockApprovedProduct(new UUID[]{PRODUCT_ID}, new boolean[]{true});
+
+    requisitionService.initiate(
+        program, facility, processingPeriod, false, stockAdjustmentReasons, requisitionTemplate);
+    requisitionService.initiate(
+        program, facility, processingPeriod, false, stockAdjustmentReasons, requisitionTemplate);
+
+    assertThat(periods, contains(previousPeriod, olderPeriod));
+    verify(stockCardRangeSummaryStockManagementService, times(2))
+        .search(any(UUID.class), any(UUID.class), anySetOf(UUID.class), any(String.class),
+            eq(olderPeriod.getStartDate()), eq(processingPeriod.getEndDate()));
+  }
+
   @Test
   public void shouldReleaseRequisitionsAsOrder() {
     // given
@@ -1101,56 +1214,51 @@ public class RequisitionServiceTest {
   }
 
   @Test
-  public void shouldFindAndSortAndPageApprovedRequisitions() {
+  public void shouldFindApprovedRequisitionsPagedByDatabase() {
     // given
-    List<BasicRequisitionDto> requisitionDtos = getBasicRequisitionDtoList();
-
-    String filterAndSortBy = "programName";
-
+    Pageable pageable = new PageRequest(1, 2);
     UUID supplyingDepotId = UUID.randomUUID();
     List<FacilityDto> supplyingDepots = mockSupplyingDepot(supplyingDepotId);
+    final List<Requisition> requisitions = setupStubsForTestApprovedRequisition(supplyingDepots,
+        pageable);
 
-    int pageSize = 3;
-    int pageNumber = 0;
-    Pageable pageable = mockPageable();
-
+    // when
+    Page<RequisitionWithSupplyingDepotsDto> page =
+        requisitionService.searchApprovedRequisitionsWithSortAndFilterAndPaging(null,
+            null, pageable, singletonList(supplyingDepotId));
 
-    setupStubsForTestApprovedRequisition(requisitionDtos, filterAndSortBy, filterAndSortBy,
-        null, null, supplyingDepots, pageable, pageSize, pageNumber);
+    // then
+    assertEquals(5, page.getTotalElements());
+    assertEquals(2, page.getNumberOfElements());
+    assertFalse(page.isFirst());
+    assertFalse(page.isLast());
 
-    List<BasicRequisitionDto> requisitionDtosSubList =
-        requisitionDtos.subList(pageNumber * pageSize, pageNumber * pageSize + pageSize);
+    verify(requisitionRepository).searchApprovedRequisitions(null, emptySet(), emptySet(),
+        singleton(getProgramNodePair(requisitions.get(0))), pageable);
+    verify(facilityReferenceDataService).search(requisitions
+        .stream().map(Requisition::getFacilityId).collect(Collectors.toSet()));
+    verify(programReferenceDataService).search(singleton(program.getId()));
+    verify(facilityReferenceDataService, never()).findAll();
+    verify(programReferenceDataService, never()).findAll();
+  }
 
-    List<RequisitionWithSupplyingDepotsDto> requisitionWithSupplyingDepotDtos =
-        requisitionDtosSubList
-            .stream()
-            .map(requisitionDto ->
-                new RequisitionWithSupplyingDepotsDto(requisitionDto, supplyingDepots))
-            .collect(Collectors.toList());
+  @Test
+  public void shouldNotSearchApprovedRequisitionsIfNoneHasUserManagedSupplyingDepots() {
+    // given
+    Pageable pageable = new PageRequest(0, 10);
+    setupStubsForTestApprovedRequisition(Collections.emptyList(), pageable);
+    when(requisitionRepository.searchApprovedRequisitions(null, emptySet(), emptySet(),
+        emptySet(), pageable)).thenReturn(getPage(Collections.emptyList(), pageable));
 
-    //when
-    Page<RequisitionWithSupplyingDepotsDto> requisitionDtosRetrieved =
+    // when
+    Page<RequisitionWithSupplyingDepotsDto> page =
         requisitionService.searchApprovedRequisitionsWithSortAndFilterAndPaging(null,
-            filterAndSortBy, pageable, Arrays.asList(supplyingDepotId));
+            null, pageable, singletonList(UUID.randomUUID()));
 
-    List<RequisitionWithSupplyingDepotsDto> requisitionDtosRetrievedList =
-        requisitionDtosRetrieved.getContent();
-
-    //then
-    for (int i = 0; i < requisitionDtosRetrievedList.size(); i++) {
-      assertEquals(
-          requisitionWithSupplyingDepotDtos.get(i).getRequisition(),
-          requisitionDtosRetrievedList.get(i).getRequisition()
-      );
-      assertEquals(
-          requisitionWithSupplyingDepotDtos.get(i).getSupplyingDepots(),
-          requisitionDtosRetrievedList.get(i).getSupplyingDepots()
-      );
-    }
-    assertEquals(requisitionDtos.size(), requisitionDtosRetrieved.getTotalElements());
-    assertEquals(pageSize, requisitionDtosRetrieved.getNumberOfElements());
-    assertTrue(requisitionDtosRetrieved.isFirst());
-    assertFalse(requisitionDtosRetrieved.isLast());
+    // then
+    assertEquals(0, page.getTotalElements());
+    verify(facilityReferenceDataService, never()).search(anySetOf(UUID.class));
+    verify(programReferenceDataService, never()).search(anySetOf(UUID.class));
   }
 
   @Test
@@ -1161,22 +1269,8 @@ public class RequisitionServiceTest {
     final String emProgram = "Essential Meds";
     final String em = "Essential";
 
-    UUID supplyingDepotId = UUID.randomUUID();
-    List<FacilityDto> supplyingDepots = mockSupplyingDepot(supplyingDepotId);
-
-    int pageSize = 20;
-    int pageNumber = 0;
-    Pageable pageable = mockPageable();
-
-    List<BasicRequisitionDto> essentialMedsRequisitions = getBasicRequisitionDtoList();
-    List<BasicRequisitionDto> familyPlanningRequisitions = getBasicRequisitionDtoList();
-
-    setupStubsForTestApprovedRequisition(essentialMedsRequisitions, filterBy, emProgram,
-        null, null, supplyingDepots, pageable, pageSize, pageNumber);
-    setupStubsForTestApprovedRequisition(familyPlanningRequisitions, filterBy, fpProgram,
-        null, null, supplyingDepots, pageable, pageSize, pageNumber);
-    setupStubsForTestApprovedRequisition(essentialMedsRequisitions, filterBy, em,
-        null, null, supplyingDepots, pageable, pageSize, pageNumber);
+    Pageable pageable = new PageRequest(0, 10);
+    setupStubsForTestApprovedRequisition(mockSupplyingDepot(UUID.randomUUID()), pageable);
 
     when(programReferenceDataService.search(emProgram)).thenReturn(Lists.newArrayList(program));
     when(programReferenceDataService.search(em)).thenReturn(Lists.newArrayList(program));
@@ -1184,7 +1278,7 @@ public class RequisitionServiceTest {
     //when
     requisitionService.searchApprovedRequisitionsWithSortAndFilterAndPaging(
         Lists.newArrayList(emProgram, em, fpProgram), filterBy, pageable,
-        Arrays.asList(supplyingDepotId));
+        singletonList(UUID.randomUUID()));
 
     // then
     verify(programReferenceDataService).search(emProgram);
@@ -1192,6 +1286,8 @@ public class RequisitionServiceTest {
     verify(programReferenceDataService).search(fpProgram);
     verify(facilityReferenceDataService, never())
         .search(anyString(), anyString(), any(UUID.class), anyBoolean());
+    verify(requisitionRepository).searchApprovedRequisitions(eq(filterBy), eq(emptySet()),
+        eq(singleton(program.getId())), any(), eq(pageable));
   }
 
   @Test
@@ -1201,26 +1297,22 @@ public class RequisitionServiceTest {
     final String code1 = "LL001";
     final String code2 = "LL002";
 
-    UUID supplyingDepotId = UUID.randomUUID();
-    List<FacilityDto> supplyingDepots = mockSupplyingDepot(supplyingDepotId);
+    Pageable pageable = new PageRequest(0, 10);
+    setupStubsForTestApprovedRequisition(mockSupplyingDepot(UUID.randomUUID()), pageable);
 
-    int pageSize = 20;
-    int pageNumber = 0;
-    Pageable pageable = mockPageable();
-
-    setupStubsForTestApprovedRequisition(getBasicRequisitionDtoList(), filterBy, null,
-        code1, null, supplyingDepots, pageable, pageSize, pageNumber);
-    setupStubsForTestApprovedRequisition(getBasicRequisitionDtoList(), filterBy, null,
-        code2, null, supplyingDepots, pageable, pageSize, pageNumber);
+    when(facilityReferenceDataService.search(code1, null, null, false))
+        .thenReturn(Lists.newArrayList(facility));
 
     //when
     requisitionService.searchApprovedRequisitionsWithSortAndFilterAndPaging(
-        Lists.newArrayList(code1, code2), filterBy, pageable, Arrays.asList(supplyingDepotId));
+        Lists.newArrayList(code1, code2), filterBy, pageable, singletonList(UUID.randomUUID()));
 
     // then
     verify(facilityReferenceDataService).search(code1, null, null, false);
     verify(facilityReferenceDataService).search(code2, null, null, false);
-    verify(programReferenceDataService).findAll();
+    verify(programReferenceDataService, never()).search(anyString());
+    verify(requisitionRepository).searchApprovedRequisitions(eq(filterBy),
+        eq(singleton(facility.getId())), eq(emptySet()), any(), eq(pageable));
   }
 
   @Test
@@ -1230,26 +1322,17 @@ public class RequisitionServiceTest {
     final String name1 = "Comfort Health Clinic";
     final String name2 = "Balaka District Hospital";
 
-    UUID supplyingDepotId = UUID.randomUUID();
-    List<FacilityDto> supplyingDepots = mockSupplyingDepot(supplyingDepotId);
-
-    int pageSize = 20;
-    int pageNumber = 0;
-    Pageable pageable = mockPageable();
-
-    setupStubsForTestApprovedRequisition(getBasicRequisitionDtoList(), filterBy, null,
-        null, name1, supplyingDepots, pageable, pageSize, pageNumber);
-    setupStubsForTestApprovedRequisition(getBasicRequisitionDtoList(), filterBy, null,
-        null, name2, supplyingDepots, pageable, pageSize, pageNumber);
+    Pageable pageable = new PageRequest(0, 10);
+    setupStubsForTestApprovedRequisition(mockSupplyingDepot(UUID.randomUUID()), pageable);
 
     //when
     requisitionService.searchApprovedRequisitionsWithSortAndFilterAndPaging(
-        Lists.newArrayList(name1, name2), filterBy, pageable, Arrays.asList(supplyingDepotId));
+        Lists.newArrayList(name1, name2), filterBy, pageable, singletonList(UUID.randomUUID()));
 
     // then
     verify(facilityReferenceDataService).search(null, name1, null, false);
     verify(facilityReferenceDataService).search(null, name2, null, false);
-    verify(programReferenceDataService).findAll();
+    verify(programReferenceDataService, never()).search(anyString());
   }
 
   @Test
@@ -1259,22 +1342,13 @@ public class RequisitionServiceTest {
     final String expression1 = "Essential";
     final String expression2 = "Clinic";
 
-    UUID supplyingDepotId = UUID.randomUUID();
-    List<FacilityDto> supplyingDepots = mockSupplyingDepot(supplyingDepotId);
-
-    int pageSize = 20;
-    int pageNumber = 0;
-    Pageable pageable = mockPageable();
-
-    setupStubsForTestApprovedRequisition(getBasicRequisitionDtoList(), filterBy, expression1,
-        expression1, expression1, supplyingDepots, pageable, pageSize, pageNumber);
-    setupStubsForTestApprovedRequisition(getBasicRequisitionDtoList(), filterBy, expression2,
-        expression2, expression2, supplyingDepots, pageable, pageSize, pageNumber);
+    Pageable pageable = new PageRequest(0, 10);
+    setupStubsForTestApprovedRequisition(mockSupplyingDepot(UUID.randomUUID()), pageable);
 
     //when
     requisitionService.searchApprovedRequisitionsWithSortAndFilterAndPaging(
         Lists.newArrayList(expression1, expression2), filterBy, pageable,
-        Arrays.asList(supplyingDepotId));
+        singletonList(UUID.randomUUID()));
 
     // then
     verify(facilityReferenceDataService).search(expression1, expression1, null, false);
@@ -1288,23 +1362,35 @@ public class RequisitionServiceTest {
     // given
     final String filterBy = "all";
 
-    UUID supplyingDepotId = UUID.randomUUID();
-    List<FacilityDto> supplyingDepots = mockSupplyingDepot(supplyingDepotId);
+    Pageable pageable = new PageRequest(0, 10);
+    setupStubsForTestApprovedRequisition(mockSupplyingDepot(UUID.randomUUID()), pageable);
+
+    //when
+    requisitionService.searchApprovedRequisitionsWithSortAndFilterAndPaging(null, filterBy,
+        pageable, singletonList(UUID.randomUUID()));
 
-    int pageSize = 20;
-    int pageNumber = 0;
-    Pageable pageable = mockPageable();
+    // then
+    verify(facilityReferenceDataService, never())
+        .search(anyString(), anyString(), any(UUID.class), anyBoolean());
+    verify(programReferenceDataService, never()).search(anyString());
+    verify(requisitionRepository).searchApprovedRequisitions(eq(null), eq(emptySet()),
+        eq(emptySet()), any(), eq(pageable));
+  }
 
-    setupStubsForTestApprovedRequisition(getBasicRequisitionDtoList(), filterBy, null,
-        null, null, supplyingDepots, pageable, pageSize, pageNumber);
+  @Test
+  public void shouldNotUpdateRequisitionsWhenSearchingApprovedRequisitions() {
+    // given
+    Pageable pageable = new PageRequest(0, 10);
+    setupStubsForTestApprovedRequisition(mockSupplyingDepot(UUID.randomUUID()), pageable);
 
     //when
-    requisitionService.searchApprovedRequisitionsWithSortAndFilterAndPaging(null, filterBy,
-        pageable, Arrays.asList(supplyingDepotId));
+    requisitionService.searchApprovedRequisitionsWithSortAndFilterAndPaging(null, null,
+        pageable, singletonList(UUID.randomUUID()));
 
     // then
-    verify(facilityReferenceDataService).findAll();
-    verify(programReferenceDataService).findAll();
+    verify(requisitionRepository, never())
+        .updateFacilityNames(any(UUID.class), anyString(), anyString());
+    verify(requisitionRepository, never()).updateProgramNames(any(UUID.class), anyString());
   }
 
   @Test
@@ -1495,13 +1581,6 @@ public class RequisitionServiceTest {
     return new ArrayList<>(Arrays.asList(supplyingDepot));
   }
 
-  private Pageable mockPageable() {
-    Pageable pageable = mock(Pageable.class);
-    Sort sort = new Sort(Sort.Direction.DESC, "programName");
-    when(pageable.getSort()).thenReturn(sort);
-    return pageable;
-  }
-
   private List<ReleasableRequisitionDto> setUpReleaseRequisitionsAsOrder(
       int amount, RequisitionStatus status) {
     if (amount < 1) {
@@ -1572,20 +1651,6 @@ public class RequisitionServiceTest {
     stockAdjustmentReasons = singletonList(reason);
   }
 
-  private List<BasicRequisitionDto> getBasicRequisitionDtoList() {
-    List<BasicRequisitionDto> requisitionDtos = new ArrayList<>();
-    String[] programNames = {"one", "two", "three", "four", "five"};
-
-    for (String programName : programNames) {
-      BasicRequisitionDto requisitionDto = new BasicRequisitionDto();
-      ProgramDto programDto = new ProgramDto();
-      programDto.setName(programName);
-      requisitionDto.setProgram(programDto);
-      requisitionDtos.add(requisitionDto);
-    }
-    return requisitionDtos;
-  }
-
   private void setupStubsForTestFindSupplyItems(
       Requisition requisition, List<RequisitionLineItem> fullSupply,
       List<RequisitionLineItem> nonFullSupply) {
@@ -1607,38 +1672,44 @@ public class RequisitionServiceTest {
         .thenReturn(nonFullSupplyOrderable.getId()));
   }
 
-  private void setupStubsForTestApprovedRequisition(List<BasicRequisitionDto> requisitionDtos,
-                                                    String filterBy, String programName,
-                                                    String facilityCode, String facilityName,
-                                                    List<FacilityDto> supplyingDepots,
-                                                    Pageable pageable, int pageSize,
-                                                    int pageNumber) {
-    final List<UUID> programs = new ArrayList<>();
-    final List<UUID> facilitys = new ArrayList<>();
-    final List<Requisition> requisitions = new ArrayList<>();
+  private List<Requisition> setupStubsForTestApprovedRequisition(
+      List<FacilityDto> supplyingDepots, Pageable pageable) {
+    UUID supervisoryNodeId = UUID.randomUUID();
+    List<Requisition> requisitions = new ArrayList<>();
 
-    when(programReferenceDataService.search(programName))
-        .thenReturn(Collections.emptyList());
-    when(programReferenceDataService.findAll())
-        .thenReturn(Collections.emptyList());
-    when(facilityReferenceDataService.search(eq(facilityCode), eq(facilityName),
-        eq(null), eq(false))).thenReturn(Collections.emptyList());
-    when(facilityReferenceDataService.findAll())
-        .thenReturn(Collections.emptyList());
-    when(requisitionRepository.searchApprovedRequisitions(filterBy, programs, facilitys))
-        .thenReturn(requisitions);
+    for (int i = 0; i < pageable.getPageSize(); i++) {
+      Requisition requisition = new Requisition(UUID.randomUUID(), program.getId(),
+          UUID.randomUUID(), APPROVED, false);
+      requisition.setId(UUID.randomUUID());
+      requisition.setSupervisoryNodeId(supervisoryNodeId);
+      requisitions.add(requisition);
+    }
+
+    Pair<UUID, UUID> pair = getProgramNodePair(requisitions.get(0));
+    Map<Pair<UUID, UUID>, List<FacilityDto>> userManagedDepots = supplyingDepots.isEmpty()
+        ? emptyMap()
+        : ImmutableMap.of(pair, supplyingDepots);
 
-    when(requisitionRepository.findOne(any(UUID.class))).thenReturn(mock(Requisition.class));
+    when(requisitionRepository.findApprovedProgramSupervisoryNodePairs())
+        .thenReturn(singleton(pair));
+    when(requisitionForConvertBuilder.getUserManagedSupplyingDepots(eq(singleton(pair)), any()))
+        .thenReturn(userManagedDepots);
+    when(requisitionRepository.searchApprovedRequisitions(any(), any(), any(), any(),
+        eq(pageable))).thenReturn(getPage(requisitions, pageable, 5));
 
     List<RequisitionWithSupplyingDepotsDto> requisitionsWithDepots = new ArrayList<>();
-    for (BasicRequisitionDto dto : requisitionDtos) {
-      requisitionsWithDepots.add(new RequisitionWithSupplyingDepotsDto(dto, supplyingDepots));
+    for (int i = 0; i < requisitions.size(); i++) {
+      requisitionsWithDepots.add(
+          new RequisitionWithSupplyingDepotsDto(new BasicRequisitionDto(), supplyingDepots));
     }
-    when(requisitionForConvertBuilder.buildRequisitions(any(), any(), any(), any()))
-        .thenReturn(requisitionsWithDepots);
+    when(requisitionForConvertBuilder.buildRequisitions(requisitions, userManagedDepots,
+        emptyMap(), emptyMap())).thenReturn(requisitionsWithDepots);
 
-    when(pageable.getPageSize()).thenReturn(pageSize);
-    when(pageable.getPageNumber()).thenReturn(pageNumber);
+    return requisitions;
+  }
+
+  private Pair<UUID, UUID> getProgramNodePair(Requisition requisition) {
+    return Pair.of(requisition.getProgramId(), requisition.getSupervisoryNodeId());
   }
 
   private void mockPreviousRequisition() {
@@ -1647,20 +1718,29 @@ public class RequisitionServiceTest {
     previousRequisitionLineItem.setOrderableId(PRODUCT_ID);
     previousRequisition = new Requisition();
     previousRequisition.setId(UUID.randomUUID());
+    previousRequisition.setProcessingPeriodId(PERIOD_ID);
     previousRequisition
         .setRequisitionLineItems(singletonList(previousRequisitionLineItem));
 
     when(requisitionRepository
-        .searchRequisitions(any(), eq(facility.getId()), eq(program.getId()), eq(false)))
+        .findRegularRequisitions(eq(facility.getId()), eq(program.getId()), any()))
         .thenReturn(singletonList(previousRequisition));
   }
 
   private void mockNoPreviousRequisition() {
-    when(requisitionRepository
-        .searchRequisitions(any(), any(), any(), any()))
+    when(requisitionRepository.findRegularRequisitions(any(), any(), any()))
         .thenReturn(Collections.emptyList());
   }
 
+  private void awaitOther(CountDownLatch started, AtomicBoolean concurrent)
+      throws InterruptedException {
+    started.countDown();
+
+    if (!started.await(5, TimeUnit.SECONDS)) {
+      concurrent.set(false);
+    }
+  }
+
   private void mockApprovedProduct(UUID[] products, boolean[] fullSupply) {
     assertThat(products.length, is(fullSupply.length));
 
@@ -0,0 +1,113 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.service;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.base.Ticker;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Before;
+import org.junit.Test;
+import org.openlmis.requisition.metrics.Gauge;
+import org.openlmis.requisition.metrics.MetricsRegistry;
+
+public class ResponseCacheTest {
+  private static final String KEY = "key";
+  private static final String VALUE = "value";
+
+  private AtomicLong time = new AtomicLong();
+  private AtomicInteger loads = new AtomicInteger();
+
+  private MetricsRegistry registry = new MetricsRegistry();
+
+  private ResponseCache cache;
+
+  @Before
+  public void setUp() {
+    cache = new ResponseCache("test", 60, 2, new Ticker() {
+      @Override
+      public long read() {
+        return time.get();
+      }
+    });
+    cache.registerMetrics(registry);
+  }
+
+  @Test
+  public void shouldReturnCachedResponse() {
+    assertThat(cache.get(KEY, this::load), is(VALUE));
+    assertThat(cache.get(KEY, this::load), is(VALUE));
+
+    assertThat(loads.get(), is(1));
+    assertThat(getGauge("cache.hits"), is(1.0));
+    assertThat(getGauge("cache.misses"), is(1.0));
+  }
+
+  @Test
+  public void shouldNotCacheNullResponse() {
+    assertThat(cache.get(KEY, () -> null), is(nullValue()));
+    assertThat(cache.get(KEY, this::load), is(VALUE));
+
+    assertThat(loads.get(), is(1));
+  }
+
+  @Test
+  public void shouldReloadExpiredResponse() {
+    cache.get(KEY, this::load);
+    time.addAndGet(TimeUnit.SECONDS.toNanos(61));
+    cache.get(KEY, this::load);
+
+    assertThat(loads.get(), is(2));
+  }
+
+  @Test
+  public void shouldEvictResponsesWhenMaximumSizeIsReached() {
+    cache.get("first", this::load);
+    cache.get("second", this::load);
+    cache.get("third", this::load);
+
+    assertThat(cache.size(), is(2L));
+    assertThat(getGauge("cache.evictions"), is(1.0));
+  }
+
+  @Test
+  public void shouldInvalidateAllResponses() {
+    cache.get(KEY, this::load);
+    cache.invalidateAll();
+    cache.get(KEY, this::load);
+
+    assertThat(loads.get(), is(2));
+  }
+
+  private double getGauge(String name) {
+    return registry
+        .getGauges()
+        .stream()
+        .filter(gauge -> gauge.getName().equals(name))
+        .findFirst()
+        .map(Gauge::getValue)
+        .orElseThrow(IllegalStateException::new);
+  }
+
+  private String load() {
+    loads.incrementAndGet();
+    return VALUE;
+  }
+}
@@ -0,0 +1,155 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.service;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.base.Ticker;
+import com.google.common.collect.Lists;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.openlmis.requisition.metrics.Gauge;
+import org.openlmis.requisition.metrics.MetricsRegistry;
+import org.openlmis.requisition.utils.AuthenticationHelper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@RunWith(MockitoJUnitRunner.class)
+public class UserPermissionEvaluatorTest {
+  private static final String REQUISITION_VIEW = "REQUISITION_VIEW";
+  private static final String REQUISITION_APPROVE = "REQUISITION_APPROVE";
+
+  @Mock
+  private AuthenticationHelper authenticationHelper;
+
+  private AtomicLong time = new AtomicLong();
+
+  private MetricsRegistry registry = new MetricsRegistry();
+
+  private UUID userId = UUID.randomUUID();
+  private UUID programId = UUID.randomUUID();
+  private UUID facilityId = UUID.randomUUID();
+
+  private UserPermissionEvaluator evaluator;
+
+  @Before
+  public void setUp() {
+    evaluator = createEvaluator(60);
+
+    when(authenticationHelper.getPermissionStrings(userId)).thenReturn(Lists.newArrayList(
+        REQUISITION_VIEW + "|" + facilityId + "|" + programId,
+        REQUISITION_APPROVE + "|" + UUID.randomUUID() + "|" + programId,
+        "REQUISITION_TEMPLATES_MANAGE"));
+  }
+
+  @Test
+  public void shouldMatchPermissionString() {
+    assertThat(evaluator.hasSupervisionRight(userId, REQUISITION_VIEW, programId, facilityId),
+        is(true));
+  }
+
+  @Test
+  public void shouldNotMatchPermissionStringForOtherFacility() {
+    assertThat(evaluator.hasSupervisionRight(userId, REQUISITION_APPROVE, programId, facilityId),
+        is(false));
+    assertThat(evaluator.hasSupervisionRight(userId, REQUISITION_VIEW, UUID.randomUUID(),
+        facilityId), is(false));
+  }
+
+  @Test
+  public void shouldRetrievePermissionStringsOnlyOnce() {
+    for (int i = 0; i < 200; ++i) {
+      evaluator.hasSupervisionRight(userId, REQUISITION_VIEW, programId, facilityId);
+    }
+
+    verify(authenticationHelper, times(1)).getPermissionStrings(userId);
+  }
+
+  @Test
+  public void shouldRegisterGaugesOfPermissionCache() {
+    evaluator.hasSupervisionRight(userId, REQUISITION_VIEW, programId, facilityId);
+    evaluator.hasSupervisionRight(userId, REQUISITION_VIEW, programId, facilityId);
+
+    Gauge hits = registry
+        .getGauges()
+        .stream()
+        .filter(gauge -> "cache.hits".equals(gauge.getName()))
+        .findFirst()
+        .orElseThrow(IllegalStateException::new);
+
+    assertThat(hits.getTags().get("cache"), is("permissions"));
+    assertThat(hits.getValue(), is(1.0));
+  }
+
+  @Test
+  public void shouldRetrievePermissionStringsAgainAfterTimeToLive() {
+    evaluator.hasSupervisionRight(userId, REQUISITION_VIEW, programId, facilityId);
+    time.addAndGet(TimeUnit.SECONDS.toNanos(61));
+    evaluator.hasSupervisionRight(userId, REQUISITION_VIEW, programId, facilityId);
+
+    verify(authenticationHelper, times(2)).getPermissionStrings(userId);
+  }
+
+  @Test
+  public void shouldRetrievePermissionStringsAgainAfterInvalidation() {
+    evaluator.hasSupervisionRight(userId, REQUISITION_VIEW, programId, facilityId);
+    evaluator.invalidate(userId);
+    evaluator.hasSupervisionRight(userId, REQUISITION_VIEW, programId, facilityId);
+
+    verify(authenticationHelper, times(2)).getPermissionStrings(userId);
+  }
+
+  @Test
+  public void shouldNotStorePermissionStringsIfDisabled() {
+    evaluator = createEvaluator(0);
+
+    assertThat(evaluator.isEnabled(), is(false));
+    assertThat(evaluator.hasSupervisionRight(userId, REQUISITION_VIEW, programId, facilityId),
+        is(true));
+    assertThat(evaluator.size(), is(0L));
+  }
+
+  @Test
+  public void shouldHandleMissingPermissionStrings() {
+    UUID otherUser = UUID.randomUUID();
+
+    assertThat(evaluator.hasSupervisionRight(otherUser, REQUISITION_VIEW, programId, facilityId),
+        is(false));
+    assertThat(evaluator.size(), is(1L));
+  }
+
+  private UserPermissionEvaluator createEvaluator(long timeToLive) {
+    UserPermissionEvaluator instance = new UserPermissionEvaluator(timeToLive, 10, new Ticker() {
+      @Override
+      public long read() {
+        return time.get();
+      }
+    });
+    ReflectionTestUtils.setField(instance, "authenticationHelper", authenticationHelper);
+    ReflectionTestUtils.setField(instance, "metricsRegistry", registry);
+    instance.registerMetrics();
+    return instance;
+  }
+}
@@ -18,8 +18,14 @@ package org.openlmis.requisition.service.referencedata;
 import static org.hamcrest.Matchers.hasSize;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import com.google.common.collect.Sets;
+import java.net.URI;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -29,9 +35,15 @@ import org.junit.Test;
 import org.openlmis.requisition.dto.FacilityDto;
 import org.openlmis.requisition.dto.MinimalFacilityDto;
 import org.openlmis.requisition.service.BaseCommunicationService;
+import org.openlmis.requisition.service.ResponseCache;
+import org.openlmis.requisition.utils.DynamicPageTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
 
 public class FacilityReferenceDataServiceTest extends BaseReferenceDataServiceTest<FacilityDto> {
 
+  private static final String FACILITIES = "facilities";
+
   FacilityReferenceDataService service;
 
   @Override
@@ -152,4 +164,45 @@ public class FacilityReferenceDataServiceTest extends BaseReferenceDataServiceTe
         .hasQueryParameter("programId", program)
         .hasQueryParameter("supervisoryNodeId", supervisoryNode);
   }
+
+  @Test
+  public void shouldReturnCachedFacilities() {
+    // given
+    ReferenceDataCacheManager cacheManager = mock(ReferenceDataCacheManager.class);
+    when(cacheManager.getCache(FACILITIES))
+        .thenReturn(new ResponseCache(FACILITIES, 60, 10));
+    service.setCacheManager(cacheManager);
+
+    UUID facilityId = UUID.randomUUID();
+
+    // when
+    FacilityDto dto = mockArrayResponseEntityAndGetDto();
+    service.search(Sets.newHashSet(facilityId));
+    List<FacilityDto> result = service.search(Sets.newHashSet(facilityId));
+
+    // then
+    assertThat(result, hasSize(1));
+    assertTrue(result.contains(dto));
+
+    verify(restTemplate, times(1))
+        .exchange(any(URI.class), any(HttpMethod.class), any(HttpEntity.class), any(Class.class));
+  }
+
+  @Test
+  public void shouldNotCacheSearchByPostRequest() {
+    // given
+    ReferenceDataCacheManager cacheManager = mock(ReferenceDataCacheManager.class);
+    when(cacheManager.getCache(FACILITIES))
+        .thenReturn(new ResponseCache(FACILITIES, 60, 10));
+    service.setCacheManager(cacheManager);
+
+    // when
+    mockPageResponseEntity(new MinimalFacilityDto());
+    service.search(null, null, null, true);
+    service.search(null, null, null, true);
+
+    // then
+    verify(restTemplate, times(2)).exchange(any(URI.class), any(HttpMethod.class),
+        any(HttpEntity.class), any(DynamicPageTypeReference.class));
+  }
 }
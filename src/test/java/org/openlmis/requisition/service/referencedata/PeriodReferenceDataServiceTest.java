@@ -15,14 +15,22 @@
 
 package org.openlmis.requisition.service.referencedata;
 
+import static java.util.Collections.emptyList;
 import static org.hamcrest.Matchers.hasSize;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import com.google.common.collect.Sets;
+import java.net.URI;
 import java.time.LocalDate;
 import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import org.junit.Before;
 import org.junit.Test;
@@ -31,7 +39,11 @@ import org.mockito.runners.MockitoJUnitRunner;
 import org.openlmis.requisition.dto.ProcessingPeriodDto;
 import org.openlmis.requisition.service.BaseCommunicationService;
 import org.openlmis.requisition.service.BaseCommunicationServiceTest;
+import org.openlmis.requisition.service.ResponseCache;
+import org.openlmis.requisition.utils.DynamicPageTypeReference;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
 
 @RunWith(MockitoJUnitRunner.class)
 public class PeriodReferenceDataServiceTest
@@ -104,6 +116,32 @@ public class PeriodReferenceDataServiceTest
         .hasQueryParameter("size", 10);
   }
 
+  @Test
+  public void shouldNotShareCachedPeriodsBetweenCallers() {
+    // given
+    ReferenceDataCacheManager cacheManager = mock(ReferenceDataCacheManager.class);
+    when(cacheManager.getCache("processingPeriods"))
+        .thenReturn(new ResponseCache("processingPeriods", 60, 10));
+    service.setCacheManager(cacheManager);
+
+    UUID scheduleId = UUID.randomUUID();
+    LocalDate date = LocalDate.now();
+    PageRequest pageable = new PageRequest(0, 10);
+
+    // when
+    ProcessingPeriodDto period = mockPageResponseEntityAndGetDto();
+    List<ProcessingPeriodDto> first = service.search(scheduleId, date, pageable);
+    first.add(new ProcessingPeriodDto());
+    List<ProcessingPeriodDto> second = service.search(scheduleId, date, pageable);
+
+    // then
+    assertThat(second, hasSize(1));
+    assertTrue(second.contains(period));
+
+    verify(restTemplate, times(1)).exchange(any(URI.class), any(HttpMethod.class),
+        any(HttpEntity.class), any(DynamicPageTypeReference.class));
+  }
+
   @Test
   public void shouldSearchProcessingPeriodsByFacilityAndProgram() {
     // given
@@ -147,4 +185,37 @@ public class PeriodReferenceDataServiceTest
         .hasAuthHeader()
         .hasEmptyBody();
   }
+
+  @Test
+  public void shouldFindProcessingPeriodsByIdsInSingleRequest() {
+    // given
+    Set<UUID> ids = Sets.newHashSet(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+
+    // when
+    ProcessingPeriodDto dto = mockPageResponseEntityAndGetDto();
+    List<ProcessingPeriodDto> result = service.findByIds(ids);
+
+    // then
+    assertThat(result, hasSize(1));
+    assertTrue(result.contains(dto));
+
+    verify(restTemplate, times(1)).exchange(any(URI.class), any(HttpMethod.class),
+        any(HttpEntity.class), any(DynamicPageTypeReference.class));
+
+    RequestSummary request = verifyPageRequest()
+        .isGetRequest()
+        .hasAuthHeader()
+        .hasEmptyBody();
+    ids.forEach(id -> request.hasQueryParameter("id", id));
+  }
+
+  @Test
+  public void shouldReturnEmptyListForFindByIdsIfParameterIsEmptyOrNull() {
+    // given
+    disableAuthCheck();
+
+    // when & then
+    assertThat(service.findByIds(null), hasSize(0));
+    assertThat(service.findByIds(emptyList()), hasSize(0));
+  }
 }
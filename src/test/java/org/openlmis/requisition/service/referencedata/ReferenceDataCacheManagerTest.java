@@ -0,0 +1,93 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.service.referencedata;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.Before;
+import org.junit.Test;
+import org.openlmis.requisition.metrics.MetricsRegistry;
+import org.openlmis.requisition.service.ResponseCache;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class ReferenceDataCacheManagerTest {
+  private static final String FACILITIES = "facilities";
+  private static final String PROGRAMS = "programs";
+
+  private MetricsRegistry registry = new MetricsRegistry();
+  private ReferenceDataCacheManager cacheManager = new ReferenceDataCacheManager();
+
+  @Before
+  public void setUp() {
+    MockEnvironment environment = new MockEnvironment()
+        .withProperty("referencedata.cache.facilities.timeToLive", "300")
+        .withProperty("referencedata.cache.programs.timeToLive", "0");
+
+    ReflectionTestUtils.setField(cacheManager, "environment", environment);
+    ReflectionTestUtils.setField(cacheManager, "metricsRegistry", registry);
+    ReflectionTestUtils.setField(cacheManager, "defaultMaxSize", 100L);
+  }
+
+  @Test
+  public void shouldCreateCacheOnlyOnce() {
+    ResponseCache cache = cacheManager.getCache(FACILITIES);
+
+    assertThat(cache, is(notNullValue()));
+    assertThat(cacheManager.getCache(FACILITIES), is(sameInstance(cache)));
+  }
+
+  @Test
+  public void shouldNotCreateCacheIfTimeToLiveIsNotPositive() {
+    assertThat(cacheManager.getCache(PROGRAMS), is(nullValue()));
+  }
+
+  @Test
+  public void shouldNotCreateCacheIfTimeToLiveIsNotSet() {
+    assertThat(cacheManager.getCache("orderables"), is(nullValue()));
+  }
+
+  @Test
+  public void shouldRegisterGaugesOfCreatedCaches() {
+    cacheManager.getCache(FACILITIES).get("key", () -> "value");
+    cacheManager.getCache(PROGRAMS);
+
+    Set<String> cacheNames = registry
+        .getGauges()
+        .stream()
+        .map(gauge -> gauge.getTags().get("cache"))
+        .collect(Collectors.toSet());
+
+    assertThat(cacheNames, contains(FACILITIES));
+  }
+
+  @Test
+  public void shouldInvalidateAllCaches() {
+    ResponseCache cache = cacheManager.getCache(FACILITIES);
+    cache.get("key", () -> "value");
+
+    cacheManager.invalidateAll();
+
+    assertThat(cache.size(), is(0L));
+  }
+}
@@ -0,0 +1,151 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.service.stockmanagement;
+
+import static java.util.Collections.singletonList;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anySetOf;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.assertj.core.util.Lists;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.openlmis.requisition.domain.requisition.StockData;
+import org.openlmis.requisition.dto.ProcessingPeriodDto;
+import org.openlmis.requisition.dto.stockmanagement.StockCardSummaryDto;
+import org.openlmis.requisition.service.OutboundRequestExecutor;
+import org.openlmis.requisition.service.referencedata.ApproveProductsAggregator;
+import org.openlmis.requisition.testutils.ApprovedProductDtoDataBuilder;
+import org.openlmis.requisition.testutils.OrderableDtoDataBuilder;
+import org.openlmis.requisition.testutils.ProcessingPeriodDtoDataBuilder;
+import org.openlmis.requisition.testutils.StockCardSummaryDtoDataBuilder;
+
+@RunWith(MockitoJUnitRunner.class)
+public class StockDataRetrieverTest {
+
+  @Mock
+  private StockCardSummariesStockManagementService stockCardSummariesStockManagementService;
+
+  private OutboundRequestExecutor executor = new OutboundRequestExecutor(2, 10);
+
+  private UUID programId = UUID.randomUUID();
+  private UUID facilityId = UUID.randomUUID();
+  private UUID orderableId = UUID.randomUUID();
+
+  private ProcessingPeriodDto period = new ProcessingPeriodDtoDataBuilder()
+      .withStartDate(LocalDate.of(2017, 1, 1))
+      .withEndDate(LocalDate.of(2017, 1, 31))
+      .build();
+  private LocalDate beginningBalanceDate = LocalDate.of(2016, 12, 31);
+
+  private ApproveProductsAggregator products;
+
+  @Before
+  public void setUp() {
+    products = new ApproveProductsAggregator(
+        singletonList(new ApprovedProductDtoDataBuilder()
+            .withOrderable(new OrderableDtoDataBuilder()
+                .withId(orderableId)
+                .withProgramOrderable(programId, true)
+                .build())
+            .build()),
+        programId);
+
+    mockStockCardSummary(period.getEndDate(), 15);
+    mockStockCardSummary(beginningBalanceDate, 10);
+  }
+
+  @After
+  public void tearDown() {
+    executor.destroy();
+  }
+
+  @Test
+  public void shouldRetrieveStockOnHandAndBeginningBalances() {
+    StockData stockData = getRetriever(standard(), standard()).getAsync().join();
+
+    assertThat(stockData.getStockOnHand(orderableId), is(15));
+    assertThat(stockData.getBeginningBalance(orderableId), is(10));
+  }
+
+  @Test
+  public void shouldNotRetrieveSnapshotThatIsNotNeeded() {
+    StockData stockData = getRetriever(standard(), new EmptyStockOnHandRetrieverBuilder())
+        .getAsync()
+        .join();
+
+    assertThat(stockData.getStockOnHand(orderableId), is(15));
+    assertThat(stockData.getBeginningBalance(orderableId), is(nullValue()));
+    verify(stockCardSummariesStockManagementService, times(1))
+        .search(any(UUID.class), any(UUID.class), anySetOf(UUID.class), any(LocalDate.class));
+  }
+
+  @Test
+  public void shouldRetrieveBothSnapshotsConcurrently() {
+    CountDownLatch latch = new CountDownLatch(2);
+    when(stockCardSummariesStockManagementService
+        .search(any(UUID.class), any(UUID.class), anySetOf(UUID.class), any(LocalDate.class)))
+        .thenAnswer(invocation -> {
+          latch.countDown();
+          assertTrue(latch.await(5, TimeUnit.SECONDS));
+          return Lists.newArrayList();
+        });
+
+    StockData stockData = getRetriever(standard(), standard()).getAsync().join();
+
+    assertThat(stockData.hasDataFor(orderableId), is(false));
+  }
+
+  private StockDataRetriever getRetriever(StockOnHandRetrieverBuilder stockOnHandBuilder,
+      StockOnHandRetrieverBuilder beginningBalanceBuilder) {
+    return new StockDataRetriever(stockOnHandBuilder, beginningBalanceBuilder, executor)
+        .forProgram(programId)
+        .forFacility(facilityId)
+        .forProducts(products)
+        .forPeriod(period);
+  }
+
+  private StockOnHandRetrieverBuilder standard() {
+    StockOnHandRetrieverBuilder builder = new StandardStockOnHandRetrieverBuilder();
+    builder.setStockCardSummariesService(stockCardSummariesStockManagementService);
+    return builder;
+  }
+
+  private void mockStockCardSummary(LocalDate asOfDate, int stockOnHand) {
+    StockCardSummaryDto summary = new StockCardSummaryDtoDataBuilder()
+        .withOrderableId(orderableId)
+        .withStockOnHand(stockOnHand)
+        .build();
+
+    when(stockCardSummariesStockManagementService
+        .search(programId, facilityId, products.getFullSupplyOrderableIds(), asOfDate))
+        .thenReturn(singletonList(summary));
+  }
+}
@@ -0,0 +1,168 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.service.stockmanagement;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.containing;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.openlmis.requisition.dto.stockmanagement.StockEventDto;
+import org.openlmis.requisition.dto.stockmanagement.StockEventLineItemDto;
+import org.openlmis.requisition.exception.ExternalApiException;
+import org.openlmis.requisition.service.AuthService;
+import org.openlmis.requisition.service.DataRetrievalException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class StockEventStockManagementServiceSubmitAllTest {
+  private static final String STOCK_EVENTS_URL = "/api/stockEvents";
+
+  @Rule
+  public WireMockRule wireMockRule = new WireMockRule(wireMockConfig().dynamicPort());
+
+  private StockEventExecutor stockEventExecutor = new StockEventExecutor(2, 10);
+
+  private StockEventStockManagementService service = new StockEventStockManagementService();
+
+  private UUID programId = UUID.randomUUID();
+  private UUID userId = UUID.randomUUID();
+
+  @Before
+  public void setUp() {
+    AuthService authService = mock(AuthService.class);
+    when(authService.obtainAccessToken()).thenReturn("token");
+
+    service.setAuthService(authService);
+    ReflectionTestUtils.setField(service, "objectMapper", new ObjectMapper());
+    ReflectionTestUtils.setField(service, "stockEventExecutor", stockEventExecutor);
+    ReflectionTestUtils.setField(service, "stockmanagementUrl",
+        "http://localhost:" + wireMockRule.port());
+
+    wireMockRule.stubFor(post(urlEqualTo(STOCK_EVENTS_URL))
+        .willReturn(aResponse()
+            .withStatus(201)
+            .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+            .withBody('"' + UUID.randomUUID().toString() + '"')));
+  }
+
+  @After
+  public void tearDown() {
+    stockEventExecutor.destroy();
+  }
+
+  @Test
+  public void shouldMergeEventsForTheSameFacilityAndProgram() {
+    UUID facilityId = UUID.randomUUID();
+    StockEventDto first = generateStockEvent(facilityId);
+    StockEventDto second = generateStockEvent(facilityId);
+
+    Map<UUID, RuntimeException> errors = service
+        .submitAll(toMap(UUID.randomUUID(), first, UUID.randomUUID(), second));
+
+    assertThat(errors.isEmpty(), is(true));
+    wireMockRule.verify(1, postRequestedFor(urlEqualTo(STOCK_EVENTS_URL))
+        .withRequestBody(containing(getOrderableId(first)))
+        .withRequestBody(containing(getOrderableId(second))));
+  }
+
+  @Test
+  public void shouldSubmitEventsForDifferentFacilitiesSeparately() {
+    Map<UUID, RuntimeException> errors = service.submitAll(toMap(
+        UUID.randomUUID(), generateStockEvent(UUID.randomUUID()),
+        UUID.randomUUID(), generateStockEvent(UUID.randomUUID())));
+
+    assertThat(errors.isEmpty(), is(true));
+    wireMockRule.verify(2, postRequestedFor(urlEqualTo(STOCK_EVENTS_URL)));
+  }
+
+  @Test
+  public void shouldReturnErrorsForRequisitionsOfRejectedEvent() {
+    UUID rejectedFacilityId = UUID.randomUUID();
+    wireMockRule.stubFor(post(urlEqualTo(STOCK_EVENTS_URL))
+        .withRequestBody(containing(rejectedFacilityId.toString()))
+        .willReturn(aResponse()
+            .withStatus(400)
+            .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+            .withBody("{\"messageKey\":\"key\",\"message\":\"message\"}")));
+
+    UUID rejected = UUID.randomUUID();
+    UUID accepted = UUID.randomUUID();
+    Map<UUID, RuntimeException> errors = service.submitAll(toMap(
+        rejected, generateStockEvent(rejectedFacilityId),
+        accepted, generateStockEvent(UUID.randomUUID())));
+
+    assertThat(errors, hasKey(rejected));
+    assertThat(errors, not(hasKey(accepted)));
+    assertThat(errors.get(rejected), is(instanceOf(ExternalApiException.class)));
+  }
+
+  @Test
+  public void shouldReturnErrorsForAllRequisitionsOfMergedEvent() {
+    UUID facilityId = UUID.randomUUID();
+    wireMockRule.stubFor(post(urlEqualTo(STOCK_EVENTS_URL))
+        .willReturn(aResponse().withStatus(500)));
+
+    UUID first = UUID.randomUUID();
+    UUID second = UUID.randomUUID();
+    Map<UUID, RuntimeException> errors = service.submitAll(toMap(
+        first, generateStockEvent(facilityId), second, generateStockEvent(facilityId)));
+
+    assertThat(errors.get(first), is(instanceOf(DataRetrievalException.class)));
+    assertThat(errors.get(second), is(instanceOf(DataRetrievalException.class)));
+  }
+
+  private StockEventDto generateStockEvent(UUID facilityId) {
+    StockEventLineItemDto lineItem = new StockEventLineItemDto();
+    lineItem.setOrderableId(UUID.randomUUID());
+    lineItem.setQuantity(10);
+
+    return new StockEventDto(programId, facilityId, Collections.singletonList(lineItem), userId);
+  }
+
+  private String getOrderableId(StockEventDto event) {
+    return event.getLineItems().get(0).getOrderableId().toString();
+  }
+
+  private Map<UUID, StockEventDto> toMap(UUID firstId, StockEventDto first, UUID secondId,
+      StockEventDto second) {
+    Map<UUID, StockEventDto> events = new LinkedHashMap<>();
+    events.put(firstId, first);
+    events.put(secondId, second);
+
+    return events;
+  }
+}
@@ -17,6 +17,7 @@ package org.openlmis.requisition.service.stockmanagement;
 
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
 import static org.junit.Assert.assertThat;
 
 import org.junit.Test;
@@ -91,4 +92,12 @@ public class StockOnHandRetrieverBuilderFactoryTest {
         is(stockCardSummariesStockManagementService)
     );
   }
+
+  @Test
+  public void shouldCreateStockDataRetriever() {
+    RequisitionTemplate template = new RequisitionTemplateDataBuilder()
+        .withPopulateStockOnHandFromStockCards().withAllColumns().build();
+
+    assertThat(factory.getStockDataInstance(template), is(notNullValue()));
+  }
 }
@@ -21,9 +21,14 @@ import static org.junit.Assert.assertThat;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.UUID;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -36,12 +41,17 @@ import org.openlmis.requisition.exception.AuthenticationMessageException;
 import org.openlmis.requisition.service.referencedata.RightReferenceDataService;
 import org.openlmis.requisition.service.referencedata.UserReferenceDataService;
 import org.openlmis.requisition.testutils.DtoGenerator;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
+@SuppressWarnings("PMD.TooManyMethods")
 @RunWith(MockitoJUnitRunner.class)
 public class AuthenticationHelperTest {
+  private static final String RIGHT_NAME = "rightName";
 
   @Mock
   private UserReferenceDataService userReferenceDataService;
@@ -54,6 +64,9 @@ public class AuthenticationHelperTest {
 
   private UUID userId = UUID.randomUUID();
 
+  private long remoteLookups;
+  private long memoizedLookups;
+
   @Before
   public void setUp() {
     Authentication authentication = mock(Authentication.class);
@@ -63,6 +76,14 @@ public class AuthenticationHelperTest {
     when(securityContext.getAuthentication()).thenReturn(authentication);
 
     SecurityContextHolder.setContext(securityContext);
+
+    remoteLookups = AuthenticationHelper.REMOTE_LOOKUPS.getCount();
+    memoizedLookups = AuthenticationHelper.MEMOIZED_LOOKUPS.getCount();
+  }
+
+  @After
+  public void tearDown() {
+    RequestContextHolder.resetRequestAttributes();
   }
 
   @Test
@@ -94,7 +115,7 @@ public class AuthenticationHelperTest {
     when(rightReferenceDataService.findRight(anyString())).thenReturn(right);
 
     // when
-    RightDto dto = authenticationHelper.getRight("rightName");
+    RightDto dto = authenticationHelper.getRight(RIGHT_NAME);
 
     // then
     assertNotNull(dto);
@@ -107,6 +128,109 @@ public class AuthenticationHelperTest {
     when(rightReferenceDataService.findRight(anyString())).thenReturn(null);
 
     // when
-    authenticationHelper.getRight("rightName");
+    authenticationHelper.getRight(RIGHT_NAME);
+  }
+
+  @Test
+  public void shouldRetrieveUserOnlyOncePerRequest() {
+    // given
+    startRequest();
+    UserDto userMock = DtoGenerator.of(UserDto.class);
+    when(userReferenceDataService.findOne(userId)).thenReturn(userMock);
+
+    // when
+    authenticationHelper.getCurrentUser();
+    UserDto user = authenticationHelper.getCurrentUser();
+
+    // then
+    assertThat(user, is(userMock));
+    verify(userReferenceDataService, times(1)).findOne(userId);
+    assertThat(AuthenticationHelper.REMOTE_LOOKUPS.getCount() - remoteLookups, is(1L));
+    assertThat(AuthenticationHelper.MEMOIZED_LOOKUPS.getCount() - memoizedLookups, is(1L));
+  }
+
+  @Test
+  public void shouldRetrieveUserAgainInNextRequest() {
+    // given
+    when(userReferenceDataService.findOne(userId)).thenReturn(DtoGenerator.of(UserDto.class));
+
+    // when
+    startRequest();
+    authenticationHelper.getCurrentUser();
+    startRequest();
+    authenticationHelper.getCurrentUser();
+
+    // then
+    verify(userReferenceDataService, times(2)).findOne(userId);
+    assertThat(AuthenticationHelper.MEMOIZED_LOOKUPS.getCount() - memoizedLookups, is(0L));
+  }
+
+  @Test
+  public void shouldNotMemoizeOutsideOfRequest() {
+    // given
+    when(userReferenceDataService.findOne(userId)).thenReturn(DtoGenerator.of(UserDto.class));
+
+    // when
+    authenticationHelper.getCurrentUser();
+    authenticationHelper.getCurrentUser();
+
+    // then
+    verify(userReferenceDataService, times(2)).findOne(userId);
+    assertThat(AuthenticationHelper.REMOTE_LOOKUPS.getCount() - remoteLookups, is(2L));
+  }
+
+  @Test
+  public void shouldRetrieveRightOnlyOncePerRequest() {
+    // given
+    startRequest();
+    RightDto right = DtoGenerator.of(RightDto.class);
+    when(rightReferenceDataService.findRight(RIGHT_NAME)).thenReturn(right);
+
+    // when
+    authenticationHelper.getRight(RIGHT_NAME);
+    authenticationHelper.getRight(RIGHT_NAME);
+
+    // then
+    verify(rightReferenceDataService, times(1)).findRight(RIGHT_NAME);
+  }
+
+  @Test
+  public void shouldRetrievePermissionStringsOnlyOncePerRequest() {
+    // given
+    startRequest();
+    List<String> permissionStrings = Collections.singletonList("REQUISITION_VIEW");
+    when(userReferenceDataService.getPermissionStrings(userId)).thenReturn(permissionStrings);
+
+    // when
+    authenticationHelper.getPermissionStrings(userId);
+    List<String> result = authenticationHelper.getPermissionStrings(userId);
+
+    // then
+    assertThat(result, is(permissionStrings));
+    verify(userReferenceDataService, times(1)).getPermissionStrings(userId);
+  }
+
+  @Test
+  public void shouldNotMemoizeMissingRight() {
+    // given
+    startRequest();
+    when(rightReferenceDataService.findRight(RIGHT_NAME)).thenReturn(null);
+
+    // when
+    for (int i = 0; i < 2; ++i) {
+      try {
+        authenticationHelper.getRight(RIGHT_NAME);
+      } catch (AuthenticationMessageException ex) {
+        assertNotNull(ex.getMessage());
+      }
+    }
+
+    // then
+    verify(rightReferenceDataService, times(2)).findRight(RIGHT_NAME);
+  }
+
+  private void startRequest() {
+    RequestContextHolder.setRequestAttributes(
+        new ServletRequestAttributes(new MockHttpServletRequest()));
   }
 }
@@ -0,0 +1,84 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.utils;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.openlmis.requisition.i18n.MessageKeys.ERROR_INVALID_CONTINUATION_TOKEN;
+
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Base64;
+import java.util.UUID;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.openlmis.requisition.domain.requisition.Requisition;
+import org.openlmis.requisition.exception.ValidationMessageException;
+
+public class ContinuationTokenTest {
+
+  @Rule
+  public ExpectedException exception = ExpectedException.none();
+
+  private ZonedDateTime createdDate = ZonedDateTime
+      .of(2018, 10, 5, 14, 30, 15, 123456000, ZoneOffset.UTC);
+  private UUID id = UUID.randomUUID();
+
+  @Test
+  public void shouldDecodeEncodedToken() {
+    ContinuationToken token = new ContinuationToken(createdDate, id);
+
+    assertThat(ContinuationToken.decode(token.encode()), is(token));
+  }
+
+  @Test
+  public void shouldCreateTokenForEntity() {
+    Requisition requisition = new Requisition();
+    requisition.setId(id);
+    requisition.setCreatedDate(createdDate.withZoneSameInstant(ZoneId.of("Africa/Blantyre")));
+
+    ContinuationToken token = ContinuationToken.of(requisition);
+
+    assertThat(token, is(new ContinuationToken(createdDate, id)));
+  }
+
+  @Test
+  public void shouldReturnNullForEmptyValue() {
+    assertThat(ContinuationToken.decode(""), is(nullValue()));
+    assertThat(ContinuationToken.decode(null), is(nullValue()));
+  }
+
+  @Test
+  public void shouldThrowExceptionIfTokenIsNotBase64() {
+    exception.expect(ValidationMessageException.class);
+    exception.expectMessage(ERROR_INVALID_CONTINUATION_TOKEN);
+
+    ContinuationToken.decode("not a token!");
+  }
+
+  @Test
+  public void shouldThrowExceptionIfTokenHasWrongContent() {
+    exception.expect(ValidationMessageException.class);
+    exception.expectMessage(ERROR_INVALID_CONTINUATION_TOKEN);
+
+    ContinuationToken.decode(Base64.getUrlEncoder()
+        .encodeToString(("yesterday_" + id).getBytes(StandardCharsets.UTF_8)));
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.utils;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import org.junit.Test;
+import org.openlmis.requisition.domain.requisition.Requisition;
+
+public class KeysetPageTest {
+  private Requisition first = newRequisition(1);
+  private Requisition second = newRequisition(2);
+  private Requisition third = newRequisition(3);
+
+  @Test
+  public void shouldReturnLastPageIfThereAreNoMoreElements() {
+    KeysetPage<Requisition> page = KeysetPage
+        .of(Arrays.asList(first, second), new KeysetPageable(null, 2));
+
+    assertThat(page.getContent(), contains(first, second));
+    assertThat(page.getContinuationToken(), is(nullValue()));
+    assertThat(page.nextPageable(), is(nullValue()));
+    assertTrue(page.isFirst());
+    assertTrue(page.isLast());
+  }
+
+  @Test
+  public void shouldReturnTokenOfLastElementIfThereAreMoreElements() {
+    KeysetPage<Requisition> page = KeysetPage
+        .of(Arrays.asList(first, second, third), new KeysetPageable(null, 2));
+
+    assertThat(page.getContent(), contains(first, second));
+    assertThat(page.getContinuationToken(), is(ContinuationToken.of(second).encode()));
+    assertThat(page.nextPageable(),
+        is(new KeysetPageable(ContinuationToken.of(second), 2)));
+    assertFalse(page.isLast());
+  }
+
+  @Test
+  public void shouldNotCountElements() {
+    KeysetPage<Requisition> page = KeysetPage
+        .of(Arrays.asList(second, third), new KeysetPageable(ContinuationToken.of(first), 5));
+
+    assertThat(page.getTotalElements(), is(-1L));
+    assertThat(page.getTotalPages(), is(-1));
+    assertFalse(page.isFirst());
+  }
+
+  @Test
+  public void shouldKeepContinuationTokenWhenContentIsReplaced() {
+    KeysetPage<Requisition> page = KeysetPage
+        .of(Arrays.asList(first, second, third), new KeysetPageable(null, 2));
+
+    KeysetPage<String> converted = page.withContent(Arrays.asList("first", "second"));
+    List<String> content = converted.getContent();
+
+    assertThat(content, contains("first", "second"));
+    assertThat(converted.getContinuationToken(), is(page.getContinuationToken()));
+  }
+
+  private Requisition newRequisition(int day) {
+    Requisition requisition = new Requisition();
+    requisition.setId(UUID.randomUUID());
+    requisition.setCreatedDate(ZonedDateTime.of(2018, 1, day, 0, 0, 0, 0, ZoneOffset.UTC));
+    return requisition;
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.utils;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+import org.junit.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+public class KeysetPageableTest {
+  private PageRequest pageRequest = new PageRequest(3, 25);
+  private ContinuationToken token = new ContinuationToken(
+      ZonedDateTime.now(ZoneOffset.UTC), UUID.randomUUID());
+
+  @Test
+  public void shouldReturnGivenPageableIfThereIsNoContinuationToken() {
+    assertThat(KeysetPageable.of(null, pageRequest), is(sameInstance(pageRequest)));
+  }
+
+  @Test
+  public void shouldReturnFirstPageForEmptyContinuationToken() {
+    Pageable pageable = KeysetPageable.of("", pageRequest);
+
+    assertThat(pageable, is(new KeysetPageable(null, 25)));
+  }
+
+  @Test
+  public void shouldReturnPageAfterContinuationToken() {
+    Pageable pageable = KeysetPageable.of(token.encode(), pageRequest);
+
+    assertThat(pageable, instanceOf(KeysetPageable.class));
+    assertThat(((KeysetPageable) pageable).getContinuationToken(), is(token));
+    assertThat(pageable.getPageSize(), is(25));
+    assertThat(pageable.getOffset(), is(0));
+  }
+
+  @Test
+  public void shouldSortByCreatedDateAndId() {
+    Sort sort = new KeysetPageable(token, 10).getSort();
+
+    assertThat(sort, contains(
+        new Sort.Order(Sort.Direction.ASC, "createdDate"),
+        new Sort.Order(Sort.Direction.ASC, "id")));
+  }
+
+  @Test
+  public void shouldReturnFirstPage() {
+    KeysetPageable first = (KeysetPageable) new KeysetPageable(token, 10).first();
+
+    assertThat(first.getContinuationToken(), is(nullValue()));
+    assertThat(first.getPageSize(), is(10));
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.utils;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import org.junit.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+public class UncountedPageRequestTest {
+  private static final String FIRST = "first";
+  private static final String SECOND = "second";
+
+  private Pageable pageable = new PageRequest(1, 2);
+
+  @Test
+  public void shouldReturnGivenPageableIfElementsShouldBeCounted() {
+    assertThat(UncountedPageRequest.of(true, pageable), is(sameInstance(pageable)));
+  }
+
+  @Test
+  public void shouldReturnGivenPageableIfItIsKeysetPageable() {
+    Pageable keyset = new KeysetPageable(null, 2);
+
+    assertThat(UncountedPageRequest.of(false, keyset), is(sameInstance(keyset)));
+  }
+
+  @Test
+  public void shouldReturnUncountedPageRequestIfElementsShouldNotBeCounted() {
+    Pageable uncounted = UncountedPageRequest.of(false, pageable);
+
+    assertThat(uncounted, is(instanceOf(UncountedPageRequest.class)));
+    assertThat(uncounted.getPageNumber(), is(1));
+    assertThat(uncounted.getPageSize(), is(2));
+    assertThat(uncounted.next(), is(instanceOf(UncountedPageRequest.class)));
+    assertThat(uncounted.next().getPageNumber(), is(2));
+  }
+
+  @Test
+  public void shouldRemoveExtraElementAndReportNextPage() {
+    Page<String> page = UncountedPageRequest
+        .getPage(Arrays.asList(FIRST, SECOND, "third"), new UncountedPageRequest(pageable));
+
+    assertThat(page.getContent(), contains(FIRST, SECOND));
+    assertThat(page.getTotalElements(), is(5L));
+    assertTrue(page.hasNext());
+  }
+
+  @Test
+  public void shouldReturnLastPageIfThereIsNoExtraElement() {
+    Page<String> page = UncountedPageRequest
+        .getPage(Arrays.asList(FIRST, SECOND), new UncountedPageRequest(pageable));
+
+    assertThat(page.getContent(), contains(FIRST, SECOND));
+    assertThat(page.getTotalElements(), is(4L));
+    assertFalse(page.hasNext());
+    assertTrue(page.isLast());
+  }
+}
@@ -18,7 +18,11 @@ package org.openlmis.requisition.web;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 import java.time.LocalDate;
@@ -40,13 +44,16 @@ import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
-import org.openlmis.requisition.domain.requisition.Requisition;
 import org.openlmis.requisition.domain.requisition.RequisitionStatus;
-import org.openlmis.requisition.domain.requisition.StatusChange;
 import org.openlmis.requisition.dto.GeographicZoneDto;
 import org.openlmis.requisition.dto.MinimalFacilityDto;
 import org.openlmis.requisition.dto.ProcessingPeriodDto;
 import org.openlmis.requisition.dto.ProcessingScheduleDto;
+import org.openlmis.requisition.dto.ProgramDto;
+import org.openlmis.requisition.dto.ReportingRateReportDto;
+import org.openlmis.requisition.dto.ReportingRateRequisitionDto;
+import org.openlmis.requisition.dto.RequisitionCompletionDto;
+import org.openlmis.requisition.repository.RequisitionRepository;
 import org.openlmis.requisition.service.referencedata.FacilityReferenceDataService;
 import org.openlmis.requisition.service.referencedata.GeographicZoneReferenceDataService;
 import org.openlmis.requisition.service.referencedata.PeriodReferenceDataService;
@@ -68,6 +75,9 @@ public class ReportingRateDtoBuilderTest {
   @Mock
   private GeographicZoneReferenceDataService geographicZoneReferenceDataService;
 
+  @Mock
+  private RequisitionRepository requisitionRepository;
+
   @Test
   public void shouldGetLatestPeriods() {
     // given
@@ -184,25 +194,70 @@ public class ReportingRateDtoBuilderTest {
     assertEquals(zone1, resultList.get(0).getGeographicZone());
   }
 
+  @Test
+  public void shouldFindRequisitionsForAllPeriodsAndZonesInOneQuery() {
+    // given
+    ProgramDto program = new ProgramDto();
+    program.setId(UUID.randomUUID());
+
+    ProcessingPeriodDto period = generateProcessingPeriods(1, null).get(0);
+    period.setName("period");
+    when(periodReferenceDataService.search(any(UUID.class), any(LocalDate.class)))
+        .thenReturn(Collections.singletonList(period));
+
+    GeographicZoneDto zone1 = mockGeographicZoneWithFacility(true);
+    GeographicZoneDto zone2 = mockGeographicZoneWithFacility(true);
+    when(zone1.getName()).thenReturn("zone1");
+    when(zone2.getName()).thenReturn("zone2");
+    when(geographicZoneReferenceDataService.search(GEOGRAPHIC_LEVEL_NUMBER, null))
+        .thenReturn(Arrays.asList(zone2, zone1));
+
+    UUID facilityId = facilityReferenceDataService
+        .search(null, null, zone1.getId(), true).get(0).getId();
+    ZonedDateTime approvedDate = period.getEndDate().atStartOfDay(ZoneId.systemDefault());
+
+    when(requisitionRepository.findReportingRateRequisitions(eq(program.getId()),
+        anyCollectionOf(UUID.class), anyCollectionOf(UUID.class), eq(RequisitionStatus.APPROVED)))
+        .thenReturn(Collections.singletonList(
+            mockRequisition(period.getId(), facilityId, approvedDate)));
+
+    // when
+    ReportingRateReportDto report = builder.build(program, period, null, 10);
+
+    // then
+    verify(requisitionRepository).findReportingRateRequisitions(eq(program.getId()),
+        anyCollectionOf(UUID.class), anyCollectionOf(UUID.class), eq(RequisitionStatus.APPROVED));
+    verifyNoMoreInteractions(requisitionRepository);
+
+    RequisitionCompletionDto byPeriod = report.getCompletionByPeriod().get(0);
+    assertEquals(1, byPeriod.getOnTime());
+    assertEquals(1, byPeriod.getMissed());
+    assertEquals(2, byPeriod.getTotal());
+
+    List<RequisitionCompletionDto> byZone = report.getCompletionByZone();
+    assertEquals(2, byZone.size());
+    assertEquals("zone1", byZone.get(0).getGrouping());
+    assertEquals(1, byZone.get(0).getOnTime());
+    assertEquals("zone2", byZone.get(1).getGrouping());
+    assertEquals(1, byZone.get(1).getMissed());
+  }
+
   @Test
   public void shouldUpdateCompletionsWithRequisitions() {
     // given
     LocalDateTime dueDate = LocalDate.of(1994, 8, 10).atStartOfDay();
     ZoneId zoneId = ZoneId.systemDefault();
 
-    List<Requisition> requisitions = new ArrayList<>();
+    List<ReportingRateRequisitionDto> requisitions = new ArrayList<>();
 
     // on-time requisition
-    requisitions.add(mockRequisitionWithStatusChanges(
-        RequisitionStatus.APPROVED, ZonedDateTime.of(dueDate, zoneId)));
+    requisitions.add(mockRequisition(ZonedDateTime.of(dueDate, zoneId)));
 
     // late requisition
-    requisitions.add(mockRequisitionWithStatusChanges(
-        RequisitionStatus.APPROVED, ZonedDateTime.of(dueDate.plusDays(5), zoneId)));
+    requisitions.add(mockRequisition(ZonedDateTime.of(dueDate.plusDays(5), zoneId)));
 
-    // missed requisition
-    requisitions.add(mockRequisitionWithStatusChanges(
-        RequisitionStatus.SUBMITTED, ZonedDateTime.of(dueDate.minusDays(5), zoneId)));
+    // missed requisition (never approved)
+    requisitions.add(mockRequisition(null));
 
     // when
     ReportingRateReportDtoBuilder.CompletionCounter counter = builder.new CompletionCounter();
@@ -217,7 +272,7 @@ public class ReportingRateDtoBuilderTest {
   @Test
   public void shouldUpdateCompletionsWithMissedIfNoRequisitionsProvided() {
     // given
-    List<Requisition> requisitions = new ArrayList<>();
+    List<ReportingRateRequisitionDto> requisitions = new ArrayList<>();
 
     // when
     ReportingRateReportDtoBuilder.CompletionCounter counter = builder.new CompletionCounter();
@@ -249,17 +304,14 @@ public class ReportingRateDtoBuilderTest {
     return zone;
   }
 
-  private Requisition mockRequisitionWithStatusChanges(
-      RequisitionStatus status, ZonedDateTime date) {
-    StatusChange entry = mock(StatusChange.class);
-    when(entry.getStatus()).thenReturn(status);
-    when(entry.getCreatedDate()).thenReturn(date);
-    List<StatusChange> changes = Collections.singletonList(entry);
-
-    Requisition requisition = mock(Requisition.class);
-    when(requisition.getStatusChanges()).thenReturn(changes);
+  private ReportingRateRequisitionDto mockRequisition(ZonedDateTime statusChangeDate) {
+    return mockRequisition(UUID.randomUUID(), UUID.randomUUID(), statusChangeDate);
+  }
 
-    return requisition;
+  private ReportingRateRequisitionDto mockRequisition(UUID periodId, UUID facilityId,
+      ZonedDateTime statusChangeDate) {
+    return new ReportingRateRequisitionDto(
+        UUID.randomUUID(), periodId, facilityId, statusChangeDate);
   }
 
   private List<ProcessingPeriodDto> generateProcessingPeriods(
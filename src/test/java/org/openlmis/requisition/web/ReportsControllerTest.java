@@ -16,16 +16,30 @@
 package org.openlmis.requisition.web;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.openlmis.requisition.i18n.MessageKeys.ERROR_PRINT_FORMAT_NOT_SUPPORTED;
+import static org.openlmis.requisition.i18n.MessageKeys.ERROR_PRINT_REQUISITION_IDS_MISSING;
+import static org.openlmis.requisition.i18n.MessageKeys.ERROR_PRINT_TOO_MANY_REQUISITIONS;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.UUID;
 import javax.servlet.http.HttpServletRequest;
 import net.sf.jasperreports.engine.JRException;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
@@ -33,15 +47,21 @@ import org.openlmis.requisition.domain.requisition.Requisition;
 import org.openlmis.requisition.errorhandling.ValidationResult;
 import org.openlmis.requisition.exception.ContentNotFoundMessageException;
 import org.openlmis.requisition.exception.JasperReportViewException;
+import org.openlmis.requisition.exception.ValidationMessageException;
 import org.openlmis.requisition.repository.RequisitionRepository;
+import org.openlmis.requisition.service.BulkRequisitionPrintService;
 import org.openlmis.requisition.service.JasperReportsViewService;
 import org.openlmis.requisition.service.JasperTemplateService;
 import org.openlmis.requisition.service.PermissionService;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.servlet.ModelAndView;
 
 @SuppressWarnings({"PMD.UnusedPrivateField"})
 public class ReportsControllerTest {
   private static final String REQUISITION_TEMPLATE_PATH = "jasperTemplates/requisition.jrxml";
+  private static final String PDF = "pdf";
 
   @Mock
   private RequisitionRepository requisitionRepository;
@@ -58,12 +78,19 @@ public class ReportsControllerTest {
   @Mock
   private JasperReportsViewService jasperReportsViewService;
 
+  @Mock
+  private BulkRequisitionPrintService bulkRequisitionPrintService;
+
   @InjectMocks
   private ReportsController reportsController;
 
+  @Rule
+  public final ExpectedException exception = ExpectedException.none();
+
   @Before
   public void setUp() {
     MockitoAnnotations.initMocks(this);
+    ReflectionTestUtils.setField(reportsController, "maxPrintedRequisitions", 2);
   }
 
   @Test(expected = ContentNotFoundMessageException.class)
@@ -95,4 +122,83 @@ public class ReportsControllerTest {
     // then
     assertEquals(result, view);
   }
+
+  @Test
+  public void shouldPrintManyRequisitionsAsPdf() throws Exception {
+    // given
+    List<UUID> ids = Arrays.asList(UUID.randomUUID(), UUID.randomUUID());
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    // when
+    reportsController.printAll(ids, PDF, response);
+
+    // then
+    InOrder order = inOrder(bulkRequisitionPrintService);
+    order.verify(bulkRequisitionPrintService).checkCanPrint(ids);
+    order.verify(bulkRequisitionPrintService).writePdf(ids, response.getOutputStream());
+    assertEquals(MediaType.APPLICATION_PDF_VALUE, response.getContentType());
+  }
+
+  @Test
+  public void shouldPrintManyRequisitionsAsCsvArchive() throws Exception {
+    // given
+    List<UUID> ids = Collections.singletonList(UUID.randomUUID());
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    // when
+    reportsController.printAll(ids, "csv", response);
+
+    // then
+    verify(bulkRequisitionPrintService).checkCanPrint(ids);
+    verify(bulkRequisitionPrintService).writeCsvArchive(ids, response.getOutputStream());
+    assertEquals("application/zip", response.getContentType());
+  }
+
+  @Test
+  public void shouldNotPrintManyRequisitionsInUnsupportedFormat() throws Exception {
+    exception.expect(ValidationMessageException.class);
+    exception.expectMessage(ERROR_PRINT_FORMAT_NOT_SUPPORTED);
+
+    reportsController.printAll(Collections.singletonList(UUID.randomUUID()), "xls",
+        new MockHttpServletResponse());
+  }
+
+  @Test
+  public void shouldNotPrintManyRequisitionsIfNoneIsGiven() throws Exception {
+    exception.expect(ValidationMessageException.class);
+    exception.expectMessage(ERROR_PRINT_REQUISITION_IDS_MISSING);
+
+    reportsController.printAll(Collections.emptyList(), PDF, new MockHttpServletResponse());
+  }
+
+  @Test
+  public void shouldNotPrintMoreRequisitionsThanLimit() throws Exception {
+    exception.expect(ValidationMessageException.class);
+    exception.expectMessage(ERROR_PRINT_TOO_MANY_REQUISITIONS);
+
+    try {
+      reportsController.printAll(
+          Arrays.asList(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()), PDF,
+          new MockHttpServletResponse());
+    } finally {
+      verify(bulkRequisitionPrintService, never()).checkCanPrint(any());
+    }
+  }
+
+  @Test
+  public void shouldNotWriteAnythingIfUserCannotPrintRequisitions() throws Exception {
+    // given
+    List<UUID> ids = Collections.singletonList(UUID.randomUUID());
+    doThrow(new ContentNotFoundMessageException("requisition.not.found"))
+        .when(bulkRequisitionPrintService).checkCanPrint(ids);
+
+    // when
+    try {
+      reportsController.printAll(ids, PDF, new MockHttpServletResponse());
+      fail("Expected ContentNotFoundMessageException");
+    } catch (ContentNotFoundMessageException ex) {
+      // then
+      verify(bulkRequisitionPrintService, never()).writePdf(any(), any());
+    }
+  }
 }
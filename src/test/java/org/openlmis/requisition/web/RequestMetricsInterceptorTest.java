@@ -0,0 +1,133 @@
+/*
+ * This program is part of the OpenLMIS logistics management information system platform software.
+ * Copyright © 2017 VillageReach
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms
+ * of the GNU Affero General Public License as published by the Free Software Foundation, either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details. You should have received a copy of
+ * the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses.  For additional information contact info@OpenLMIS.org.
+ */
+
+package org.openlmis.requisition.web;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.openlmis.requisition.web.RequestMetricsInterceptor.QUERY_COUNTER;
+import static org.openlmis.requisition.web.RequestMetricsInterceptor.REQUEST_TIMER;
+import static org.openlmis.requisition.web.RequestMetricsInterceptor.UNMAPPED_URI;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Before;
+import org.junit.Test;
+import org.openlmis.requisition.metrics.Metrics;
+import org.openlmis.requisition.metrics.MetricsProfiler;
+import org.openlmis.requisition.metrics.QueryCountingStatementInspector;
+import org.openlmis.requisition.metrics.Timer;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+public class RequestMetricsInterceptorTest {
+  private static final String PATTERN = "/api/requisitions/{id}";
+  private static final String METHOD = "method";
+  private static final String URI = "uri";
+  private static final String STATUS = "status";
+
+  private RequestMetricsInterceptor interceptor = new RequestMetricsInterceptor();
+
+  private MockHttpServletRequest request;
+  private MockHttpServletResponse response;
+
+  @Before
+  public void setUp() {
+    Metrics.getRegistry().clear();
+
+    request = new MockHttpServletRequest("GET", "/api/requisitions/1");
+    response = new MockHttpServletResponse();
+  }
+
+  @Test
+  public void shouldRecordRequestByMappingAndStatus() {
+    request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, PATTERN);
+    response.setStatus(404);
+
+    handle(null);
+
+    Timer timer = getRequestTimer();
+    assertThat(timer.getTags().get(METHOD), is("GET"));
+    assertThat(timer.getTags().get(URI), is(PATTERN));
+    assertThat(timer.getTags().get(STATUS), is("404"));
+    assertThat(timer.takeSnapshot().getCount(), is(1L));
+  }
+
+  @Test
+  public void shouldRecordUnmappedRequest() {
+    handle(null);
+
+    assertThat(getRequestTimer().getTags().get(URI), is(UNMAPPED_URI));
+  }
+
+  @Test
+  public void shouldRecordServerErrorIfRequestFailedWithUnhandledException() {
+    handle(new IllegalStateException());
+
+    assertThat(getRequestTimer().getTags().get(STATUS), is("500"));
+  }
+
+  @Test
+  public void shouldNotRecordRequestThatWasNotStarted() {
+    interceptor.afterCompletion(request, response, null, null);
+
+    assertThat(getRequestTimers(), hasSize(0));
+  }
+
+  @Test
+  public void shouldCountQueriesSentWhileHandlingRequest() {
+    request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, PATTERN);
+    QueryCountingStatementInspector inspector = new QueryCountingStatementInspector();
+
+    inspector.inspect("SELECT 1");
+    interceptor.preHandle(request, response, null);
+    inspector.inspect("SELECT 2");
+    inspector.inspect("SELECT 3");
+    interceptor.afterCompletion(request, response, null, null);
+
+    assertThat(Metrics.counter(QUERY_COUNTER, METHOD, "GET", URI, PATTERN).getCount(), is(2L));
+  }
+
+  @Test
+  public void shouldRecordProfilerNotStoppedBecauseRequestFailed() {
+    interceptor.preHandle(request, response, null);
+    new MetricsProfiler("FAILED_OPERATION").start("STAGE");
+    interceptor.afterCompletion(request, response, null, new IllegalStateException());
+
+    assertThat(Metrics.operationTimer("FAILED_OPERATION").takeSnapshot().getCount(), is(1L));
+  }
+
+  private void handle(Exception exception) {
+    interceptor.preHandle(request, response, null);
+    interceptor.afterCompletion(request, response, null, exception);
+  }
+
+  private Timer getRequestTimer() {
+    List<Timer> timers = getRequestTimers();
+    assertThat(timers, hasSize(1));
+
+    return timers.get(0);
+  }
+
+  private List<Timer> getRequestTimers() {
+    return Metrics.getRegistry()
+        .getTimers()
+        .stream()
+        .filter(timer -> REQUEST_TIMER.equals(timer.getName()))
+        .collect(Collectors.toList());
+  }
+}
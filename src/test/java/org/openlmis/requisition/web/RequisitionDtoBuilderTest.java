@@ -19,10 +19,12 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyListOf;
 import static org.mockito.Matchers.anyMap;
 import static org.mockito.Matchers.anySetOf;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -56,13 +58,16 @@ import org.openlmis.requisition.dto.ReasonDto;
 import org.openlmis.requisition.dto.ReasonType;
 import org.openlmis.requisition.dto.RequisitionDto;
 import org.openlmis.requisition.dto.RequisitionLineItemDto;
+import org.openlmis.requisition.dto.SupportedProgramDto;
 import org.openlmis.requisition.service.PeriodService;
 import org.openlmis.requisition.service.referencedata.FacilityReferenceDataService;
 import org.openlmis.requisition.service.referencedata.OrderableReferenceDataService;
 import org.openlmis.requisition.service.referencedata.ProgramReferenceDataService;
 import org.openlmis.requisition.testutils.DtoGenerator;
 import org.openlmis.requisition.testutils.OrderableDtoDataBuilder;
+import org.openlmis.requisition.utils.DateHelper;
 import org.openlmis.requisition.utils.RequisitionExportHelper;
+import org.springframework.test.util.ReflectionTestUtils;
 
 @RunWith(MockitoJUnitRunner.class)
 public class RequisitionDtoBuilderTest {
@@ -137,7 +142,7 @@ public class RequisitionDtoBuilderTest {
     assertEquals(requisition.getId(), requisitionDto.getId());
     assertEquals(requisition.getSupervisoryNodeId(), requisitionDto.getSupervisoryNode());
     assertEquals(requisition.getEmergency(), requisitionDto.getEmergency());
-    assertEquals(facility, requisitionDto.getFacility());
+    assertEquals(withoutSupportedPrograms(facility), requisitionDto.getFacility());
     assertEquals(program, requisitionDto.getProgram());
     assertEquals(processingPeriod, requisitionDto.getProcessingPeriod());
     assertEquals(requisition.getModifiedDate(), requisitionDto.getModifiedDate());
@@ -203,7 +208,7 @@ public class RequisitionDtoBuilderTest {
     assertNotNull(requisitionDto);
     assertEquals(requisition.getId(), requisitionDto.getId());
     assertEquals(requisition.getEmergency(), requisitionDto.getEmergency());
-    assertEquals(facility, requisitionDto.getFacility());
+    assertEquals(withoutSupportedPrograms(facility), requisitionDto.getFacility());
     assertEquals(processingPeriod, requisitionDto.getProcessingPeriod());
     assertEquals(requisition.getModifiedDate(), requisitionDto.getModifiedDate());
     assertEquals(lineItemDtos, requisitionDto.getRequisitionLineItems());
@@ -217,6 +222,34 @@ public class RequisitionDtoBuilderTest {
     assertNull(requisitionDto.getAvailableNonFullSupplyProducts());
   }
 
+  @Test
+  public void shouldNotChangeFacilityThatMayBeSharedWithOtherRequests() {
+    SupportedProgramDto supportedProgram = new SupportedProgramDto();
+    supportedProgram.setId(program.getId());
+    supportedProgram.setProgramActive(true);
+    supportedProgram.setSupportActive(true);
+    supportedProgram.setSupportStartDate(LocalDate.of(2017, 1, 1));
+
+    FacilityDto cachedFacility = DtoGenerator.of(FacilityDto.class, 2, true).get(1);
+    cachedFacility.setSupportedPrograms(Collections.singletonList(supportedProgram));
+
+    DateHelper dateHelper = mock(DateHelper.class);
+    when(dateHelper.isDateBeforeNow(any(LocalDate.class))).thenReturn(true);
+    FacilitySupportsProgramHelper facilitySupportsProgramHelper =
+        new FacilitySupportsProgramHelper();
+    ReflectionTestUtils.setField(facilitySupportsProgramHelper, "dateHelper", dateHelper);
+
+    RequisitionDto requisitionDto = requisitionDtoBuilder
+        .buildBatch(requisition, cachedFacility, Collections.emptyMap(), processingPeriod);
+
+    assertNull(requisitionDto.getFacility().getSupportedPrograms());
+    assertEquals(cachedFacility.getId(), requisitionDto.getFacility().getId());
+
+    facilitySupportsProgramHelper.checkIfFacilitySupportsProgram(cachedFacility, program.getId());
+    assertEquals(supportedProgram, facilitySupportsProgramHelper
+        .getSupportedProgram(cachedFacility, program.getId()));
+  }
+
   @Test
   public void shouldBuildDtoFromRequisitionWhenReferenceDataInstancesDoNotExist() {
     when(facilityReferenceDataService.findOne(facility.getId())).thenReturn(null);
@@ -234,6 +267,13 @@ public class RequisitionDtoBuilderTest {
     assertNull(requisitionDto.getProcessingPeriod());
   }
 
+  private FacilityDto withoutSupportedPrograms(FacilityDto facility) {
+    FacilityDto expected = FacilityDto.newInstance(facility);
+    expected.setSupportedPrograms(null);
+
+    return expected;
+  }
+
   private Requisition buildRequisition() {
     Requisition requisition = new Requisition(facility.getId(), program.getId(),
         processingPeriod.getId(), RequisitionStatus.INITIATED, false);
@@ -16,6 +16,7 @@
 package org.openlmis.requisition.web;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -25,7 +26,9 @@ import static org.powermock.api.mockito.PowerMockito.when;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import org.apache.commons.lang3.tuple.Pair;
 import org.assertj.core.util.Lists;
 import org.junit.Before;
 import org.junit.Test;
@@ -56,67 +59,76 @@ public class RequisitionForConvertBuilderTest {
   }
 
   @Test
-  public void shouldBuildRequisitionsWithDepotsRespectingUserAccessibleDepots() {
+  public void shouldFindSupplyingDepotsRespectingUserAccessibleDepots() {
     //given
     FacilityDto facility1 = mockSupplyingDepot();
     FacilityDto facility2 = mockSupplyingDepot();
     FacilityDto facility3 = mockSupplyingDepot();
 
+    Pair<UUID, UUID> pair1 = Pair.of(UUID.randomUUID(), UUID.randomUUID());
+    Pair<UUID, UUID> pair2 = Pair.of(UUID.randomUUID(), UUID.randomUUID());
+    Pair<UUID, UUID> pair3 = Pair.of(UUID.randomUUID(), UUID.randomUUID());
+
     List<UUID> userManagedDepots = Lists.newArrayList(facility1.getId(), facility2.getId());
-    when(facilityReferenceDataService.searchSupplyingDepots(any(), any()))
-        .thenReturn(Lists.newArrayList(facility1, facility2, facility3))
+    when(facilityReferenceDataService.searchSupplyingDepots(pair1.getLeft(), pair1.getRight()))
+        .thenReturn(Lists.newArrayList(facility1, facility2, facility3));
+    when(facilityReferenceDataService.searchSupplyingDepots(pair2.getLeft(), pair2.getRight()))
         .thenReturn(Lists.newArrayList(facility1, facility3));
-
-    Requisition requisition = mockRequisition();
-    Requisition requisition2 = mockRequisition();
+    when(facilityReferenceDataService.searchSupplyingDepots(pair3.getLeft(), pair3.getRight()))
+        .thenReturn(Lists.newArrayList(facility3));
 
     //when
-    List<RequisitionWithSupplyingDepotsDto> result = requisitionForConvertBuilder
-        .buildRequisitions(Lists.newArrayList(requisition, requisition2), userManagedDepots,
-            Collections.emptyMap(), Collections.emptyMap());
+    Map<Pair<UUID, UUID>, List<FacilityDto>> result = requisitionForConvertBuilder
+        .getUserManagedSupplyingDepots(Lists.newArrayList(pair1, pair2, pair3),
+            userManagedDepots);
 
     //then
-    //we have 2 requisition representations
-    assertEquals(2, result.size());
+    //first pair has 2 supplying depots where user has rights
+    assertEquals(Lists.newArrayList(facility1, facility2), result.get(pair1));
 
-    //first requisition has 2 supplying depots where user has rights
-    assertEquals(2, result.get(0).getSupplyingDepots().size());
+    //second pair has 1 supplying depot where user has right
+    assertEquals(Lists.newArrayList(facility1), result.get(pair2));
 
-    //second requisition has 1 supplying depot where user has right
-    assertEquals(1, result.get(1).getSupplyingDepots().size());
+    //third pair has no supplying depots where user has rights
+    assertFalse(result.containsKey(pair3));
   }
 
   @Test
-  public void shouldGetSupplyingFacilitiesFromCache() {
-    Requisition requisition1 = mockRequisition();
-    Requisition requisition2 = mockRequisition(
-        requisition1.getProgramId(), requisition1.getSupervisoryNodeId());
-    Requisition requisition3 = mockRequisition(
-        requisition1.getProgramId(), requisition1.getSupervisoryNodeId());
+  public void shouldQueryRefDataForSupplyingFacilitiesOncePerPair() {
+    Pair<UUID, UUID> pair1 = Pair.of(UUID.randomUUID(), UUID.randomUUID());
+    Pair<UUID, UUID> pair2 = Pair.of(UUID.randomUUID(), UUID.randomUUID());
 
-    requisitionForConvertBuilder.buildRequisitions(
-        Lists.newArrayList(requisition1, requisition2, requisition3), new ArrayList<>(),
-        Collections.emptyMap(), Collections.emptyMap());
+    requisitionForConvertBuilder.getUserManagedSupplyingDepots(
+        Lists.newArrayList(pair1, pair2), new ArrayList<>());
 
-    // Should hit ref data once and then use cache
-    verify(facilityReferenceDataService, times(1))
+    verify(facilityReferenceDataService, times(2))
         .searchSupplyingDepots(any(UUID.class), any(UUID.class));
     verifyNoMoreInteractions(facilityReferenceDataService);
   }
 
   @Test
-  public void sholdQueryRefDataForSupplyingFacilitiesWhenNoCacheHits() {
-    Requisition requisition1 = mockRequisition();
-    Requisition requisition2 = mockRequisition();
+  public void shouldBuildRequisitionsWithGivenSupplyingDepots() {
+    //given
+    FacilityDto facility = mockSupplyingDepot();
+    Requisition requisition = mockRequisition();
+    Requisition requisition2 = mockRequisition(
+        requisition.getProgramId(), requisition.getSupervisoryNodeId());
     Requisition requisition3 = mockRequisition();
 
-    requisitionForConvertBuilder.buildRequisitions(
-        Lists.newArrayList(requisition1, requisition2, requisition3), new ArrayList<>(),
-        Collections.emptyMap(), Collections.emptyMap());
+    Map<Pair<UUID, UUID>, List<FacilityDto>> supplyingDepots = Collections.singletonMap(
+        Pair.of(requisition.getProgramId(), requisition.getSupervisoryNodeId()),
+        Lists.newArrayList(facility));
 
-    // Should hit ref data three times - for each requisition
-    verify(facilityReferenceDataService, times(3))
-        .searchSupplyingDepots(any(UUID.class), any(UUID.class));
+    //when
+    List<RequisitionWithSupplyingDepotsDto> result = requisitionForConvertBuilder
+        .buildRequisitions(Lists.newArrayList(requisition, requisition2, requisition3),
+            supplyingDepots, Collections.emptyMap(), Collections.emptyMap());
+
+    //then
+    //third requisition has no supplying depots where user has rights
+    assertEquals(2, result.size());
+    assertEquals(Lists.newArrayList(facility), result.get(0).getSupplyingDepots());
+    assertEquals(Lists.newArrayList(facility), result.get(1).getSupplyingDepots());
     verifyNoMoreInteractions(facilityReferenceDataService);
   }
 
@@ -56,6 +56,8 @@ public class RequisitionSearchParamsTest {
   private static final String EMERGENCY = "emergency";
   private static final String MODIFIED_DATE_FROM = "modifiedDateFrom";
   private static final String MODIFIED_DATE_TO = "modifiedDateTo";
+  private static final String CONTINUATION_TOKEN = "continuationToken";
+  private static final String COUNT = "count";
 
   private LinkedMultiValueMap<String, String> queryMap;
   private UUID id = UUID.randomUUID();
@@ -208,6 +210,49 @@ public class RequisitionSearchParamsTest {
     assertNull(params.isEmergency());
   }
 
+  @Test
+  public void shouldGetContinuationTokenValueFromParameters() {
+    queryMap.add(CONTINUATION_TOKEN, "token");
+    RequisitionSearchParams params = new RequisitionSearchParams(queryMap);
+
+    assertEquals("token", params.getContinuationToken());
+  }
+
+  @Test
+  public void shouldGetEmptyContinuationTokenIfParameterHasNoValue() {
+    queryMap.add(CONTINUATION_TOKEN, null);
+    RequisitionSearchParams params = new RequisitionSearchParams(queryMap);
+
+    assertEquals("", params.getContinuationToken());
+  }
+
+  @Test
+  public void shouldGetNullIfMapHasNoContinuationTokenProperty() {
+    RequisitionSearchParams params = new RequisitionSearchParams(queryMap);
+
+    assertNull(params.getContinuationToken());
+  }
+
+  @Test
+  public void shouldGetCountValueFromParameters() {
+    queryMap.add(COUNT, "false");
+    RequisitionSearchParams params = new RequisitionSearchParams(queryMap);
+
+    assertFalse(params.isCount());
+
+    queryMap.set(COUNT, "true");
+    params = new RequisitionSearchParams(queryMap);
+
+    assertTrue(params.isCount());
+  }
+
+  @Test
+  public void shouldCountByDefault() {
+    RequisitionSearchParams params = new RequisitionSearchParams(queryMap);
+
+    assertTrue(params.isCount());
+  }
+
   @Test
   public void shouldGetStartModifiedDateValueFromParameters() {
     queryMap.add(MODIFIED_DATE_FROM, dateTimeString);
@@ -263,6 +308,7 @@ public class RequisitionSearchParamsTest {
     ToStringTestUtils.verify(RequisitionSearchParams.class, params,
         "FACILITY", "PROGRAM", "INITIATED_DATE_FROM", "INITIATED_DATE_TO",
         "MODIFIED_DATE_FROM", "MODIFIED_DATE_TO", "PROCESSING_PERIOD",
-        "SUPERVISORY_NODE", "REQUISITION_STATUS", "EMERGENCY", "ALL_PARAMETERS");
+        "SUPERVISORY_NODE", "REQUISITION_STATUS", "EMERGENCY", "CONTINUATION_TOKEN",
+        "COUNT", "ALL_PARAMETERS");
   }
 }